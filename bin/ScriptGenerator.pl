@@ -63,6 +63,7 @@ getopts(":cguvw");
               "DependencyGraphToUnconfirmedFullyQualifiedNames" => ".xsl.template.txt",
               "DependencyGraphToyEd" => ".xsl.template.txt",
               "DependencyMetrics" => ".cli.template.txt",
+              "DependencyPaths" => ".cli.template.txt",
               "DependencyReporter" => ".cli.template.txt",
               "DependentsToHTML" => ".xsl.template.txt",
               "DependentsToText" => ".xsl.template.txt",
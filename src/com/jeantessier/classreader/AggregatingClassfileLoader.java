@@ -52,12 +52,24 @@ public class AggregatingClassfileLoader extends ClassfileLoaderEventSource {
         this(new DefaultClassfileFactory(), dispatcher);
     }
 
+    public AggregatingClassfileLoader(int threads) {
+        this();
+        setThreads(threads);
+    }
+
+    public AggregatingClassfileLoader(ClassfileLoaderDispatcher dispatcher, int threads) {
+        this(dispatcher);
+        setThreads(threads);
+    }
+
     private AggregatingClassfileLoader(ClassfileFactory factory, ClassfileLoaderDispatcher dispatcher) {
         super(factory, dispatcher);
     }
 
     public Classfile getClassfile(String name) {
-        return classfiles.get(name);
+        synchronized(classfiles) {
+            return classfiles.get(name);
+        }
     }
 
     public Collection<Classfile> getAllClassfiles() {
@@ -71,7 +83,10 @@ public class AggregatingClassfileLoader extends ClassfileLoaderEventSource {
     protected Classfile load(DataInput in) throws IOException {
         Classfile result = getFactory().create(this, in);
 
-        classfiles.put(result.getClassName(), result);
+        // Worker threads may be loading classfiles in parallel
+        synchronized(classfiles) {
+            classfiles.put(result.getClassName(), result);
+        }
 
         return result;
     }
@@ -0,0 +1,163 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.nio.*;
+
+/**
+ *  <p>Reads a <code>.class</code> file straight out of a
+ *  <code>ByteBuffer</code>, such as a memory-mapped file or a whole
+ *  ZIP entry, without the per-byte calls and internal buffers that come
+ *  with a <code>DataInputStream</code>.</p>
+ *
+ *  <p>Reading starts at the buffer's current position and moves it
+ *  forward.  Running past the buffer's limit throws an
+ *  <code>EOFException</code>.</p>
+ */
+public class ByteBufferDataInput implements DataInput {
+    private ByteBuffer buffer;
+
+    public ByteBufferDataInput(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    public void readFully(byte[] b) throws IOException {
+        readFully(b, 0, b.length);
+    }
+
+    public void readFully(byte[] b, int off, int len) throws IOException {
+        require(len);
+        buffer.get(b, off, len);
+    }
+
+    public int skipBytes(int n) throws IOException {
+        int result = Math.max(0, Math.min(n, buffer.remaining()));
+        buffer.position(buffer.position() + result);
+        return result;
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public byte readByte() throws IOException {
+        require(1);
+        return buffer.get();
+    }
+
+    public int readUnsignedByte() throws IOException {
+        return readByte() & 0xFF;
+    }
+
+    public short readShort() throws IOException {
+        require(2);
+        return buffer.getShort();
+    }
+
+    public int readUnsignedShort() throws IOException {
+        return readShort() & 0xFFFF;
+    }
+
+    public char readChar() throws IOException {
+        require(2);
+        return buffer.getChar();
+    }
+
+    public int readInt() throws IOException {
+        require(4);
+        return buffer.getInt();
+    }
+
+    public long readLong() throws IOException {
+        require(8);
+        return buffer.getLong();
+    }
+
+    public float readFloat() throws IOException {
+        require(4);
+        return buffer.getFloat();
+    }
+
+    public double readDouble() throws IOException {
+        require(8);
+        return buffer.getDouble();
+    }
+
+    /**
+     *  Same as <code>DataInputStream.readLine()</code>: each byte is one
+     *  character and the line ends with <code>\n</code>, <code>\r</code>,
+     *  <code>\r\n</code>, or the end of the buffer.
+     */
+    public String readLine() throws IOException {
+        String result = null;
+
+        if (buffer.hasRemaining()) {
+            StringBuffer line = new StringBuffer();
+
+            boolean endOfLine = false;
+            while (!endOfLine && buffer.hasRemaining()) {
+                int c = buffer.get() & 0xFF;
+                if (c == '\n') {
+                    endOfLine = true;
+                } else if (c == '\r') {
+                    endOfLine = true;
+                    if (buffer.hasRemaining() && buffer.get(buffer.position()) == '\n') {
+                        buffer.get();
+                    }
+                } else {
+                    line.append((char) c);
+                }
+            }
+
+            result = line.toString();
+        }
+
+        return result;
+    }
+
+    public String readUTF() throws IOException {
+        return DataInputStream.readUTF(this);
+    }
+
+    private void require(int length) throws EOFException {
+        if (buffer.remaining() < length) {
+            throw new EOFException();
+        }
+    }
+}
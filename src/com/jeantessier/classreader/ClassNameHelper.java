@@ -32,13 +32,10 @@
 
 package com.jeantessier.classreader;
 
-import org.apache.oro.text.perl.*;
-
 public class ClassNameHelper {
-    public static final Perl5Util perl = new Perl5Util();
-
     public static String path2ClassName(String path) {
-        return perl.substitute("s/\\//./g", path);
+        // Not using a shared Perl5Util since classfiles can be parsed in parallel
+        return path.replace('/', '.');
     }
 
     public static String convertClassName(String type) {
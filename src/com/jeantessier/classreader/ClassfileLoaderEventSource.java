@@ -35,10 +35,37 @@ package com.jeantessier.classreader;
 import org.apache.log4j.Logger;
 
 import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
 import java.util.*;
-
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+/**
+ *  <p>Source of {@link LoadEvent}s for a stack of {@link ClassfileLoader}
+ *  decorators.</p>
+ *
+ *  <p>By default, it parses <code>.class</code> files one at a time on the
+ *  calling thread.  If you give it more than one thread, it parses the
+ *  <code>.class</code> files inside a group on a pool of worker threads
+ *  while the calling thread keeps reading the group's entries.</p>
+ *
+ *  <p>With ordered delivery, the default, events are queued and delivered
+ *  on the calling thread in the same order as with a single thread, so
+ *  listeners do not need to be thread-safe.  With unordered delivery,
+ *  <code>endClassfile</code> events are delivered from the worker threads
+ *  as soon as each <code>.class</code> file is parsed and listeners must be
+ *  thread-safe.  In both cases, <code>endGroup</code> comes after all the
+ *  group's <code>endClassfile</code> events.</p>
+ */
 public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
     public static final ClassfileLoaderDispatcher DEFAULT_DISPATCHER = new PermissiveDispatcher();
+    public static final int DEFAULT_THREADS = 1;
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final long MAPPING_THRESHOLD = 64 * 1024;
+    private static final int MAXIMUM_PENDING_EVENTS_PER_THREAD = 128;
+    private static final long WORKER_KEEP_ALIVE_SECONDS = 1;
     
     private ClassfileFactory factory;
     private ClassfileLoaderDispatcher dispatcher;
@@ -53,6 +80,14 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
     private LinkedList<Integer> groupSizes = new LinkedList<Integer>();
 
     private ClassfileLoaderAction previousDispatch;
+
+    private int threads = DEFAULT_THREADS;
+    private boolean orderedDelivery = true;
+    private ExecutorService executor;
+    private LinkedList<PendingLoadEvent> pendingEvents = new LinkedList<PendingLoadEvent>();
+    private LinkedList<PendingLoadEvent> outstandingParses = new LinkedList<PendingLoadEvent>();
+
+    private ExtractionCache extractionCache;
     
     public ClassfileLoaderEventSource(ClassfileFactory factory) {
         this(factory, DEFAULT_DISPATCHER);
@@ -67,6 +102,73 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
         return factory;
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     *  Sets how many worker threads parse <code>.class</code> files.  A value
+     *  of <code>1</code> parses them on the calling thread, as before.
+     *
+     *  @throws IllegalArgumentException if <code>threads</code> is less than 1.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be at least 1, was " + threads);
+        }
+
+        if (this.threads != threads && executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+
+        this.threads = threads;
+    }
+
+    public boolean isOrderedDelivery() {
+        return orderedDelivery;
+    }
+
+    /**
+     *  With unordered delivery, <code>endClassfile</code> events reach the
+     *  listeners from the worker threads, in whatever order the parsing
+     *  finishes.  Listeners must then be thread-safe.
+     */
+    public void setOrderedDelivery(boolean orderedDelivery) {
+        this.orderedDelivery = orderedDelivery;
+    }
+
+    public ExtractionCache getExtractionCache() {
+        return extractionCache;
+    }
+
+    /**
+     *  With a cache, <code>.class</code> files whose results it already has
+     *  are not parsed at all.
+     */
+    public void setExtractionCache(ExtractionCache extractionCache) {
+        this.extractionCache = extractionCache;
+    }
+
+    private boolean isParallel() {
+        return threads > 1 && !groupNames.isEmpty();
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            // Idle workers die off so a forgotten loader does not keep the JVM alive.
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, WORKER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+
+        return executor;
+    }
+
+    private int getMaximumPendingEvents() {
+        return threads * MAXIMUM_PENDING_EVENTS_PER_THREAD;
+    }
+
     protected void load(String filename) {
         ClassfileLoaderAction dispatch = dispatcher.dispatch(filename);
 
@@ -128,12 +230,10 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
 
             case CLASS:
                 Logger.getLogger(getClass()).debug("CLASS \"" + filename + "\"");
-                try {
-                    fireBeginClassfile(filename);
-                    Classfile classfile = load(new DataInputStream(in));
-                    fireEndClassfile(filename, classfile);
-                } catch (Exception ex) {
-                    Logger.getLogger(getClass()).warn("Cannot load class from file \"" + filename + "\"", ex);
+                if (isParallel()) {
+                    loadInBackground(filename, in);
+                } else {
+                    loadInForeground(filename, in);
                 }
                 break;
                 
@@ -143,6 +243,143 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
         }
     }
 
+    private void loadInForeground(String filename, InputStream in) {
+        try {
+            ByteBuffer bytes = readBuffer(in);
+            long fingerprint = fingerprint(bytes);
+
+            if (!replay(filename, fingerprint)) {
+                fireBeginClassfile(filename);
+                Classfile classfile = load(new ByteBufferDataInput(bytes));
+                record(filename, fingerprint, classfile);
+                fireEndClassfile(filename, classfile);
+            }
+        } catch (Exception ex) {
+            Logger.getLogger(getClass()).warn("Cannot load class from file \"" + filename + "\"", ex);
+        }
+    }
+
+    /**
+     *  Reads the <code>.class</code> file on the calling thread, since the
+     *  stream belongs to the enclosing group, and hands the bytes to a
+     *  worker thread for parsing.
+     */
+    private void loadInBackground(String filename, InputStream in) {
+        try {
+            ByteBuffer bytes = readBuffer(in);
+            long fingerprint = fingerprint(bytes);
+
+            if (replay(filename, fingerprint)) {
+                return;
+            }
+
+            fireBeginClassfile(filename);
+
+            String groupName = getTopGroupName();
+            Future<Classfile> classfile = getExecutor().submit(new ClassfileParsingTask(this, groupName, filename, bytes, fingerprint));
+            PendingLoadEvent pendingEvent = new PendingLoadEvent(this, groupName, filename, classfile);
+
+            if (isOrderedDelivery()) {
+                Logger.getLogger(getClass()).debug("End classfile \"" + filename + "\": pending");
+                schedule(pendingEvent);
+            } else {
+                outstandingParses.addLast(pendingEvent);
+                awaitOutstandingParses(getMaximumPendingEvents());
+            }
+        } catch (Exception ex) {
+            Logger.getLogger(getClass()).warn("Cannot load class from file \"" + filename + "\"", ex);
+        }
+    }
+
+    /**
+     *  Size in the upper 32 bits, CRC-32 in the lower 32 bits.  Only
+     *  computed when there is a cache to look it up in.
+     */
+    private long fingerprint(ByteBuffer bytes) {
+        long result = 0;
+
+        if (getExtractionCache() != null) {
+            CRC32 crc = new CRC32();
+            crc.update(bytes.duplicate());
+            result = ((long) bytes.remaining() << 32) | crc.getValue();
+        }
+
+        return result;
+    }
+
+    private boolean replay(String filename, long fingerprint) {
+        boolean result = getExtractionCache() != null && getExtractionCache().replay(filename, fingerprint);
+
+        if (result) {
+            Logger.getLogger(getClass()).debug("Replayed \"" + filename + "\" from cache");
+        }
+
+        return result;
+    }
+
+    void record(String filename, long fingerprint, Classfile classfile) {
+        if (getExtractionCache() != null) {
+            getExtractionCache().record(filename, fingerprint, classfile);
+        }
+    }
+
+    /**
+     *  Takes the buffer as is when a decorator already has the whole file
+     *  in memory.  Files from a directory are only read once the dispatcher
+     *  has decided to parse them: large ones are mapped in memory and small
+     *  ones, which is most <code>.class</code> files, are read in a single
+     *  call.
+     */
+    private ByteBuffer readBuffer(InputStream in) throws IOException {
+        ByteBuffer result;
+
+        if (in instanceof ByteBufferInputStream) {
+            result = ((ByteBufferInputStream) in).takeBuffer();
+        } else if (in instanceof FileInputStream) {
+            result = readBuffer(((FileInputStream) in).getChannel());
+        } else {
+            result = ByteBuffer.wrap(readBytes(in));
+        }
+
+        return result;
+    }
+
+    /**
+     *  Leaves the channel open, it belongs to the decorator that opened the
+     *  file.  Files too large for a single buffer are streamed instead.
+     */
+    private ByteBuffer readBuffer(FileChannel channel) throws IOException {
+        ByteBuffer result;
+
+        long size = channel.size() - channel.position();
+
+        if (size > Integer.MAX_VALUE) {
+            result = ByteBuffer.wrap(readBytes(Channels.newInputStream(channel)));
+        } else if (size >= MAPPING_THRESHOLD) {
+            result = channel.map(FileChannel.MapMode.READ_ONLY, channel.position(), size);
+        } else {
+            result = ByteBuffer.allocate((int) size);
+            while (result.hasRemaining() && channel.read(result) != -1) {
+                // Keep reading
+            }
+            result.flip();
+        }
+
+        return result;
+    }
+
+    private byte[] readBytes(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int bytesRead;
+        while ((bytesRead = in.read(buffer, 0, BUFFER_SIZE)) != -1) {
+            out.write(buffer, 0, bytesRead);
+        }
+        out.close();
+
+        return out.toByteArray();
+    }
+
     public void addLoadListener(LoadListener listener) {
         synchronized(loadListeners) {
             loadListeners.add(listener);
@@ -160,14 +397,7 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
         
         LoadEvent event = new LoadEvent(this, null, null, null);
 
-        HashSet<LoadListener> listeners;
-        synchronized(loadListeners) {
-            listeners = (HashSet<LoadListener>) loadListeners.clone();
-        }
-
-        for (LoadListener listener : listeners) {
-            listener.beginSession(event);
-        }
+        schedule(new PendingLoadEvent(LoadEventType.BEGIN_SESSION, event));
     }
 
     protected void fireBeginGroup(String groupName, int size) {
@@ -175,14 +405,7 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
 
         LoadEvent event = new LoadEvent(this, groupName, size);
 
-        HashSet<LoadListener> listeners;
-        synchronized(loadListeners) {
-            listeners = (HashSet<LoadListener>) loadListeners.clone();
-        }
-
-        for (LoadListener listener : listeners) {
-            listener.beginGroup(event);
-        }
+        schedule(new PendingLoadEvent(LoadEventType.BEGIN_GROUP, event));
 
         pushGroupName(groupName);
         pushGroupSize(size);
@@ -193,14 +416,7 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
         
         LoadEvent event = new LoadEvent(this, getTopGroupName(), filename, null);
 
-        HashSet<LoadListener> listeners;
-        synchronized(loadListeners) {
-            listeners = (HashSet<LoadListener>) loadListeners.clone();
-        }
-
-        for (LoadListener listener : listeners) {
-            listener.beginFile(event);
-        }
+        schedule(new PendingLoadEvent(LoadEventType.BEGIN_FILE, event));
     }
     
     protected void fireBeginClassfile(String filename) {
@@ -208,14 +424,7 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
         
         LoadEvent event = new LoadEvent(this, getTopGroupName(), filename, null);
 
-        HashSet<LoadListener> listeners;
-        synchronized(loadListeners) {
-            listeners = (HashSet<LoadListener>) loadListeners.clone();
-        }
-
-        for (LoadListener listener : listeners) {
-            listener.beginClassfile(event);
-        }
+        schedule(new PendingLoadEvent(LoadEventType.BEGIN_CLASSFILE, event));
     }
 
     protected void fireEndClassfile(String filename, Classfile classfile) {
@@ -223,14 +432,7 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
         
         LoadEvent event = new LoadEvent(this, getTopGroupName(), filename, classfile);
 
-        HashSet<LoadListener> listeners;
-        synchronized(loadListeners) {
-            listeners = (HashSet<LoadListener>) loadListeners.clone();
-        }
-
-        for (LoadListener listener : listeners) {
-            listener.endClassfile(event);
-        }
+        schedule(new PendingLoadEvent(LoadEventType.END_CLASSFILE, event));
     }
 
     protected void fireEndFile(String filename) {
@@ -238,14 +440,7 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
         
         LoadEvent event = new LoadEvent(this, getTopGroupName(), filename, null);
 
-        HashSet<LoadListener> listeners;
-        synchronized(loadListeners) {
-            listeners = (HashSet<LoadListener>) loadListeners.clone();
-        }
-
-        for (LoadListener listener : listeners) {
-            listener.endFile(event);
-        }
+        schedule(new PendingLoadEvent(LoadEventType.END_FILE, event));
     }
 
     protected void fireEndGroup(String groupName) {
@@ -253,17 +448,15 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
         
         LoadEvent event = new LoadEvent(this, groupName, null, null);
 
-        HashSet<LoadListener> listeners;
-        synchronized(loadListeners) {
-            listeners = (HashSet<LoadListener>) loadListeners.clone();
-        }
-
-        for (LoadListener listener : listeners) {
-            listener.endGroup(event);
-        }
+        awaitOutstandingParses(0);
+        schedule(new PendingLoadEvent(LoadEventType.END_GROUP, event));
 
         popGroupName();
         popGroupSize();
+
+        if (groupNames.isEmpty()) {
+            deliverPendingEvents(0);
+        }
     }
 
     protected void fireEndSession() {
@@ -271,13 +464,110 @@ public abstract class ClassfileLoaderEventSource extends ClassfileLoader {
         
         LoadEvent event = new LoadEvent(this, null, null, null);
 
+        awaitOutstandingParses(0);
+        schedule(new PendingLoadEvent(LoadEventType.END_SESSION, event));
+        deliverPendingEvents(0);
+    }
+
+    private void schedule(PendingLoadEvent pendingEvent) {
+        pendingEvents.addLast(pendingEvent);
+        deliverPendingEvents(isParallel() ? getMaximumPendingEvents() : 0);
+    }
+
+    /**
+     *  Delivers events from the head of the queue for as long as they are
+     *  ready, and then some more, blocking if need be, until no more than
+     *  <code>maximumPendingEvents</code> remain in the queue.
+     */
+    private void deliverPendingEvents(int maximumPendingEvents) {
+        while (!pendingEvents.isEmpty() && (pendingEvents.size() > maximumPendingEvents || pendingEvents.getFirst().isReady())) {
+            PendingLoadEvent pendingEvent = pendingEvents.removeFirst();
+
+            LoadEvent event = null;
+            try {
+                event = pendingEvent.getEvent();
+            } catch (InterruptedException ex) {
+                Logger.getLogger(getClass()).warn("Interrupted while loading class from file \"" + pendingEvent.getFilename() + "\"", ex);
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException ex) {
+                Logger.getLogger(getClass()).warn("Cannot load class from file \"" + pendingEvent.getFilename() + "\"", ex.getCause());
+            }
+
+            if (event != null) {
+                deliver(pendingEvent.getType(), event);
+            }
+        }
+    }
+
+    private void awaitOutstandingParses(int maximumOutstandingParses) {
+        Iterator<PendingLoadEvent> i = outstandingParses.iterator();
+        while (i.hasNext()) {
+            PendingLoadEvent pendingEvent = i.next();
+            if (pendingEvent.isReady()) {
+                i.remove();
+                awaitParse(pendingEvent);
+            }
+        }
+
+        while (outstandingParses.size() > maximumOutstandingParses) {
+            awaitParse(outstandingParses.removeFirst());
+        }
+    }
+
+    private void awaitParse(PendingLoadEvent pendingEvent) {
+        try {
+            pendingEvent.getEvent();
+        } catch (InterruptedException ex) {
+            Logger.getLogger(getClass()).warn("Interrupted while loading class from file \"" + pendingEvent.getFilename() + "\"", ex);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            Logger.getLogger(getClass()).warn("Cannot load class from file \"" + pendingEvent.getFilename() + "\"", ex.getCause());
+        }
+    }
+
+    /**
+     *  Called from worker threads for unordered delivery.
+     */
+    void deliver(LoadEventType type, LoadEvent event) {
         HashSet<LoadListener> listeners;
         synchronized(loadListeners) {
             listeners = (HashSet<LoadListener>) loadListeners.clone();
         }
 
         for (LoadListener listener : listeners) {
-            listener.endSession(event);
+            switch (type) {
+                case BEGIN_SESSION:
+                    listener.beginSession(event);
+                    break;
+
+                case BEGIN_GROUP:
+                    listener.beginGroup(event);
+                    break;
+
+                case BEGIN_FILE:
+                    listener.beginFile(event);
+                    break;
+
+                case BEGIN_CLASSFILE:
+                    listener.beginClassfile(event);
+                    break;
+
+                case END_CLASSFILE:
+                    listener.endClassfile(event);
+                    break;
+
+                case END_FILE:
+                    listener.endFile(event);
+                    break;
+
+                case END_GROUP:
+                    listener.endGroup(event);
+                    break;
+
+                case END_SESSION:
+                    listener.endSession(event);
+                    break;
+            }
         }
     }
 
@@ -0,0 +1,72 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader;
+
+import java.nio.*;
+import java.util.concurrent.*;
+
+/**
+ *  Parses a classfile on one of {@link ClassfileLoaderEventSource}'s worker
+ *  threads.  With unordered delivery, it also delivers the
+ *  <code>endClassfile</code> event from the worker thread.
+ */
+class ClassfileParsingTask implements Callable<Classfile> {
+    private ClassfileLoaderEventSource loader;
+    private String groupName;
+    private String filename;
+    private ByteBuffer bytes;
+    private long fingerprint;
+
+    public ClassfileParsingTask(ClassfileLoaderEventSource loader, String groupName, String filename, ByteBuffer bytes, long fingerprint) {
+        this.loader = loader;
+        this.groupName = groupName;
+        this.filename = filename;
+        this.bytes = bytes;
+        this.fingerprint = fingerprint;
+    }
+
+    public Classfile call() throws Exception {
+        Classfile result = loader.load(new ByteBufferDataInput(bytes));
+
+        // Let go of the raw bytes as soon as possible
+        bytes = null;
+
+        loader.record(filename, fingerprint, result);
+
+        if (!loader.isOrderedDelivery()) {
+            loader.deliver(LoadEventType.END_CLASSFILE, new LoadEvent(loader, groupName, filename, result));
+        }
+
+        return result;
+    }
+}
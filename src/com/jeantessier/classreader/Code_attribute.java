@@ -39,6 +39,14 @@ public interface Code_attribute extends Attribute_info, Iterable<Instruction> {
     public int getMaxLocals();
     public byte[] getCode();
     public Iterator<Instruction> iterator();
+
+    /**
+     *  Iterates over the bytecode like {@link #iterator()}, but returns the
+     *  same {@link Instruction} each time, moved to the next opcode.  Callers
+     *  must not hold on to an instruction past the next call to
+     *  <code>next()</code>.
+     */
+    public Iterator<Instruction> instructionCursor();
     public Collection<? extends ExceptionHandler> getExceptionHandlers();
     public Collection<? extends Attribute_info> getAttributes();
 }
@@ -0,0 +1,56 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+/**
+ *  <p>Remembers what was extracted from each <code>.class</code> file so a
+ *  later run can skip parsing the ones that did not change.</p>
+ *
+ *  <p>{@link ClassfileLoaderEventSource} identifies a <code>.class</code>
+ *  file by its name and a fingerprint of its content: its size in the
+ *  upper 32 bits and its CRC-32 in the lower 32 bits.  When
+ *  {@link #replay} returns <code>true</code>, the loader does not parse the
+ *  file and fires no <code>beginClassfile</code> or
+ *  <code>endClassfile</code> event for it.  Otherwise, it parses the file
+ *  and passes the result to {@link #record} before firing
+ *  <code>endClassfile</code>.</p>
+ *
+ *  <p>The loader calls <code>replay</code> on the thread that called
+ *  <code>load</code>.  It can call <code>record</code> from worker threads
+ *  if it is parsing in parallel.</p>
+ */
+public interface ExtractionCache {
+    public boolean replay(String filename, long fingerprint);
+    public void record(String filename, long fingerprint, Classfile classfile);
+}
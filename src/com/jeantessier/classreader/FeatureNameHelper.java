@@ -0,0 +1,109 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+/**
+ *  Splits fully qualified feature names, such as <code>a.A.m(int)</code> or
+ *  <code>a.A.f</code>, into their class and member parts.
+ *
+ *  <p>This is a plain scan of the name, equivalent to the regular expressions
+ *  <code>/^(.*)\.([^\.]*)\(.*\)$/</code> and <code>/^(.*)\.([^\.]*)$/</code>,
+ *  without the cost of a matcher.  Dots inside the parameter list, as in
+ *  <code>a.A.m(java.lang.String)</code>, do not count as separators.</p>
+ */
+public final class FeatureNameHelper {
+    private static final String STATIC_INITIALIZER = "static {}";
+
+    private FeatureNameHelper() {
+        // Prevent instantiation
+    }
+
+    /**
+     *  @return the position of the dot between the class name and the
+     *          member name, or <code>-1</code> if there is none.
+     */
+    public static int getSeparatorIndex(String featureName) {
+        int result = -1;
+
+        int length = featureName.length();
+        if (length > 0 && featureName.charAt(length - 1) == ')') {
+            int paren = featureName.lastIndexOf('(', length - 2);
+            if (paren > 0) {
+                result = featureName.lastIndexOf('.', paren - 1);
+            }
+        }
+
+        if (result == -1) {
+            result = featureName.lastIndexOf('.');
+        }
+
+        return result;
+    }
+
+    public static String getClassName(String featureName) {
+        String result = "";
+
+        int pos = getSeparatorIndex(featureName);
+        if (pos != -1) {
+            result = featureName.substring(0, pos);
+        }
+
+        return result;
+    }
+
+    /**
+     *  @return the member name without its parameter list, or the empty
+     *          string if the name is not qualified.  The static initializer
+     *          <code>a.A.static {}</code> yields <code>static</code>.
+     */
+    public static String getMemberName(String featureName) {
+        String result = "";
+
+        int pos = getSeparatorIndex(featureName);
+        if (pos != -1) {
+            int end = featureName.length();
+            if (featureName.charAt(end - 1) == ')') {
+                int paren = featureName.lastIndexOf('(', end - 2);
+                if (paren > pos) {
+                    end = paren;
+                }
+            } else if (featureName.endsWith(STATIC_INITIALIZER) && end - pos - 1 == STATIC_INITIALIZER.length()) {
+                end = pos + 1 + STATIC_INITIALIZER.indexOf(' ');
+            }
+            result = featureName.substring(pos + 1, end);
+        }
+
+        return result;
+    }
+}
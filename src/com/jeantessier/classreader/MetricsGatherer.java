@@ -445,6 +445,17 @@ public class MetricsGatherer extends VisitorBase {
     }
 
     // Attribute helpers
+    /**
+     *  Only counts opcodes, so it can walk the bytecode with a single
+     *  reused instruction.
+     */
+    protected void visitInstructions(Code_attribute attribute) {
+        Iterator<Instruction> i = attribute.instructionCursor();
+        while (i.hasNext()) {
+            i.next().accept(this);
+        }
+    }
+
     public void visitInstruction(Instruction helper) {
         getInstructionCounts()[helper.getOpcode()]++;
 
@@ -43,7 +43,7 @@ import com.google.common.collect.*;
  * TODO Class comments
  */
 public class Monitor extends LoadListenerVisitorAdapter {
-    private RemoveVisitor removeVisitor;
+    private Collection<RemoveVisitor> removeVisitors = Lists.newArrayList();
     
     private Map<String, String> fileToClass = Maps.newHashMap();
     private boolean closedSession = true;
@@ -57,7 +57,15 @@ public class Monitor extends LoadListenerVisitorAdapter {
     public Monitor(Visitor addVisitor, RemoveVisitor removeVisitor) {
         super(addVisitor);
 
-        this.removeVisitor = removeVisitor;
+        addRemoveVisitor(removeVisitor);
+    }
+
+    /**
+     * Also tells <code>removeVisitor</code> about the classes this monitor
+     * removes, such as an index that must forget them.
+     */
+    public void addRemoveVisitor(RemoveVisitor removeVisitor) {
+        removeVisitors.add(removeVisitor);
     }
 
     public boolean isClosedSession() {
@@ -83,7 +91,7 @@ public class Monitor extends LoadListenerVisitorAdapter {
         
         if (previousFiles.contains(event.getFilename())) {
             Logger.getLogger(getClass()).debug("Removing " + event.getClassfile() + " ...");
-            removeVisitor.removeClass(event.getClassfile().getClassName());
+            removeClass(event.getClassfile().getClassName());
         }
         
         super.endClassfile(event);
@@ -110,6 +118,12 @@ public class Monitor extends LoadListenerVisitorAdapter {
         for (String previousFile : previousFiles) {
             String classname = fileToClass.get(previousFile);
             Logger.getLogger(getClass()).debug("Removing " + classname + " ...");
+            removeClass(classname);
+        }
+    }
+
+    private void removeClass(String classname) {
+        for (RemoveVisitor removeVisitor : removeVisitors) {
             removeVisitor.removeClass(classname);
         }
     }
@@ -0,0 +1,83 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.util.*;
+
+/**
+ *  How much of a classfile the loaders decode.
+ *
+ *  <p>{@link #DEPENDENCY_SCAN} keeps what
+ *  {@link com.jeantessier.dependency.CodeDependencyCollector} looks at:
+ *  signatures, bytecode, exception handlers, annotations, and the
+ *  attributes that name other classes.  It skips over debug information
+ *  and unknown attributes, and it decodes the constant pool lazily so
+ *  that entries only referenced from skipped attributes are never
+ *  materialized.</p>
+ */
+public enum ParsingProfile {
+    FULL(false, false),
+
+    DEPENDENCY_SCAN(true, true,
+                    AttributeType.SOURCE_FILE,
+                    AttributeType.SOURCE_DEBUG_EXTENSION,
+                    AttributeType.LINE_NUMBER_TABLE,
+                    AttributeType.LOCAL_VARIABLE_TABLE,
+                    AttributeType.LOCAL_VARIABLE_TYPE_TABLE);
+
+    private final boolean lazyConstantPool;
+    private final boolean skippingCustomAttributes;
+    private final Set<String> skippedAttributeNames;
+
+    ParsingProfile(boolean lazyConstantPool, boolean skippingCustomAttributes, AttributeType ... skippedAttributeTypes) {
+        this.lazyConstantPool = lazyConstantPool;
+        this.skippingCustomAttributes = skippingCustomAttributes;
+        this.skippedAttributeNames = new HashSet<String>();
+        for (AttributeType attributeType : skippedAttributeTypes) {
+            this.skippedAttributeNames.add(attributeType.getAttributeName());
+        }
+    }
+
+    public boolean isLazyConstantPool() {
+        return lazyConstantPool;
+    }
+
+    public boolean isSkippingCustomAttributes() {
+        return skippingCustomAttributes;
+    }
+
+    public boolean isSkipped(String attributeName) {
+        return skippedAttributeNames.contains(attributeName);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader;
+
+import java.util.concurrent.*;
+
+/**
+ *  A {@link LoadEvent} waiting in {@link ClassfileLoaderEventSource}'s queue
+ *  until it can be delivered in order.  <code>endClassfile</code> events wait
+ *  on the worker thread that is parsing their classfile.
+ */
+class PendingLoadEvent {
+    private LoadEventType type;
+    private LoadEvent event;
+
+    private Object source;
+    private String groupName;
+    private String filename;
+    private Future<Classfile> classfile;
+
+    public PendingLoadEvent(LoadEventType type, LoadEvent event) {
+        this.type = type;
+        this.event = event;
+    }
+
+    public PendingLoadEvent(Object source, String groupName, String filename, Future<Classfile> classfile) {
+        this.type = LoadEventType.END_CLASSFILE;
+        this.source = source;
+        this.groupName = groupName;
+        this.filename = filename;
+        this.classfile = classfile;
+    }
+
+    public LoadEventType getType() {
+        return type;
+    }
+
+    public String getFilename() {
+        return (event != null) ? event.getFilename() : filename;
+    }
+
+    public boolean isReady() {
+        return event != null || classfile.isDone();
+    }
+
+    /**
+     *  Blocks until the classfile, if any, has been parsed.
+     *
+     *  @throws ExecutionException if the classfile could not be parsed.
+     */
+    public LoadEvent getEvent() throws InterruptedException, ExecutionException {
+        if (event == null) {
+            event = new LoadEvent(source, groupName, filename, classfile.get());
+        }
+
+        return event;
+    }
+}
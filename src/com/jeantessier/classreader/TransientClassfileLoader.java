@@ -50,6 +50,29 @@ public class TransientClassfileLoader extends ClassfileLoaderEventSource {
         this(new DefaultClassfileFactory(), dispatcher);
     }
 
+    public TransientClassfileLoader(ParsingProfile profile) {
+        this(new DefaultClassfileFactory(profile));
+    }
+
+    public TransientClassfileLoader(ParsingProfile profile, int threads) {
+        this(profile);
+        setThreads(threads);
+    }
+
+    public TransientClassfileLoader(ClassfileLoaderDispatcher dispatcher, ParsingProfile profile) {
+        this(new DefaultClassfileFactory(profile), dispatcher);
+    }
+
+    public TransientClassfileLoader(int threads) {
+        this();
+        setThreads(threads);
+    }
+
+    public TransientClassfileLoader(ClassfileLoaderDispatcher dispatcher, int threads) {
+        this(dispatcher);
+        setThreads(threads);
+    }
+
     private TransientClassfileLoader(ClassfileFactory factory, ClassfileLoaderDispatcher dispatcher) {
         super(factory, dispatcher);
     }
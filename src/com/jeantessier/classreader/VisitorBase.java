@@ -32,11 +32,13 @@
 
 package com.jeantessier.classreader;
 
-import org.apache.log4j.Logger;
+import com.jeantessier.log.Trace;
 
 import java.util.Collection;
 
 public abstract class VisitorBase implements Visitor {
+    private static final Trace trace = Trace.getTrace(VisitorBase.class);
+
     private int currentCount;
 
     protected void resetCount() {
@@ -171,20 +173,26 @@ public abstract class VisitorBase implements Visitor {
     }
 
     public void visitCode_attribute(Code_attribute attribute) {
-        Logger.getLogger(getClass()).debug("Visiting instruction(s) ...");
+        trace().debug("Visiting instruction(s) ...");
         visitInstructions(attribute);
 
         Collection<? extends ExceptionHandler> exceptionHandlers = attribute.getExceptionHandlers();
-        Logger.getLogger(getClass()).debug("Visiting " + exceptionHandlers.size() + " exception handler(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Visiting " + exceptionHandlers.size() + " exception handler(s) ...");
+        }
         visitExceptionHandlers(exceptionHandlers);
 
         Collection<? extends Attribute_info> attributes = attribute.getAttributes();
-        Logger.getLogger(getClass()).debug("Visiting " + attributes.size() + " code attribute(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Visiting " + attributes.size() + " code attribute(s) ...");
+        }
         visitAttributes(attributes);
     }
 
     public void visitExceptions_attribute(Exceptions_attribute attribute) {
-        Logger.getLogger(getClass()).debug("Visiting " + attribute.getExceptions().size() + " exception class(es) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Visiting " + attribute.getExceptions().size() + " exception class(es) ...");
+        }
 
         for (Class_info exception : attribute.getExceptions()) {
             exception.accept(this);
@@ -192,7 +200,9 @@ public abstract class VisitorBase implements Visitor {
     }
 
     public void visitInnerClasses_attribute(InnerClasses_attribute attribute) {
-        Logger.getLogger(getClass()).debug("Visiting " + attribute.getInnerClasses().size() + " inner class(es) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Visiting " + attribute.getInnerClasses().size() + " inner class(es) ...");
+        }
 
         for (InnerClass innerClass : attribute.getInnerClasses()) {
             innerClass.accept(this);
@@ -220,7 +230,9 @@ public abstract class VisitorBase implements Visitor {
     }
 
     public void visitLineNumberTable_attribute(LineNumberTable_attribute attribute) {
-        Logger.getLogger(getClass()).debug("Visiting " + attribute.getLineNumbers().size() + " line number(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Visiting " + attribute.getLineNumbers().size() + " line number(s) ...");
+        }
 
         for (LineNumber lineNumber : attribute.getLineNumbers()) {
             lineNumber.accept(this);
@@ -228,7 +240,9 @@ public abstract class VisitorBase implements Visitor {
     }
 
     public void visitLocalVariableTable_attribute(LocalVariableTable_attribute attribute) {
-        Logger.getLogger(getClass()).debug("Visiting " + attribute.getLocalVariables().size() + " local variable(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Visiting " + attribute.getLocalVariables().size() + " local variable(s) ...");
+        }
 
         for (LocalVariable localVariable : attribute.getLocalVariables()) {
             localVariable.accept(this);
@@ -236,7 +250,9 @@ public abstract class VisitorBase implements Visitor {
     }
 
     public void visitLocalVariableTypeTable_attribute(LocalVariableTypeTable_attribute attribute) {
-        Logger.getLogger(getClass()).debug("Visiting " + attribute.getLocalVariableTypes().size() + " local variable type(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Visiting " + attribute.getLocalVariableTypes().size() + " local variable type(s) ...");
+        }
 
         for (LocalVariableType localVariableType : attribute.getLocalVariableTypes()) {
             localVariableType.accept(this);
@@ -256,7 +272,9 @@ public abstract class VisitorBase implements Visitor {
     }
 
     protected void visitRuntimeAnnotations_attribute(RuntimeAnnotations_attribute attribute) {
-        Logger.getLogger(getClass()).debug("Visiting " + attribute.getAnnotations().size() + " annotation(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Visiting " + attribute.getAnnotations().size() + " annotation(s) ...");
+        }
 
         for (Annotation annotation : attribute.getAnnotations()) {
             annotation.accept(this);
@@ -272,7 +290,9 @@ public abstract class VisitorBase implements Visitor {
     }
 
     protected void visitRuntimeParameterAnnotations_attribute(RuntimeParameterAnnotations_attribute attribute) {
-        Logger.getLogger(getClass()).debug("Visiting " + attribute.getParameterAnnotations().size() + " parameter annotation(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Visiting " + attribute.getParameterAnnotations().size() + " parameter annotation(s) ...");
+        }
 
         for (Parameter parameter : attribute.getParameterAnnotations()) {
             parameter.accept(this);
@@ -326,7 +346,9 @@ public abstract class VisitorBase implements Visitor {
     }
 
     public void visitParameter(Parameter helper) {
-        Logger.getLogger(getClass()).debug("Visiting " + helper.getAnnotations().size() + " annotation(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Visiting " + helper.getAnnotations().size() + " annotation(s) ...");
+        }
 
         for (Annotation annotation : helper.getAnnotations()) {
             annotation.accept(this);
@@ -334,7 +356,9 @@ public abstract class VisitorBase implements Visitor {
     }
 
     public void visitAnnotation(Annotation helper) {
-        Logger.getLogger(getClass()).debug("Visiting " + helper.getElementValuePairs().size() + " element value pair(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Visiting " + helper.getElementValuePairs().size() + " element value pair(s) ...");
+        }
 
         for (ElementValuePair elementValuePair : helper.getElementValuePairs()) {
             elementValuePair.accept(this);
@@ -394,10 +418,16 @@ public abstract class VisitorBase implements Visitor {
     }
 
     public void visitArrayElementValue(ArrayElementValue helper) {
-        Logger.getLogger(getClass()).debug("Visiting " + helper.getValues().size() + " value(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Visiting " + helper.getValues().size() + " value(s) ...");
+        }
 
         for (ElementValue elementValue : helper.getValues()) {
             elementValue.accept(this);
         }
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
@@ -33,6 +33,7 @@
 package com.jeantessier.classreader;
 
 import java.io.*;
+import java.nio.*;
 import java.util.*;
 import java.util.zip.*;
 
@@ -112,7 +113,7 @@ public class ZipClassfileLoader extends ClassfileLoaderDecorator {
             InputStream in    = null;
             try {
                 in    = zipfile.getInputStream(entry);
-                bytes = readBytes(in);
+                bytes = readBytes(in, entry.getSize());
             } finally {
                 if (in != null) {
                     try {
@@ -124,7 +125,7 @@ public class ZipClassfileLoader extends ClassfileLoaderDecorator {
             }
             
             Logger.getLogger(getClass()).debug("Passing up file " + entry.getName() + " (" + bytes.length + " bytes)");
-            getLoader().load(entry.getName(), new ByteArrayInputStream(bytes));
+            getLoader().load(entry.getName(), new ByteBufferInputStream(ByteBuffer.wrap(bytes)));
             
             fireEndFile(entry.getName());
         }
@@ -136,28 +137,57 @@ public class ZipClassfileLoader extends ClassfileLoaderDecorator {
             fireBeginFile(entry.getName());
                 
             Logger.getLogger(getClass()).debug("Starting file " + entry.getName() + " (" + entry.getSize() + " bytes)");
-            byte[] bytes = readBytes(in);
+            byte[] bytes = readBytes(in, entry.getSize());
             
             Logger.getLogger(getClass()).debug("Passing up file " + entry.getName() + " (" + bytes.length + " bytes)");
-            getLoader().load(entry.getName(), new ByteArrayInputStream(bytes));
+            getLoader().load(entry.getName(), new ByteBufferInputStream(ByteBuffer.wrap(bytes)));
             
             fireEndFile(entry.getName());
         }
     }
 
-    private byte[] readBytes(InputStream in) {
+    /**
+     *  Reads the entry straight into an array of the right size when the
+     *  ZIP directory knows it, and through a growing buffer otherwise.
+     */
+    private byte[] readBytes(InputStream in, long size) {
         byte[] result = null;
         
         try {
-            ByteArrayOutputStream out        = new ByteArrayOutputStream();
-            byte[]                buffer     = new byte[BUFFER_SIZE];
-            int                   bytesRead = 0;
-            while ((bytesRead = in.read(buffer, 0, BUFFER_SIZE)) != -1) {
-                out.write(buffer, 0, bytesRead);
+            ByteArrayOutputStream out = null;
+
+            if (size >= 0 && size < Integer.MAX_VALUE) {
+                result = new byte[(int) size];
+
+                int offset = 0;
+                int bytesRead;
+                while (offset < result.length && (bytesRead = in.read(result, offset, result.length - offset)) != -1) {
+                    offset += bytesRead;
+                }
+
+                int next = in.read();
+                if (offset < result.length || next != -1) {
+                    // The declared size was wrong, fall back on the buffer
+                    out = new ByteArrayOutputStream();
+                    out.write(result, 0, offset);
+                    if (next != -1) {
+                        out.write(next);
+                    }
+                }
+            } else {
+                out = new ByteArrayOutputStream();
+            }
+
+            if (out != null) {
+                byte[] buffer    = new byte[BUFFER_SIZE];
+                int    bytesRead = 0;
+                while ((bytesRead = in.read(buffer, 0, BUFFER_SIZE)) != -1) {
+                    out.write(buffer, 0, bytesRead);
+                }
+                out.close();
+
+                result = out.toByteArray();
             }
-            out.close();
-                
-            result = out.toByteArray();
         } catch (IOException ex) {
             Logger.getLogger(getClass()).debug("Error loading Zip entry", ex);
         }
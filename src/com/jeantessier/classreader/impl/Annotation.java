@@ -35,11 +35,12 @@ package com.jeantessier.classreader.impl;
 import java.io.*;
 import java.util.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class Annotation implements com.jeantessier.classreader.Annotation {
+    private static final Trace trace = Trace.getTrace(Annotation.class);
+
     private ConstantPool constantPool;
 
     private Collection<ElementValuePair> elementValuePairs = new LinkedList<ElementValuePair>();
@@ -54,12 +55,18 @@ public class Annotation implements com.jeantessier.classreader.Annotation {
         this.constantPool = constantPool;
 
         typeIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Type index: " + typeIndex + " (" + getType() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Type index: " + typeIndex + " (" + getType() + ")");
+        }
 
         int numElementValuePairs = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + numElementValuePairs + " element value pair(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Reading " + numElementValuePairs + " element value pair(s) ...");
+        }
         for (int i=0; i<numElementValuePairs; i++) {
-            Logger.getLogger(getClass()).debug("Element value pair " + i + ":");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Element value pair " + i + ":");
+            }
             elementValuePairs.add(new ElementValuePair(constantPool, in, elementValueFactory));
         }
     }
@@ -89,4 +96,8 @@ public class Annotation implements com.jeantessier.classreader.Annotation {
     public void accept(Visitor visitor) {
         visitor.visitAnnotation(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
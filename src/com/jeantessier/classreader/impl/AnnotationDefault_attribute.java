@@ -34,11 +34,12 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class AnnotationDefault_attribute extends Attribute_info implements com.jeantessier.classreader.AnnotationDefault_attribute {
+    private static final Trace trace = Trace.getTrace(AnnotationDefault_attribute.class);
+
     private ElementValue elementValue;
 
     public AnnotationDefault_attribute(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
@@ -49,7 +50,9 @@ public class AnnotationDefault_attribute extends Attribute_info implements com.j
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Attribute length: " + byteCount);
+        }
 
         elementValue = elementValueFactory.create(constantPool, in);
     }
@@ -65,4 +68,8 @@ public class AnnotationDefault_attribute extends Attribute_info implements com.j
     public void accept(Visitor visitor) {
         visitor.visitAnnotationDefault_attribute(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
@@ -34,18 +34,21 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class AnnotationElementValue extends ElementValue implements com.jeantessier.classreader.AnnotationElementValue {
+    private static final Trace trace = Trace.getTrace(AnnotationElementValue.class);
+
     private Annotation annotation;
 
     public AnnotationElementValue(ConstantPool constantPool, DataInput in) throws IOException {
         super(constantPool);
 
         annotation = new Annotation(constantPool, in);
-        Logger.getLogger(getClass()).debug("Annotation: " + annotation);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Annotation: " + annotation);
+        }
     }
 
     public Annotation getAnnotation() {
@@ -59,4 +62,8 @@ public class AnnotationElementValue extends ElementValue implements com.jeantess
     public void accept(Visitor visitor) {
         visitor.visitAnnotationElementValue(this);
     }
-}
\ No newline at end of file
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
+}
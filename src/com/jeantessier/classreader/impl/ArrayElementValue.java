@@ -35,11 +35,12 @@ package com.jeantessier.classreader.impl;
 import java.io.*;
 import java.util.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class ArrayElementValue extends ElementValue implements com.jeantessier.classreader.ArrayElementValue {
+    private static final Trace trace = Trace.getTrace(ArrayElementValue.class);
+
     private Collection<ElementValue> values = new ArrayList<ElementValue>();
 
     public ArrayElementValue(ConstantPool constantPool, DataInput in) throws IOException {
@@ -50,9 +51,13 @@ public class ArrayElementValue extends ElementValue implements com.jeantessier.c
         super(constantPool);
 
         int numValues = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + numValues + " value(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Reading " + numValues + " value(s) ...");
+        }
         for (int i = 0; i < numValues; i++) {
-            Logger.getLogger(getClass()).debug("value " + i + ":");
+            if (trace().isDebugEnabled()) {
+                trace().debug("value " + i + ":");
+            }
             values.add(elementValueFactory.create(constantPool, in));
         }
     }
@@ -68,4 +73,8 @@ public class ArrayElementValue extends ElementValue implements com.jeantessier.c
     public void accept(Visitor visitor) {
         visitor.visitArrayElementValue(this);
     }
-}
\ No newline at end of file
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
+}
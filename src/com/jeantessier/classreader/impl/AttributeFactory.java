@@ -34,11 +34,30 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class AttributeFactory {
+    private static final Trace trace = Trace.getTrace(AttributeFactory.class);
+
+    private ParsingProfile profile;
+
+    public AttributeFactory() {
+        this(ParsingProfile.FULL);
+    }
+
+    public AttributeFactory(ParsingProfile profile) {
+        this.profile = profile;
+    }
+
+    public ParsingProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     *  @return the attribute, or <code>null</code> if the profile skipped
+     *          over it.
+     */
     public Attribute_info create(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
         Attribute_info result;
 
@@ -48,28 +67,60 @@ public class AttributeFactory {
 
             if (entry instanceof UTF8_info) {
                 String name = ((UTF8_info) entry).getValue();
-                Logger.getLogger(AttributeFactory.class).debug("Attribute name index: " + nameIndex + " (" + name + ")");
+                if (trace.isDebugEnabled()) {
+                    trace.debug("Attribute name index: " + nameIndex + " (" + name + ")");
+                }
 
                 AttributeType attributeType = AttributeType.forName(name);
                 if (attributeType != null) {
-                    result = attributeType.create(constantPool, owner, in);
+                    if (getProfile().isSkipped(name)) {
+                        result = skip(name, in);
+                    } else {
+                        result = attributeType.create(constantPool, owner, in, this);
+                    }
+                } else if (getProfile().isSkippingCustomAttributes()) {
+                    result = skip(name, in);
                 } else {
-                    Logger.getLogger(AttributeFactory.class).warn("Unknown attribute name \"" + name + "\"");
+                    trace.warn("Unknown attribute name \"" + name + "\"");
                     result = new Custom_attribute(name, constantPool, owner, in);
                 }
             } else {
-                Logger.getLogger(AttributeFactory.class).debug("Attribute name: " + entry);
+                if (trace.isDebugEnabled()) {
+                    trace.debug("Attribute name: " + entry);
+                }
 
-                Logger.getLogger(AttributeFactory.class).warn("Unknown attribute with invalid name \"" + entry + "\"");
+                trace.warn("Unknown attribute with invalid name \"" + entry + "\"");
                 result = new Custom_attribute(constantPool, owner, in);
             }
         } else {
-            Logger.getLogger(AttributeFactory.class).debug("Attribute name index: " + nameIndex);
+            if (trace.isDebugEnabled()) {
+                trace.debug("Attribute name index: " + nameIndex);
+            }
 
-            Logger.getLogger(AttributeFactory.class).warn("Unknown attribute with no name (name index = " + nameIndex + ")");
+            trace.warn("Unknown attribute with no name (name index = " + nameIndex + ")");
             result = new Custom_attribute(constantPool, owner, in);
         }
 
         return result;
     }
+
+    private Attribute_info skip(String name, DataInput in) throws IOException {
+        int byteCount = in.readInt();
+        if (trace.isDebugEnabled()) {
+            trace.debug("Skipping " + byteCount + " byte(s) of attribute \"" + name + "\"");
+        }
+
+        int skipped = 0;
+        while (skipped < byteCount) {
+            int count = in.skipBytes(byteCount - skipped);
+            if (count > 0) {
+                skipped += count;
+            } else {
+                in.readByte();
+                skipped++;
+            }
+        }
+
+        return null;
+    }
 }
@@ -47,6 +47,10 @@ public enum AttributeType {
         public Attribute_info create(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
             return new Code_attribute(constantPool, owner, in);
         }
+
+        public Attribute_info create(ConstantPool constantPool, Visitable owner, DataInput in, AttributeFactory attributeFactory) throws IOException {
+            return new Code_attribute(constantPool, owner, in, attributeFactory);
+        }
     },
 
     EXCEPTIONS(com.jeantessier.classreader.AttributeType.EXCEPTIONS) {
@@ -157,6 +161,13 @@ public enum AttributeType {
 
     public abstract Attribute_info create(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException;
 
+    /**
+     *  For attributes that contain attributes of their own.
+     */
+    public Attribute_info create(ConstantPool constantPool, Visitable owner, DataInput in, AttributeFactory attributeFactory) throws IOException {
+        return create(constantPool, owner, in);
+    }
+
     public static AttributeType forName(String attributeName) {
         AttributeType result = null;
 
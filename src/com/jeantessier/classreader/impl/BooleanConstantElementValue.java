@@ -34,14 +34,17 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class BooleanConstantElementValue extends ConstantElementValue implements com.jeantessier.classreader.BooleanConstantElementValue {
+    private static final Trace trace = Trace.getTrace(BooleanConstantElementValue.class);
+
     public BooleanConstantElementValue(ConstantPool constantPool, DataInput in) throws IOException {
         super(constantPool, in);
-        Logger.getLogger(getClass()).debug("Const value index: " + getConstValueIndex() + " (" + getConstValue() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Const value index: " + getConstValueIndex() + " (" + getConstValue() + ")");
+        }
     }
 
     /**
@@ -64,4 +67,8 @@ public class BooleanConstantElementValue extends ConstantElementValue implements
     public void accept(Visitor visitor) {
         visitor.visitBooleanConstantElementValue(this);
     }
-}
\ No newline at end of file
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
+}
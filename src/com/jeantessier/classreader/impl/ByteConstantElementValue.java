@@ -34,14 +34,17 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class ByteConstantElementValue extends ConstantElementValue implements com.jeantessier.classreader.ByteConstantElementValue {
+    private static final Trace trace = Trace.getTrace(ByteConstantElementValue.class);
+
     public ByteConstantElementValue(ConstantPool constantPool, DataInput in) throws IOException {
         super(constantPool, in);
-        Logger.getLogger(getClass()).debug("Const value index: " + getConstValueIndex() + " (" + getConstValue() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Const value index: " + getConstValueIndex() + " (" + getConstValue() + ")");
+        }
     }
 
     public byte getConstValue() {
@@ -55,4 +58,8 @@ public class ByteConstantElementValue extends ConstantElementValue implements co
     public void accept(Visitor visitor) {
         visitor.visitByteConstantElementValue(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
@@ -34,19 +34,22 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
 import com.jeantessier.classreader.UTF8_info;
+import com.jeantessier.log.*;
 
 public class ClassElementValue extends ElementValue implements com.jeantessier.classreader.ClassElementValue {
+    private static final Trace trace = Trace.getTrace(ClassElementValue.class);
+
     private int classInfoIndex;
 
     public ClassElementValue(ConstantPool constantPool, DataInput in) throws IOException {
         super(constantPool);
 
         classInfoIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Class info index: " + classInfoIndex);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Class info index: " + classInfoIndex);
+        }
     }
 
     public int getClassInfoIndex() {
@@ -74,4 +77,8 @@ public class ClassElementValue extends ElementValue implements com.jeantessier.c
     public void accept(Visitor visitor) {
         visitor.visitClassElementValue(this);
     }
-}
\ No newline at end of file
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
+}
@@ -34,7 +34,7 @@ package com.jeantessier.classreader.impl;
 
 import com.jeantessier.classreader.ClassfileLoader;
 import com.jeantessier.classreader.Visitor;
-import org.apache.log4j.Logger;
+import com.jeantessier.log.Trace;
 
 import java.io.DataInput;
 import java.io.IOException;
@@ -43,6 +43,8 @@ import java.util.Iterator;
 import java.util.LinkedList;
 
 public class Classfile implements com.jeantessier.classreader.Classfile {
+    private static final Trace trace = Trace.getTrace(Classfile.class);
+
     private static final int ACC_PUBLIC = 0x0001;
     private static final int ACC_FINAL = 0x0010;
     private static final int ACC_SUPER = 0x0020;
@@ -75,10 +77,20 @@ public class Classfile implements com.jeantessier.classreader.Classfile {
     }
 
     public Classfile(ClassfileLoader loader, DataInput in, AttributeFactory attributeFactory) throws IOException {
+        this(loader, in, attributeFactory, false);
+    }
+
+    /**
+     *  @param lazyConstantPool decode constant pool entries only when they
+     *                          are first accessed.
+     */
+    public Classfile(ClassfileLoader loader, DataInput in, AttributeFactory attributeFactory, boolean lazyConstantPool) throws IOException {
         this.loader = loader;
 
         magicNumber = in.readInt();
-        Logger.getLogger(getClass()).debug("magic number = 0x" + Integer.toHexString(magicNumber).toUpperCase());
+        if (trace().isDebugEnabled()) {
+            trace().debug("magic number = 0x" + Integer.toHexString(magicNumber).toUpperCase());
+        }
 
         if (magicNumber != 0xCAFEBABE) {
             throw new IOException("Bad magic number");
@@ -86,58 +98,89 @@ public class Classfile implements com.jeantessier.classreader.Classfile {
         
         // Reading the file format's version number
         minorVersion = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("minor version = " + minorVersion);
+        if (trace().isDebugEnabled()) {
+            trace().debug("minor version = " + minorVersion);
+        }
         majorVersion = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("major version = " + majorVersion);
+        if (trace().isDebugEnabled()) {
+            trace().debug("major version = " + majorVersion);
+        }
 
         // Reading the constant pool
-        Logger.getLogger(getClass()).debug("Reading the constant pool ...");
-        constantPool = new ConstantPool(this, in);
-        Logger.getLogger(getClass()).debug(constantPool);
+        trace().debug("Reading the constant pool ...");
+        constantPool = new ConstantPool(this, in, lazyConstantPool);
+        if (trace().isDebugEnabled()) {
+            trace().debug(constantPool);
+        }
 
         // Skipping the access flag
         accessFlag = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("accessFlag = " + accessFlag);
+        if (trace().isDebugEnabled()) {
+            trace().debug("accessFlag = " + accessFlag);
+        }
 
         // Retrieving this class's name
         classIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("thisClass = " + classIndex + " (" + getClassName() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("thisClass = " + classIndex + " (" + getClassName() + ")");
+        }
 
         // Retrieving this class's superclass
         superclassIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("superclass = " + superclassIndex + " (" + getSuperclassName() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("superclass = " + superclassIndex + " (" + getSuperclassName() + ")");
+        }
 
         // Retrieving the inferfaces
         int interfaceCount = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + interfaceCount + " interface(s)");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Reading " + interfaceCount + " interface(s)");
+        }
         for (int i=0; i<interfaceCount; i++) {
             Class_info interfaceInfo = (Class_info) constantPool.get(in.readUnsignedShort());
-            Logger.getLogger(getClass()).debug("    " + interfaceInfo.getName());
+            if (trace().isDebugEnabled()) {
+                trace().debug("    " + interfaceInfo.getName());
+            }
             interfaces.add(interfaceInfo);
         }
 
         // Retrieving the fields
         int fieldCount = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + fieldCount + " field(s)");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Reading " + fieldCount + " field(s)");
+        }
         for (int i=0; i<fieldCount; i++) {
-            Logger.getLogger(getClass()).debug("Field " + i + ":");
-            fields.add(new Field_info(this, in));
+            if (trace().isDebugEnabled()) {
+                trace().debug("Field " + i + ":");
+            }
+            fields.add(new Field_info(this, in, attributeFactory));
         }
 
         // Retrieving the methods
         int methodCount = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + methodCount + " method(s)");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Reading " + methodCount + " method(s)");
+        }
         for (int i=0; i<methodCount; i++) {
-            Logger.getLogger(getClass()).debug("Method " + i + ":");
-            methods.add(new Method_info(this, in));
+            if (trace().isDebugEnabled()) {
+                trace().debug("Method " + i + ":");
+            }
+            methods.add(new Method_info(this, in, attributeFactory));
         }
 
         // Retrieving the attributes
         int attributeCount = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + attributeCount + " class attribute(s)");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Reading " + attributeCount + " class attribute(s)");
+        }
         for (int i=0; i<attributeCount; i++) {
-            Logger.getLogger(getClass()).debug("Attribute " + i + ":");
-            attributes.add(attributeFactory.create(constantPool, this, in));
+            if (trace().isDebugEnabled()) {
+                trace().debug("Attribute " + i + ":");
+            }
+            Attribute_info attribute = attributeFactory.create(constantPool, this, in);
+            if (attribute != null) {
+                attributes.add(attribute);
+            }
         }
     }
 
@@ -519,4 +562,8 @@ public class Classfile implements com.jeantessier.classreader.Classfile {
 
         return result;
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
@@ -39,10 +39,23 @@ public class CodeIterator implements Iterator<com.jeantessier.classreader.Instru
     private byte[] bytecode;
     private int    pc;
 
+    private boolean     reusingInstruction;
+    private Instruction instruction;
+
     public CodeIterator(Code_attribute code, byte[] bytecode) {
+        this(code, bytecode, false);
+    }
+
+    /**
+     *  @param reusingInstruction if <code>true</code>, {@link #next()}
+     *                            returns the same instruction every time,
+     *                            moved to the next opcode.
+     */
+    public CodeIterator(Code_attribute code, byte[] bytecode, boolean reusingInstruction) {
         this.code = code;
         this.bytecode = bytecode;
         this.pc   = 0;
+        this.reusingInstruction = reusingInstruction;
     }
 
     public boolean hasNext() {
@@ -53,7 +66,13 @@ public class CodeIterator implements Iterator<com.jeantessier.classreader.Instru
         Instruction result;
 
         if (hasNext()) {
-            result = new Instruction(code, bytecode, pc);
+            if (reusingInstruction && instruction != null) {
+                instruction.moveTo(pc);
+                result = instruction;
+            } else {
+                result = new Instruction(code, bytecode, pc);
+                instruction = result;
+            }
             pc += result.getLength();
         } else {
             throw new NoSuchElementException();
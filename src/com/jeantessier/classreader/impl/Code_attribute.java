@@ -35,14 +35,15 @@ package com.jeantessier.classreader.impl;
 import java.io.*;
 import java.util.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.Instruction;
 import com.jeantessier.classreader.LocalVariable;
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 import com.jeantessier.text.*;
 
 public class Code_attribute extends Attribute_info implements Iterable<Instruction>, com.jeantessier.classreader.Code_attribute {
+    private static final Trace trace = Trace.getTrace(Code_attribute.class);
+
     private int maxStack;
     private int maxLocals;
     private byte[] code;
@@ -57,37 +58,58 @@ public class Code_attribute extends Attribute_info implements Iterable<Instructi
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Attribute length: " + byteCount);
+        }
 
         maxStack = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Code max stack: " + maxStack);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Code max stack: " + maxStack);
+        }
 
         maxLocals = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Code max locals: " + maxLocals);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Code max locals: " + maxLocals);
+        }
 
         int codeLength = in.readInt();
-        Logger.getLogger(getClass()).debug("Code length: " + codeLength);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Code length: " + codeLength);
+        }
         
         code = new byte[codeLength];
         in.readFully(code);
-        Logger.getLogger(getClass()).debug("Read " + codeLength + " byte(s): " + Hex.toString(code));
+        if (trace().isDebugEnabled()) {
+            trace().debug("Read " + codeLength + " byte(s): " + Hex.toString(code));
+        }
 
         int exceptionTableLength = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + exceptionTableLength + " exception handler(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Reading " + exceptionTableLength + " exception handler(s) ...");
+        }
         for (int i=0; i<exceptionTableLength; i++) {
-            Logger.getLogger(getClass()).debug("Exception handler " + i + ":");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Exception handler " + i + ":");
+            }
             exceptionHandlers.add(new ExceptionHandler(this, in));
         }
 
         int attributeCount = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + attributeCount + " code attribute(s)");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Reading " + attributeCount + " code attribute(s)");
+        }
         for (int i=0; i<attributeCount; i++) {
-            Logger.getLogger(getClass()).debug("code attribute " + i + ":");
-            attributes.add(attributeFactory.create(getConstantPool(), this, in));
+            if (trace().isDebugEnabled()) {
+                trace().debug("code attribute " + i + ":");
+            }
+            Attribute_info attribute = attributeFactory.create(getConstantPool(), this, in);
+            if (attribute != null) {
+                attributes.add(attribute);
+            }
         }
 
-        if (Logger.getLogger(getClass()).isDebugEnabled()) {
-            Logger.getLogger(getClass()).debug("Read instructions(s):");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Read instructions(s):");
 
             for (Instruction instr : this) {
                 logInstruction(instr);
@@ -111,6 +133,10 @@ public class Code_attribute extends Attribute_info implements Iterable<Instructi
         return new CodeIterator(this, code);
     }
 
+    public Iterator<Instruction> instructionCursor() {
+        return new CodeIterator(this, code, true);
+    }
+
     public Collection<ExceptionHandler> getExceptionHandlers() {
         return exceptionHandlers;
     }
@@ -139,7 +165,9 @@ public class Code_attribute extends Attribute_info implements Iterable<Instructi
         appendOffset(message, instruction);
         appendValue(message, instruction);
 
-        Logger.getLogger(getClass()).debug(message);
+        if (trace().isDebugEnabled()) {
+            trace().debug(message);
+        }
     }
 
     private void appendIndexedConstantPoolEntry(StringBuilder message, Instruction instruction) {
@@ -297,4 +325,8 @@ public class Code_attribute extends Attribute_info implements Iterable<Instructi
                 break;
         }
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
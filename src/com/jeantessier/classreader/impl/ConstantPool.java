@@ -35,84 +35,358 @@ package com.jeantessier.classreader.impl;
 import com.jeantessier.classreader.Printer;
 import com.jeantessier.classreader.TextPrinter;
 import com.jeantessier.classreader.Visitor;
-import org.apache.log4j.Logger;
+import com.jeantessier.log.Trace;
 
 import java.io.DataInput;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+/**
+ *  <p>In lazy mode, the pool only copies the raw bytes of its entries and
+ *  remembers where each one starts.  Entries, and the strings of
+ *  <code>UTF8_info</code> entries, are decoded the first time someone calls
+ *  {@link #get(int)} for them.  Collectors that only look at a few entries,
+ *  like the dependency collectors, never pay for the others.</p>
+ *
+ *  <p>Any other use of the list, such as iterating over it or changing it,
+ *  decodes all the remaining entries first.  From then on, the pool is a
+ *  plain <code>ArrayList</code>, like it is in eager mode.</p>
+ */
 public class ConstantPool extends ArrayList<com.jeantessier.classreader.ConstantPoolEntry> implements com.jeantessier.classreader.ConstantPool {
+    private static final Trace trace = Trace.getTrace(ConstantPool.class);
+
+    private static final ThreadLocal<byte[]> scanBuffer = new ScanBuffer();
+
     private Classfile classfile;
 
+    // Only used in lazy mode, until all the entries are decoded
+    private volatile AtomicReferenceArray<com.jeantessier.classreader.ConstantPoolEntry> lazyEntries;
+    private byte[] bytes;
+    private int[] offsets;
+
     public ConstantPool(Classfile classfile, DataInput in) throws IOException {
+        this(classfile, in, false);
+    }
+
+    public ConstantPool(Classfile classfile, DataInput in, boolean lazy) throws IOException {
         this.classfile = classfile;
 
         int count = in.readUnsignedShort();
 
         ensureCapacity(count);
 
-        // Entry 0 is null
-        add(null);
+        if (lazy) {
+            // Entry 0 is null, the others are filled in as they are decoded
+            super.addAll(Collections.<com.jeantessier.classreader.ConstantPoolEntry>nCopies(count, null));
+            lazyEntries = new AtomicReferenceArray<com.jeantessier.classreader.ConstantPoolEntry>(count);
+            scanEntries(count, in);
+        } else {
+            // Entry 0 is null
+            super.add(null);
+            readEntries(count, in);
+        }
+    }
+
+    private void readEntries(int count, DataInput in) throws IOException {
+        for (int i=1; i<count; i++) {
+            byte tag = in.readByte();
+
+            if (trace().isDebugEnabled()) {
+                trace().debug("Entry " + i + " has tag " + tag);
+            }
+
+            super.add(readEntry(tag, in));
+
+            if (tag == ConstantPoolEntry.CONSTANT_Long || tag == ConstantPoolEntry.CONSTANT_Double) {
+                i++;
+                super.add(null);
+            }
+        }
+    }
+
+    private void scanEntries(int count, DataInput in) throws IOException {
+        offsets = new int[count];
+        byte[] buffer = scanBuffer.get();
+
+        // Offset 0 marks entries that are not in the pool
+        int length = 1;
 
         for (int i=1; i<count; i++) {
             byte tag = in.readByte();
 
-            Logger.getLogger(getClass()).info("Entry " + i + " has tag " + tag);
+            if (trace().isDebugEnabled()) {
+                trace().debug("Entry " + i + " has tag " + tag);
+            }
 
+            int entryLength;
             switch(tag) {
                 case ConstantPoolEntry.CONSTANT_Class:
-                    add(new Class_info(this, in));
+                case ConstantPoolEntry.CONSTANT_String:
+                case ConstantPoolEntry.CONSTANT_MethodType:
+                    entryLength = 2;
                     break;
-                case ConstantPoolEntry.CONSTANT_Fieldref:
-                    add(new FieldRef_info(this, in));
+                case ConstantPoolEntry.CONSTANT_MethodHandle:
+                    entryLength = 3;
                     break;
+                case ConstantPoolEntry.CONSTANT_Fieldref:
                 case ConstantPoolEntry.CONSTANT_Methodref:
-                    add(new MethodRef_info(this, in));
-                    break;
                 case ConstantPoolEntry.CONSTANT_InterfaceMethodref:
-                    add(new InterfaceMethodRef_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_String:
-                    add(new String_info(this, in));
-                    break;
                 case ConstantPoolEntry.CONSTANT_Integer:
-                    add(new Integer_info(this, in));
-                    break;
                 case ConstantPoolEntry.CONSTANT_Float:
-                    add(new Float_info(this, in));
+                case ConstantPoolEntry.CONSTANT_NameAndType:
+                case ConstantPoolEntry.CONSTANT_InvokeDynamic:
+                    entryLength = 4;
                     break;
                 case ConstantPoolEntry.CONSTANT_Long:
-                    add(new Long_info(this, in));
-                    i++;
-                    add(null);
-                    break;
                 case ConstantPoolEntry.CONSTANT_Double:
-                    add(new Double_info(this, in));
-                    i++;
-                    add(null);
-                    break;
-                case ConstantPoolEntry.CONSTANT_NameAndType:
-                    add(new NameAndType_info(this, in));
+                    entryLength = 8;
                     break;
                 case ConstantPoolEntry.CONSTANT_Utf8:
-                    add(new UTF8_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_MethodHandle:
-                    add(new MethodHandle_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_MethodType:
-                    add(new MethodType_info(this, in));
-                    break;
-                case ConstantPoolEntry.CONSTANT_InvokeDynamic:
-                    add(new InvokeDynamic_info(this, in));
+                    entryLength = 2 + in.readUnsignedShort();
                     break;
                 default:
-                    Logger.getLogger(getClass()).info("Unknown Tag " + tag);
-                    break;
+                    if (trace().isInfoEnabled()) {
+                        trace().info("Unknown Tag " + tag);
+                    }
+                    continue;
+            }
+
+            if (length + 1 + entryLength > buffer.length) {
+                byte[] newBuffer = new byte[Math.max(buffer.length * 2, length + 1 + entryLength)];
+                System.arraycopy(buffer, 0, newBuffer, 0, length);
+                buffer = newBuffer;
+                scanBuffer.set(buffer);
+            }
+
+            offsets[i] = length;
+            buffer[length++] = tag;
+            if (tag == ConstantPoolEntry.CONSTANT_Utf8) {
+                buffer[length++] = (byte) ((entryLength - 2) >>> 8);
+                buffer[length++] = (byte) (entryLength - 2);
+                entryLength -= 2;
+            }
+            in.readFully(buffer, length, entryLength);
+            length += entryLength;
+
+            if (tag == ConstantPoolEntry.CONSTANT_Long || tag == ConstantPoolEntry.CONSTANT_Double) {
+                i++;
+            }
+        }
+
+        bytes = new byte[length];
+        System.arraycopy(buffer, 0, bytes, 0, length);
+    }
+
+    private ConstantPoolEntry readEntry(byte tag, DataInput in) throws IOException {
+        ConstantPoolEntry result = null;
+
+        switch(tag) {
+            case ConstantPoolEntry.CONSTANT_Class:
+                result = new Class_info(this, in);
+                break;
+            case ConstantPoolEntry.CONSTANT_Fieldref:
+                result = new FieldRef_info(this, in);
+                break;
+            case ConstantPoolEntry.CONSTANT_Methodref:
+                result = new MethodRef_info(this, in);
+                break;
+            case ConstantPoolEntry.CONSTANT_InterfaceMethodref:
+                result = new InterfaceMethodRef_info(this, in);
+                break;
+            case ConstantPoolEntry.CONSTANT_String:
+                result = new String_info(this, in);
+                break;
+            case ConstantPoolEntry.CONSTANT_Integer:
+                result = new Integer_info(this, in);
+                break;
+            case ConstantPoolEntry.CONSTANT_Float:
+                result = new Float_info(this, in);
+                break;
+            case ConstantPoolEntry.CONSTANT_Long:
+                result = new Long_info(this, in);
+                break;
+            case ConstantPoolEntry.CONSTANT_Double:
+                result = new Double_info(this, in);
+                break;
+            case ConstantPoolEntry.CONSTANT_NameAndType:
+                result = new NameAndType_info(this, in);
+                break;
+            case ConstantPoolEntry.CONSTANT_Utf8:
+                result = new UTF8_info(this, in);
+                break;
+            case ConstantPoolEntry.CONSTANT_MethodHandle:
+                result = new MethodHandle_info(this, in);
+                break;
+            case ConstantPoolEntry.CONSTANT_MethodType:
+                result = new MethodType_info(this, in);
+                break;
+            case ConstantPoolEntry.CONSTANT_InvokeDynamic:
+                result = new InvokeDynamic_info(this, in);
+                break;
+            default:
+                if (trace().isInfoEnabled()) {
+                    trace().info("Unknown Tag " + tag);
+                }
+                break;
+        }
+
+        return result;
+    }
+
+    public com.jeantessier.classreader.ConstantPoolEntry get(int index) {
+        com.jeantessier.classreader.ConstantPoolEntry result;
+
+        AtomicReferenceArray<com.jeantessier.classreader.ConstantPoolEntry> entries = lazyEntries;
+        if (entries == null) {
+            result = super.get(index);
+        } else {
+            result = entries.get(index);
+            if (result == null && offsets[index] != 0) {
+                entries.compareAndSet(index, null, decodeEntry(offsets[index]));
+                result = entries.get(index);
             }
         }
+
+        return result;
+    }
+
+    private ConstantPoolEntry decodeEntry(int offset) {
+        try {
+            return readEntry(bytes[offset], new ConstantPoolEntryInput(bytes, offset + 1));
+        } catch (IOException ex) {
+            // The bytes were all read when the pool was scanned
+            throw new IllegalStateException("Truncated constant pool entry at offset " + offset, ex);
+        }
+    }
+
+    /**
+     *  Moves all the entries into the list itself and leaves lazy mode.
+     */
+    private synchronized void decodeAll() {
+        if (lazyEntries != null) {
+            for (int i=0; i<size(); i++) {
+                super.set(i, get(i));
+            }
+            lazyEntries = null;
+        }
+    }
+
+    public Iterator<com.jeantessier.classreader.ConstantPoolEntry> iterator() {
+        decodeAll();
+        return super.iterator();
+    }
+
+    public ListIterator<com.jeantessier.classreader.ConstantPoolEntry> listIterator() {
+        decodeAll();
+        return super.listIterator();
+    }
+
+    public ListIterator<com.jeantessier.classreader.ConstantPoolEntry> listIterator(int index) {
+        decodeAll();
+        return super.listIterator(index);
+    }
+
+    public List<com.jeantessier.classreader.ConstantPoolEntry> subList(int fromIndex, int toIndex) {
+        decodeAll();
+        return super.subList(fromIndex, toIndex);
+    }
+
+    public Object[] toArray() {
+        decodeAll();
+        return super.toArray();
+    }
+
+    public <T> T[] toArray(T[] a) {
+        decodeAll();
+        return super.toArray(a);
+    }
+
+    public boolean contains(Object o) {
+        decodeAll();
+        return super.contains(o);
+    }
+
+    public int indexOf(Object o) {
+        decodeAll();
+        return super.indexOf(o);
+    }
+
+    public int lastIndexOf(Object o) {
+        decodeAll();
+        return super.lastIndexOf(o);
+    }
+
+    public com.jeantessier.classreader.ConstantPoolEntry set(int index, com.jeantessier.classreader.ConstantPoolEntry element) {
+        decodeAll();
+        return super.set(index, element);
+    }
+
+    public boolean add(com.jeantessier.classreader.ConstantPoolEntry element) {
+        decodeAll();
+        return super.add(element);
+    }
+
+    public void add(int index, com.jeantessier.classreader.ConstantPoolEntry element) {
+        decodeAll();
+        super.add(index, element);
+    }
+
+    public boolean addAll(Collection<? extends com.jeantessier.classreader.ConstantPoolEntry> c) {
+        decodeAll();
+        return super.addAll(c);
+    }
+
+    public boolean addAll(int index, Collection<? extends com.jeantessier.classreader.ConstantPoolEntry> c) {
+        decodeAll();
+        return super.addAll(index, c);
+    }
+
+    public com.jeantessier.classreader.ConstantPoolEntry remove(int index) {
+        decodeAll();
+        return super.remove(index);
+    }
+
+    public boolean remove(Object o) {
+        decodeAll();
+        return super.remove(o);
+    }
+
+    public boolean removeAll(Collection<?> c) {
+        decodeAll();
+        return super.removeAll(c);
+    }
+
+    public boolean retainAll(Collection<?> c) {
+        decodeAll();
+        return super.retainAll(c);
+    }
+
+    public void clear() {
+        decodeAll();
+        super.clear();
+    }
+
+    public Object clone() {
+        decodeAll();
+        return super.clone();
+    }
+
+    public boolean equals(Object o) {
+        decodeAll();
+        return super.equals(o);
+    }
+
+    public int hashCode() {
+        decodeAll();
+        return super.hashCode();
     }
 
     public Classfile getClassfile() {
@@ -136,4 +410,16 @@ public class ConstantPool extends ArrayList<com.jeantessier.classreader.Constant
         
         return out.toString();
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
+
+    private static class ScanBuffer extends ThreadLocal<byte[]> {
+        private static final int INITIAL_SIZE = 16 * 1024;
+
+        protected byte[] initialValue() {
+            return new byte[INITIAL_SIZE];
+        }
+    }
 }
@@ -0,0 +1,146 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader.impl;
+
+import java.io.*;
+
+/**
+ *  Reads a single entry out of the raw bytes of a lazy {@link ConstantPool}
+ *  without the buffers that come with a <code>DataInputStream</code>.
+ */
+class ConstantPoolEntryInput implements DataInput {
+    private byte[] bytes;
+    private int pos;
+
+    public ConstantPoolEntryInput(byte[] bytes, int pos) {
+        this.bytes = bytes;
+        this.pos = pos;
+    }
+
+    public void readFully(byte[] b) throws IOException {
+        readFully(b, 0, b.length);
+    }
+
+    public void readFully(byte[] b, int off, int len) throws IOException {
+        if (pos + len > bytes.length) {
+            throw new EOFException();
+        }
+        System.arraycopy(bytes, pos, b, off, len);
+        pos += len;
+    }
+
+    public int skipBytes(int n) throws IOException {
+        int result = Math.max(0, Math.min(n, bytes.length - pos));
+        pos += result;
+        return result;
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readUnsignedByte() != 0;
+    }
+
+    public byte readByte() throws IOException {
+        return (byte) readUnsignedByte();
+    }
+
+    public int readUnsignedByte() throws IOException {
+        if (pos >= bytes.length) {
+            throw new EOFException();
+        }
+        return bytes[pos++] & 0xFF;
+    }
+
+    public short readShort() throws IOException {
+        return (short) readUnsignedShort();
+    }
+
+    public int readUnsignedShort() throws IOException {
+        return (readUnsignedByte() << 8) | readUnsignedByte();
+    }
+
+    public char readChar() throws IOException {
+        return (char) readUnsignedShort();
+    }
+
+    public int readInt() throws IOException {
+        return (readUnsignedShort() << 16) | readUnsignedShort();
+    }
+
+    public long readLong() throws IOException {
+        return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+    }
+
+    public float readFloat() throws IOException {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    public double readDouble() throws IOException {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    /**
+     *  Same as <code>DataInputStream.readLine()</code>, for completeness.
+     *  Constant pool entries never need it.
+     */
+    public String readLine() throws IOException {
+        String result = null;
+
+        if (pos < bytes.length) {
+            StringBuffer line = new StringBuffer();
+
+            boolean endOfLine = false;
+            while (!endOfLine && pos < bytes.length) {
+                int c = bytes[pos++] & 0xFF;
+                if (c == '\n') {
+                    endOfLine = true;
+                } else if (c == '\r') {
+                    endOfLine = true;
+                    if (pos < bytes.length && bytes[pos] == '\n') {
+                        pos++;
+                    }
+                } else {
+                    line.append((char) c);
+                }
+            }
+
+            result = line.toString();
+        }
+
+        return result;
+    }
+
+    public String readUTF() throws IOException {
+        return DataInputStream.readUTF(this);
+    }
+}
@@ -34,21 +34,26 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class ConstantValue_attribute extends Attribute_info implements com.jeantessier.classreader.ConstantValue_attribute {
+    private static final Trace trace = Trace.getTrace(ConstantValue_attribute.class);
+
     private int valueIndex;
 
     public ConstantValue_attribute(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Attribute length: " + byteCount);
+        }
 
         valueIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Constant value: " + getValueIndex() + " (" + getRawValue() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Constant value: " + getValueIndex() + " (" + getRawValue() + ")");
+        }
     }
 
     public int getValueIndex() {
@@ -87,4 +92,8 @@ public class ConstantValue_attribute extends Attribute_info implements com.jeant
     public void accept(Visitor visitor) {
         visitor.visitConstantValue_attribute(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
@@ -34,12 +34,13 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 import com.jeantessier.text.*;
 
 public class Custom_attribute extends Attribute_info implements com.jeantessier.classreader.Custom_attribute {
+    private static final Trace trace = Trace.getTrace(Custom_attribute.class);
+
     private String name;
     private byte[] info;
 
@@ -53,13 +54,15 @@ public class Custom_attribute extends Attribute_info implements com.jeantessier.
         this.name = name;
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Attribute length: " + byteCount);
+        }
 
         this.info = new byte[byteCount];
         in.readFully(info);
 
-        if (Logger.getLogger(getClass()).isDebugEnabled()) {
-            Logger.getLogger(getClass()).debug("Read " + byteCount + " byte(s): " + Hex.toString(this.info));
+        if (trace().isDebugEnabled()) {
+            trace().debug("Read " + byteCount + " byte(s): " + Hex.toString(this.info));
         }
     }
 
@@ -82,4 +85,8 @@ public class Custom_attribute extends Attribute_info implements com.jeantessier.
     public void accept(Visitor visitor) {
         visitor.visitCustom_attribute(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
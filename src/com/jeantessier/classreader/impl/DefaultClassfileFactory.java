@@ -37,7 +37,21 @@ import java.io.*;
 import com.jeantessier.classreader.*;
 
 public class DefaultClassfileFactory implements ClassfileFactory {
+    private ParsingProfile profile;
+
+    public DefaultClassfileFactory() {
+        this(ParsingProfile.FULL);
+    }
+
+    public DefaultClassfileFactory(ParsingProfile profile) {
+        this.profile = profile;
+    }
+
+    public ParsingProfile getProfile() {
+        return profile;
+    }
+
     public Classfile create(ClassfileLoader loader, DataInput in) throws IOException {
-        return new Classfile(loader, in);
+        return new Classfile(loader, in, new AttributeFactory(getProfile()), getProfile().isLazyConstantPool());
     }
 }
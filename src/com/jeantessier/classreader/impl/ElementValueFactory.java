@@ -34,23 +34,31 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
+import com.jeantessier.log.*;
 
 public class ElementValueFactory {
+    private static final Trace trace = Trace.getTrace(ElementValueFactory.class);
+
     public ElementValue create(ConstantPool constantPool, DataInput in) throws IOException {
         ElementValue result;
 
         char tag = (char) in.readUnsignedByte();
         ElementValueType elementValueType = ElementValueType.forTag(tag);
-        Logger.getLogger(getClass()).debug("tag " + tag + " (" + elementValueType + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("tag " + tag + " (" + elementValueType + ")");
+        }
         if (elementValueType != null) {
             result = elementValueType.create(constantPool, in);
         } else {
             String message = "Unknown element value tag '" + tag + "'";
-            Logger.getLogger(AttributeFactory.class).warn(message);
+            Trace.getTrace(AttributeFactory.class).warn(message);
             throw new IOException(message);
         }
 
         return result;
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
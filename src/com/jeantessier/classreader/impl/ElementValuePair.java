@@ -34,12 +34,13 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.UTF8_info;
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class ElementValuePair implements com.jeantessier.classreader.ElementValuePair {
+    private static final Trace trace = Trace.getTrace(ElementValuePair.class);
+
     private ConstantPool constantPool;
 
     private int elementNameIndex;
@@ -53,7 +54,9 @@ public class ElementValuePair implements com.jeantessier.classreader.ElementValu
         this.constantPool = constantPool;
 
         elementNameIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Element name index: " + elementNameIndex + " (" + getElementName() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Element name index: " + elementNameIndex + " (" + getElementName() + ")");
+        }
 
         elementValue = elementValueFactory.create(constantPool, in);
     }
@@ -77,4 +80,8 @@ public class ElementValuePair implements com.jeantessier.classreader.ElementValu
     public void accept(Visitor visitor) {
         visitor.visitElementValuePair(this);
     }
-}
\ No newline at end of file
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
+}
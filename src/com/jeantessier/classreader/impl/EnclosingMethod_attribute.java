@@ -34,11 +34,12 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class EnclosingMethod_attribute extends Attribute_info implements com.jeantessier.classreader.EnclosingMethod_attribute {
+    private static final Trace trace = Trace.getTrace(EnclosingMethod_attribute.class);
+
     private int classIndex;
     private int methodIndex;
 
@@ -46,13 +47,19 @@ public class EnclosingMethod_attribute extends Attribute_info implements com.jea
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Attribute length: " + byteCount);
+        }
 
         classIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Class index: " + classIndex + " (" + getClassInfo() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Class index: " + classIndex + " (" + getClassInfo() + ")");
+        }
 
         methodIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Method index: " + methodIndex + " (" + getMethod() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Method index: " + methodIndex + " (" + getMethod() + ")");
+        }
     }
 
     public int getClassIndex() {
@@ -103,4 +110,8 @@ public class EnclosingMethod_attribute extends Attribute_info implements com.jea
     public void accept(Visitor visitor) {
         visitor.visitEnclosingMethod_attribute(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
@@ -34,12 +34,13 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
 import com.jeantessier.classreader.UTF8_info;
+import com.jeantessier.log.*;
 
 public class EnumElementValue extends ElementValue implements com.jeantessier.classreader.EnumElementValue {
+    private static final Trace trace = Trace.getTrace(EnumElementValue.class);
+
     private int typeNameIndex;
     private int constNameIndex;
 
@@ -47,10 +48,14 @@ public class EnumElementValue extends ElementValue implements com.jeantessier.cl
         super(constantPool);
 
         typeNameIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Type name index: " + typeNameIndex);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Type name index: " + typeNameIndex);
+        }
 
         constNameIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Const name index: " + constNameIndex);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Const name index: " + constNameIndex);
+        }
     }
 
     public int getTypeNameIndex() {
@@ -90,4 +95,8 @@ public class EnumElementValue extends ElementValue implements com.jeantessier.cl
     public void accept(Visitor visitor) {
         visitor.visitEnumElementValue(this);
     }
-}
\ No newline at end of file
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
+}
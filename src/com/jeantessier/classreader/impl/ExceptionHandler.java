@@ -34,11 +34,12 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class ExceptionHandler implements com.jeantessier.classreader.ExceptionHandler {
+    private static final Trace trace = Trace.getTrace(ExceptionHandler.class);
+
     private Code_attribute code;
     private int            startPC;
     private int            endPC;
@@ -49,16 +50,24 @@ public class ExceptionHandler implements com.jeantessier.classreader.ExceptionHa
         this.code = code;
 
         startPC = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("start PC: " + startPC);
+        if (trace().isDebugEnabled()) {
+            trace().debug("start PC: " + startPC);
+        }
 
         endPC = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("end PC: " + endPC);
+        if (trace().isDebugEnabled()) {
+            trace().debug("end PC: " + endPC);
+        }
 
         handlerPC = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("handler PC: " + handlerPC);
+        if (trace().isDebugEnabled()) {
+            trace().debug("handler PC: " + handlerPC);
+        }
 
         catchTypeIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("catch type index: " + catchTypeIndex + " (" + getCatchType() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("catch type index: " + catchTypeIndex + " (" + getCatchType() + ")");
+        }
     }
 
     public Code_attribute getCode() {
@@ -102,4 +111,8 @@ public class ExceptionHandler implements com.jeantessier.classreader.ExceptionHa
     public void accept(Visitor visitor) {
         visitor.visitExceptionHandler(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
@@ -35,26 +35,35 @@ package com.jeantessier.classreader.impl;
 import java.io.*;
 import java.util.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class Exceptions_attribute extends Attribute_info implements com.jeantessier.classreader.Exceptions_attribute {
+    private static final Trace trace = Trace.getTrace(Exceptions_attribute.class);
+
     private Collection<Class_info> exceptions = new LinkedList<Class_info>();
 
     public Exceptions_attribute(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Attribute length: " + byteCount);
+        }
 
         int exceptionCount = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + exceptionCount + " exception(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Reading " + exceptionCount + " exception(s) ...");
+        }
         for (int i=0; i<exceptionCount; i++) {
-            Logger.getLogger(getClass()).debug("Exception " + i + ":");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Exception " + i + ":");
+            }
             Class_info exception = (Class_info) constantPool.get(in.readUnsignedShort());
             exceptions.add(exception);
-            Logger.getLogger(getClass()).debug("Class " + exception);
+            if (trace().isDebugEnabled()) {
+                trace().debug("Class " + exception);
+            }
         }
     }
 
@@ -69,4 +78,8 @@ public class Exceptions_attribute extends Attribute_info implements com.jeantess
     public void accept(Visitor visitor) {
         visitor.visitExceptions_attribute(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
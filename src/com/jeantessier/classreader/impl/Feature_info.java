@@ -35,11 +35,12 @@ package com.jeantessier.classreader.impl;
 import java.io.*;
 import java.util.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public abstract class Feature_info implements com.jeantessier.classreader.Feature_info {
+    private static final Trace trace = Trace.getTrace(Feature_info.class);
+
     private static final int ACC_PUBLIC = 0x0001;
     private static final int ACC_PRIVATE = 0x0002;
     private static final int ACC_PROTECTED = 0x0004;
@@ -61,19 +62,32 @@ public abstract class Feature_info implements com.jeantessier.classreader.Featur
         this.classfile = classfile;
 
         accessFlag = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug(getFeatureType() + " access flag: " + accessFlag);
+        if (trace().isDebugEnabled()) {
+            trace().debug(getFeatureType() + " access flag: " + accessFlag);
+        }
 
         nameIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug(getFeatureType() + " name: " + nameIndex + " (" + getName() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug(getFeatureType() + " name: " + nameIndex + " (" + getName() + ")");
+        }
 
         descriptorIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug(getFeatureType() + " Descriptor: " + descriptorIndex + " (" + getDescriptor() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug(getFeatureType() + " Descriptor: " + descriptorIndex + " (" + getDescriptor() + ")");
+        }
 
         int attributeCount = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + attributeCount + " " + getFeatureType() + " attribute(s)");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Reading " + attributeCount + " " + getFeatureType() + " attribute(s)");
+        }
         for (int i=0; i<attributeCount; i++) {
-            Logger.getLogger(getClass()).debug(getFeatureType() + " attribute " + i + ":");
-            attributes.add(attributeFactory.create(getClassfile().getConstantPool(), this, in));
+            if (trace().isDebugEnabled()) {
+                trace().debug(getFeatureType() + " attribute " + i + ":");
+            }
+            Attribute_info attribute = attributeFactory.create(getClassfile().getConstantPool(), this, in);
+            if (attribute != null) {
+                attributes.add(attribute);
+            }
         }
     }
 
@@ -190,4 +204,8 @@ public abstract class Feature_info implements com.jeantessier.classreader.Featur
     public String toString() {
         return getFullName();
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
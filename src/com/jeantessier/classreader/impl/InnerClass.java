@@ -34,11 +34,12 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class InnerClass implements com.jeantessier.classreader.InnerClass {
+    private static final Trace trace = Trace.getTrace(InnerClass.class);
+
     private static final int ACC_PUBLIC = 0x0001;
     private static final int ACC_PRIVATE = 0x0002;
     private static final int ACC_PROTECTED = 0x0004;
@@ -60,16 +61,24 @@ public class InnerClass implements com.jeantessier.classreader.InnerClass {
         this.innerClasses = innerClasses;
 
         innerClassInfoIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Inner class info index: " + innerClassInfoIndex + " (" + getInnerClassInfo() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Inner class info index: " + innerClassInfoIndex + " (" + getInnerClassInfo() + ")");
+        }
 
         outerClassInfoIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Outer class info index: " + outerClassInfoIndex + " (" + getOuterClassInfo() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Outer class info index: " + outerClassInfoIndex + " (" + getOuterClassInfo() + ")");
+        }
 
         innerNameIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Inner name index: " + innerNameIndex + " (" + getInnerName() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Inner name index: " + innerNameIndex + " (" + getInnerName() + ")");
+        }
 
         accessFlag = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Inner class access flag: " + accessFlag);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Inner class access flag: " + accessFlag);
+        }
     }
 
     public InnerClasses_attribute getInnerClasses() {
@@ -193,4 +202,8 @@ public class InnerClass implements com.jeantessier.classreader.InnerClass {
     public void accept(Visitor visitor) {
         visitor.visitInnerClass(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
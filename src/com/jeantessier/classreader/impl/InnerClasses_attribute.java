@@ -35,23 +35,30 @@ package com.jeantessier.classreader.impl;
 import java.io.*;
 import java.util.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class InnerClasses_attribute extends Attribute_info implements com.jeantessier.classreader.InnerClasses_attribute {
+    private static final Trace trace = Trace.getTrace(InnerClasses_attribute.class);
+
     private Collection<InnerClass> classes = new LinkedList<InnerClass>();
 
     public InnerClasses_attribute(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Attribute length: " + byteCount);
+        }
 
         int classCount = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + classCount + " inner class(es) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Reading " + classCount + " inner class(es) ...");
+        }
         for (int i=0; i<classCount; i++) {
-            Logger.getLogger(getClass()).debug("Inner class " + i + ":");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Inner class " + i + ":");
+            }
             classes.add(new InnerClass(this, in));
         }
     }
@@ -71,4 +78,8 @@ public class InnerClasses_attribute extends Attribute_info implements com.jeante
     public void accept(Visitor visitor) {
         visitor.visitInnerClasses_attribute(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
@@ -581,6 +581,14 @@ public class Instruction implements com.jeantessier.classreader.Instruction {
         this.start = start;
     }
 
+    /**
+     *  Moves this instruction to another opcode in the same bytecode.  Only
+     *  for {@link CodeIterator}'s reused instruction.
+     */
+    void moveTo(int start) {
+        this.start = start;
+    }
+
     public byte[] getBytecode() {
         return bytecode;
     }
@@ -34,11 +34,12 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class LineNumber implements com.jeantessier.classreader.LineNumber {
+    private static final Trace trace = Trace.getTrace(LineNumber.class);
+
     private LineNumberTable_attribute lineNumberTable;
     private int                       startPC;
     private int                       lineNumber;
@@ -47,10 +48,14 @@ public class LineNumber implements com.jeantessier.classreader.LineNumber {
         setLineNumberTable(lineNumberTable);
 
         startPC = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Line number table start PC: " + startPC);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Line number table start PC: " + startPC);
+        }
 
         lineNumber = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Line number: " + lineNumber);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Line number: " + lineNumber);
+        }
     }
 
     public LineNumberTable_attribute getLineNumberTable() {
@@ -76,4 +81,8 @@ public class LineNumber implements com.jeantessier.classreader.LineNumber {
     public void accept(Visitor visitor) {
         visitor.visitLineNumber(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
@@ -35,23 +35,30 @@ package com.jeantessier.classreader.impl;
 import java.io.*;
 import java.util.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class LineNumberTable_attribute extends Attribute_info implements com.jeantessier.classreader.LineNumberTable_attribute {
+    private static final Trace trace = Trace.getTrace(LineNumberTable_attribute.class);
+
     private Collection<LineNumber> lineNumbers = new LinkedList<LineNumber>();
 
     public LineNumberTable_attribute(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Attribute length: " + byteCount);
+        }
 
         int lineNumberTableLength = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + lineNumberTableLength + " line number(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Reading " + lineNumberTableLength + " line number(s) ...");
+        }
         for (int i=0; i<lineNumberTableLength; i++) {
-            Logger.getLogger(getClass()).debug("Line number entry " + i + ":");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Line number entry " + i + ":");
+            }
             lineNumbers.add(new LineNumber(this, in));
         }
     }
@@ -71,4 +78,8 @@ public class LineNumberTable_attribute extends Attribute_info implements com.jea
     public void accept(Visitor visitor) {
         visitor.visitLineNumberTable_attribute(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
@@ -34,11 +34,12 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class LocalVariable implements com.jeantessier.classreader.LocalVariable {
+    private static final Trace trace = Trace.getTrace(LocalVariable.class);
+
     private LocalVariableTable_attribute localVariableTable;
     private int startPC;
     private int length;
@@ -50,19 +51,29 @@ public class LocalVariable implements com.jeantessier.classreader.LocalVariable
         this.localVariableTable = localVariableTable;
 
         startPC = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("start PC: " + startPC);
+        if (trace().isDebugEnabled()) {
+            trace().debug("start PC: " + startPC);
+        }
 
         length = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("length: " + length);
+        if (trace().isDebugEnabled()) {
+            trace().debug("length: " + length);
+        }
 
         nameIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("name: " + nameIndex + " (" + getName() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("name: " + nameIndex + " (" + getName() + ")");
+        }
 
         descriptorIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("descriptor: " + descriptorIndex + " (" + getDescriptor() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("descriptor: " + descriptorIndex + " (" + getDescriptor() + ")");
+        }
 
         index = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("index: " + index);
+        if (trace().isDebugEnabled()) {
+            trace().debug("index: " + index);
+        }
     }
 
     public LocalVariableTable_attribute getLocalVariableTable() {
@@ -112,4 +123,8 @@ public class LocalVariable implements com.jeantessier.classreader.LocalVariable
     public void accept(Visitor visitor) {
         visitor.visitLocalVariable(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
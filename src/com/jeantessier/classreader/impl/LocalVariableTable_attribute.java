@@ -35,23 +35,30 @@ package com.jeantessier.classreader.impl;
 import java.io.*;
 import java.util.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class LocalVariableTable_attribute extends Attribute_info implements com.jeantessier.classreader.LocalVariableTable_attribute {
+    private static final Trace trace = Trace.getTrace(LocalVariableTable_attribute.class);
+
     private Collection<LocalVariable> localVariables = new LinkedList<LocalVariable>();
 
     public LocalVariableTable_attribute(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Attribute length: " + byteCount);
+        }
 
         int localVariableTableLength = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + localVariableTableLength + " local variable(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Reading " + localVariableTableLength + " local variable(s) ...");
+        }
         for (int i=0; i<localVariableTableLength; i++) {
-            Logger.getLogger(getClass()).debug("Local variable " + i + ":");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Local variable " + i + ":");
+            }
             localVariables.add(new LocalVariable(this, in));
         }
     }
@@ -71,4 +78,8 @@ public class LocalVariableTable_attribute extends Attribute_info implements com.
     public void accept(Visitor visitor) {
         visitor.visitLocalVariableTable_attribute(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
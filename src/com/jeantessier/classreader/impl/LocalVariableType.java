@@ -34,11 +34,12 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class LocalVariableType implements com.jeantessier.classreader.LocalVariableType {
+    private static final Trace trace = Trace.getTrace(LocalVariableType.class);
+
     private LocalVariableTypeTable_attribute localVariableTypeTable;
     private int startPC;
     private int length;
@@ -50,19 +51,29 @@ public class LocalVariableType implements com.jeantessier.classreader.LocalVaria
         this.localVariableTypeTable = localVariableTypeTable;
 
         startPC = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("start PC: " + startPC);
+        if (trace().isDebugEnabled()) {
+            trace().debug("start PC: " + startPC);
+        }
 
         length = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("length: " + length);
+        if (trace().isDebugEnabled()) {
+            trace().debug("length: " + length);
+        }
 
         nameIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("name: " + nameIndex + " (" + getName() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("name: " + nameIndex + " (" + getName() + ")");
+        }
 
         signatureIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("signature: " + signatureIndex + " (" + getSignature() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("signature: " + signatureIndex + " (" + getSignature() + ")");
+        }
 
         index = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("index: " + index);
+        if (trace().isDebugEnabled()) {
+            trace().debug("index: " + index);
+        }
     }
 
     public LocalVariableTypeTable_attribute getLocalVariableTypeTable() {
@@ -112,4 +123,8 @@ public class LocalVariableType implements com.jeantessier.classreader.LocalVaria
     public void accept(Visitor visitor) {
         visitor.visitLocalVariableType(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
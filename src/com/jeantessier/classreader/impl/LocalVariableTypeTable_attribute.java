@@ -35,23 +35,30 @@ package com.jeantessier.classreader.impl;
 import java.io.*;
 import java.util.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class LocalVariableTypeTable_attribute extends Attribute_info implements com.jeantessier.classreader.LocalVariableTypeTable_attribute {
+    private static final Trace trace = Trace.getTrace(LocalVariableTypeTable_attribute.class);
+
     private Collection<LocalVariableType> localVariableTypes = new LinkedList<LocalVariableType>();
 
     public LocalVariableTypeTable_attribute(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Attribute length: " + byteCount);
+        }
 
         int localVariableTableTypeLength = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + localVariableTableTypeLength + " local variable type(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Reading " + localVariableTableTypeLength + " local variable type(s) ...");
+        }
         for (int i=0; i<localVariableTableTypeLength; i++) {
-            Logger.getLogger(getClass()).debug("Local variable type " + i + ":");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Local variable type " + i + ":");
+            }
             localVariableTypes.add(new LocalVariableType(this, in));
         }
     }
@@ -71,4 +78,8 @@ public class LocalVariableTypeTable_attribute extends Attribute_info implements
     public void accept(Visitor visitor) {
         visitor.visitLocalVariableTypeTable_attribute(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
@@ -35,18 +35,23 @@ package com.jeantessier.classreader.impl;
 import java.io.*;
 import java.util.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class Parameter implements com.jeantessier.classreader.Parameter {
+    private static final Trace trace = Trace.getTrace(Parameter.class);
+
     private Collection<Annotation> annotations = new LinkedList<Annotation>();
 
     public Parameter(ConstantPool constantPool, DataInput in) throws IOException {
         int numAnnotations = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + numAnnotations + " annotation(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Reading " + numAnnotations + " annotation(s) ...");
+        }
         for (int i=0; i<numAnnotations; i++) {
-            Logger.getLogger(getClass()).debug("Annotation " + i + ":");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Annotation " + i + ":");
+            }
             annotations.add(new Annotation(constantPool, in));
         }
     }
@@ -58,4 +63,8 @@ public class Parameter implements com.jeantessier.classreader.Parameter {
     public void accept(Visitor visitor) {
         visitor.visitParameter(this);
     }
-}
\ No newline at end of file
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
+}
@@ -35,23 +35,30 @@ package com.jeantessier.classreader.impl;
 import java.io.*;
 import java.util.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public abstract class RuntimeAnnotations_attribute extends Annotations_attribute implements com.jeantessier.classreader.RuntimeAnnotations_attribute {
+    private static final Trace trace = Trace.getTrace(RuntimeAnnotations_attribute.class);
+
     private Collection<Annotation> annotations = new LinkedList<Annotation>();
 
     public RuntimeAnnotations_attribute(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Attribute length: " + byteCount);
+        }
 
         int numAnnotations = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Reading " + numAnnotations + " annotation(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Reading " + numAnnotations + " annotation(s) ...");
+        }
         for (int i=0; i<numAnnotations; i++) {
-            Logger.getLogger(getClass()).debug("annotation " + i + ":");
+            if (trace().isDebugEnabled()) {
+                trace().debug("annotation " + i + ":");
+            }
             annotations.add(new Annotation(constantPool, in));
         }
     }
@@ -59,4 +66,8 @@ public abstract class RuntimeAnnotations_attribute extends Annotations_attribute
     public Collection<? extends Annotation> getAnnotations() {
         return annotations;
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
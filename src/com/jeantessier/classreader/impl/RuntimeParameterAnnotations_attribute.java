@@ -35,23 +35,30 @@ package com.jeantessier.classreader.impl;
 import java.io.*;
 import java.util.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public abstract class RuntimeParameterAnnotations_attribute extends Annotations_attribute implements com.jeantessier.classreader.RuntimeParameterAnnotations_attribute {
+    private static final Trace trace = Trace.getTrace(RuntimeParameterAnnotations_attribute.class);
+
     private List<Parameter> parameterAnnotations = new ArrayList<Parameter>();
 
     public RuntimeParameterAnnotations_attribute(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Attribute length: " + byteCount);
+        }
 
         int numParameters = in.readUnsignedByte();
-        Logger.getLogger(getClass()).debug("Reading " + numParameters + " parameter(s) ...");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Reading " + numParameters + " parameter(s) ...");
+        }
         for (int i=0; i<numParameters; i++) {
-            Logger.getLogger(getClass()).debug("parameter " + i + ":");
+            if (trace().isDebugEnabled()) {
+                trace().debug("parameter " + i + ":");
+            }
             parameterAnnotations.add(new Parameter(constantPool, in));
         }
     }
@@ -59,4 +66,8 @@ public abstract class RuntimeParameterAnnotations_attribute extends Annotations_
     public List<? extends Parameter> getParameterAnnotations() {
         return parameterAnnotations;
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
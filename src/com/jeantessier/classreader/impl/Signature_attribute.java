@@ -34,21 +34,26 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class Signature_attribute extends Attribute_info implements com.jeantessier.classreader.Signature_attribute {
+    private static final Trace trace = Trace.getTrace(Signature_attribute.class);
+
     private int signatureIndex;
 
     public Signature_attribute(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Attribute length: " + byteCount);
+        }
 
         signatureIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Signature: " + signatureIndex + " (" + getSignature() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Signature: " + signatureIndex + " (" + getSignature() + ")");
+        }
     }
 
     public int getSignatureIndex() {
@@ -74,4 +79,8 @@ public class Signature_attribute extends Attribute_info implements com.jeantessi
     public void accept(Visitor visitor) {
         visitor.visitSignature_attribute(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
@@ -34,21 +34,26 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class SourceDebugExtension_attribute extends Attribute_info implements com.jeantessier.classreader.SourceDebugExtension_attribute {
+    private static final Trace trace = Trace.getTrace(SourceDebugExtension_attribute.class);
+
     private String debugExtension;
 
     public SourceDebugExtension_attribute(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Attribute length: " + byteCount);
+        }
 
         debugExtension = in.readUTF();
-        Logger.getLogger(getClass()).debug("Debug extension: " + debugExtension);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Debug extension: " + debugExtension);
+        }
     }
 
     public String getDebugExtension() {
@@ -66,4 +71,8 @@ public class SourceDebugExtension_attribute extends Attribute_info implements co
     public void accept(Visitor visitor) {
         visitor.visitSourceDebugExtension_attribute(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
@@ -34,21 +34,26 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class SourceFile_attribute extends Attribute_info implements com.jeantessier.classreader.SourceFile_attribute {
+    private static final Trace trace = Trace.getTrace(SourceFile_attribute.class);
+
     private int sourceFileIndex;
 
     public SourceFile_attribute(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Attribute length: " + byteCount);
+        }
 
         sourceFileIndex = in.readUnsignedShort();
-        Logger.getLogger(getClass()).debug("Source file: " + sourceFileIndex + " (" + getSourceFile() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Source file: " + sourceFileIndex + " (" + getSourceFile() + ")");
+        }
     }
 
     public int getSourceFileIndex() {
@@ -74,5 +79,8 @@ public class SourceFile_attribute extends Attribute_info implements com.jeantess
     public void accept(Visitor visitor) {
         visitor.visitSourceFile_attribute(this);
     }
-}
 
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
+}
@@ -34,14 +34,17 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class StringConstantElementValue extends ConstantElementValue implements com.jeantessier.classreader.StringConstantElementValue {
+    private static final Trace trace = Trace.getTrace(StringConstantElementValue.class);
+
     public StringConstantElementValue(ConstantPool constantPool, DataInput in) throws IOException {
         super(constantPool, in);
-        Logger.getLogger(getClass()).debug("Const value index: " + getConstValueIndex() + " (" + getConstValue() + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Const value index: " + getConstValueIndex() + " (" + getConstValue() + ")");
+        }
     }
 
     public String getConstValue() {
@@ -55,4 +58,8 @@ public class StringConstantElementValue extends ConstantElementValue implements
     public void accept(Visitor visitor) {
         visitor.visitStringConstantElementValue(this);
     }
-}
\ No newline at end of file
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
+}
@@ -34,16 +34,19 @@ package com.jeantessier.classreader.impl;
 
 import java.io.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class Synthetic_attribute extends Attribute_info implements com.jeantessier.classreader.Synthetic_attribute {
+    private static final Trace trace = Trace.getTrace(Synthetic_attribute.class);
+
     public Synthetic_attribute(ConstantPool constantPool, Visitable owner, DataInput in) throws IOException {
         super(constantPool, owner);
 
         int byteCount = in.readInt();
-        Logger.getLogger(getClass()).debug("Attribute length: " + byteCount);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Attribute length: " + byteCount);
+        }
     }
 
     public String toString() {
@@ -57,4 +60,8 @@ public class Synthetic_attribute extends Attribute_info implements com.jeantessi
     public void accept(Visitor visitor) {
         visitor.visitSynthetic_attribute(this);
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
@@ -36,10 +36,10 @@ import java.util.*;
 
 public class ClassNode extends Node {
     private PackageNode packageNode;
-    private Collection<FeatureNode> features = new HashSet<FeatureNode>();
+    private NodeSet<FeatureNode> features = new NodeSet<FeatureNode>();
 
-    private Collection<ClassNode> parents = new HashSet<ClassNode>();
-    private Collection<ClassNode> children = new HashSet<ClassNode>();
+    private NodeSet<ClassNode> parents = new NodeSet<ClassNode>();
+    private NodeSet<ClassNode> children = new NodeSet<ClassNode>();
 
     public ClassNode(PackageNode packageNode, String name, boolean concrete) {
         super(name, concrete);
@@ -67,15 +67,19 @@ public class ClassNode extends Node {
     }
 
     public void addFeature(FeatureNode node) {
-        features.add(node);
+        synchronized(features) {
+            features.add(node);
+        }
     }
 
     public void removeFeature(FeatureNode node) {
-        features.remove(node);
+        synchronized(features) {
+            features.remove(node);
+        }
     }
 
     public Collection<FeatureNode> getFeatures() {
-        return Collections.unmodifiableCollection(features);
+        return features.getReadOnlyView();
     }
 
     public boolean canAddDependencyTo(Node node) {
@@ -95,16 +99,20 @@ public class ClassNode extends Node {
     }
 
     public void addParent(ClassNode parentClass) {
-        parents.add(parentClass);
-        parentClass.children.add(this);
+        synchronized(parents) {
+            parents.add(parentClass);
+        }
+        synchronized(parentClass.children) {
+            parentClass.children.add(this);
+        }
     }
 
     public Collection<ClassNode> getParents() {
-        return Collections.unmodifiableCollection(parents);
+        return parents.getReadOnlyView();
     }
 
     public Collection<ClassNode> getChildren() {
-        return Collections.unmodifiableCollection(children);
+        return children.getReadOnlyView();
     }
 
     public FeatureNode getFeature(String featureSimpleName) {
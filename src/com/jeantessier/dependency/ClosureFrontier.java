@@ -0,0 +1,362 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ *  <p>Layers of a transitive closure over dense node ids, for
+ *  {@link TransitiveClosureEngine}.  Each node gets an id the first time the
+ *  closure reaches it, and the visited nodes and each new layer are bit sets.
+ *  A layer only remembers its nodes and the dependencies that reached them,
+ *  so that copies can wait until someone asks for them.</p>
+ *
+ *  <p>Given an executor, it splits wide layers into slices that look up
+ *  dependencies in parallel, since that only reads the graph.  It then
+ *  merges the slices in order on the calling thread, which is the same order
+ *  as a single thread would go, so ids and layers come out the same.</p>
+ *
+ *  <p>Given a {@link DenseGraph}, it uses the ids and dependencies of the
+ *  graph instead, which is fast enough that it does not bother with
+ *  threads.</p>
+ */
+class ClosureFrontier {
+    private static final int MINIMUM_NODES_PER_SLICE = 256;
+    private static final int SLICES_PER_THREAD = 4;
+
+    private boolean inbound;
+    private DenseGraph graph;
+
+    private Map<Node, Integer> ids = new HashMap<Node, Integer>();
+    private List<Node> nodes = new ArrayList<Node>();
+    private List<Node> copies = new ArrayList<Node>();
+
+    private BitSet visited = new BitSet();
+
+    private List<int[]> layerNodes = new ArrayList<int[]>();
+    private List<int[]> layerLinks = new ArrayList<int[]>();
+
+    public ClosureFrontier(boolean inbound) {
+        this(inbound, null);
+    }
+
+    public ClosureFrontier(boolean inbound, DenseGraph graph) {
+        this.inbound = inbound;
+        this.graph = graph;
+
+        if (graph != null) {
+            copies.addAll(Collections.<Node>nCopies(graph.size(), null));
+        }
+    }
+
+    public int getNbLayers() {
+        return layerNodes.size();
+    }
+
+    public Collection<Node> addStartingNodes(Collection<? extends Node> nodes, SelectionCriteria criteria) {
+        BitSet starts = new BitSet();
+
+        for (Node node : nodes) {
+            addStartingNode(node, criteria, starts);
+        }
+
+        visited.or(starts);
+
+        return addLayer(starts, new int[0]);
+    }
+
+    private void addStartingNode(Node node, SelectionCriteria criteria, BitSet starts) {
+        if (node instanceof PackageNode) {
+            PackageNode packageNode = (PackageNode) node;
+            if (criteria.matches(packageNode)) {
+                starts.set(getId(packageNode));
+            }
+
+            for (ClassNode classNode : packageNode.getClasses()) {
+                addStartingNode(classNode, criteria, starts);
+            }
+        } else if (node instanceof ClassNode) {
+            ClassNode classNode = (ClassNode) node;
+            if (criteria.matches(classNode)) {
+                starts.set(getId(classNode));
+            }
+
+            for (FeatureNode featureNode : classNode.getFeatures()) {
+                addStartingNode(featureNode, criteria, starts);
+            }
+        } else if (node instanceof FeatureNode) {
+            if (criteria.matches((FeatureNode) node)) {
+                starts.set(getId(node));
+            }
+        }
+    }
+
+    public Collection<Node> computeNextLayer() {
+        return computeNextLayer(null, 1);
+    }
+
+    /**
+     *  Follows dependencies from the last layer and returns the nodes that
+     *  make up the new layer, or an empty collection if there are none.
+     */
+    public Collection<Node> computeNextLayer(ExecutorService executor, int threads) {
+        int[] layer = layerNodes.get(layerNodes.size() - 1);
+        int nbSlices = Math.min(threads * SLICES_PER_THREAD, layer.length / MINIMUM_NODES_PER_SLICE);
+
+        BitSet next = new BitSet();
+        int[] links = new int[16];
+        int linkCount = 0;
+
+        if (graph != null) {
+            for (int id : layer) {
+                for (int dependencyId : inbound ? graph.getInbound(id) : graph.getOutbound(id)) {
+                    if (!visited.get(dependencyId)) {
+                        next.set(dependencyId);
+
+                        if (linkCount == links.length) {
+                            links = Arrays.copyOf(links, linkCount * 2);
+                        }
+                        links[linkCount++] = id;
+                        links[linkCount++] = dependencyId;
+                    }
+                }
+            }
+        } else if (executor != null && nbSlices > 1) {
+            List<Future<Slice>> futures = new ArrayList<Future<Slice>>(nbSlices);
+            for (int i = 0; i < nbSlices; i++) {
+                futures.add(executor.submit(new Slice(layer, layer.length * i / nbSlices, layer.length * (i + 1) / nbSlices)));
+            }
+
+            // Wait for all slices, since the merge adds to the ids they read.
+            List<Slice> slices = new ArrayList<Slice>(nbSlices);
+            for (Future<Slice> future : futures) {
+                slices.add(getSlice(future));
+            }
+
+            for (Slice slice : slices) {
+                for (int i = 0; i < slice.size; i++) {
+                    int dependencyId = slice.dependencyIds[i] != -1 ? slice.dependencyIds[i] : getId(slice.dependencies[i]);
+                    if (!visited.get(dependencyId)) {
+                        next.set(dependencyId);
+
+                        if (linkCount == links.length) {
+                            links = Arrays.copyOf(links, linkCount * 2);
+                        }
+                        links[linkCount++] = slice.sources[i];
+                        links[linkCount++] = dependencyId;
+                    }
+                }
+            }
+        } else {
+            for (int id : layer) {
+                for (Node dependency : getDependencies(nodes.get(id))) {
+                    int dependencyId = getId(dependency);
+                    if (!visited.get(dependencyId)) {
+                        next.set(dependencyId);
+
+                        if (linkCount == links.length) {
+                            links = Arrays.copyOf(links, linkCount * 2);
+                        }
+                        links[linkCount++] = id;
+                        links[linkCount++] = dependencyId;
+                    }
+                }
+            }
+        }
+
+        Collection<Node> result = Collections.emptyList();
+
+        if (!next.isEmpty()) {
+            visited.or(next);
+            result = addLayer(next, Arrays.copyOf(links, linkCount));
+        }
+
+        return result;
+    }
+
+    private Collection<Node> getDependencies(Node node) {
+        return inbound ? node.getInboundDependencies() : node.getOutboundDependencies();
+    }
+
+    private static Slice getSlice(Future<Slice> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while computing closure layer", ex);
+        } catch (ExecutionException ex) {
+            throw new RuntimeException(ex.getCause());
+        }
+    }
+
+    private int getId(Node node) {
+        if (graph != null) {
+            int result = graph.getId(node);
+            if (result == -1) {
+                throw new IllegalArgumentException(node + " is not in the reachability index");
+            }
+            return result;
+        }
+
+        Integer result = ids.get(node);
+
+        if (result == null) {
+            result = nodes.size();
+            ids.put(node, result);
+            nodes.add(node);
+            copies.add(null);
+        }
+
+        return result;
+    }
+
+    private Collection<Node> addLayer(BitSet members, int[] links) {
+        int[] layer = new int[members.cardinality()];
+        Collection<Node> result = new ArrayList<Node>(layer.length);
+
+        int i = 0;
+        for (int id = members.nextSetBit(0); id >= 0; id = members.nextSetBit(id + 1)) {
+            layer[i++] = id;
+            result.add(getNode(id));
+        }
+
+        layerNodes.add(layer);
+        layerLinks.add(links);
+
+        return result;
+    }
+
+    /**
+     *  Copies the nodes of a layer into the factory, with the dependencies
+     *  that led to them from the previous layer.
+     */
+    public Collection<Node> copyLayer(int i, NodeFactory factory) {
+        int[] layer = layerNodes.get(i);
+        Collection<Node> result = new ArrayList<Node>(layer.length);
+
+        for (int id : layer) {
+            result.add(getCopy(id, factory));
+        }
+
+        int[] links = layerLinks.get(i);
+        for (int j = 0; j < links.length; j += 2) {
+            Node current = getCopy(links[j], factory);
+            Node copy = getCopy(links[j + 1], factory);
+
+            if (inbound) {
+                copy.addDependency(current);
+            } else {
+                current.addDependency(copy);
+            }
+        }
+
+        return result;
+    }
+
+    private Node getNode(int id) {
+        return graph != null ? graph.getNode(id) : nodes.get(id);
+    }
+
+    private Node getCopy(int id, NodeFactory factory) {
+        Node result = copies.get(id);
+
+        if (result == null) {
+            Node node = getNode(id);
+
+            if (node instanceof PackageNode) {
+                result = factory.createPackage(node.getName(), node.isConfirmed());
+            } else if (node instanceof ClassNode) {
+                result = factory.createClass(node.getName(), node.isConfirmed());
+            } else {
+                result = factory.createFeature(node.getName(), node.isConfirmed());
+            }
+
+            copies.set(id, result);
+        }
+
+        return result;
+    }
+
+    /**
+     *  Dependencies from part of a layer that the closure has not covered
+     *  yet.  Only nodes that already have an id get it here; the merge gives
+     *  ids to the others.
+     */
+    private class Slice implements Callable<Slice> {
+        private int[] layer;
+        private int start;
+        private int end;
+
+        private int size;
+        private int[] sources = new int[16];
+        private Node[] dependencies = new Node[16];
+        private int[] dependencyIds = new int[16];
+
+        public Slice(int[] layer, int start, int end) {
+            this.layer = layer;
+            this.start = start;
+            this.end = end;
+        }
+
+        public Slice call() {
+            for (int i = start; i < end; i++) {
+                int id = layer[i];
+
+                for (Node dependency : getDependencies(nodes.get(id))) {
+                    Integer dependencyId = ids.get(dependency);
+                    if (dependencyId == null) {
+                        add(id, dependency, -1);
+                    } else if (!visited.get(dependencyId)) {
+                        add(id, dependency, dependencyId);
+                    }
+                }
+            }
+
+            return this;
+        }
+
+        private void add(int id, Node dependency, int dependencyId) {
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size * 2);
+                dependencies = Arrays.copyOf(dependencies, size * 2);
+                dependencyIds = Arrays.copyOf(dependencyIds, size * 2);
+            }
+
+            sources[size] = id;
+            dependencies[size] = dependency;
+            dependencyIds[size] = dependencyId;
+            size++;
+        }
+    }
+}
@@ -43,6 +43,14 @@ public class ClosureInboundSelector extends ClosureLayerSelector {
         super(factory, coverage);
     }
 
+    /**
+     *  <p>Only for this exact class.  Subclasses might override the visit
+     *  methods, so they get visited like any other selector.</p>
+     */
+    public boolean isFollowingInbound() {
+        return getClass() == ClosureInboundSelector.class;
+    }
+
     public void visitPackageNode(PackageNode node) {
         super.visitPackageNode(node);
 
@@ -62,6 +62,24 @@ public abstract class ClosureLayerSelector extends ClosureSelector {
     public void setCoverage(Collection<? extends Node> coverage) {
         this.coverage = coverage;
     }
+
+    /**
+     *  <p>True if this selector follows inbound dependencies and copies
+     *  nodes just like this class does.  {@link TransitiveClosureEngine}
+     *  can then compute its layers without visiting the graph, so
+     *  subclasses that override any visit method must return false.</p>
+     */
+    public boolean isFollowingInbound() {
+        return false;
+    }
+
+    /**
+     *  <p>True if this selector follows outbound dependencies and copies
+     *  nodes just like this class does.</p>
+     */
+    public boolean isFollowingOutbound() {
+        return false;
+    }
     
     public void visitPackageNode(PackageNode node) {
         currentNode = getFactory().createPackage(node.getName(), node.isConfirmed());
@@ -43,6 +43,14 @@ public class ClosureOutboundSelector extends ClosureLayerSelector {
         super(factory, coverage);
     }
 
+    /**
+     *  <p>Only for this exact class.  Subclasses might override the visit
+     *  methods, so they get visited like any other selector.</p>
+     */
+    public boolean isFollowingOutbound() {
+        return getClass() == ClosureOutboundSelector.class;
+    }
+
     public void visitPackageNode(PackageNode node) {
         super.visitPackageNode(node);
 
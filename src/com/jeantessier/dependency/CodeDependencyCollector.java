@@ -34,9 +34,8 @@ package com.jeantessier.dependency;
 
 import java.util.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 /**
  * <p>Traverses a Classfile and extracts dependencies from its code.</p>
@@ -49,6 +48,8 @@ import com.jeantessier.classreader.*;
  * </ul>
  */
 public class CodeDependencyCollector extends CollectorBase {
+    private static final Trace trace = Trace.getTrace(CodeDependencyCollector.class);
+
     private NodeFactory factory;
     private SelectionCriteria filterCriteria;
 
@@ -116,9 +117,9 @@ public class CodeDependencyCollector extends CollectorBase {
 
     public void visitClass_info(Class_info entry) {
         String classname = entry.getName();
-        if (Logger.getLogger(getClass()).isDebugEnabled()) {
-            Logger.getLogger(getClass()).debug("VisitClass_info():");
-            Logger.getLogger(getClass()).debug("    name = \"" + classname + "\"");
+        if (trace().isDebugEnabled()) {
+            trace().debug("VisitClass_info():");
+            trace().debug("    name = \"" + classname + "\"");
         }
 
         if (classname.startsWith("[")) {
@@ -131,19 +132,19 @@ public class CodeDependencyCollector extends CollectorBase {
     }
 
     public void visitFieldRef_info(FieldRef_info entry) {
-        if (Logger.getLogger(getClass()).isDebugEnabled()) {
-            Logger.getLogger(getClass()).debug("VisitFieldRef_info():");
-            Logger.getLogger(getClass()).debug("    class = \"" + entry.getClassName() + "\"");
-            Logger.getLogger(getClass()).debug("    name = \"" + entry.getRawNameAndType().getName() + "\"");
-            Logger.getLogger(getClass()).debug("    type = \"" + entry.getRawNameAndType().getType() + "\"");
+        if (trace().isDebugEnabled()) {
+            trace().debug("VisitFieldRef_info():");
+            trace().debug("    class = \"" + entry.getClassName() + "\"");
+            trace().debug("    name = \"" + entry.getRawNameAndType().getName() + "\"");
+            trace().debug("    type = \"" + entry.getRawNameAndType().getType() + "\"");
         }
 
         String signature = entry.getFullSignature();
         if (filterCriteria.isMatchingFeatures() && filterCriteria.matchesFeatureName(signature)) {
             Node other = getFactory().createFeature(signature);
             getCurrent().addDependency(other);
-            if (Logger.getLogger(getClass()).isDebugEnabled()) {
-                Logger.getLogger(getClass()).info("FieldRef_info dependency: " + getCurrent() + " --> " + other);
+            if (trace().isDebugEnabled()) {
+                trace().info("FieldRef_info dependency: " + getCurrent() + " --> " + other);
             }
             fireDependency(getCurrent(), other);
         }
@@ -154,11 +155,11 @@ public class CodeDependencyCollector extends CollectorBase {
     }
 
     public void visitMethodRef_info(MethodRef_info entry) {
-        if (Logger.getLogger(getClass()).isDebugEnabled()) {
-            Logger.getLogger(getClass()).debug("VisitMethodRef_info():");
-            Logger.getLogger(getClass()).debug("    class = \"" + entry.getClassName() + "\"");
-            Logger.getLogger(getClass()).debug("    name = \"" + entry.getRawNameAndType().getName() + "\"");
-            Logger.getLogger(getClass()).debug("    type = \"" + entry.getRawNameAndType().getType() + "\"");
+        if (trace().isDebugEnabled()) {
+            trace().debug("VisitMethodRef_info():");
+            trace().debug("    class = \"" + entry.getClassName() + "\"");
+            trace().debug("    name = \"" + entry.getRawNameAndType().getName() + "\"");
+            trace().debug("    type = \"" + entry.getRawNameAndType().getType() + "\"");
         }
 
         if (!entry.isStaticInitializer()) {
@@ -166,8 +167,8 @@ public class CodeDependencyCollector extends CollectorBase {
             if (filterCriteria.isMatchingFeatures() && filterCriteria.matchesFeatureName(signature)) {
                 Node other  = getFactory().createFeature(signature);
                 getCurrent().addDependency(other);
-                if (Logger.getLogger(getClass()).isDebugEnabled()) {
-                    Logger.getLogger(getClass()).info("MethodRef_info dependency: " + getCurrent() + " --> " + other);
+                if (trace().isDebugEnabled()) {
+                    trace().info("MethodRef_info dependency: " + getCurrent() + " --> " + other);
                 }
                 fireDependency(getCurrent(), other);
             }
@@ -179,19 +180,19 @@ public class CodeDependencyCollector extends CollectorBase {
     }
 
     public void visitInterfaceMethodRef_info(InterfaceMethodRef_info entry) {
-        if (Logger.getLogger(getClass()).isDebugEnabled()) {
-            Logger.getLogger(getClass()).debug("VisitInterfaceMethodRef_info():");
-            Logger.getLogger(getClass()).debug("    class = \"" + entry.getClassName() + "\"");
-            Logger.getLogger(getClass()).debug("    name = \"" + entry.getRawNameAndType().getName() + "\"");
-            Logger.getLogger(getClass()).debug("    type = \"" + entry.getRawNameAndType().getType() + "\"");
+        if (trace().isDebugEnabled()) {
+            trace().debug("VisitInterfaceMethodRef_info():");
+            trace().debug("    class = \"" + entry.getClassName() + "\"");
+            trace().debug("    name = \"" + entry.getRawNameAndType().getName() + "\"");
+            trace().debug("    type = \"" + entry.getRawNameAndType().getType() + "\"");
         }
 
         String signature = entry.getFullSignature();
         if (filterCriteria.isMatchingFeatures() && filterCriteria.matchesFeatureName(signature)) {
             Node other  = getFactory().createFeature(signature);
             getCurrent().addDependency(other);
-            if (Logger.getLogger(getClass()).isDebugEnabled()) {
-                Logger.getLogger(getClass()).info("InterfaceMethodRef_info dependency: " + getCurrent() + " --> " + other);
+            if (trace().isDebugEnabled()) {
+                trace().info("InterfaceMethodRef_info dependency: " + getCurrent() + " --> " + other);
             }
             fireDependency(getCurrent(), other);
         }
@@ -202,10 +203,10 @@ public class CodeDependencyCollector extends CollectorBase {
     }
 
     public void visitField_info(Field_info entry) {
-        if (Logger.getLogger(getClass()).isDebugEnabled()) {
-            Logger.getLogger(getClass()).debug("VisitField_info():");
-            Logger.getLogger(getClass()).debug("    name = \"" + entry.getName() + "\"");
-            Logger.getLogger(getClass()).debug("    descriptor = \"" + entry.getDescriptor() + "\"");
+        if (trace().isDebugEnabled()) {
+            trace().debug("VisitField_info():");
+            trace().debug("    name = \"" + entry.getName() + "\"");
+            trace().debug("    descriptor = \"" + entry.getDescriptor() + "\"");
         }
 
         setCurrent(getFactory().createFeature(entry.getFullSignature(), true));
@@ -216,10 +217,10 @@ public class CodeDependencyCollector extends CollectorBase {
     }
 
     public void visitMethod_info(Method_info entry) {
-        if (Logger.getLogger(getClass()).isDebugEnabled()) {
-            Logger.getLogger(getClass()).debug("VisitMethod_info():");
-            Logger.getLogger(getClass()).debug("    name = \"" + entry.getName() + "\"");
-            Logger.getLogger(getClass()).debug("    descriptor = \"" + entry.getDescriptor() + "\"");
+        if (trace().isDebugEnabled()) {
+            trace().debug("VisitMethod_info():");
+            trace().debug("    name = \"" + entry.getName() + "\"");
+            trace().debug("    descriptor = \"" + entry.getDescriptor() + "\"");
         }
 
         setCurrent(getFactory().createFeature(entry.getFullSignature(), true));
@@ -229,8 +230,19 @@ public class CodeDependencyCollector extends CollectorBase {
         super.visitMethod_info(entry);
     }
 
+    /**
+     *  Does not keep instructions around, so it can walk the bytecode with
+     *  a single reused instruction.
+     */
+    protected void visitInstructions(Code_attribute attribute) {
+        Iterator<Instruction> i = attribute.instructionCursor();
+        while (i.hasNext()) {
+            i.next().accept(this);
+        }
+    }
+
     public void visitInstruction(Instruction helper) {
-        Logger.getLogger(getClass()).debug("VisitInstruction() ...");
+        trace().debug("VisitInstruction() ...");
 
         /*
          *  We can skip the "new" (0xbb) instruction as it is always
@@ -264,8 +276,8 @@ public class CodeDependencyCollector extends CollectorBase {
     }
 
     public void visitExceptionHandler(ExceptionHandler helper) {
-        if (Logger.getLogger(getClass()).isDebugEnabled()) {
-            Logger.getLogger(getClass()).debug(getClass().getName() + "VisitExceptionHandler(): " + helper);
+        if (trace().isDebugEnabled()) {
+            trace().debug(getClass().getName() + "VisitExceptionHandler(): " + helper);
         }
 
         if (helper.getCatchTypeIndex() != 0) {
@@ -286,8 +298,8 @@ public class CodeDependencyCollector extends CollectorBase {
         if (filterCriteria.isMatchingFeatures() && filterCriteria.matchesFeatureName(signature)) {
             Node other = getFactory().createFeature(signature);
             getCurrent().addDependency(other);
-            if (Logger.getLogger(getClass()).isDebugEnabled()) {
-                Logger.getLogger(getClass()).info("EnumElementValue dependency: " + getCurrent() + " --> " + other);
+            if (trace().isDebugEnabled()) {
+                trace().info("EnumElementValue dependency: " + getCurrent() + " --> " + other);
             }
             fireDependency(getCurrent(), other);
         }
@@ -318,13 +330,13 @@ public class CodeDependencyCollector extends CollectorBase {
 
     private void processClassName(String classname) {
         if (filterCriteria.isMatchingClasses() && filterCriteria.matchesClassName(classname)) {
-            if (Logger.getLogger(getClass()).isDebugEnabled()) {
-                Logger.getLogger(getClass()).debug("    Adding \"" + classname + "\"");
+            if (trace().isDebugEnabled()) {
+                trace().debug("    Adding \"" + classname + "\"");
             }
             Node other = getFactory().createClass(classname);
             getCurrent().addDependency(other);
-            if (Logger.getLogger(getClass()).isDebugEnabled()) {
-                Logger.getLogger(getClass()).info("Class_info dependency: " + getCurrent() + " --> " + other);
+            if (trace().isDebugEnabled()) {
+                trace().info("Class_info dependency: " + getCurrent() + " --> " + other);
             }
             fireDependency(getCurrent(), other);
         }
@@ -406,4 +418,8 @@ public class CodeDependencyCollector extends CollectorBase {
             listener.endSession(event);
         }
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
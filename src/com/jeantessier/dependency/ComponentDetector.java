@@ -0,0 +1,294 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+import com.jeantessier.log.*;
+
+/**
+ *  <p>Splits a graph into its strongly connected components and condenses
+ *  them into a directed acyclic graph.</p>
+ *
+ *  <p>The selection criteria pick the nodes that become vertices, which sets
+ *  the granularity of the analysis.  Every other node rolls up into its
+ *  closest selected container, so that with packages only, the dependencies
+ *  of classes and features count as dependencies of their package.  Both
+ *  the roll-up and Tarjan's algorithm run in time linear in the number of
+ *  nodes and dependencies; only the vertices and the condensed dependencies
+ *  are sorted, so that the output does not depend on the order of the
+ *  graph's collections.</p>
+ */
+public class ComponentDetector {
+    private static final Trace trace = Trace.getTrace(ComponentDetector.class);
+
+    private SelectionCriteria criteria;
+    private List<StronglyConnectedComponent> components = new ArrayList<StronglyConnectedComponent>();
+
+    private Map<Node, Integer> ids;
+    private int[] sources;
+    private int[] destinations;
+    private int edgeCount;
+
+    public ComponentDetector() {
+        this(new ComprehensiveSelectionCriteria());
+    }
+
+    public ComponentDetector(SelectionCriteria criteria) {
+        this.criteria = criteria;
+    }
+
+    /**
+     *  Components in topological order of the condensed graph, dependents
+     *  before their dependencies.
+     */
+    public List<StronglyConnectedComponent> getComponents() {
+        return Collections.unmodifiableList(components);
+    }
+
+    public void traverseNodes(Collection<? extends Node> packages) {
+        long start = System.currentTimeMillis();
+
+        List<Node> vertices = collectVertices(packages);
+        collectEdges(packages);
+        int[][] successors = buildSuccessors(vertices.size());
+
+        StronglyConnectedComponentFinder finder = new StronglyConnectedComponentFinder(successors);
+        buildComponents(vertices, successors, finder);
+
+        ids = null;
+        sources = null;
+        destinations = null;
+
+        if (trace.isDebugEnabled()) {
+            trace.debug("Found " + components.size() + " component(s) among " + vertices.size() + " node(s) and " + edgeCount + " dependencies in " + (System.currentTimeMillis() - start) + "ms");
+        }
+    }
+
+    private List<Node> collectVertices(Collection<? extends Node> packages) {
+        List<Node> result = new ArrayList<Node>();
+
+        for (Node node : packages) {
+            PackageNode packageNode = (PackageNode) node;
+            if (criteria.matches(packageNode)) {
+                result.add(packageNode);
+            }
+
+            for (ClassNode classNode : packageNode.getClasses()) {
+                if (criteria.matches(classNode)) {
+                    result.add(classNode);
+                }
+
+                for (FeatureNode featureNode : classNode.getFeatures()) {
+                    if (criteria.matches(featureNode)) {
+                        result.add(featureNode);
+                    }
+                }
+            }
+        }
+
+        // Tarjan's algorithm completes unrelated roots in the order it meets
+        // them, and components come out in the reverse of that order.
+        Collections.sort(result, new NodeComparator());
+        Collections.reverse(result);
+
+        ids = new HashMap<Node, Integer>(result.size() * 2);
+        for (int i = 0; i < result.size(); i++) {
+            ids.put(result.get(i), i);
+        }
+
+        return result;
+    }
+
+    private void collectEdges(Collection<? extends Node> packages) {
+        sources = new int[16];
+        destinations = new int[16];
+        edgeCount = 0;
+
+        for (Node node : packages) {
+            PackageNode packageNode = (PackageNode) node;
+            collectEdges(packageNode);
+
+            for (ClassNode classNode : packageNode.getClasses()) {
+                collectEdges(classNode);
+
+                for (FeatureNode featureNode : classNode.getFeatures()) {
+                    collectEdges(featureNode);
+                }
+            }
+        }
+    }
+
+    private void collectEdges(Node node) {
+        int source = getVertex(node);
+        if (source == -1) {
+            return;
+        }
+
+        for (Node dependency : node.getOutboundDependencies()) {
+            int destination = getVertex(dependency);
+            if (destination != -1 && destination != source) {
+                if (edgeCount == sources.length) {
+                    sources = Arrays.copyOf(sources, edgeCount * 2);
+                    destinations = Arrays.copyOf(destinations, edgeCount * 2);
+                }
+                sources[edgeCount] = source;
+                destinations[edgeCount] = destination;
+                edgeCount++;
+            }
+        }
+    }
+
+    /**
+     *  The vertex a node rolls up into: the node itself if it was selected,
+     *  else its closest selected container, or -1 if there is none.
+     */
+    private int getVertex(Node node) {
+        Integer result = ids.get(node);
+
+        if (result == null && node instanceof FeatureNode) {
+            node = ((FeatureNode) node).getClassNode();
+            result = ids.get(node);
+        }
+
+        if (result == null && node instanceof ClassNode) {
+            result = ids.get(((ClassNode) node).getPackageNode());
+        }
+
+        return result != null ? result : -1;
+    }
+
+    /**
+     *  Sorts the edges by destination, then by source with a stable counting
+     *  sort, so that each adjacency list comes out ordered and duplicates
+     *  from the roll-up sit next to each other.
+     */
+    private int[][] buildSuccessors(int vertexCount) {
+        int[] byDestination = countingSort(destinations, identity(edgeCount), vertexCount);
+        int[] bySource = countingSort(sources, byDestination, vertexCount);
+
+        int[] degrees = new int[vertexCount];
+        int previous = -1;
+        for (int edge : bySource) {
+            if (previous == -1 || sources[edge] != sources[previous] || destinations[edge] != destinations[previous]) {
+                degrees[sources[edge]]++;
+            }
+            previous = edge;
+        }
+
+        int[][] result = new int[vertexCount][];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            result[vertex] = new int[degrees[vertex]];
+            degrees[vertex] = 0;
+        }
+
+        previous = -1;
+        for (int edge : bySource) {
+            if (previous == -1 || sources[edge] != sources[previous] || destinations[edge] != destinations[previous]) {
+                int source = sources[edge];
+                result[source][degrees[source]++] = destinations[edge];
+            }
+            previous = edge;
+        }
+
+        return result;
+    }
+
+    private static int[] identity(int size) {
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = i;
+        }
+        return result;
+    }
+
+    private static int[] countingSort(int[] keys, int[] edges, int keyCount) {
+        int[] positions = new int[keyCount + 1];
+        for (int edge : edges) {
+            positions[keys[edge] + 1]++;
+        }
+        for (int key = 0; key < keyCount; key++) {
+            positions[key + 1] += positions[key];
+        }
+
+        int[] result = new int[edges.length];
+        for (int edge : edges) {
+            result[positions[keys[edge]]++] = edge;
+        }
+
+        return result;
+    }
+
+    private void buildComponents(List<Node> vertices, int[][] successors, StronglyConnectedComponentFinder finder) {
+        int componentCount = finder.getComponentCount();
+        int[] tarjanComponents = finder.getComponents();
+        int[][] members = finder.getMembers();
+
+        // Tarjan numbers sinks first; reverse it so dependents come first.
+        StronglyConnectedComponent[] result = new StronglyConnectedComponent[componentCount];
+        for (int i = 0; i < componentCount; i++) {
+            int id = componentCount - 1 - i;
+            List<Node> nodes = new ArrayList<Node>(members[i].length);
+            for (int j = members[i].length - 1; j >= 0; j--) {
+                nodes.add(vertices.get(members[i][j]));
+            }
+            result[id] = new StronglyConnectedComponent(id, nodes);
+        }
+
+        int[] stamps = new int[componentCount];
+        Arrays.fill(stamps, -1);
+        int[] dependencies = new int[componentCount];
+
+        for (int id = 0; id < componentCount; id++) {
+            int dependencyCount = 0;
+
+            for (int vertex : members[componentCount - 1 - id]) {
+                for (int successor : successors[vertex]) {
+                    int dependency = componentCount - 1 - tarjanComponents[successor];
+                    if (dependency != id && stamps[dependency] != id) {
+                        stamps[dependency] = id;
+                        dependencies[dependencyCount++] = dependency;
+                    }
+                }
+            }
+
+            Arrays.sort(dependencies, 0, dependencyCount);
+            for (int i = 0; i < dependencyCount; i++) {
+                result[id].addDependency(result[dependencies[i]]);
+            }
+        }
+
+        components.clear();
+        components.addAll(Arrays.asList(result));
+    }
+}
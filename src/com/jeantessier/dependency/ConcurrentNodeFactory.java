@@ -0,0 +1,169 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.concurrent.*;
+
+import com.jeantessier.log.*;
+
+/**
+ *  <p>A {@link NodeFactory} that many threads can use at the same time,
+ *  such as when several {@link CodeDependencyCollector}s extract
+ *  dependencies in parallel into a single graph.</p>
+ *
+ *  <p>Node creation is lock-free: each thread builds a candidate node and
+ *  the first one to register it in the underlying
+ *  {@link ConcurrentHashMap} wins.  Only the winner gets attached to its
+ *  parent, so every name maps to exactly one node.  Edges are added
+ *  through {@link Node#addDependency(Node)}, which locks each endpoint
+ *  separately.</p>
+ *
+ *  <p>While threads are still adding nodes, a node returned by one thread
+ *  may not be attached to its parent yet.  The graph is complete once all
+ *  the threads are done.</p>
+ */
+public class ConcurrentNodeFactory extends NodeFactory {
+    private static final Trace trace = Trace.getTrace(ConcurrentNodeFactory.class);
+
+    private ConcurrentMap<String, PackageNode> packages;
+    private ConcurrentMap<String, ClassNode> classes;
+    private ConcurrentMap<String, FeatureNode> features;
+
+    public ConcurrentNodeFactory() {
+        this(new ConcurrentHashMap<String, PackageNode>(), new ConcurrentHashMap<String, ClassNode>(), new ConcurrentHashMap<String, FeatureNode>());
+    }
+
+    private ConcurrentNodeFactory(ConcurrentMap<String, PackageNode> packages, ConcurrentMap<String, ClassNode> classes, ConcurrentMap<String, FeatureNode> features) {
+        super(packages, classes, features);
+
+        this.packages = packages;
+        this.classes = classes;
+        this.features = features;
+    }
+
+    public PackageNode createPackage(String packageName, boolean confirmed) {
+        if (trace().isDebugEnabled()) {
+            trace().debug("Create package \"" + packageName + "\"");
+        }
+
+        PackageNode result = packages.get(packageName);
+
+        if (result == null) {
+            PackageNode candidate = new PackageNode(packageName, confirmed);
+            result = packages.putIfAbsent(packageName, candidate);
+            if (result == null) {
+                result = candidate;
+                if (trace().isDebugEnabled()) {
+                    trace().debug("Added package \"" + packageName + "\"");
+                }
+            }
+        }
+
+        if (confirmed && !result.isConfirmed()) {
+            result.setConfirmed(confirmed);
+            if (trace().isDebugEnabled()) {
+                trace().debug("Package \"" + packageName + "\" is confirmed");
+            }
+        }
+
+        return result;
+    }
+
+    ClassNode createClass(PackageNode parent, String className, boolean confirmed) {
+        if (trace().isDebugEnabled()) {
+            trace().debug("Create class \"" + className + "\"");
+        }
+
+        ClassNode result = classes.get(className);
+
+        if (result == null) {
+            if (parent == null || (confirmed && !parent.isConfirmed())) {
+                parent = createPackage(getPackageName(className), confirmed);
+            }
+            ClassNode candidate = new ClassNode(parent, className, confirmed);
+            result = classes.putIfAbsent(className, candidate);
+            if (result == null) {
+                result = candidate;
+                parent.addClass(result);
+                if (trace().isDebugEnabled()) {
+                    trace().debug("Added class \"" + className + "\"");
+                }
+            }
+        }
+
+        if (confirmed && !result.isConfirmed()) {
+            result.setConfirmed(confirmed);
+            if (trace().isDebugEnabled()) {
+                trace().debug("Class \"" + className + "\" is confirmed");
+            }
+        }
+
+        return result;
+    }
+
+    FeatureNode createFeature(ClassNode parent, String featureName, boolean confirmed) {
+        if (trace().isDebugEnabled()) {
+            trace().debug("Create feature \"" + featureName + "\"");
+        }
+
+        FeatureNode result = features.get(featureName);
+
+        if (result == null) {
+            if (parent == null || (confirmed && !parent.isConfirmed())) {
+                parent = createClass(getClassName(featureName), confirmed);
+            }
+            FeatureNode candidate = new FeatureNode(parent, featureName, confirmed);
+            result = features.putIfAbsent(featureName, candidate);
+            if (result == null) {
+                result = candidate;
+                parent.addFeature(result);
+                if (trace().isDebugEnabled()) {
+                    trace().debug("Added feature \"" + featureName + "\"");
+                }
+            }
+        }
+
+        if (confirmed && !result.isConfirmed()) {
+            result.setConfirmed(confirmed);
+            if (trace().isDebugEnabled()) {
+                trace().debug("Feature \"" + featureName + "\" is confirmed");
+            }
+        }
+
+        return result;
+    }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
+}
@@ -34,13 +34,16 @@ package com.jeantessier.dependency;
 
 import java.util.*;
 
-import org.apache.log4j.*;
+import com.jeantessier.log.*;
 
 /**
  * TODO Class comment
  */
 public class CycleDetector extends VisitorBase {
+    private static final Trace trace = Trace.getTrace(CycleDetector.class);
+
     private LinkedList<Node> currentPath = new LinkedList<Node>();
+    private Set<Node> nodesOnCurrentPath = new HashSet<Node>();
     private Collection<Cycle> cycles = new TreeSet<Cycle>(new CycleComparator());
     private int maximumCycleLength = Integer.MAX_VALUE;
 
@@ -78,16 +81,7 @@ public class CycleDetector extends VisitorBase {
     public void visitOutboundPackageNode(PackageNode node) {
         super.visitOutboundPackageNode(node);
 
-        if (getStrategy().isInFilter(node)) {
-            if (currentPath.getFirst().equals(node) && currentPath.size() <= getMaximumCycleLength()) {
-                addCycle();
-            } else if (!currentPath.contains(node)){
-                pushNodeOnCurrentPath(node);
-                traverseOutbound(node.getOutboundDependencies());
-                traverseOutbound(node.getClasses());
-                popNodeFromCurrentPath(node);
-            }
-        }
+        followPaths(node);
     }
 
     protected void preprocessClassNode(ClassNode node) {
@@ -105,16 +99,7 @@ public class CycleDetector extends VisitorBase {
     public void visitOutboundClassNode(ClassNode node) {
         super.visitOutboundClassNode(node);
 
-        if (getStrategy().isInFilter(node)) {
-            if (currentPath.getFirst().equals(node) && currentPath.size() <= getMaximumCycleLength()) {
-                addCycle();
-            } else if (!currentPath.contains(node)){
-                pushNodeOnCurrentPath(node);
-                traverseOutbound(node.getOutboundDependencies());
-                traverseOutbound(node.getFeatures());
-                popNodeFromCurrentPath(node);
-            }
-        }
+        followPaths(node);
     }
 
     protected void preprocessFeatureNode(FeatureNode node) {
@@ -132,30 +117,108 @@ public class CycleDetector extends VisitorBase {
     public void visitOutboundFeatureNode(FeatureNode node) {
         super.visitOutboundFeatureNode(node);
 
-        if (getStrategy().isInFilter(node)) {
+        followPaths(node);
+    }
+
+    /**
+     *  <p>Depth-first search for paths back to the start of the current
+     *  path.  It keeps one iterator per node on the path in an explicit
+     *  stack instead of recursing, so long chains of dependencies cannot
+     *  overflow the call stack.</p>
+     */
+    private void followPaths(Node node) {
+        LinkedList<Iterator<Node>> stack = new LinkedList<Iterator<Node>>();
+
+        if (extendCurrentPath(node)) {
+            stack.addLast(getNextNodes(node));
+        }
+
+        while (!stack.isEmpty()) {
+            Iterator<Node> i = stack.getLast();
+            if (i.hasNext()) {
+                Node next = i.next();
+                if (extendCurrentPath(next)) {
+                    stack.addLast(getNextNodes(next));
+                }
+            } else {
+                stack.removeLast();
+                popNodeFromCurrentPath(currentPath.getLast());
+            }
+        }
+    }
+
+    /**
+     *  <p>Records a cycle if the node closes the current path, or pushes
+     *  it on the path if it could still lead to a short enough cycle.</p>
+     *
+     *  @return whether the node was pushed on the current path
+     */
+    private boolean extendCurrentPath(Node node) {
+        boolean result = false;
+
+        if (isInFilter(node)) {
             if (currentPath.getFirst().equals(node) && currentPath.size() <= getMaximumCycleLength()) {
                 addCycle();
-            } else if (!currentPath.contains(node)){
+            } else if (!nodesOnCurrentPath.contains(node) && currentPath.size() < getMaximumCycleLength()) {
                 pushNodeOnCurrentPath(node);
-                traverseOutbound(node.getOutboundDependencies());
-                popNodeFromCurrentPath(node);
+                result = true;
             }
         }
+
+        return result;
+    }
+
+    private boolean isInFilter(Node node) {
+        boolean result;
+
+        if (node instanceof PackageNode) {
+            result = getStrategy().isInFilter((PackageNode) node);
+        } else if (node instanceof ClassNode) {
+            result = getStrategy().isInFilter((ClassNode) node);
+        } else {
+            result = getStrategy().isInFilter((FeatureNode) node);
+        }
+
+        return result;
+    }
+
+    private Iterator<Node> getNextNodes(Node node) {
+        List<Node> result = new ArrayList<Node>(getStrategy().order(node.getOutboundDependencies()));
+
+        if (node instanceof PackageNode) {
+            result.addAll(getStrategy().order(((PackageNode) node).getClasses()));
+        } else if (node instanceof ClassNode) {
+            result.addAll(getStrategy().order(((ClassNode) node).getFeatures()));
+        }
+
+        return result.iterator();
     }
 
     private void addCycle() {
         Cycle cycle = new Cycle(currentPath);
         cycles.add(cycle);
-        Logger.getLogger(getClass()).debug("Found cycle " + cycle);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Found cycle " + cycle);
+        }
     }
 
     private void pushNodeOnCurrentPath(Node node) {
         currentPath.addLast(node);
-        Logger.getLogger(getClass()).debug("Pushed " + node + " on currentPath: " + currentPath);
+        nodesOnCurrentPath.add(node);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Pushed " + node + " on currentPath: " + currentPath);
+        }
     }
 
     private void popNodeFromCurrentPath(Node node) {
         Node popedNode = currentPath.removeLast();
-        Logger.getLogger(getClass()).debug("Popped " + node + " (" + popedNode + ") from currentPath: " + currentPath);
+        nodesOnCurrentPath.remove(popedNode);
+        if (trace().isDebugEnabled()) {
+            trace().debug("Popped " + node + " (" + popedNode + ") from currentPath: " + currentPath);
+        }
+    }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
     }
 }
@@ -0,0 +1,446 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+import com.jeantessier.log.*;
+
+/**
+ *  <p>Finds the same cycles as {@link CycleDetector}, without walking every
+ *  path from every node.</p>
+ *
+ *  <p>A cycle follows dependencies, and also goes from a package to its
+ *  classes and from a class to its features, so long as it leaves at least
+ *  one node in scope through a dependency.  The engine first splits the
+ *  graph into strongly connected components with Tarjan's algorithm, since
+ *  every cycle lies within one of them.  It then enumerates the cycles of
+ *  each component with Johnson's algorithm, starting only from nodes in
+ *  scope, so that each cycle is found exactly once.  With a maximum cycle
+ *  length, it uses the distance back to the starting node instead of
+ *  Johnson's blocking to cut paths that cannot close in time.</p>
+ */
+public class CycleEngine {
+    private static final Trace trace = Trace.getTrace(CycleEngine.class);
+
+    private TraversalStrategy strategy;
+    private int maximumCycleLength = Integer.MAX_VALUE;
+    private Collection<Cycle> cycles = new TreeSet<Cycle>(new CycleComparator());
+
+    private List<Node> nodes;
+    private int startCount;
+    private int[][] successors;
+    private int[] components;
+
+    public CycleEngine() {
+        this(new ComprehensiveTraversalStrategy());
+    }
+
+    public CycleEngine(SelectionCriteria criteria) {
+        this(new SelectiveTraversalStrategy(criteria, new ComprehensiveSelectionCriteria()));
+    }
+
+    public CycleEngine(TraversalStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public Collection<Cycle> getCycles() {
+        return cycles;
+    }
+
+    public int getMaximumCycleLength() {
+        return maximumCycleLength;
+    }
+
+    public void setMaximumCycleLength(int maximumCycleLength) {
+        this.maximumCycleLength = maximumCycleLength;
+    }
+
+    public void traverseNodes(Collection<? extends Node> packages) {
+        buildGraph(packages);
+
+        StronglyConnectedComponentFinder finder = new StronglyConnectedComponentFinder(successors);
+        components = finder.getComponents();
+
+        if (trace.isDebugEnabled()) {
+            trace.debug(nodes.size() + " nodes in " + finder.getComponentCount() + " strongly connected components");
+        }
+
+        if (getMaximumCycleLength() < 2) {
+            return;
+        }
+
+        CycleSearch search = new CycleSearch(successors.length);
+        for (int[] members : finder.getMembers()) {
+            if (members.length > 1) {
+                for (int start : members) {
+                    if (start < startCount) {
+                        if (getMaximumCycleLength() < members.length) {
+                            search.findBoundedCycles(start);
+                        } else {
+                            search.findCycles(start, members);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     *  Numbers the nodes in scope first, so that they come before all the
+     *  others in every component, and then the nodes reachable from them.
+     */
+    private void buildGraph(Collection<? extends Node> packages) {
+        nodes = new ArrayList<Node>();
+        Map<Node, Integer> ids = new HashMap<Node, Integer>();
+
+        for (Node packageNode : packages) {
+            addStart(ids, (PackageNode) packageNode);
+        }
+        startCount = nodes.size();
+
+        List<int[]> edges = new ArrayList<int[]>();
+        for (int i = 0; i < nodes.size(); i++) {
+            Collection<Node> next = new LinkedHashSet<Node>();
+            addIfInFilter(next, nodes.get(i).getOutboundDependencies());
+            addIfInFilter(next, getChildren(nodes.get(i)));
+
+            int[] ends = new int[next.size()];
+            int j = 0;
+            for (Node node : next) {
+                Integer id = ids.get(node);
+                if (id == null) {
+                    id = nodes.size();
+                    ids.put(node, id);
+                    nodes.add(node);
+                }
+                ends[j++] = id;
+            }
+            edges.add(ends);
+        }
+
+        successors = edges.toArray(new int[edges.size()][]);
+    }
+
+    private void addStart(Map<Node, Integer> ids, PackageNode node) {
+        if (strategy.isInScope(node) && strategy.isInFilter(node)) {
+            ids.put(node, nodes.size());
+            nodes.add(node);
+        }
+
+        for (ClassNode classNode : node.getClasses()) {
+            if (strategy.isInScope(classNode) && strategy.isInFilter(classNode)) {
+                ids.put(classNode, nodes.size());
+                nodes.add(classNode);
+            }
+
+            for (FeatureNode featureNode : classNode.getFeatures()) {
+                if (strategy.isInScope(featureNode) && strategy.isInFilter(featureNode)) {
+                    ids.put(featureNode, nodes.size());
+                    nodes.add(featureNode);
+                }
+            }
+        }
+    }
+
+    private static Collection<? extends Node> getChildren(Node node) {
+        Collection<? extends Node> result = Collections.emptySet();
+
+        if (node instanceof PackageNode) {
+            result = ((PackageNode) node).getClasses();
+        } else if (node instanceof ClassNode) {
+            result = ((ClassNode) node).getFeatures();
+        }
+
+        return result;
+    }
+
+    private void addIfInFilter(Collection<Node> result, Collection<? extends Node> candidates) {
+        for (Node node : candidates) {
+            if (isInFilter(node)) {
+                result.add(node);
+            }
+        }
+    }
+
+    private boolean isInFilter(Node node) {
+        boolean result;
+
+        if (node instanceof PackageNode) {
+            result = strategy.isInFilter((PackageNode) node);
+        } else if (node instanceof ClassNode) {
+            result = strategy.isInFilter((ClassNode) node);
+        } else {
+            result = strategy.isInFilter((FeatureNode) node);
+        }
+
+        return result;
+    }
+
+    /**
+     *  A cycle only counts if it leaves one of its nodes in scope through a
+     *  dependency, rather than by going down to a class or a feature.
+     */
+    private void addCycle(int[] path, int length) {
+        boolean reportable = false;
+        for (int i = 0; !reportable && i < length; i++) {
+            int from = path[i];
+            int to = path[(i + 1) % length];
+            reportable = from < startCount && nodes.get(from).getOutboundDependencies().contains(nodes.get(to));
+        }
+
+        if (reportable) {
+            List<Node> cyclePath = new ArrayList<Node>(length);
+            for (int i = 0; i < length; i++) {
+                cyclePath.add(nodes.get(path[i]));
+            }
+
+            Cycle cycle = new Cycle(cyclePath);
+            cycles.add(cycle);
+            if (trace.isDebugEnabled()) {
+                trace.debug("Found cycle " + cycle);
+            }
+        }
+    }
+
+    /**
+     *  Working storage for enumerating the cycles through a starting node
+     *  among the nodes of its component that come after it.
+     */
+    private class CycleSearch {
+        private int[] path;
+        private int[] edgePositions;
+        private boolean[] found;
+        private boolean[] blocked;
+        private int[][] blockers;
+        private int[] blockerCounts;
+        private int[] distances;
+        private int[] queue;
+        private int queueSize;
+        private int[][] predecessors;
+
+        public CycleSearch(int vertexCount) {
+            path = new int[vertexCount];
+            edgePositions = new int[vertexCount];
+            found = new boolean[vertexCount];
+            blocked = new boolean[vertexCount];
+            blockers = new int[vertexCount][];
+            blockerCounts = new int[vertexCount];
+        }
+
+        private boolean isCandidate(int start, int vertex) {
+            return vertex >= start && components[vertex] == components[start];
+        }
+
+        /**
+         *  Johnson's algorithm: a node stays blocked until some path
+         *  through it reaches the start, so dead ends are explored once.
+         */
+        public void findCycles(int start, int[] members) {
+            for (int member : members) {
+                blocked[member] = false;
+                blockerCounts[member] = 0;
+            }
+
+            int depth = 0;
+            push(start, depth++);
+
+            while (depth > 0) {
+                int level = depth - 1;
+                int vertex = path[level];
+
+                if (edgePositions[level] < successors[vertex].length) {
+                    int successor = successors[vertex][edgePositions[level]++];
+
+                    if (isCandidate(start, successor)) {
+                        if (successor == start) {
+                            addCycle(path, depth);
+                            found[level] = true;
+                        } else if (!blocked[successor]) {
+                            push(successor, depth++);
+                        }
+                    }
+                } else {
+                    if (found[level]) {
+                        unblock(vertex);
+                    } else {
+                        for (int successor : successors[vertex]) {
+                            if (isCandidate(start, successor)) {
+                                addBlocker(successor, vertex);
+                            }
+                        }
+                    }
+
+                    depth--;
+                    if (depth > 0 && found[level]) {
+                        found[depth - 1] = true;
+                    }
+                }
+            }
+        }
+
+        private void push(int vertex, int level) {
+            path[level] = vertex;
+            edgePositions[level] = 0;
+            found[level] = false;
+            blocked[vertex] = true;
+        }
+
+        private void addBlocker(int vertex, int blocker) {
+            int[] list = blockers[vertex];
+            int count = blockerCounts[vertex];
+
+            for (int i = 0; i < count; i++) {
+                if (list[i] == blocker) {
+                    return;
+                }
+            }
+
+            if (list == null) {
+                list = blockers[vertex] = new int[2];
+            } else if (count == list.length) {
+                list = blockers[vertex] = Arrays.copyOf(list, count * 2);
+            }
+
+            list[count] = blocker;
+            blockerCounts[vertex] = count + 1;
+        }
+
+        private void unblock(int vertex) {
+            LinkedList<Integer> pending = new LinkedList<Integer>();
+            pending.add(vertex);
+
+            while (!pending.isEmpty()) {
+                int current = pending.removeFirst();
+                blocked[current] = false;
+
+                for (int i = 0; i < blockerCounts[current]; i++) {
+                    int blocker = blockers[current][i];
+                    if (blocked[blocker]) {
+                        pending.add(blocker);
+                    }
+                }
+                blockerCounts[current] = 0;
+            }
+        }
+
+        /**
+         *  Depth-first search that only extends the path to nodes that can
+         *  still get back to the start within the maximum length.
+         */
+        public void findBoundedCycles(int start) {
+            computeDistancesTo(start);
+
+            int depth = 0;
+            push(start, depth++);
+
+            while (depth > 0) {
+                int level = depth - 1;
+                int vertex = path[level];
+
+                if (edgePositions[level] < successors[vertex].length) {
+                    int successor = successors[vertex][edgePositions[level]++];
+
+                    if (isCandidate(start, successor)) {
+                        if (successor == start) {
+                            addCycle(path, depth);
+                        } else if (!blocked[successor] && distances[successor] != -1 && depth + distances[successor] <= getMaximumCycleLength()) {
+                            push(successor, depth++);
+                        }
+                    }
+                } else {
+                    blocked[vertex] = false;
+                    depth--;
+                }
+            }
+        }
+
+        /**
+         *  Breadth-first search backwards from the start.  Nodes that cannot
+         *  reach it are left at -1.
+         */
+        private void computeDistancesTo(int start) {
+            if (predecessors == null) {
+                predecessors = invert(successors);
+                distances = new int[successors.length];
+                Arrays.fill(distances, -1);
+                queue = new int[successors.length];
+            }
+
+            for (int i = 0; i < queueSize; i++) {
+                distances[queue[i]] = -1;
+            }
+
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            distances[start] = 0;
+
+            while (head < tail) {
+                int vertex = queue[head++];
+                for (int predecessor : predecessors[vertex]) {
+                    if (isCandidate(start, predecessor) && distances[predecessor] == -1) {
+                        distances[predecessor] = distances[vertex] + 1;
+                        queue[tail++] = predecessor;
+                    }
+                }
+            }
+
+            queueSize = tail;
+        }
+    }
+
+    private static int[][] invert(int[][] successors) {
+        int[] counts = new int[successors.length];
+        for (int[] ends : successors) {
+            for (int end : ends) {
+                counts[end]++;
+            }
+        }
+
+        int[][] result = new int[successors.length][];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new int[counts[i]];
+            counts[i] = 0;
+        }
+
+        for (int i = 0; i < successors.length; i++) {
+            for (int end : successors[i]) {
+                result[end][counts[end]++] = i;
+            }
+        }
+
+        return result;
+    }
+}
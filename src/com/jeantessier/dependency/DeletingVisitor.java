@@ -34,11 +34,12 @@ package com.jeantessier.dependency;
 
 import java.util.*;
 
-import org.apache.log4j.*;
-
 import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class DeletingVisitor implements Visitor, RemoveVisitor {
+    private static final Trace trace = Trace.getTrace(DeletingVisitor.class);
+
     private NodeFactory factory;
     
     public DeletingVisitor(NodeFactory factory) {
@@ -65,7 +66,9 @@ public class DeletingVisitor implements Visitor, RemoveVisitor {
      */
     
     public void visitPackageNode(PackageNode node) {
-        Logger.getLogger(getClass()).debug("visitPackageNode(" + node + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("visitPackageNode(" + node + ")");
+        }
 
         for (ClassNode classNode : new ArrayList<ClassNode>(node.getClasses())) {
             classNode.accept(this);
@@ -75,7 +78,9 @@ public class DeletingVisitor implements Visitor, RemoveVisitor {
     }
 
     public void visitClassNode(ClassNode node) {
-        Logger.getLogger(getClass()).debug("visitClassNode(" + node + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("visitClassNode(" + node + ")");
+        }
 
         for (FeatureNode featureNode : new ArrayList<FeatureNode>(node.getFeatures())) {
             featureNode.accept(this);
@@ -85,7 +90,9 @@ public class DeletingVisitor implements Visitor, RemoveVisitor {
     }
 
     public void visitFeatureNode(FeatureNode node) {
-        Logger.getLogger(getClass()).debug("visitFeatureNode(" + node + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("visitFeatureNode(" + node + ")");
+        }
         
         visitNode(node);
     }
@@ -106,7 +113,9 @@ public class DeletingVisitor implements Visitor, RemoveVisitor {
      */
     
     public void visitOutboundPackageNode(PackageNode node) {
-        Logger.getLogger(getClass()).debug("visitOutboundPackageNode(" + node + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("visitOutboundPackageNode(" + node + ")");
+        }
         
         if (canDeletePackage(node)) {
             factory.deletePackage(node);
@@ -114,7 +123,9 @@ public class DeletingVisitor implements Visitor, RemoveVisitor {
     }
     
     public void visitOutboundClassNode(ClassNode node) {
-        Logger.getLogger(getClass()).debug("visitOutboundClassNode(" + node + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("visitOutboundClassNode(" + node + ")");
+        }
         
         if (canDeleteClass(node)) {
             factory.deleteClass(node);
@@ -124,7 +135,9 @@ public class DeletingVisitor implements Visitor, RemoveVisitor {
     }
     
     public void visitOutboundFeatureNode(FeatureNode node) {
-        Logger.getLogger(getClass()).debug("visitOutboundFeatureNode(" + node + ")");
+        if (trace().isDebugEnabled()) {
+            trace().debug("visitOutboundFeatureNode(" + node + ")");
+        }
         
         if (canDeleteFeature(node)) {
             factory.deleteFeature(node);
@@ -175,4 +188,8 @@ public class DeletingVisitor implements Visitor, RemoveVisitor {
             node.accept(this);
         }
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
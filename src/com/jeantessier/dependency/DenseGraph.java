@@ -0,0 +1,249 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+/**
+ *  <p>Snapshot of a dependency graph over dense node ids, for
+ *  {@link ReachabilityIndex}.  It lists the dependencies of each node both
+ *  ways and groups the nodes into strongly connected components.</p>
+ *
+ *  <p>A snapshot built from a previous one keeps the ids of the nodes they
+ *  share, so that sets of ids computed on the old snapshot still mean the
+ *  same nodes.  Nodes that are no longer in the factory keep their id but
+ *  have no dependencies.</p>
+ */
+class DenseGraph {
+    private static final int[] NO_IDS = new int[0];
+
+    private Map<Node, Integer> ids;
+    private List<Node> nodes;
+    private BitSet present = new BitSet();
+
+    private Map<String, Integer> packageIds = new HashMap<String, Integer>();
+    private Map<String, int[]> classGroups = new HashMap<String, int[]>();
+
+    private int[][] outbound;
+    private int[][] inbound;
+
+    private int[] components;
+    private int[][] members;
+    private int[][] componentDependencies;
+
+    public DenseGraph(NodeFactory factory) {
+        this(factory, null);
+    }
+
+    public DenseGraph(NodeFactory factory, DenseGraph previous) {
+        if (previous != null) {
+            ids = new HashMap<Node, Integer>(previous.ids);
+            nodes = new ArrayList<Node>(previous.nodes);
+        } else {
+            ids = new HashMap<Node, Integer>();
+            nodes = new ArrayList<Node>();
+        }
+
+        for (PackageNode packageNode : factory.getPackages().values()) {
+            packageIds.put(packageNode.getName(), addNode(packageNode));
+
+            for (ClassNode classNode : packageNode.getClasses()) {
+                int[] group = new int[classNode.getFeatures().size() + 1];
+                int i = 0;
+
+                group[i++] = addNode(classNode);
+                for (FeatureNode featureNode : classNode.getFeatures()) {
+                    group[i++] = addNode(featureNode);
+                }
+
+                classGroups.put(classNode.getName(), group);
+            }
+        }
+
+        for (int id = present.nextSetBit(0); id >= 0; id = present.nextSetBit(id + 1)) {
+            for (Node dependency : nodes.get(id).getOutboundDependencies()) {
+                getId(dependency, true);
+            }
+        }
+
+        computeDependencies();
+        computeComponents();
+    }
+
+    private int addNode(Node node) {
+        int result = getId(node, true);
+        nodes.set(result, node);
+        present.set(result);
+        return result;
+    }
+
+    private int getId(Node node, boolean create) {
+        Integer result = ids.get(node);
+
+        if (result == null) {
+            if (!create) {
+                return -1;
+            }
+
+            result = nodes.size();
+            ids.put(node, result);
+            nodes.add(node);
+        }
+
+        return result;
+    }
+
+    private void computeDependencies() {
+        int size = nodes.size();
+
+        outbound = new int[size][];
+        int[] inboundCounts = new int[size];
+
+        for (int id = 0; id < size; id++) {
+            if (present.get(id)) {
+                Collection<Node> dependencies = nodes.get(id).getOutboundDependencies();
+                outbound[id] = new int[dependencies.size()];
+
+                int i = 0;
+                for (Node dependency : dependencies) {
+                    int dependencyId = ids.get(dependency);
+                    outbound[id][i++] = dependencyId;
+                    inboundCounts[dependencyId]++;
+                }
+            } else {
+                outbound[id] = NO_IDS;
+            }
+        }
+
+        inbound = new int[size][];
+        for (int id = 0; id < size; id++) {
+            inbound[id] = inboundCounts[id] == 0 ? NO_IDS : new int[inboundCounts[id]];
+            inboundCounts[id] = 0;
+        }
+
+        for (int id = 0; id < size; id++) {
+            for (int dependencyId : outbound[id]) {
+                inbound[dependencyId][inboundCounts[dependencyId]++] = id;
+            }
+        }
+    }
+
+    private void computeComponents() {
+        StronglyConnectedComponentFinder finder = new StronglyConnectedComponentFinder(outbound);
+
+        components = finder.getComponents();
+        members = finder.getMembers();
+        componentDependencies = new int[members.length][];
+
+        int[] stamps = new int[members.length];
+        Arrays.fill(stamps, -1);
+        int[] buffer = new int[16];
+
+        for (int component = 0; component < members.length; component++) {
+            int count = 0;
+
+            for (int id : members[component]) {
+                for (int dependencyId : outbound[id]) {
+                    int dependencyComponent = components[dependencyId];
+                    if (dependencyComponent != component && stamps[dependencyComponent] != component) {
+                        stamps[dependencyComponent] = component;
+
+                        if (count == buffer.length) {
+                            buffer = Arrays.copyOf(buffer, count * 2);
+                        }
+                        buffer[count++] = dependencyComponent;
+                    }
+                }
+            }
+
+            componentDependencies[component] = count == 0 ? NO_IDS : Arrays.copyOf(buffer, count);
+        }
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     *  @return the id of the node, or -1 if it is not in the graph.
+     */
+    public int getId(Node node) {
+        return getId(node, false);
+    }
+
+    public Node getNode(int id) {
+        return nodes.get(id);
+    }
+
+    public boolean isPresent(int id) {
+        return present.get(id);
+    }
+
+    public int[] getOutbound(int id) {
+        return outbound[id];
+    }
+
+    public int[] getInbound(int id) {
+        return inbound[id];
+    }
+
+    public int getPackageId(String packageName) {
+        Integer result = packageIds.get(packageName);
+        return result != null ? result : -1;
+    }
+
+    /**
+     *  @return the ids of the class and of its features, or an empty array
+     *          if the class is not in the graph.
+     */
+    public int[] getClassGroup(String className) {
+        int[] result = classGroups.get(className);
+        return result != null ? result : NO_IDS;
+    }
+
+    /**
+     *  Components are numbered so that no component depends on a component
+     *  with a higher number.
+     */
+    public int getComponent(int id) {
+        return components[id];
+    }
+
+    public int[] getMembers(int component) {
+        return members[component];
+    }
+
+    public int[] getComponentDependencies(int component) {
+        return componentDependencies[component];
+    }
+}
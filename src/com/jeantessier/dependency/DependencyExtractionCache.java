@@ -0,0 +1,294 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
+
+/**
+ *  <p>Caches the dependencies extracted from each <code>.class</code> file
+ *  so that {@link ClassfileLoaderEventSource} can skip parsing the ones
+ *  that did not change since the last run.  When it is in use, it takes
+ *  the place of the {@link CodeDependencyCollector} listener and builds
+ *  the graph in the {@link NodeFactory} itself.</p>
+ *
+ *  <p>Each entry holds a class, its features, its parents, and every
+ *  outbound dependency before filtering.  The filter criteria are applied
+ *  when the entry is replayed, so a cache can be reused across runs that
+ *  filter differently.</p>
+ *
+ *  <p>Only the entries used during a run are saved, so the cache file does
+ *  not keep growing as classes change.</p>
+ */
+public class DependencyExtractionCache implements ExtractionCache {
+    private static final Trace trace = Trace.getTrace(DependencyExtractionCache.class);
+
+    private static final int MAGIC = 0x44464543;
+    private static final int VERSION = 1;
+
+    private static final int CLASS_TARGET = 0;
+    private static final int FEATURE_TARGET = 1;
+
+    private NodeFactory factory;
+    private SelectionCriteria filterCriteria;
+
+    private Map<String, byte[]> previousEntries = new HashMap<String, byte[]>();
+    private Map<String, byte[]> currentEntries = new HashMap<String, byte[]>();
+
+    private int replayCount = 0;
+    private int recordCount = 0;
+
+    public DependencyExtractionCache(NodeFactory factory) {
+        this(factory, new ComprehensiveSelectionCriteria());
+    }
+
+    public DependencyExtractionCache(NodeFactory factory, SelectionCriteria filterCriteria) {
+        this.factory = factory;
+        this.filterCriteria = filterCriteria;
+    }
+
+    public NodeFactory getFactory() {
+        return factory;
+    }
+
+    public int getReplayCount() {
+        return replayCount;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public boolean replay(String filename, long fingerprint) {
+        String key = getKey(filename, fingerprint);
+        byte[] entry = previousEntries.get(key);
+
+        if (entry != null) {
+            try {
+                apply(entry);
+                synchronized(currentEntries) {
+                    currentEntries.put(key, entry);
+                    replayCount++;
+                }
+            } catch (IOException ex) {
+                trace.warn("Cannot replay \"" + filename + "\" from cache", ex);
+                entry = null;
+            }
+        }
+
+        return entry != null;
+    }
+
+    public void record(String filename, long fingerprint, Classfile classfile) {
+        try {
+            NodeFactory scratch = new NodeFactory();
+            classfile.accept(new CodeDependencyCollector(scratch));
+
+            byte[] entry = encode(scratch.getClasses().get(classfile.getClassName()));
+            apply(entry);
+            synchronized(currentEntries) {
+                currentEntries.put(getKey(filename, fingerprint), entry);
+                recordCount++;
+            }
+        } catch (IOException ex) {
+            trace.warn("Cannot record \"" + filename + "\" in cache", ex);
+        }
+    }
+
+    /**
+     *  Reads the entries saved by a previous run.  A missing file, or one
+     *  written by another version, leaves the cache empty.
+     */
+    public void load(File file) throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                trace.warn("Ignoring incompatible cache file " + file);
+                return;
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                byte[] entry = new byte[in.readInt()];
+                in.readFully(entry);
+                previousEntries.put(key, entry);
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    public void save(File file) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            synchronized(currentEntries) {
+                out.writeInt(currentEntries.size());
+                for (Map.Entry<String, byte[]> entry : currentEntries.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    out.write(entry.getValue());
+                }
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private static String getKey(String filename, long fingerprint) {
+        return Long.toHexString(fingerprint) + ":" + filename;
+    }
+
+    /**
+     *  Names go in a table at the front of the entry and everything else
+     *  refers to them by index.
+     */
+    private byte[] encode(ClassNode classNode) throws IOException {
+        List<FeatureNode> features = new ArrayList<FeatureNode>();
+        for (FeatureNode feature : classNode.getFeatures()) {
+            if (feature.isConfirmed()) {
+                features.add(feature);
+            }
+        }
+
+        Map<String, Integer> names = new LinkedHashMap<String, Integer>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+
+        Varint.write(out, getNameIndex(names, classNode.getName()));
+
+        Varint.write(out, features.size());
+        for (FeatureNode feature : features) {
+            Varint.write(out, getNameIndex(names, feature.getName()));
+        }
+
+        Varint.write(out, classNode.getParents().size());
+        for (ClassNode parent : classNode.getParents()) {
+            Varint.write(out, getNameIndex(names, parent.getName()));
+        }
+
+        writeDependencies(out, names, 0, classNode);
+        for (int i = 0; i < features.size(); i++) {
+            writeDependencies(out, names, i + 1, features.get(i));
+        }
+        Varint.write(out, 0);
+
+        out.close();
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream(body.size() + names.size() * 16);
+        DataOutputStream header = new DataOutputStream(result);
+        Varint.write(header, names.size());
+        for (String name : names.keySet()) {
+            header.writeUTF(name);
+        }
+        body.writeTo(header);
+        header.close();
+
+        return result.toByteArray();
+    }
+
+    /**
+     *  Each dependency is the index of its source among the class and its
+     *  features, plus one so that zero can end the list, then its kind, and
+     *  then the target's name.
+     */
+    private void writeDependencies(DataOutput out, Map<String, Integer> names, int source, Node node) throws IOException {
+        for (Node target : node.getOutboundDependencies()) {
+            Varint.write(out, source + 1);
+            out.writeByte(target instanceof FeatureNode ? FEATURE_TARGET : CLASS_TARGET);
+            Varint.write(out, getNameIndex(names, target.getName()));
+        }
+    }
+
+    private static int getNameIndex(Map<String, Integer> names, String name) {
+        Integer result = names.get(name);
+
+        if (result == null) {
+            result = names.size();
+            names.put(name, result);
+        }
+
+        return result;
+    }
+
+    private void apply(byte[] entry) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry));
+
+        String[] names = new String[Varint.read(in)];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = in.readUTF();
+        }
+
+        synchronized(factory) {
+            ClassNode classNode = factory.createClass(names[Varint.read(in)], true);
+
+            Node[] sources = new Node[Varint.read(in) + 1];
+            sources[0] = classNode;
+            for (int i = 1; i < sources.length; i++) {
+                sources[i] = factory.createFeature(names[Varint.read(in)], true);
+            }
+
+            int parentCount = Varint.read(in);
+            for (int i = 0; i < parentCount; i++) {
+                classNode.addParent(factory.createClass(names[Varint.read(in)]));
+            }
+
+            int source;
+            while ((source = Varint.read(in)) != 0) {
+                int kind = in.readUnsignedByte();
+                String target = names[Varint.read(in)];
+
+                if (kind == FEATURE_TARGET) {
+                    if (filterCriteria.isMatchingFeatures() && filterCriteria.matchesFeatureName(target)) {
+                        sources[source - 1].addDependency(factory.createFeature(target));
+                    }
+                } else {
+                    if (filterCriteria.isMatchingClasses() && filterCriteria.matchesClassName(target)) {
+                        sources[source - 1].addDependency(factory.createClass(target));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+/**
+ *  <p>Merges whole graphs into a {@link NodeFactory}.  It unions the nodes
+ *  and the dependencies of each source graph straight from its maps,
+ *  without going through a {@link Visitor} the way {@link GraphCopier}
+ *  does.  A node is confirmed in the result if it is confirmed in any of
+ *  the graphs.</p>
+ */
+public class GraphMerger {
+    private NodeFactory factory;
+
+    public GraphMerger() {
+        this(new NodeFactory());
+    }
+
+    public GraphMerger(NodeFactory factory) {
+        this.factory = factory;
+    }
+
+    public NodeFactory getFactory() {
+        return factory;
+    }
+
+    /**
+     *  Merges the other graphs into the largest one, so that the largest
+     *  one does not have to be copied.
+     *
+     *  @return the largest graph, now holding all of them, or an empty one
+     *          if there are no graphs.
+     */
+    public static NodeFactory mergeIntoLargest(Collection<NodeFactory> factories) {
+        NodeFactory largest = null;
+        for (NodeFactory factory : factories) {
+            if (largest == null || size(factory) > size(largest)) {
+                largest = factory;
+            }
+        }
+
+        GraphMerger merger = new GraphMerger(largest != null ? largest : new NodeFactory());
+        for (NodeFactory factory : factories) {
+            if (factory != largest) {
+                merger.merge(factory);
+            }
+        }
+
+        return merger.getFactory();
+    }
+
+    private static int size(NodeFactory factory) {
+        return factory.getPackages().size() + factory.getClasses().size() + factory.getFeatures().size();
+    }
+
+    public void merge(Collection<NodeFactory> sources) {
+        for (NodeFactory source : sources) {
+            merge(source);
+        }
+    }
+
+    public void merge(NodeFactory source) {
+        Map<Node, Node> counterparts = new IdentityHashMap<Node, Node>(source.getPackages().size() + source.getClasses().size() + source.getFeatures().size());
+
+        for (PackageNode packageNode : source.getPackages().values()) {
+            PackageNode packageCounterpart = factory.createPackage(packageNode.getName(), packageNode.isConfirmed());
+            counterparts.put(packageNode, packageCounterpart);
+
+            for (ClassNode classNode : packageNode.getClasses()) {
+                ClassNode classCounterpart = factory.createClass(packageCounterpart, classNode.getName(), classNode.isConfirmed());
+                counterparts.put(classNode, classCounterpart);
+
+                for (FeatureNode featureNode : classNode.getFeatures()) {
+                    counterparts.put(featureNode, factory.createFeature(classCounterpart, featureNode.getName(), featureNode.isConfirmed()));
+                }
+            }
+        }
+
+        mergeDependencies(counterparts, source.getPackages().values());
+        mergeDependencies(counterparts, source.getClasses().values());
+        mergeDependencies(counterparts, source.getFeatures().values());
+    }
+
+    private void mergeDependencies(Map<Node, Node> counterparts, Collection<? extends Node> nodes) {
+        for (Node node : nodes) {
+            Node counterpart = counterparts.get(node);
+            for (Node dependency : node.getOutboundDependencies()) {
+                counterpart.addDependency(getCounterpart(counterparts, dependency));
+            }
+        }
+    }
+
+    /**
+     *  Dependencies normally point to nodes of the same factory, but a
+     *  graph that was edited by hand might not.
+     */
+    private Node getCounterpart(Map<Node, Node> counterparts, Node node) {
+        Node result = counterparts.get(node);
+
+        if (result == null) {
+            if (node instanceof FeatureNode) {
+                result = factory.createFeature(node.getName(), node.isConfirmed());
+            } else if (node instanceof ClassNode) {
+                result = factory.createClass(node.getName(), node.isConfirmed());
+            } else {
+                result = factory.createPackage(node.getName(), node.isConfirmed());
+            }
+            counterparts.put(node, result);
+        }
+
+        return result;
+    }
+}
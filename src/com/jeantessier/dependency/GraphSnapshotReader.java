@@ -0,0 +1,238 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ *  <p>Reads a snapshot written by {@link GraphSnapshotWriter} into a
+ *  {@link NodeFactory}.  Like {@link NodeHandler}, it tells listeners
+ *  about each class and each dependency as it goes.</p>
+ *
+ *  <p>A snapshot stores each dependency once, so listeners get one
+ *  <code>dependency</code> event per dependency.  XML graphs list a
+ *  dependency under both of its nodes, as <code>&lt;outbound&gt;</code> and
+ *  <code>&lt;inbound&gt;</code>, and {@link NodeHandler} fires an event for
+ *  each of these.  Listeners that count dependencies, such as
+ *  {@link com.jeantessier.dependencyfinder.cli.VerboseListener}, report about
+ *  half as many for a snapshot as for the same graph in XML.</p>
+ */
+public class GraphSnapshotReader {
+    private NodeFactory factory;
+
+    private HashSet<DependencyListener> dependencyListeners = new HashSet<DependencyListener>();
+
+    public GraphSnapshotReader() {
+        this(new NodeFactory());
+    }
+
+    public GraphSnapshotReader(NodeFactory factory) {
+        this.factory = factory;
+    }
+
+    public NodeFactory getFactory() {
+        return factory;
+    }
+
+    /**
+     *  Checks the magic number at the start of the stream without consuming
+     *  it.
+     *
+     *  @param in a stream that supports mark and reset.
+     */
+    public static boolean isSnapshot(InputStream in) throws IOException {
+        in.mark(4);
+        try {
+            int magic = 0;
+            for (int i=0; i<4; i++) {
+                int b = in.read();
+                if (b == -1) {
+                    return false;
+                }
+                magic = (magic << 8) | b;
+            }
+            return magic == GraphSnapshotWriter.MAGIC;
+        } finally {
+            in.reset();
+        }
+    }
+
+    public NodeFactory read(String filename) throws IOException {
+        NodeFactory result;
+
+        InputStream in = new FileInputStream(filename);
+        try {
+            result = read(in);
+        } finally {
+            in.close();
+        }
+
+        return result;
+    }
+
+    public NodeFactory read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in instanceof BufferedInputStream ? in : new BufferedInputStream(in));
+
+        if (data.readInt() != GraphSnapshotWriter.MAGIC) {
+            throw new IOException("Not a dependency graph snapshot");
+        }
+        int version = data.readInt();
+        if (version != GraphSnapshotWriter.VERSION) {
+            throw new IOException("Unsupported dependency graph snapshot version " + version);
+        }
+
+        fireBeginSession();
+
+        String[] names = readNames(data);
+        List<Node> nodes = readNodes(data, names);
+
+        for (Node node : nodes) {
+            int count = Varint.read(data);
+            int target = 0;
+            for (int i=0; i<count; i++) {
+                target += Varint.read(data);
+                Node dependable = nodes.get(target);
+                node.addDependency(dependable);
+                fireDependency(node, dependable);
+            }
+        }
+
+        fireEndSession();
+
+        return getFactory();
+    }
+
+    private static String[] readNames(DataInput in) throws IOException {
+        String[] result = new String[Varint.read(in)];
+
+        String previous = "";
+        for (int i=0; i<result.length; i++) {
+            int shared = Varint.read(in);
+            result[i] = previous.substring(0, shared) + in.readUTF();
+            previous = result[i];
+        }
+
+        return result;
+    }
+
+    private List<Node> readNodes(DataInput in, String[] names) throws IOException {
+        List<Node> result = new ArrayList<Node>();
+
+        int packageCount = Varint.read(in);
+        for (int i=0; i<packageCount; i++) {
+            int packageName = Varint.read(in);
+            result.add(getFactory().createPackage(names[packageName >>> 1], (packageName & 1) != 0));
+
+            int classCount = Varint.read(in);
+            for (int j=0; j<classCount; j++) {
+                int className = Varint.read(in);
+                ClassNode classNode = getFactory().createClass(names[className >>> 1], (className & 1) != 0);
+                result.add(classNode);
+                fireBeginClass(classNode.getName());
+
+                int featureCount = Varint.read(in);
+                for (int k=0; k<featureCount; k++) {
+                    int featureName = Varint.read(in);
+                    result.add(getFactory().createFeature(names[featureName >>> 1], (featureName & 1) != 0));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    public void addDependencyListener(DependencyListener listener) {
+        synchronized(dependencyListeners) {
+            dependencyListeners.add(listener);
+        }
+    }
+
+    public void removeDependencyListener(DependencyListener listener) {
+        synchronized(dependencyListeners) {
+            dependencyListeners.remove(listener);
+        }
+    }
+
+    protected void fireBeginSession() {
+        DependencyEvent event = new DependencyEvent(this);
+
+        HashSet<DependencyListener> listeners;
+        synchronized(dependencyListeners) {
+            listeners = new HashSet<DependencyListener>(dependencyListeners);
+        }
+
+        for (DependencyListener listener : listeners) {
+            listener.beginSession(event);
+        }
+    }
+
+    protected void fireBeginClass(String classname) {
+        DependencyEvent event = new DependencyEvent(this, classname);
+
+        HashSet<DependencyListener> listeners;
+        synchronized(dependencyListeners) {
+            listeners = new HashSet<DependencyListener>(dependencyListeners);
+        }
+
+        for (DependencyListener listener : listeners) {
+            listener.beginClass(event);
+        }
+    }
+
+    protected void fireDependency(Node dependent, Node dependable) {
+        DependencyEvent event = new DependencyEvent(this, dependent, dependable);
+
+        HashSet<DependencyListener> listeners;
+        synchronized(dependencyListeners) {
+            listeners = new HashSet<DependencyListener>(dependencyListeners);
+        }
+
+        for (DependencyListener listener : listeners) {
+            listener.dependency(event);
+        }
+    }
+
+    protected void fireEndSession() {
+        DependencyEvent event = new DependencyEvent(this);
+
+        HashSet<DependencyListener> listeners;
+        synchronized(dependencyListeners) {
+            listeners = new HashSet<DependencyListener>(dependencyListeners);
+        }
+
+        for (DependencyListener listener : listeners) {
+            listener.endSession(event);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ *  <p>Writes a dependency graph as a compact binary snapshot that
+ *  {@link GraphSnapshotReader} reads back much faster than XML.
+ *  {@link NodeLoader} recognizes snapshots too, so any tool that reads
+ *  graphs accepts them.</p>
+ *
+ *  <p>After a magic number and a version, the snapshot has three parts,
+ *  with every count and number written as a varint:</p>
+ *
+ *  <ol>
+ *      <li>All node names, sorted.  Each name gives the length of the
+ *      prefix it shares with the previous one and then the rest of
+ *      it.</li>
+ *      <li>The packages, each followed by its classes and each class by
+ *      its features, all in sorted order.  This order numbers the nodes.
+ *      Each node is the index of its name shifted left one bit, with the
+ *      confirmed flag in the low bit.  Packages and classes then give
+ *      how many classes or features follow them.</li>
+ *      <li>For every node in the same order, the numbers of the nodes it
+ *      depends on, sorted, each as the difference from the previous
+ *      one.</li>
+ *  </ol>
+ *
+ *  <p>Inbound dependencies are the mirror of outbound ones and are not
+ *  written.</p>
+ */
+public class GraphSnapshotWriter {
+    public static final String FILE_EXTENSION = ".dfs";
+
+    private static final Comparator<Node> NODE_ORDER = new NodeComparator();
+
+    static final int MAGIC = 0x44464753;
+    static final int VERSION = 1;
+
+    private DataOutputStream out;
+
+    public GraphSnapshotWriter(OutputStream out) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+    }
+
+    /**
+     *  Writes the whole graph and flushes, but does not close, the
+     *  underlying stream.
+     */
+    public void write(NodeFactory factory) throws IOException {
+        List<Node> nodes = new ArrayList<Node>(factory.getPackages().size() + factory.getClasses().size() + factory.getFeatures().size());
+        for (PackageNode packageNode : sort(factory.getPackages().values())) {
+            nodes.add(packageNode);
+            for (ClassNode classNode : sort(packageNode.getClasses())) {
+                nodes.add(classNode);
+                nodes.addAll(sort(classNode.getFeatures()));
+            }
+        }
+
+        Map<Node, Integer> ids = new HashMap<Node, Integer>();
+        for (Node node : nodes) {
+            ids.put(node, ids.size());
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        Map<String, Integer> nameIndices = writeNames(nodes);
+
+        Varint.write(out, factory.getPackages().size());
+        for (Node node : nodes) {
+            Varint.write(out, (nameIndices.get(node.getName()) << 1) | (node.isConfirmed() ? 1 : 0));
+            if (node instanceof PackageNode) {
+                Varint.write(out, ((PackageNode) node).getClasses().size());
+            } else if (node instanceof ClassNode) {
+                Varint.write(out, ((ClassNode) node).getFeatures().size());
+            }
+        }
+
+        int[] targets = new int[0];
+        for (Node node : nodes) {
+            Collection<Node> dependencies = node.getOutboundDependencies();
+            if (targets.length < dependencies.size()) {
+                targets = new int[dependencies.size()];
+            }
+
+            int count = 0;
+            for (Node dependency : dependencies) {
+                targets[count++] = ids.get(dependency);
+            }
+            Arrays.sort(targets, 0, count);
+
+            Varint.write(out, count);
+            int previous = 0;
+            for (int i=0; i<count; i++) {
+                Varint.write(out, targets[i] - previous);
+                previous = targets[i];
+            }
+        }
+
+        out.flush();
+    }
+
+    /**
+     *  @return the index of each name in the table.
+     */
+    private Map<String, Integer> writeNames(List<Node> nodes) throws IOException {
+        SortedSet<String> names = new TreeSet<String>();
+        for (Node node : nodes) {
+            names.add(node.getName());
+        }
+
+        Map<String, Integer> result = new HashMap<String, Integer>();
+
+        Varint.write(out, names.size());
+        String previous = "";
+        for (String name : names) {
+            int shared = 0;
+            int limit = Math.min(previous.length(), name.length());
+            while (shared < limit && previous.charAt(shared) == name.charAt(shared)) {
+                shared++;
+            }
+
+            Varint.write(out, shared);
+            out.writeUTF(name.substring(shared));
+
+            result.put(name, result.size());
+            previous = name;
+        }
+
+        return result;
+    }
+
+    private static <T extends Node> List<T> sort(Collection<T> nodes) {
+        List<T> result = new ArrayList<T>(nodes);
+        Collections.sort(result, NODE_ORDER);
+        return result;
+    }
+}
@@ -33,27 +33,55 @@
 package com.jeantessier.dependency;
 
 import java.util.*;
+import java.util.concurrent.*;
 
-import org.apache.oro.text.perl.*;
-
+/**
+ *  <p>Computes LCOM4 for every confirmed class: the connected components
+ *  of its confirmed features, ignoring constructors, where two features
+ *  are connected if one depends on the other.</p>
+ *
+ *  <p>Each class gets a union-find over the indices of its features.
+ *  Classes are independent of one another, so with more than one thread
+ *  they are split into chunks that are computed on a thread pool.  The
+ *  graph must not change while the gatherer runs.</p>
+ */
 public class LCOM4Gatherer implements Visitor {
-    private static final Perl5Util perl = new Perl5Util();
+    public static final int DEFAULT_THREADS = 1;
 
-    private Map<ClassNode, Collection<Collection<FeatureNode>>> results = new HashMap<ClassNode, Collection<Collection<FeatureNode>>>();
-    private Collection<FeatureNode> currentComponent;
-    private ClassNode currentClass;
-    private LinkedList<FeatureNode> unvisitedNodes;
+    private static final int CLASSES_PER_TASK = 256;
 
-    private HashSet<Collection<FeatureNode>> currentComponents;
+    private Map<ClassNode, Collection<Collection<FeatureNode>>> results = new HashMap<ClassNode, Collection<Collection<FeatureNode>>>();
+    private int threads = DEFAULT_THREADS;
 
     public Map<ClassNode, Collection<Collection<FeatureNode>>> getResults() {
         return results;
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     *  Sets how many threads compute the components of classes.
+     *
+     *  @throws IllegalArgumentException if <code>threads</code> is less than 1.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be at least 1, was " + threads);
+        }
+
+        this.threads = threads;
+    }
+
     public void traverseNodes(Collection<? extends Node> nodes) {
-        for (Node node : nodes) {
-            if (node.isConfirmed()) {
-                node.accept(this);
+        if (getThreads() > 1) {
+            computeInParallel(getConfirmedClasses(nodes));
+        } else {
+            for (Node node : nodes) {
+                if (node.isConfirmed()) {
+                    node.accept(this);
+                }
             }
         }
     }
@@ -71,15 +99,7 @@ public class LCOM4Gatherer implements Visitor {
     }
 
     public void visitClassNode(ClassNode node) {
-        currentClass = node;
-
-        currentComponents = new HashSet<Collection<FeatureNode>>();
-        results.put(currentClass, currentComponents);
-
-        unvisitedNodes = filterOutConstructors(currentClass.getFeatures());
-        while (!unvisitedNodes.isEmpty()) {
-            unvisitedNodes.removeFirst().accept(this);
-        }
+        results.put(node, computeComponents(node));
     }
 
     public void visitInboundClassNode(ClassNode node) {
@@ -91,56 +111,161 @@ public class LCOM4Gatherer implements Visitor {
     }
 
     public void visitFeatureNode(FeatureNode node) {
-        currentComponent = new HashSet<FeatureNode>();
-        currentComponents.add(currentComponent);
-        currentComponent.add(node);
-
-        traverseInbound(node.getInboundDependencies());
-        traverseOutbound(node.getOutboundDependencies());
+        // Do nothing
     }
 
     public void traverseInbound(Collection<? extends Node> inboundDependencies) {
-        for (Node inboundDependency : inboundDependencies) {
-            inboundDependency.acceptInbound(this);
-        }
+        // Do nothing
     }
 
     public void traverseOutbound(Collection<? extends Node> outboundDependencies) {
-        for (Node outboundDependency : outboundDependencies) {
-            outboundDependency.acceptOutbound(this);
-        }
+        // Do nothing
     }
 
     public void visitInboundFeatureNode(FeatureNode node) {
-        visitFeatureDependency(node);
+        // Do nothing
     }
 
     public void visitOutboundFeatureNode(FeatureNode node) {
-        visitFeatureDependency(node);
+        // Do nothing
     }
 
-    private void visitFeatureDependency(FeatureNode node) {
-        if (currentClass.equals(node.getClassNode()) && unvisitedNodes.contains(node)) {
-            unvisitedNodes.remove(node);
-            currentComponent.add(node);
-            traverseInbound(node.getInboundDependencies());
-            traverseOutbound(node.getOutboundDependencies());
+    private List<ClassNode> getConfirmedClasses(Collection<? extends Node> nodes) {
+        List<ClassNode> result = new ArrayList<ClassNode>();
+
+        for (Node node : nodes) {
+            if (node.isConfirmed()) {
+                if (node instanceof PackageNode) {
+                    result.addAll(getConfirmedClasses(((PackageNode) node).getClasses()));
+                } else if (node instanceof ClassNode) {
+                    result.add((ClassNode) node);
+                }
+            }
         }
+
+        return result;
     }
 
-    private LinkedList<FeatureNode> filterOutConstructors(Collection<FeatureNode> featureNodes) {
-        LinkedList<FeatureNode> result = new LinkedList<FeatureNode>();
+    private void computeInParallel(final List<ClassNode> classes) {
+        ExecutorService executor = Executors.newFixedThreadPool(getThreads());
 
-        for (FeatureNode featureNode : featureNodes) {
-            if (featureNode.isConfirmed() && !isConstructor(featureNode)) {
-                result.add(featureNode);
+        try {
+            List<Future<Map<ClassNode, Collection<Collection<FeatureNode>>>>> futures = new ArrayList<Future<Map<ClassNode, Collection<Collection<FeatureNode>>>>>();
+            for (int start = 0; start < classes.size(); start += CLASSES_PER_TASK) {
+                final List<ClassNode> chunk = classes.subList(start, Math.min(start + CLASSES_PER_TASK, classes.size()));
+                futures.add(executor.submit(new Callable<Map<ClassNode, Collection<Collection<FeatureNode>>>>() {
+                    public Map<ClassNode, Collection<Collection<FeatureNode>>> call() {
+                        Map<ClassNode, Collection<Collection<FeatureNode>>> result = new HashMap<ClassNode, Collection<Collection<FeatureNode>>>();
+                        for (ClassNode classNode : chunk) {
+                            result.put(classNode, computeComponents(classNode));
+                        }
+                        return result;
+                    }
+                }));
             }
+
+            for (Future<Map<ClassNode, Collection<Collection<FeatureNode>>>> future : futures) {
+                results.putAll(future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while computing LCOM4", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new RuntimeException(ex.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Collection<Collection<FeatureNode>> computeComponents(ClassNode classNode) {
+        List<FeatureNode> features = new ArrayList<FeatureNode>();
+        Map<FeatureNode, Integer> indices = new HashMap<FeatureNode, Integer>();
+        for (FeatureNode featureNode : classNode.getFeatures()) {
+            if (featureNode.isConfirmed() && !isConstructor(featureNode.getName())) {
+                indices.put(featureNode, features.size());
+                features.add(featureNode);
+            }
+        }
+
+        int[] parents = new int[features.size()];
+        for (int i=0; i<parents.length; i++) {
+            parents[i] = i;
+        }
+
+        for (int i=0; i<parents.length; i++) {
+            FeatureNode featureNode = features.get(i);
+            union(parents, indices, i, featureNode.getInboundDependencies());
+            union(parents, indices, i, featureNode.getOutboundDependencies());
+        }
+
+        Map<Integer, Collection<FeatureNode>> components = new LinkedHashMap<Integer, Collection<FeatureNode>>();
+        for (int i=0; i<parents.length; i++) {
+            int root = find(parents, i);
+            Collection<FeatureNode> component = components.get(root);
+            if (component == null) {
+                component = new HashSet<FeatureNode>();
+                components.put(root, component);
+            }
+            component.add(features.get(i));
+        }
+
+        return new ArrayList<Collection<FeatureNode>>(components.values());
+    }
+
+    private static void union(int[] parents, Map<FeatureNode, Integer> indices, int index, Collection<Node> dependencies) {
+        for (Node dependency : dependencies) {
+            Integer other = indices.get(dependency);
+            if (other != null) {
+                int root = find(parents, index);
+                int otherRoot = find(parents, other);
+                if (root != otherRoot) {
+                    parents[Math.max(root, otherRoot)] = Math.min(root, otherRoot);
+                }
+            }
+        }
+    }
+
+    /**
+     *  Finds the root of a feature's component, halving the path on the way.
+     */
+    private static int find(int[] parents, int index) {
+        int result = index;
+
+        while (parents[result] != result) {
+            parents[result] = parents[parents[result]];
+            result = parents[result];
+        }
+
+        return result;
+    }
+
+    /**
+     *  <p>Same as matching <code>/(\w+)\.\1\(/</code>: some word right
+     *  before a parenthesis is also the word right before the dot that
+     *  precedes it, as in <code>Foo.Foo(</code>.  This gatherer used to
+     *  share a <code>Perl5Util</code> for this, which is not safe across
+     *  threads.</p>
+     */
+    static boolean isConstructor(String name) {
+        boolean result = false;
+
+        for (int parenthesis = name.indexOf('('); !result && parenthesis != -1; parenthesis = name.indexOf('(', parenthesis + 1)) {
+            int start = parenthesis;
+            while (start > 0 && isWordCharacter(name.charAt(start - 1))) {
+                start--;
+            }
+
+            int length = parenthesis - start;
+            result = length > 0 && start > length && name.charAt(start - 1) == '.' && name.regionMatches(start - 1 - length, name, start, length);
         }
 
         return result;
     }
 
-    private boolean isConstructor(FeatureNode node) {
-        return perl.match("/(\\w+)\\.\\1\\(/", node.getName());
+    private static boolean isWordCharacter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
     }
 }
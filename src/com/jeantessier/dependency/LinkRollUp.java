@@ -0,0 +1,248 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+/**
+ *  <p>Base for {@link BulkLinkMaximizer} and {@link BulkLinkMinimizer}.  It
+ *  takes a snapshot of the dependencies of the nodes over dense ids, then
+ *  looks at each node once with the dependencies of everything it contains
+ *  rolled up to their classes and packages.  A stamp per node weeds out
+ *  duplicates instead of hash sets, so the whole pass is linear in the number
+ *  of dependencies.</p>
+ */
+abstract class LinkRollUp {
+    private static final int[] NO_IDS = new int[0];
+
+    private Map<Node, Integer> ids = new HashMap<Node, Integer>();
+    private List<Node> nodes = new ArrayList<Node>();
+    private List<int[]> children = new ArrayList<int[]>();
+    private List<int[]> dependencies = new ArrayList<int[]>();
+    private int[] parents;
+
+    private int[] stamps;
+    private int[] marks;
+    private int[] buffer = new int[16];
+
+    public void traverseNodes(Collection<? extends Node> nodes) {
+        List<Node> sources = new ArrayList<Node>();
+        for (Node node : nodes) {
+            addSource(node, sources);
+        }
+
+        for (Node source : sources) {
+            Collection<Node> targets = source.getOutboundDependencies();
+            int[] targetIds = new int[targets.size()];
+
+            int i = 0;
+            for (Node target : targets) {
+                targetIds[i++] = getId(target);
+            }
+
+            dependencies.set(ids.get(source), targetIds);
+        }
+
+        parents = new int[this.nodes.size()];
+        for (int id = 0; id < parents.length; id++) {
+            parents[id] = getParentId(this.nodes.get(id));
+        }
+
+        stamps = new int[parents.length];
+        Arrays.fill(stamps, -1);
+        marks = new int[parents.length];
+        Arrays.fill(marks, -1);
+
+        for (Node source : sources) {
+            int id = ids.get(source);
+            process(source, id, rollUp(id));
+        }
+    }
+
+    private int addSource(Node node, List<Node> sources) {
+        int result = getId(node);
+        sources.add(node);
+
+        Collection<? extends Node> nodeChildren;
+        if (node instanceof PackageNode) {
+            nodeChildren = ((PackageNode) node).getClasses();
+        } else if (node instanceof ClassNode) {
+            nodeChildren = ((ClassNode) node).getFeatures();
+        } else {
+            nodeChildren = Collections.emptyList();
+        }
+
+        int[] childIds = nodeChildren.isEmpty() ? NO_IDS : new int[nodeChildren.size()];
+        int i = 0;
+        for (Node child : nodeChildren) {
+            childIds[i++] = addSource(child, sources);
+        }
+        children.set(result, childIds);
+
+        return result;
+    }
+
+    private int getId(Node node) {
+        Integer result = ids.get(node);
+
+        if (result == null) {
+            result = nodes.size();
+            ids.put(node, result);
+            nodes.add(node);
+            children.add(NO_IDS);
+            dependencies.add(NO_IDS);
+
+            if (node instanceof FeatureNode) {
+                getId(((FeatureNode) node).getClassNode());
+            } else if (node instanceof ClassNode) {
+                getId(((ClassNode) node).getPackageNode());
+            }
+        }
+
+        return result;
+    }
+
+    private int getParentId(Node node) {
+        int result = -1;
+
+        if (node instanceof FeatureNode) {
+            result = ids.get(((FeatureNode) node).getClassNode());
+        } else if (node instanceof ClassNode) {
+            result = ids.get(((ClassNode) node).getPackageNode());
+        }
+
+        return result;
+    }
+
+    /**
+     *  Stamps the targets of the dependencies of the node and of everything
+     *  it contains, with their class and package.
+     *
+     *  @return how many distinct nodes it stamped; they are at the start of
+     *          {@link #getRolledUp()}.
+     */
+    private int rollUp(int id) {
+        int count = rollUpDependencies(id, id, 0);
+
+        for (int child : children.get(id)) {
+            count = rollUpSubtree(id, child, count);
+        }
+
+        return count;
+    }
+
+    private int rollUpSubtree(int id, int source, int count) {
+        count = rollUpDependencies(id, source, count);
+
+        for (int child : children.get(source)) {
+            count = rollUpSubtree(id, child, count);
+        }
+
+        return count;
+    }
+
+    private int rollUpDependencies(int id, int source, int count) {
+        for (int target : dependencies.get(source)) {
+            int node = source == id && !isIncludingOwnDependencies() ? parents[target] : target;
+
+            while (node != -1) {
+                if (stamps[node] != id) {
+                    stamps[node] = id;
+
+                    if (count == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, count * 2);
+                    }
+                    buffer[count++] = node;
+                }
+
+                node = parents[node];
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     *  Whether to count the node's own dependencies among the ones it rolls
+     *  up, or only their classes and packages.
+     */
+    protected abstract boolean isIncludingOwnDependencies();
+
+    protected abstract void process(Node node, int id, int count);
+
+    protected Node getNode(int id) {
+        return nodes.get(id);
+    }
+
+    protected int[] getDependencies(int id) {
+        return dependencies.get(id);
+    }
+
+    protected int[] getRolledUp() {
+        return buffer;
+    }
+
+    protected boolean isStamped(int id, int node) {
+        return stamps[node] == id;
+    }
+
+    /**
+     *  A second set of stamps, free for subclasses to use while processing
+     *  a node.
+     */
+    protected void mark(int id, int node) {
+        marks[node] = id;
+    }
+
+    protected boolean isMarked(int id, int node) {
+        return marks[node] == id;
+    }
+
+    /**
+     *  Nodes cannot depend on themselves, on what contains them, or on what
+     *  they contain.
+     */
+    protected boolean canDepend(int id, int node) {
+        return !contains(id, node) && !contains(node, id);
+    }
+
+    private boolean contains(int container, int node) {
+        for (int current = node; current != -1; current = parents[current]) {
+            if (current == container) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,438 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.util.*;
+
+/**
+ *  <p>A read-only dependency graph that answers straight from a file written
+ *  by {@link MappedGraphWriter}, mapped in memory.  Opening it only reads
+ *  the header, and it creates nodes when someone asks for them, so it
+ *  starts right away and uses about as much heap for a large graph as for
+ *  a small one.</p>
+ *
+ *  <p>{@link #getFactory()} gives the graph as a {@link NodeFactory} that
+ *  visitors and traversal strategies use like any other.  Nodes with the
+ *  same name are equal, but asking twice for a node gives two different
+ *  objects.  Trying to change the factory or its nodes throws
+ *  <code>UnsupportedOperationException</code>.  Nodes keep no inheritance
+ *  information.</p>
+ *
+ *  <p>It is safe to query the graph from several threads at once.</p>
+ */
+public class MappedGraph {
+    private static final int HEADER_SIZE = 7 * 4;
+
+    private int packageCount;
+    private int classCount;
+    private int featureCount;
+
+    private IntBuffer nameStarts;
+    private IntBuffer parents;
+    private IntBuffer childStarts;
+    private IntBuffer children;
+    private IntBuffer outboundStarts;
+    private IntBuffer outbounds;
+    private IntBuffer inboundStarts;
+    private IntBuffer inbounds;
+    private ByteBuffer names;
+    private ByteBuffer confirmed;
+
+    private NodeFactory factory;
+
+    public MappedGraph(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MappedGraphWriter.MAGIC) {
+            throw new IOException("Not a mapped dependency graph");
+        }
+
+        int version = buffer.getInt(4);
+        if (version != MappedGraphWriter.VERSION) {
+            throw new IOException("Unsupported mapped dependency graph version " + version);
+        }
+
+        packageCount = buffer.getInt(8);
+        classCount = buffer.getInt(12);
+        featureCount = buffer.getInt(16);
+        int edgeCount = buffer.getInt(20);
+        int nameBytes = buffer.getInt(24);
+
+        int nodeCount = packageCount + classCount + featureCount;
+        int parentCount = packageCount + classCount;
+
+        long size = HEADER_SIZE + 4L * ((nodeCount + 1) + nodeCount + (parentCount + 1) + (classCount + featureCount) + 2 * (nodeCount + 1 + edgeCount)) + nameBytes + nodeCount;
+        if (buffer.capacity() < size) {
+            throw new IOException("Truncated mapped dependency graph, expected " + size + " bytes but got " + buffer.capacity());
+        }
+
+        int offset = HEADER_SIZE;
+        nameStarts = slice(buffer, offset, (nodeCount + 1) * 4).asIntBuffer();
+        offset += (nodeCount + 1) * 4;
+        parents = slice(buffer, offset, nodeCount * 4).asIntBuffer();
+        offset += nodeCount * 4;
+        childStarts = slice(buffer, offset, (parentCount + 1) * 4).asIntBuffer();
+        offset += (parentCount + 1) * 4;
+        children = slice(buffer, offset, (classCount + featureCount) * 4).asIntBuffer();
+        offset += (classCount + featureCount) * 4;
+        outboundStarts = slice(buffer, offset, (nodeCount + 1) * 4).asIntBuffer();
+        offset += (nodeCount + 1) * 4;
+        outbounds = slice(buffer, offset, edgeCount * 4).asIntBuffer();
+        offset += edgeCount * 4;
+        inboundStarts = slice(buffer, offset, (nodeCount + 1) * 4).asIntBuffer();
+        offset += (nodeCount + 1) * 4;
+        inbounds = slice(buffer, offset, edgeCount * 4).asIntBuffer();
+        offset += edgeCount * 4;
+        names = slice(buffer, offset, nameBytes);
+        offset += nameBytes;
+        confirmed = slice(buffer, offset, nodeCount);
+
+        factory = new NodeFactory(new NodeMap<PackageNode>(0, packageCount), new NodeMap<ClassNode>(packageCount, parentCount), new NodeMap<FeatureNode>(parentCount, nodeCount));
+    }
+
+    /**
+     *  Maps the file in memory.  The mapping stays valid after the file is
+     *  closed, until the graph is garbage collected.
+     */
+    public static MappedGraph open(String filename) throws IOException {
+        MappedGraph result;
+
+        FileChannel channel = new FileInputStream(filename).getChannel();
+        try {
+            result = new MappedGraph(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            channel.close();
+        }
+
+        return result;
+    }
+
+    /**
+     *  Checks the magic number at the start of the file.
+     */
+    public static boolean isMappedGraph(String filename) throws IOException {
+        boolean result = false;
+
+        DataInputStream in = new DataInputStream(new FileInputStream(filename));
+        try {
+            result = in.readInt() == MappedGraphWriter.MAGIC;
+        } catch (EOFException ex) {
+            // Too short to be a mapped graph
+        } finally {
+            in.close();
+        }
+
+        return result;
+    }
+
+    public NodeFactory getFactory() {
+        return factory;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer result = buffer.duplicate();
+        result.position(offset);
+        result.limit(offset + length);
+        return result.slice();
+    }
+
+    private Node getNode(int id) {
+        Node result;
+
+        if (id < packageCount) {
+            result = new MappedPackageNode(id);
+        } else if (id < packageCount + classCount) {
+            result = new MappedClassNode((PackageNode) getNode(parents.get(id)), id);
+        } else {
+            result = new MappedFeatureNode((ClassNode) getNode(parents.get(id)), id);
+        }
+
+        return result;
+    }
+
+    private String getNodeName(int id) {
+        int start = nameStarts.get(id);
+        byte[] bytes = new byte[nameStarts.get(id + 1) - start];
+        for (int i=0; i<bytes.length; i++) {
+            bytes[i] = names.get(start + i);
+        }
+        return new String(bytes, MappedGraphWriter.UTF8);
+    }
+
+    private boolean isNodeConfirmed(int id) {
+        return confirmed.get(id) != 0;
+    }
+
+    /**
+     *  Binary search over the names of the nodes numbered from
+     *  <code>from</code> up to, but excluding, <code>to</code>.
+     *
+     *  @return the number of the node, or -1 if there is none with that name.
+     */
+    private int find(String name, int from, int to) {
+        int result = -1;
+
+        int low = from;
+        int high = to - 1;
+        while (result == -1 && low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = getNodeName(middle).compareTo(name);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                result = middle;
+            }
+        }
+
+        return result;
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Mapped dependency graphs are read-only");
+    }
+
+    /**
+     *  The nodes numbered from <code>from</code> up to, but excluding,
+     *  <code>to</code>, or the nodes at those positions in
+     *  <code>ids</code>.
+     */
+    private class NodeList<N extends Node> extends AbstractList<N> {
+        private IntBuffer ids;
+        private int from;
+        private int to;
+
+        public NodeList(IntBuffer ids, int from, int to) {
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+        }
+
+        public N get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+
+            // The range only holds nodes of type N
+            @SuppressWarnings("unchecked")
+            N result = (N) getNode(ids != null ? ids.get(from + index) : from + index);
+
+            return result;
+        }
+
+        public int size() {
+            return to - from;
+        }
+    }
+
+    private class NodeMap<N extends Node> extends AbstractMap<String, N> {
+        private int from;
+        private int to;
+
+        public NodeMap(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        public int size() {
+            return to - from;
+        }
+
+        public boolean containsKey(Object key) {
+            return key instanceof String && find((String) key, from, to) != -1;
+        }
+
+        public N get(Object key) {
+            N result = null;
+
+            if (key instanceof String) {
+                int id = find((String) key, from, to);
+                if (id != -1) {
+                    // The range only holds nodes of type N
+                    @SuppressWarnings("unchecked")
+                    N node = (N) getNode(id);
+                    result = node;
+                }
+            }
+
+            return result;
+        }
+
+        public Collection<N> values() {
+            return new NodeList<N>(null, from, to);
+        }
+
+        public Set<Map.Entry<String, N>> entrySet() {
+            return new AbstractSet<Map.Entry<String, N>>() {
+                public int size() {
+                    return NodeMap.this.size();
+                }
+
+                public Iterator<Map.Entry<String, N>> iterator() {
+                    final Iterator<N> i = values().iterator();
+                    return new Iterator<Map.Entry<String, N>>() {
+                        public boolean hasNext() {
+                            return i.hasNext();
+                        }
+
+                        public Map.Entry<String, N> next() {
+                            N node = i.next();
+                            return new AbstractMap.SimpleImmutableEntry<String, N>(node.getName(), node);
+                        }
+
+                        public void remove() {
+                            throw readOnly();
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    private class MappedPackageNode extends PackageNode {
+        private int id;
+
+        public MappedPackageNode(int id) {
+            super(getNodeName(id), isNodeConfirmed(id));
+            this.id = id;
+        }
+
+        void setConfirmed(boolean confirmed) {
+            throw readOnly();
+        }
+
+        public void addClass(ClassNode node) {
+            throw readOnly();
+        }
+
+        public void removeClass(ClassNode node) {
+            throw readOnly();
+        }
+
+        public Collection<ClassNode> getClasses() {
+            return new NodeList<ClassNode>(children, childStarts.get(id), childStarts.get(id + 1));
+        }
+
+        public void addDependency(Node node) {
+            throw readOnly();
+        }
+
+        public void removeDependency(Node node) {
+            throw readOnly();
+        }
+
+        public Collection<Node> getInboundDependencies() {
+            return new NodeList<Node>(inbounds, inboundStarts.get(id), inboundStarts.get(id + 1));
+        }
+
+        public Collection<Node> getOutboundDependencies() {
+            return new NodeList<Node>(outbounds, outboundStarts.get(id), outboundStarts.get(id + 1));
+        }
+    }
+
+    private class MappedClassNode extends ClassNode {
+        private int id;
+
+        public MappedClassNode(PackageNode packageNode, int id) {
+            super(packageNode, getNodeName(id), isNodeConfirmed(id));
+            this.id = id;
+        }
+
+        void setConfirmed(boolean confirmed) {
+            throw readOnly();
+        }
+
+        public void addFeature(FeatureNode node) {
+            throw readOnly();
+        }
+
+        public void removeFeature(FeatureNode node) {
+            throw readOnly();
+        }
+
+        public Collection<FeatureNode> getFeatures() {
+            return new NodeList<FeatureNode>(children, childStarts.get(id), childStarts.get(id + 1));
+        }
+
+        public void addParent(ClassNode parentClass) {
+            throw readOnly();
+        }
+
+        public void addDependency(Node node) {
+            throw readOnly();
+        }
+
+        public void removeDependency(Node node) {
+            throw readOnly();
+        }
+
+        public Collection<Node> getInboundDependencies() {
+            return new NodeList<Node>(inbounds, inboundStarts.get(id), inboundStarts.get(id + 1));
+        }
+
+        public Collection<Node> getOutboundDependencies() {
+            return new NodeList<Node>(outbounds, outboundStarts.get(id), outboundStarts.get(id + 1));
+        }
+    }
+
+    private class MappedFeatureNode extends FeatureNode {
+        private int id;
+
+        public MappedFeatureNode(ClassNode classNode, int id) {
+            super(classNode, getNodeName(id), isNodeConfirmed(id));
+            this.id = id;
+        }
+
+        void setConfirmed(boolean confirmed) {
+            throw readOnly();
+        }
+
+        public void addDependency(Node node) {
+            throw readOnly();
+        }
+
+        public void removeDependency(Node node) {
+            throw readOnly();
+        }
+
+        public Collection<Node> getInboundDependencies() {
+            return new NodeList<Node>(inbounds, inboundStarts.get(id), inboundStarts.get(id + 1));
+        }
+
+        public Collection<Node> getOutboundDependencies() {
+            return new NodeList<Node>(outbounds, outboundStarts.get(id), outboundStarts.get(id + 1));
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+
+/**
+ *  <p>Writes a dependency graph in the layout that {@link MappedGraph}
+ *  queries straight from a memory-mapped file.  Unlike the compact
+ *  snapshots of {@link GraphSnapshotWriter}, every part has a fixed width
+ *  so that it can be read at random without decoding what comes before
+ *  it.</p>
+ *
+ *  <p>Nodes are numbered packages first, then classes, then features, each
+ *  kind sorted by name, so that finding a node by name is a binary search.
+ *  After a header with a magic number, a version, and the counts, the file
+ *  has these arrays of 32-bit integers:</p>
+ *
+ *  <ol>
+ *      <li>where the name of each node starts in the table of names, plus
+ *      where the table ends,</li>
+ *      <li>the number of the package of each class and of the class of each
+ *      feature, or -1 for packages,</li>
+ *      <li>where the children of each package and class start, plus where
+ *      they end, and then the children themselves,</li>
+ *      <li>where the outbound dependencies of each node start, plus where
+ *      they end, and then the dependencies themselves, sorted,</li>
+ *      <li>the same for inbound dependencies.</li>
+ *  </ol>
+ *
+ *  <p>The file ends with the table of names, in UTF-8, and a byte per node
+ *  for its confirmed flag.</p>
+ */
+public class MappedGraphWriter {
+    public static final String FILE_EXTENSION = ".dfm";
+
+    private static final Comparator<Node> NODE_ORDER = new NodeComparator();
+
+    static final int MAGIC = 0x4446474D;
+    static final int VERSION = 1;
+
+    static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private DataOutputStream out;
+
+    public MappedGraphWriter(OutputStream out) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+    }
+
+    /**
+     *  Writes the whole graph and flushes, but does not close, the
+     *  underlying stream.
+     */
+    public void write(NodeFactory factory) throws IOException {
+        List<Node> nodes = new ArrayList<Node>(factory.getPackages().size() + factory.getClasses().size() + factory.getFeatures().size());
+        nodes.addAll(sort(factory.getPackages().values()));
+        nodes.addAll(sort(factory.getClasses().values()));
+        nodes.addAll(sort(factory.getFeatures().values()));
+
+        Map<Node, Integer> ids = new HashMap<Node, Integer>();
+        for (Node node : nodes) {
+            ids.put(node, ids.size());
+        }
+
+        List<byte[]> names = new ArrayList<byte[]>(nodes.size());
+        int nameBytes = 0;
+        int edgeCount = 0;
+        for (Node node : nodes) {
+            byte[] name = node.getName().getBytes(UTF8);
+            names.add(name);
+            nameBytes += name.length;
+            edgeCount += node.getOutboundDependencies().size();
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(factory.getPackages().size());
+        out.writeInt(factory.getClasses().size());
+        out.writeInt(factory.getFeatures().size());
+        out.writeInt(edgeCount);
+        out.writeInt(nameBytes);
+
+        int offset = 0;
+        for (byte[] name : names) {
+            out.writeInt(offset);
+            offset += name.length;
+        }
+        out.writeInt(offset);
+
+        for (Node node : nodes) {
+            if (node instanceof ClassNode) {
+                out.writeInt(ids.get(((ClassNode) node).getPackageNode()));
+            } else if (node instanceof FeatureNode) {
+                out.writeInt(ids.get(((FeatureNode) node).getClassNode()));
+            } else {
+                out.writeInt(-1);
+            }
+        }
+
+        List<Collection<? extends Node>> children = new ArrayList<Collection<? extends Node>>(factory.getPackages().size() + factory.getClasses().size());
+        for (Node node : nodes) {
+            if (node instanceof PackageNode) {
+                children.add(((PackageNode) node).getClasses());
+            } else if (node instanceof ClassNode) {
+                children.add(((ClassNode) node).getFeatures());
+            }
+        }
+        writeAdjacency(children, ids);
+
+        List<Collection<? extends Node>> outbounds = new ArrayList<Collection<? extends Node>>(nodes.size());
+        List<Collection<? extends Node>> inbounds = new ArrayList<Collection<? extends Node>>(nodes.size());
+        for (Node node : nodes) {
+            outbounds.add(node.getOutboundDependencies());
+            inbounds.add(node.getInboundDependencies());
+        }
+        writeAdjacency(outbounds, ids);
+        writeAdjacency(inbounds, ids);
+
+        for (byte[] name : names) {
+            out.write(name);
+        }
+
+        for (Node node : nodes) {
+            out.writeByte(node.isConfirmed() ? 1 : 0);
+        }
+
+        out.flush();
+    }
+
+    /**
+     *  Writes where each list starts, plus where the last one ends, and then
+     *  the sorted numbers of the nodes in all the lists.
+     */
+    private void writeAdjacency(List<Collection<? extends Node>> lists, Map<Node, Integer> ids) throws IOException {
+        int offset = 0;
+        for (Collection<? extends Node> list : lists) {
+            out.writeInt(offset);
+            offset += list.size();
+        }
+        out.writeInt(offset);
+
+        int[] targets = new int[0];
+        for (Collection<? extends Node> list : lists) {
+            if (targets.length < list.size()) {
+                targets = new int[list.size()];
+            }
+
+            int count = 0;
+            for (Node node : list) {
+                targets[count++] = ids.get(node);
+            }
+            Arrays.sort(targets, 0, count);
+
+            for (int i=0; i<count; i++) {
+                out.writeInt(targets[i]);
+            }
+        }
+    }
+
+    private static <T extends Node> List<T> sort(Collection<T> nodes) {
+        List<T> result = new ArrayList<T>(nodes);
+        Collections.sort(result, NODE_ORDER);
+        return result;
+    }
+}
@@ -38,8 +38,8 @@ public abstract class Node implements Comparable {
     private String  name      = "";
     private boolean confirmed = false;
     
-    private Collection<Node> inbound  = new HashSet<Node>();
-    private Collection<Node> outbound = new HashSet<Node>();
+    private NodeSet<Node> inbound  = new NodeSet<Node>();
+    private NodeSet<Node> outbound = new NodeSet<Node>();
 
     public Node(String name, boolean confirmed) {
         this.name      = name;
@@ -63,10 +63,21 @@ public abstract class Node implements Comparable {
         return !equals(node);
     }
     
+    /**
+     *  Each side is locked separately, never both at once, so that
+     *  collectors can add dependencies from several threads without
+     *  deadlocking.
+     *
+     *  @see ConcurrentNodeFactory
+     */
     public void addDependency(Node node) {
         if (canAddDependencyTo(node) && node.canAddDependencyTo(this)) {
-            outbound.add(node);
-            node.inbound.add(this);
+            synchronized(outbound) {
+                outbound.add(node);
+            }
+            synchronized(node.inbound) {
+                node.inbound.add(this);
+            }
         }
     }
 
@@ -77,8 +88,12 @@ public abstract class Node implements Comparable {
     }
 
     public void removeDependency(Node node) {
-        outbound.remove(node);
-        node.inbound.remove(this);
+        synchronized(outbound) {
+            outbound.remove(node);
+        }
+        synchronized(node.inbound) {
+            node.inbound.remove(this);
+        }
     }
 
     public void removeDependencies(Collection<? extends Node> nodes) {
@@ -88,11 +103,11 @@ public abstract class Node implements Comparable {
     }
 
     public Collection<Node> getInboundDependencies() {
-        return Collections.unmodifiableCollection(inbound);
+        return inbound.getReadOnlyView();
     }
 
     public Collection<Node> getOutboundDependencies() {
-        return Collections.unmodifiableCollection(outbound);
+        return outbound.getReadOnlyView();
     }
 
     public abstract void accept(Visitor visitor);
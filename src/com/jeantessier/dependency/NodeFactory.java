@@ -34,34 +34,53 @@ package com.jeantessier.dependency;
 
 import java.util.*;
 
-import org.apache.log4j.*;
-import org.apache.oro.text.perl.*;
+import com.jeantessier.classreader.*;
+import com.jeantessier.log.*;
 
 public class NodeFactory {
-    private static final Perl5Util perl = new Perl5Util();
+    private static final Trace trace = Trace.getTrace(NodeFactory.class);
 
-    private Map<String, PackageNode> packages = new HashMap<String, PackageNode>();
-    private Map<String, ClassNode> classes = new HashMap<String, ClassNode>();
-    private Map<String, FeatureNode> features = new HashMap<String, FeatureNode>();
+    private Map<String, PackageNode> packages;
+    private Map<String, ClassNode> classes;
+    private Map<String, FeatureNode> features;
+
+    public NodeFactory() {
+        this(new HashMap<String, PackageNode>(), new HashMap<String, ClassNode>(), new HashMap<String, FeatureNode>());
+    }
+
+    /**
+     *  For subclasses that need specific maps, such as {@link ConcurrentNodeFactory}.
+     */
+    protected NodeFactory(Map<String, PackageNode> packages, Map<String, ClassNode> classes, Map<String, FeatureNode> features) {
+        this.packages = packages;
+        this.classes = classes;
+        this.features = features;
+    }
 
     public PackageNode createPackage(String packageName) {
         return createPackage(packageName, false);
     }
     
     public PackageNode createPackage(String packageName, boolean confirmed) {
-        Logger.getLogger(getClass()).debug("Create package \"" + packageName + "\"");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Create package \"" + packageName + "\"");
+        }
 
         PackageNode result = packages.get(packageName);
 
         if (result == null) {
             result = new PackageNode(packageName, confirmed);
             packages.put(packageName, result);
-            Logger.getLogger(getClass()).debug("Added package \"" + packageName + "\"");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Added package \"" + packageName + "\"");
+            }
         }
 
         if (confirmed && !result.isConfirmed()) {
             result.setConfirmed(confirmed);
-            Logger.getLogger(getClass()).debug("Package \"" + packageName + "\" is confirmed");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Package \"" + packageName + "\" is confirmed");
+            }
         }
 
         return result;
@@ -69,7 +88,9 @@ public class NodeFactory {
     
     // Only to be used by DeletingVisitor
     void deletePackage(PackageNode node) {
-        Logger.getLogger(getClass()).debug("Delete package \"" + node + "\"");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Delete package \"" + node + "\"");
+        }
 
         packages.remove(node.getName());
     }
@@ -83,26 +104,41 @@ public class NodeFactory {
     }
     
     public ClassNode createClass(String className, boolean confirmed) {
-        Logger.getLogger(getClass()).debug("Create class \"" + className + "\"");
+        return createClass(null, className, confirmed);
+    }
+
+    /**
+     *  For callers that already have the package of the class, such as
+     *  {@link StreamingNodeLoader}, so it does not have to come from the
+     *  class name.
+     *
+     *  @param parent the package of the class, or <code>null</code> to look
+     *                it up from the class name.
+     */
+    ClassNode createClass(PackageNode parent, String className, boolean confirmed) {
+        if (trace().isDebugEnabled()) {
+            trace().debug("Create class \"" + className + "\"");
+        }
 
         ClassNode result = classes.get(className);
 
         if (result == null) {
-            String packageName = "";
-            int pos = className.lastIndexOf('.');
-            if (pos != -1) {
-                packageName = className.substring(0, pos);
+            if (parent == null || (confirmed && !parent.isConfirmed())) {
+                parent = createPackage(getPackageName(className), confirmed);
             }
-            PackageNode parent = createPackage(packageName, confirmed);
             result = new ClassNode(parent, className, confirmed);
             parent.addClass(result);
             classes.put(className, result);
-            Logger.getLogger(getClass()).debug("Added class \"" + className + "\"");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Added class \"" + className + "\"");
+            }
         }
 
         if (confirmed && !result.isConfirmed()) {
             result.setConfirmed(confirmed);
-            Logger.getLogger(getClass()).debug("Class \"" + className + "\" is confirmed");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Class \"" + className + "\" is confirmed");
+            }
         }
 
         return result;
@@ -110,7 +146,9 @@ public class NodeFactory {
 
     // Only to be used by DeletingVisitor
     void deleteClass(ClassNode node) {
-        Logger.getLogger(getClass()).debug("Delete class \"" + node + "\"");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Delete class \"" + node + "\"");
+        }
 
         node.getPackageNode().removeClass(node);
         classes.remove(node.getName());
@@ -125,31 +163,41 @@ public class NodeFactory {
     }
     
     public FeatureNode createFeature(String featureName, boolean confirmed) {
-        Logger.getLogger(getClass()).debug("Create feature \"" + featureName + "\"");
+        return createFeature(null, featureName, confirmed);
+    }
+
+    /**
+     *  For callers that already have the class of the feature, such as
+     *  {@link StreamingNodeLoader}, so it does not have to come from the
+     *  feature name.
+     *
+     *  @param parent the class of the feature, or <code>null</code> to look
+     *                it up from the feature name.
+     */
+    FeatureNode createFeature(ClassNode parent, String featureName, boolean confirmed) {
+        if (trace().isDebugEnabled()) {
+            trace().debug("Create feature \"" + featureName + "\"");
+        }
 
         FeatureNode result = features.get(featureName);
 
         if (result == null) {
-            String parentName;
-
-            if (perl.match("/^(.*)\\.[^\\.]*\\(.*\\)$/", featureName)) {
-                parentName = perl.group(1);
-            } else if (perl.match("/^(.*)\\.[^\\.]*$/", featureName)) {
-                parentName = perl.group(1);
-            } else {
-                parentName = "";
+            if (parent == null || (confirmed && !parent.isConfirmed())) {
+                parent = createClass(getClassName(featureName), confirmed);
             }
-
-            ClassNode parent = createClass(parentName, confirmed);
             result = new FeatureNode(parent, featureName, confirmed);
             parent.addFeature(result);
             features.put(featureName, result);
-            Logger.getLogger(getClass()).debug("Added feature \"" + featureName + "\"");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Added feature \"" + featureName + "\"");
+            }
         }
 
         if (confirmed && !result.isConfirmed()) {
             result.setConfirmed(confirmed);
-            Logger.getLogger(getClass()).debug("Feature \"" + featureName + "\" is confirmed");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Feature \"" + featureName + "\" is confirmed");
+            }
         }
 
         return result;
@@ -157,7 +205,9 @@ public class NodeFactory {
     
     // Only to be used by DeletingVisitor
     void deleteFeature(FeatureNode node) {
-        Logger.getLogger(getClass()).debug("Delete feature \"" + node + "\"");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Delete feature \"" + node + "\"");
+        }
 
         node.getClassNode().removeFeature(node);
         features.remove(node.getName());
@@ -166,4 +216,23 @@ public class NodeFactory {
     public Map<String, FeatureNode> getFeatures() {
         return Collections.unmodifiableMap(features);
     }
+
+    static String getPackageName(String className) {
+        String result = "";
+
+        int pos = className.lastIndexOf('.');
+        if (pos != -1) {
+            result = className.substring(0, pos);
+        }
+
+        return result;
+    }
+
+    static String getClassName(String featureName) {
+        return FeatureNameHelper.getClassName(featureName);
+    }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
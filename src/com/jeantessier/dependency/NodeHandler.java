@@ -34,11 +34,14 @@ package com.jeantessier.dependency;
 
 import java.util.*;
 
-import org.apache.log4j.*;
 import org.xml.sax.*;
 import org.xml.sax.helpers.*;
 
+import com.jeantessier.log.*;
+
 public class NodeHandler extends DefaultHandler {
+    private static final Trace trace = Trace.getTrace(NodeHandler.class);
+
     private static final int PACKAGE = 1;
     private static final int CLASS   = 2;
     private static final int FEATURE = 3;
@@ -69,10 +72,14 @@ public class NodeHandler extends DefaultHandler {
     }
 
     public void startElement(String namespaceURI, String localName, String qName, Attributes atts) throws SAXException {
-        Logger.getLogger(getClass()).debug("qName = " + qName);
+        if (trace().isDebugEnabled()) {
+            trace().debug("qName = " + qName);
+        }
 
         for (int i=0; i<atts.getLength(); i++) {
-            Logger.getLogger(getClass()).debug("    " + atts.getQName(i) + ": " + atts.getValue(i));
+            if (trace().isDebugEnabled()) {
+                trace().debug("    " + atts.getQName(i) + ": " + atts.getValue(i));
+            }
         }
 
         currentName.delete(0, currentName.length());
@@ -99,19 +106,25 @@ public class NodeHandler extends DefaultHandler {
             currentDependencyAttributes = new AttributesImpl(atts);
         }
 
-        Logger.getLogger(getClass()).debug("    current node type: " + currentNodeType);
-        Logger.getLogger(getClass()).debug("    current dependency type: " + currentDependencyType);
+        if (trace().isDebugEnabled()) {
+            trace().debug("    current node type: " + currentNodeType);
+            trace().debug("    current dependency type: " + currentDependencyType);
+        }
     }
 
     public void endElement(String namespaceURI, String localName, String qName) throws SAXException {
-        Logger.getLogger(getClass()).debug("qName = " + qName);
+        if (trace().isDebugEnabled()) {
+            trace().debug("qName = " + qName);
+        }
 
         if ("dependencies".equals(qName)) {
             fireEndSession();
         } else if ("name".equals(qName)) {
-            Logger.getLogger(getClass()).debug("    Processing <name> tag:");
-            Logger.getLogger(getClass()).debug("        current name: " + currentName);
-            Logger.getLogger(getClass()).debug("        current node type: " + currentNodeType);
+            trace().debug("    Processing <name> tag:");
+            if (trace().isDebugEnabled()) {
+                trace().debug("        current name: " + currentName);
+                trace().debug("        current node type: " + currentNodeType);
+            }
 
             switch (currentNodeType) {
                 case PACKAGE:
@@ -126,9 +139,11 @@ public class NodeHandler extends DefaultHandler {
                     break;
             }
         } else if ("outbound".equals(qName)) {
-            Logger.getLogger(getClass()).debug("    Processing <outbound> tag:");
-            Logger.getLogger(getClass()).debug("        current_name: " + currentName);
-            Logger.getLogger(getClass()).debug("        current_dependency_type: " + currentDependencyType);
+            trace().debug("    Processing <outbound> tag:");
+            if (trace().isDebugEnabled()) {
+                trace().debug("        current_name: " + currentName);
+                trace().debug("        current_dependency_type: " + currentDependencyType);
+            }
 
             Node other = null;
             switch (currentDependencyType) {
@@ -145,9 +160,11 @@ public class NodeHandler extends DefaultHandler {
             currentNode.addDependency(other);
             fireDependency(currentNode, other);
         } else if ("inbound".equals(qName)) {
-            Logger.getLogger(getClass()).debug("    Processing <inbound> tag:");
-            Logger.getLogger(getClass()).debug("        current_name: " + currentName);
-            Logger.getLogger(getClass()).debug("        current_dependency_type: " + currentDependencyType);
+            trace().debug("    Processing <inbound> tag:");
+            if (trace().isDebugEnabled()) {
+                trace().debug("        current_name: " + currentName);
+                trace().debug("        current_dependency_type: " + currentDependencyType);
+            }
 
             Node other = null;
             switch (currentDependencyType) {
@@ -168,7 +185,9 @@ public class NodeHandler extends DefaultHandler {
 
     public void characters(char[] ch, int start, int length) throws SAXException {
         currentName.append(ch, start, length);
-        Logger.getLogger(getClass()).debug("characters: \"" + new String(ch, start, length) + "\"");
+        if (trace().isDebugEnabled()) {
+            trace().debug("characters: \"" + new String(ch, start, length) + "\"");
+        }
     }
 
     public void addDependencyListener(DependencyListener listener) {
@@ -251,4 +270,8 @@ public class NodeHandler extends DefaultHandler {
     private boolean isConfirmed(Attributes atts) {
         return atts.getValue("confirmed") == null || "yes".equalsIgnoreCase(atts.getValue("confirmed"));
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
@@ -33,17 +33,38 @@
 package com.jeantessier.dependency;
 
 import java.io.*;
+import java.util.zip.*;
 
 import javax.xml.parsers.*;
+import javax.xml.stream.*;
 
-import org.apache.log4j.*;
 import org.xml.sax.*;
 
+import com.jeantessier.log.*;
+
+/**
+ *  <p>Loads a dependency graph from XML.  Loading from a file or a stream
+ *  also accepts snapshots from {@link GraphSnapshotWriter}, recognized by
+ *  their magic number.</p>
+ *
+ *  <p>Unless it validates documents, it reads XML with a
+ *  {@link StreamingNodeLoader}, which is faster than {@link NodeHandler}.
+ *  Parsing errors come out as <code>SAXException</code> either way.</p>
+ *
+ *  <p>Either kind of graph can be compressed with gzip.</p>
+ */
 public class NodeLoader {
+    private static final Trace trace = Trace.getTrace(NodeLoader.class);
+
     private static final boolean DEFAULT_VALIDATE = false;
 
-    private NodeHandler handler;
-    private boolean     validate;
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private NodeHandler         handler;
+    private StreamingNodeLoader streamingLoader;
+    private GraphSnapshotReader snapshotReader;
+    private boolean             validate;
 
     public NodeLoader() {
         this(new NodeFactory(), DEFAULT_VALIDATE);
@@ -58,17 +79,58 @@ public class NodeLoader {
     }
 
     public NodeLoader(NodeFactory factory, boolean validate) {
-        this.handler  = new NodeHandler(factory);
-        this.validate = validate;
+        this.handler         = new NodeHandler(factory);
+        this.streamingLoader = new StreamingNodeLoader(factory);
+        this.snapshotReader  = new GraphSnapshotReader(factory);
+        this.validate        = validate;
+    }
+
+    /**
+     *  Tells whether a file looks like a dependency graph from its name:
+     *  either XML or a snapshot, possibly compressed.
+     */
+    public static boolean isGraphFile(String filename) {
+        String name = filename;
+        if (name.endsWith(GZIP_EXTENSION)) {
+            name = name.substring(0, name.length() - GZIP_EXTENSION.length());
+        }
+
+        return name.endsWith(".xml") || name.endsWith(GraphSnapshotWriter.FILE_EXTENSION);
+    }
+
+    /**
+     *  Unzips the stream if it starts with the gzip magic number.
+     *
+     *  @param in a stream that supports mark and reset.
+     */
+    private static InputStream decompress(InputStream in) throws IOException {
+        InputStream result = in;
+
+        in.mark(2);
+        int magic = in.read() | (in.read() << 8);
+        in.reset();
+
+        if (magic == GZIPInputStream.GZIP_MAGIC) {
+            result = new BufferedInputStream(new GZIPInputStream(in, GZIP_BUFFER_SIZE), GZIP_BUFFER_SIZE);
+        }
+
+        return result;
     }
 
     public NodeFactory load(String filename) throws IOException, SAXException, ParserConfigurationException {
         NodeFactory result = null;
 
-        FileReader in = null;
+        InputStream in = null;
         try {
-            in = new FileReader(filename);
-            result = load(in);
+            in = new BufferedInputStream(new FileInputStream(filename));
+            in = decompress(in);
+            if (GraphSnapshotReader.isSnapshot(in)) {
+                result = snapshotReader.read(in);
+            } else if (validate) {
+                result = load(new InputStreamReader(in));
+            } else {
+                result = loadStreaming(in);
+            }
         } finally {
             if (in != null) {
                 in.close();
@@ -79,11 +141,50 @@ public class NodeLoader {
     }
 
     public NodeFactory load(InputStream in) throws IOException, ParserConfigurationException, SAXException {
-        return load(new InputSource(in));
+        NodeFactory result;
+
+        if (!in.markSupported()) {
+            in = new BufferedInputStream(in);
+        }
+        in = decompress(in);
+
+        if (GraphSnapshotReader.isSnapshot(in)) {
+            result = snapshotReader.read(in);
+        } else if (validate) {
+            result = load(new InputSource(in));
+        } else {
+            result = loadStreaming(in);
+        }
+
+        return result;
     }
 
     public NodeFactory load(Reader in) throws IOException, ParserConfigurationException, SAXException {
-        return load(new InputSource(in));
+        NodeFactory result;
+
+        if (validate) {
+            result = load(new InputSource(in));
+        } else {
+            try {
+                result = streamingLoader.load(in);
+            } catch (XMLStreamException ex) {
+                throw new SAXException(ex);
+            }
+        }
+
+        return result;
+    }
+
+    private NodeFactory loadStreaming(InputStream in) throws SAXException {
+        NodeFactory result;
+
+        try {
+            result = streamingLoader.load(in);
+        } catch (XMLStreamException ex) {
+            throw new SAXException(ex);
+        }
+
+        return result;
     }
 
     public NodeFactory load(InputSource in) throws IOException, ParserConfigurationException, SAXException {
@@ -94,16 +195,16 @@ public class NodeLoader {
 
         try {
             if (validate) {
-                Logger.getLogger(getClass()).warn("XML validation turned on");
+                trace().warn("XML validation turned on");
                 reader.setFeature("http://xml.org/sax/features/validation", true);
                 reader.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", true);
             } else {
-                Logger.getLogger(getClass()).info("XML validation turned off");
+                trace().info("XML validation turned off");
                 reader.setFeature("http://xml.org/sax/features/validation", false);
                 reader.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
             }
         } catch (Exception ex) {
-            Logger.getLogger(getClass()).warn("Problem setting validation feature on XML reader",ex);
+            trace().warn("Problem setting validation feature on XML reader",ex);
         }
 
         reader.parse(in);
@@ -113,9 +214,17 @@ public class NodeLoader {
 
     public void addDependencyListener(DependencyListener listener) {
         handler.addDependencyListener(listener);
+        streamingLoader.addDependencyListener(listener);
+        snapshotReader.addDependencyListener(listener);
     }
 
     public void removeDependencyListener(DependencyListener listener) {
         handler.removeDependencyListener(listener);
+        streamingLoader.removeDependencyListener(listener);
+        snapshotReader.removeDependencyListener(listener);
+    }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
     }
 }
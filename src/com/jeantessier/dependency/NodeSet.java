@@ -0,0 +1,328 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+/**
+ *  <p>Compact set of nodes for the edges and children of a {@link Node}.</p>
+ *
+ *  <p>Most nodes, especially features, have only a handful of
+ *  dependencies, if any.  An empty set holds no array at all and sets of
+ *  up to {@value #SMALL_SET_CAPACITY} nodes are kept in a plain array that
+ *  is searched linearly.  Larger sets switch to an open-addressing hash
+ *  table with linear probing.  Either way, there are no per-entry
+ *  objects like in a {@link HashSet}.</p>
+ *
+ *  <p>Iteration order is unspecified, as with {@link HashSet}.  Iterators
+ *  are fail-fast and do not support removal.  {@link #getSortedNodes()}
+ *  gives the nodes in their natural order; the sorted list is cached
+ *  until the set changes, so printing an unchanged graph several times
+ *  sorts each set only once.</p>
+ */
+class NodeSet<N extends Node> extends AbstractSet<N> {
+    static final int SMALL_SET_CAPACITY = 4;
+    private static final int INITIAL_TABLE_CAPACITY = 16;
+
+    private Node[] elements;
+    private int size;
+    private int modCount;
+
+    private List<N> sortedNodes;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(Object object) {
+        return object != null && indexOf(object) != -1;
+    }
+
+    public boolean add(N node) {
+        if (node == null) {
+            throw new NullPointerException("Cannot add null to a NodeSet");
+        }
+
+        boolean result = false;
+
+        if (!contains(node)) {
+            if (elements == null) {
+                elements = new Node[1];
+            } else if (isTable()) {
+                if ((size + 1) * 3 > elements.length * 2) {
+                    rehash(elements.length * 2);
+                }
+            } else if (size == elements.length) {
+                if (size < SMALL_SET_CAPACITY) {
+                    elements = Arrays.copyOf(elements, size * 2);
+                } else {
+                    rehash(INITIAL_TABLE_CAPACITY);
+                }
+            }
+
+            if (isTable()) {
+                insert(elements, node);
+            } else {
+                elements[size] = node;
+            }
+
+            size++;
+            modCount++;
+            sortedNodes = null;
+            result = true;
+        }
+
+        return result;
+    }
+
+    public boolean remove(Object object) {
+        boolean result = false;
+
+        int index = (object != null) ? indexOf(object) : -1;
+        if (index != -1) {
+            if (isTable()) {
+                removeFromTable(index);
+            } else {
+                elements[index] = elements[size - 1];
+                elements[size - 1] = null;
+            }
+
+            size--;
+            modCount++;
+            sortedNodes = null;
+            result = true;
+
+            if (size == 0) {
+                elements = null;
+            }
+        }
+
+        return result;
+    }
+
+    public void clear() {
+        elements = null;
+        size = 0;
+        modCount++;
+        sortedNodes = null;
+    }
+
+    public Iterator<N> iterator() {
+        return new NodeSetIterator();
+    }
+
+    /**
+     *  <p>The nodes in their natural order.  The list is a snapshot: it
+     *  cannot be modified and later changes to the set do not show
+     *  through it, so callers can change the set while iterating.</p>
+     */
+    List<N> getSortedNodes() {
+        List<N> result = sortedNodes;
+
+        if (result == null) {
+            Node[] nodes = new Node[size];
+            if (elements != null) {
+                int count = 0;
+                for (int i=0; count < size; i++) {
+                    if (elements[i] != null) {
+                        nodes[count++] = elements[i];
+                    }
+                }
+            }
+            Arrays.sort(nodes);
+
+            // Only N nodes ever go in the set
+            @SuppressWarnings("unchecked")
+            List<N> sorted = (List<N>) Arrays.asList(nodes);
+            result = Collections.unmodifiableList(sorted);
+            sortedNodes = result;
+        }
+
+        return result;
+    }
+
+    /**
+     *  <p>A read-only view of this set that {@link SortedTraversalStrategy}
+     *  recognizes, so that it can use the cached sorted list.</p>
+     */
+    Collection<N> getReadOnlyView() {
+        return new ReadOnlyView();
+    }
+
+    private boolean isTable() {
+        return elements != null && elements.length > SMALL_SET_CAPACITY;
+    }
+
+    private int indexOf(Object object) {
+        int result = -1;
+
+        if (elements != null) {
+            if (isTable()) {
+                int mask = elements.length - 1;
+                for (int i = slot(object, mask); result == -1 && elements[i] != null; i = (i + 1) & mask) {
+                    if (elements[i].equals(object)) {
+                        result = i;
+                    }
+                }
+            } else {
+                for (int i=0; result == -1 && i<size; i++) {
+                    if (elements[i].equals(object)) {
+                        result = i;
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static int slot(Object object, int mask) {
+        int hash = object.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static void insert(Node[] table, Node node) {
+        int mask = table.length - 1;
+        int i = slot(node, mask);
+        while (table[i] != null) {
+            i = (i + 1) & mask;
+        }
+        table[i] = node;
+    }
+
+    private void rehash(int capacity) {
+        Node[] table = new Node[capacity];
+
+        for (Node node : elements) {
+            if (node != null) {
+                insert(table, node);
+            }
+        }
+
+        elements = table;
+    }
+
+    /**
+     *  Shifts back the nodes that follow in the same probe sequence so that
+     *  lookups do not stop at the hole.
+     */
+    private void removeFromTable(int index) {
+        int mask = elements.length - 1;
+
+        elements[index] = null;
+
+        int hole = index;
+        for (int i = (index + 1) & mask; elements[i] != null; i = (i + 1) & mask) {
+            int home = slot(elements[i], mask);
+            boolean reachable = (hole <= i) ? (hole < home && home <= i) : (hole < home || home <= i);
+            if (!reachable) {
+                elements[hole] = elements[i];
+                elements[i] = null;
+                hole = i;
+            }
+        }
+    }
+
+    class ReadOnlyView extends AbstractCollection<N> {
+        public int size() {
+            return NodeSet.this.size();
+        }
+
+        public boolean contains(Object object) {
+            return NodeSet.this.contains(object);
+        }
+
+        public Iterator<N> iterator() {
+            return NodeSet.this.iterator();
+        }
+
+        public boolean add(N node) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean remove(Object object) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void clear() {
+            throw new UnsupportedOperationException();
+        }
+
+        List<N> getSortedNodes() {
+            return NodeSet.this.getSortedNodes();
+        }
+    }
+
+    private class NodeSetIterator implements Iterator<N> {
+        private Node[] snapshot = elements;
+        private int expectedModCount = modCount;
+        private int next = advance(0);
+
+        private int advance(int from) {
+            int result = from;
+
+            if (snapshot != null) {
+                while (result < snapshot.length && snapshot[result] == null) {
+                    result++;
+                }
+            }
+
+            return result;
+        }
+
+        public boolean hasNext() {
+            return snapshot != null && next < snapshot.length;
+        }
+
+        public N next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            // Only N nodes ever go in the set
+            @SuppressWarnings("unchecked")
+            N result = (N) snapshot[next];
+            next = advance(next + 1);
+
+            return result;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -35,7 +35,7 @@ package com.jeantessier.dependency;
 import java.util.*;
 
 public class PackageNode extends Node {
-    private Collection<ClassNode> classes = new HashSet<ClassNode>();
+    private NodeSet<ClassNode> classes = new NodeSet<ClassNode>();
 
     public PackageNode(String name, boolean concrete) {
         super(name, concrete);
@@ -52,15 +52,19 @@ public class PackageNode extends Node {
     }
 
     public void addClass(ClassNode node) {
-        classes.add(node);
+        synchronized(classes) {
+            classes.add(node);
+        }
     }
 
     public void removeClass(ClassNode node) {
-        classes.remove(node);
+        synchronized(classes) {
+            classes.remove(node);
+        }
     }
     
     public Collection<ClassNode> getClasses() {
-        return Collections.unmodifiableCollection(classes);
+        return classes.getReadOnlyView();
     }
 
     public void accept(Visitor visitor) {
@@ -0,0 +1,138 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import javax.xml.parsers.*;
+
+import org.xml.sax.*;
+
+/**
+ *  <p>Loads several graph files at once, each one with its own
+ *  {@link NodeLoader} into its own {@link NodeFactory}.  The factories come
+ *  back in the same order as the files, ready for a {@link GraphMerger}.</p>
+ *
+ *  <p>With more than one thread, listeners can hear from several loaders at
+ *  the same time.</p>
+ */
+public class ParallelGraphLoader {
+    public static final int DEFAULT_THREADS = 1;
+
+    private boolean validate;
+    private int threads = DEFAULT_THREADS;
+
+    private List<DependencyListener> dependencyListeners = new CopyOnWriteArrayList<DependencyListener>();
+
+    public ParallelGraphLoader() {
+        this(false);
+    }
+
+    public ParallelGraphLoader(boolean validate) {
+        this.validate = validate;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be at least 1, was " + threads);
+        }
+
+        this.threads = threads;
+    }
+
+    public List<NodeFactory> load(Collection<String> filenames) throws IOException, SAXException, ParserConfigurationException {
+        List<NodeFactory> result = new ArrayList<NodeFactory>(filenames.size());
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(getThreads(), filenames.size())));
+
+        try {
+            List<Future<NodeFactory>> futures = new ArrayList<Future<NodeFactory>>(filenames.size());
+            for (final String filename : filenames) {
+                futures.add(executor.submit(new Callable<NodeFactory>() {
+                    public NodeFactory call() throws Exception {
+                        return createLoader().load(filename);
+                    }
+                }));
+            }
+
+            for (Future<NodeFactory> future : futures) {
+                result.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading graphs");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof SAXException) {
+                throw (SAXException) cause;
+            } else if (cause instanceof ParserConfigurationException) {
+                throw (ParserConfigurationException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return result;
+    }
+
+    private NodeLoader createLoader() {
+        NodeLoader result = new NodeLoader(validate);
+
+        for (DependencyListener listener : dependencyListeners) {
+            result.addDependencyListener(listener);
+        }
+
+        return result;
+    }
+
+    public void addDependencyListener(DependencyListener listener) {
+        dependencyListeners.add(listener);
+    }
+
+    public void removeDependencyListener(DependencyListener listener) {
+        dependencyListeners.remove(listener);
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+/**
+ *  <p>Finds the shortest explanations of how some nodes depend on some
+ *  other nodes.  Each path starts with a node matching the start criteria,
+ *  follows outbound dependencies, and ends with the first node it reaches
+ *  that matches the stop criteria.</p>
+ *
+ *  <p>The length of the shortest paths comes from a breadth-first search
+ *  that grows from both ends at once, always extending the smaller frontier,
+ *  so it only explores the neighborhoods of the two sets of nodes until they
+ *  meet.  The engine then lists up to {@link #getMaximumNumberOfPaths()}
+ *  simple paths, shortest first.  Paths of the same length come out in the
+ *  order of the names of their nodes.</p>
+ */
+public class PathFinder {
+    public static final int DEFAULT_MAXIMUM_NUMBER_OF_PATHS = 1;
+    public static final int UNBOUNDED_PATH_LENGTH = Integer.MAX_VALUE;
+
+    private static final Comparator<Node> NODE_ORDER = new NodeComparator();
+
+    private SelectionCriteria startCriteria;
+    private SelectionCriteria stopCriteria;
+
+    private int maximumNumberOfPaths = DEFAULT_MAXIMUM_NUMBER_OF_PATHS;
+    private int maximumPathLength = UNBOUNDED_PATH_LENGTH;
+
+    private List<Node> startNodes = new ArrayList<Node>();
+    private Set<Node> stopNodes = new HashSet<Node>();
+
+    private Map<Node, Integer> forwardDistances = new HashMap<Node, Integer>();
+    private List<Node> forwardFrontier = new ArrayList<Node>();
+    private int forwardRadius;
+
+    private Map<Node, Integer> backwardDistances = new HashMap<Node, Integer>();
+    private List<Node> backwardFrontier = new ArrayList<Node>();
+    private int backwardRadius;
+
+    private Map<Node, List<Node>> sortedDependencies = new HashMap<Node, List<Node>>();
+
+    private LinkedList<Node> currentPath = new LinkedList<Node>();
+    private Set<Node> nodesOnCurrentPath = new HashSet<Node>();
+    private List<List<Node>> paths = new ArrayList<List<Node>>();
+
+    public PathFinder(SelectionCriteria startCriteria, SelectionCriteria stopCriteria) {
+        this.startCriteria = startCriteria;
+        this.stopCriteria = stopCriteria;
+    }
+
+    public int getMaximumNumberOfPaths() {
+        return maximumNumberOfPaths;
+    }
+
+    public void setMaximumNumberOfPaths(int maximumNumberOfPaths) {
+        this.maximumNumberOfPaths = maximumNumberOfPaths;
+    }
+
+    /**
+     *  <p>Maximum number of dependencies on a path.</p>
+     */
+    public int getMaximumPathLength() {
+        return maximumPathLength;
+    }
+
+    public void setMaximumPathLength(int maximumPathLength) {
+        this.maximumPathLength = maximumPathLength;
+    }
+
+    public List<List<Node>> getPaths() {
+        return paths;
+    }
+
+    public void traverseNodes(Collection<? extends Node> nodes) {
+        for (Node node : nodes) {
+            collectNodes(node);
+        }
+        Collections.sort(startNodes, NODE_ORDER);
+
+        int shortestLength = findShortestLength();
+        if (shortestLength > 0) {
+            findShortestPaths(shortestLength);
+
+            for (int length = shortestLength + 1; length <= maximumPathLength && !isDone() && !isExhausted(length); length++) {
+                findPaths(length);
+            }
+        }
+    }
+
+    private void collectNodes(Node node) {
+        boolean matchesStart;
+        boolean matchesStop;
+        Collection<? extends Node> children;
+
+        if (node instanceof PackageNode) {
+            matchesStart = startCriteria.matches((PackageNode) node);
+            matchesStop = stopCriteria.matches((PackageNode) node);
+            children = ((PackageNode) node).getClasses();
+        } else if (node instanceof ClassNode) {
+            matchesStart = startCriteria.matches((ClassNode) node);
+            matchesStop = stopCriteria.matches((ClassNode) node);
+            children = ((ClassNode) node).getFeatures();
+        } else {
+            matchesStart = startCriteria.matches((FeatureNode) node);
+            matchesStop = stopCriteria.matches((FeatureNode) node);
+            children = Collections.emptyList();
+        }
+
+        if (matchesStart) {
+            startNodes.add(node);
+            forwardDistances.put(node, 0);
+            forwardFrontier.add(node);
+        }
+
+        if (matchesStop) {
+            stopNodes.add(node);
+            backwardDistances.put(node, 0);
+            backwardFrontier.add(node);
+        }
+
+        for (Node child : children) {
+            collectNodes(child);
+        }
+    }
+
+    /**
+     *  <p>Grows both searches, one layer at a time, until they meet.</p>
+     *
+     *  @return the number of dependencies on the shortest paths, or 0 if
+     *          there are none within the maximum path length.
+     */
+    private int findShortestLength() {
+        int result = UNBOUNDED_PATH_LENGTH;
+
+        while (result == UNBOUNDED_PATH_LENGTH && !forwardFrontier.isEmpty() && !backwardFrontier.isEmpty() && forwardRadius + backwardRadius < maximumPathLength) {
+            if (forwardFrontier.size() <= backwardFrontier.size()) {
+                result = growForward();
+            } else {
+                result = growBackward();
+            }
+        }
+
+        return result != UNBOUNDED_PATH_LENGTH && result <= maximumPathLength ? result : 0;
+    }
+
+    private int growForward() {
+        int result = UNBOUNDED_PATH_LENGTH;
+
+        List<Node> nextFrontier = new ArrayList<Node>();
+        for (Node node : forwardFrontier) {
+            if (isEndOfPath(node, forwardRadius)) {
+                continue;
+            }
+
+            for (Node dependency : node.getOutboundDependencies()) {
+                Integer distance = backwardDistances.get(dependency);
+                if (distance != null) {
+                    result = Math.min(result, forwardRadius + 1 + distance);
+                }
+
+                if (!forwardDistances.containsKey(dependency)) {
+                    forwardDistances.put(dependency, forwardRadius + 1);
+                    nextFrontier.add(dependency);
+                }
+            }
+        }
+
+        forwardFrontier = nextFrontier;
+        forwardRadius++;
+
+        return result;
+    }
+
+    private int growBackward() {
+        int result = UNBOUNDED_PATH_LENGTH;
+
+        List<Node> nextFrontier = new ArrayList<Node>();
+        for (Node node : backwardFrontier) {
+            for (Node dependent : node.getInboundDependencies()) {
+                Integer distance = forwardDistances.get(dependent);
+                if (distance != null && !isEndOfPath(dependent, distance)) {
+                    result = Math.min(result, distance + 1 + backwardRadius);
+                }
+
+                if (!backwardDistances.containsKey(dependent)) {
+                    backwardDistances.put(dependent, backwardRadius + 1);
+                    nextFrontier.add(dependent);
+                }
+            }
+        }
+
+        backwardFrontier = nextFrontier;
+        backwardRadius++;
+
+        return result;
+    }
+
+    /**
+     *  <p>Paths end with the first stop node they reach, so only a start
+     *  node can go on past a stop node.</p>
+     */
+    private boolean isEndOfPath(Node node, int position) {
+        return position > 0 && stopNodes.contains(node);
+    }
+
+    /**
+     *  <p>Every node on a shortest path is at its exact distance from the
+     *  start or from the stop, and each node is labeled by at least one of
+     *  the two searches, so the search only walks the nodes the two
+     *  searches already visited.</p>
+     */
+    private void findShortestPaths(int length) {
+        for (Node node : startNodes) {
+            if (isDone()) {
+                break;
+            }
+
+            if (isOnShortestPath(node, 0, length)) {
+                visit(node, length, true);
+            }
+        }
+    }
+
+    private boolean isOnShortestPath(Node node, int position, int length) {
+        Integer forwardDistance = forwardDistances.get(node);
+        Integer backwardDistance = backwardDistances.get(node);
+
+        return (forwardDistance != null || backwardDistance != null) &&
+               (forwardDistance == null || forwardDistance == position) &&
+               (backwardDistance == null || backwardDistance == length - position || isStartAndStop(node, position));
+    }
+
+    /**
+     *  <p>Paths longer than the shortest ones need the full distance to the
+     *  stop nodes, so the backward search keeps growing as needed.</p>
+     */
+    private void findPaths(int length) {
+        while (backwardRadius < length && !backwardFrontier.isEmpty()) {
+            growBackward();
+        }
+
+        for (Node node : startNodes) {
+            if (isDone()) {
+                break;
+            }
+
+            if (canReachStopIn(node, length)) {
+                visit(node, length, false);
+            }
+        }
+    }
+
+    private boolean isStartAndStop(Node node, int position) {
+        return position == 0 && stopNodes.contains(node);
+    }
+
+    private boolean canReachStopIn(Node node, int length) {
+        Integer distance = backwardDistances.get(node);
+        return distance != null && distance <= length;
+    }
+
+    private void visit(Node node, int length, boolean shortest) {
+        currentPath.addLast(node);
+        nodesOnCurrentPath.add(node);
+
+        int position = currentPath.size() - 1;
+        if (position == length) {
+            if (stopNodes.contains(node)) {
+                paths.add(new ArrayList<Node>(currentPath));
+            }
+        } else if (!isEndOfPath(node, position)) {
+            for (Node dependency : getSortedDependencies(node)) {
+                if (isDone()) {
+                    break;
+                }
+
+                if (!nodesOnCurrentPath.contains(dependency)) {
+                    if (shortest ? isOnShortestPath(dependency, position + 1, length) : canReachStopIn(dependency, length - position - 1)) {
+                        visit(dependency, length, shortest);
+                    }
+                }
+            }
+        }
+
+        nodesOnCurrentPath.remove(node);
+        currentPath.removeLast();
+    }
+
+    private List<Node> getSortedDependencies(Node node) {
+        List<Node> result = sortedDependencies.get(node);
+
+        if (result == null) {
+            result = new ArrayList<Node>(node.getOutboundDependencies());
+            Collections.sort(result, NODE_ORDER);
+            sortedDependencies.put(node, result);
+        }
+
+        return result;
+    }
+
+    private boolean isDone() {
+        return paths.size() >= maximumNumberOfPaths;
+    }
+
+    /**
+     *  <p>Once the backward search has reached every node it can, a simple
+     *  path cannot be longer than the number of nodes it found.</p>
+     */
+    private boolean isExhausted(int length) {
+        return backwardFrontier.isEmpty() && length > backwardDistances.size();
+    }
+}
@@ -42,6 +42,7 @@ public abstract class Printer extends VisitorBase {
 
     private String indentText = DEFAULT_INDENT_TEXT;
     private int indentLevel = 0;
+    private List<String> indents = new ArrayList<String>();
     private boolean showInbounds = true;
     private boolean showOutbounds = true;
     private boolean showEmptyNodes = true;
@@ -62,6 +63,7 @@ public abstract class Printer extends VisitorBase {
 
     public void setIndentText(String indentText) {
         this.indentText = indentText;
+        indents.clear();
     }
 
     public boolean isShowInbounds() {
@@ -133,12 +135,22 @@ public abstract class Printer extends VisitorBase {
         return this;
     }
 
+    /**
+     *  Writes the whole indentation in one call, which adds up over the
+     *  thousands of lines in a large graph.
+     */
     protected Printer indent() {
-        for (int i=0; i<indentLevel; i++) {
-            append(getIndentText());
+        int level = Math.max(indentLevel, 0);
+
+        while (indents.size() <= level) {
+            StringBuilder indent = new StringBuilder();
+            for (int i=0; i<indents.size(); i++) {
+                indent.append(getIndentText());
+            }
+            indents.add(indent.toString());
         }
 
-        return this;
+        return append(indents.get(level));
     }
 
     protected Printer eol() {
@@ -0,0 +1,239 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+import com.jeantessier.classreader.*;
+
+/**
+ *  <p>Answers reachability questions on a dependency graph that changes
+ *  rarely but gets queried often, such as the graph of the web
+ *  application.  It indexes the graph once over dense node ids and its
+ *  strongly connected components, and remembers the set of nodes reachable
+ *  from each node someone asked about.  A node always reaches itself.</p>
+ *
+ *  <p>Register the index with the {@link Monitor} that updates the graph, and
+ *  with the loader that feeds it, and it drops only the remembered sets that
+ *  go through the classes that changed.  It indexes the graph again, keeping
+ *  the same ids, the next time someone asks a question.  The index does not
+ *  notice other changes to the graph; call {@link #invalidate()} after
+ *  them.</p>
+ *
+ *  <p>{@link TransitiveClosure} can also follow dependencies on the index
+ *  instead of on the nodes themselves.</p>
+ */
+public class ReachabilityIndex extends LoadAdapter implements RemoveVisitor {
+    private NodeFactory factory;
+
+    private DenseGraph graph;
+    private BitSet changes = new BitSet();
+    private boolean stale;
+
+    private Map<Integer, BitSet> reachables = new HashMap<Integer, BitSet>();
+
+    public ReachabilityIndex(NodeFactory factory) {
+        this.factory = factory;
+    }
+
+    public NodeFactory getFactory() {
+        return factory;
+    }
+
+    /**
+     *  Tells if <code>to</code> depends on <code>from</code>, directly or
+     *  transitively.
+     */
+    public synchronized boolean isReachable(Node from, Node to) {
+        DenseGraph graph = getGraph();
+
+        int fromId = graph.getId(from);
+        int toId = graph.getId(to);
+
+        boolean result;
+
+        if (fromId == -1 || toId == -1) {
+            result = false;
+        } else if (reachables.containsKey(fromId)) {
+            result = reachables.get(fromId).get(toId);
+        } else {
+            result = isReachable(graph, graph.getComponent(fromId), graph.getComponent(toId));
+        }
+
+        return result;
+    }
+
+    /**
+     *  Searches the condensed graph, skipping the components that come after
+     *  the target in topological order since they cannot lead to it.
+     */
+    private boolean isReachable(DenseGraph graph, int fromComponent, int toComponent) {
+        if (fromComponent == toComponent) {
+            return true;
+        }
+
+        BitSet visited = new BitSet();
+        LinkedList<Integer> queue = new LinkedList<Integer>();
+
+        visited.set(fromComponent);
+        queue.add(fromComponent);
+
+        while (!queue.isEmpty()) {
+            for (int component : graph.getComponentDependencies(queue.removeFirst())) {
+                if (component == toComponent) {
+                    return true;
+                } else if (component > toComponent && !visited.get(component)) {
+                    visited.set(component);
+                    queue.add(component);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     *  All the nodes that <code>node</code> depends on, directly or
+     *  transitively, including itself.
+     */
+    public synchronized Collection<Node> getReachableNodes(Node node) {
+        DenseGraph graph = getGraph();
+
+        Collection<Node> result = new ArrayList<Node>();
+
+        int id = graph.getId(node);
+        if (id != -1) {
+            BitSet reachable = getReachable(graph, id);
+            for (int i = reachable.nextSetBit(0); i >= 0; i = reachable.nextSetBit(i + 1)) {
+                if (graph.isPresent(i)) {
+                    result.add(graph.getNode(i));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private BitSet getReachable(DenseGraph graph, int id) {
+        BitSet result = reachables.get(id);
+
+        if (result == null) {
+            result = new BitSet(graph.size());
+
+            BitSet visited = new BitSet();
+            LinkedList<Integer> queue = new LinkedList<Integer>();
+
+            int start = graph.getComponent(id);
+            visited.set(start);
+            queue.add(start);
+
+            while (!queue.isEmpty()) {
+                int component = queue.removeFirst();
+
+                for (int member : graph.getMembers(component)) {
+                    result.set(member);
+                }
+
+                for (int dependency : graph.getComponentDependencies(component)) {
+                    if (!visited.get(dependency)) {
+                        visited.set(dependency);
+                        queue.add(dependency);
+                    }
+                }
+            }
+
+            reachables.put(id, result);
+        }
+
+        return result;
+    }
+
+    /**
+     *  Drops everything the index knows.  It will index the whole graph
+     *  again on the next question.
+     */
+    public synchronized void invalidate() {
+        graph = null;
+        changes.clear();
+        stale = false;
+        reachables.clear();
+    }
+
+    /**
+     *  Drops the remembered sets that go through the class, its features, or
+     *  its package.  New dependencies can only come from these nodes, and
+     *  dependencies that went away only affect the sets that reached them.
+     */
+    public synchronized void invalidateClass(String className) {
+        if (graph != null) {
+            for (int id : graph.getClassGroup(className)) {
+                changes.set(id);
+            }
+
+            int packageId = graph.getPackageId(NodeFactory.getPackageName(className));
+            if (packageId != -1) {
+                changes.set(packageId);
+            }
+        }
+
+        stale = true;
+    }
+
+    public void removeClass(String className) {
+        invalidateClass(className);
+    }
+
+    public void endClassfile(LoadEvent event) {
+        invalidateClass(event.getClassfile().getClassName());
+    }
+
+    synchronized DenseGraph getGraph() {
+        if (graph == null) {
+            graph = new DenseGraph(factory);
+        } else if (stale) {
+            Iterator<BitSet> i = reachables.values().iterator();
+            while (i.hasNext()) {
+                if (i.next().intersects(changes)) {
+                    i.remove();
+                }
+            }
+
+            graph = new DenseGraph(factory, graph);
+            changes.clear();
+        }
+
+        stale = false;
+
+        return graph;
+    }
+}
@@ -34,14 +34,27 @@ package com.jeantessier.dependency;
 
 import java.util.*;
 
+/**
+ *  <p>Traverses nodes in their natural order.  The edges and children of
+ *  a node come with a sorted list that is cached until they change, so
+ *  only other collections get sorted on each visit.</p>
+ */
 public class SortedTraversalStrategy extends DecoratorTraversalStrategy {
     public SortedTraversalStrategy(TraversalStrategy strategy) {
         super(strategy);
     }
 
     public <T extends Node> Collection<T> order(Collection<T> collection) {
-        List<T> list = new ArrayList<T>(collection);
-        Collections.sort(list);
-        return list;
+        Collection<T> result;
+
+        if (collection instanceof NodeSet.ReadOnlyView) {
+            result = ((NodeSet<T>.ReadOnlyView) collection).getSortedNodes();
+        } else {
+            List<T> list = new ArrayList<T>(collection);
+            Collections.sort(list);
+            result = list;
+        }
+
+        return result;
     }
 }
@@ -0,0 +1,481 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import javax.xml.stream.*;
+
+import com.jeantessier.classreader.*;
+
+/**
+ *  <p>Loads a dependency graph from XML with a StAX parser.  It reads the
+ *  same documents as {@link NodeHandler}, and tells listeners about the same
+ *  events, but does less work per element.</p>
+ *
+ *  <p>It keeps a table of the nodes it has seen, by kind, and looks names
+ *  up straight from the parser's buffer, so a name that comes back does not
+ *  cost a new <code>String</code> or a trip through the
+ *  {@link NodeFactory}.  It creates a class inside the package and a
+ *  feature inside the class that the document nests them in, without
+ *  working out the package or the class from the name.  It does not
+ *  validate documents or read their DTD.</p>
+ */
+public class StreamingNodeLoader {
+    private static final int PACKAGE = 1;
+    private static final int CLASS   = 2;
+    private static final int FEATURE = 3;
+
+    private NodeFactory factory;
+
+    private Collection<DependencyListener> dependencyListeners = new CopyOnWriteArraySet<DependencyListener>();
+
+    private XMLStreamReader reader;
+    private char[] text = new char[256];
+    private int textLength;
+
+    private NameTable<PackageNode> packages;
+    private NameTable<ClassNode> classes;
+    private NameTable<FeatureNode> features;
+
+    private PackageNode currentPackage;
+    private ClassNode currentClass;
+
+    public StreamingNodeLoader() {
+        this(new NodeFactory());
+    }
+
+    public StreamingNodeLoader(NodeFactory factory) {
+        this.factory = factory;
+    }
+
+    public NodeFactory getFactory() {
+        return factory;
+    }
+
+    public NodeFactory load(String filename) throws IOException, XMLStreamException {
+        NodeFactory result;
+
+        InputStream in = new BufferedInputStream(new FileInputStream(filename));
+        try {
+            result = load(in);
+        } finally {
+            in.close();
+        }
+
+        return result;
+    }
+
+    public NodeFactory load(InputStream in) throws XMLStreamException {
+        return load(createInputFactory().createXMLStreamReader(in));
+    }
+
+    public NodeFactory load(Reader in) throws XMLStreamException {
+        return load(createInputFactory().createXMLStreamReader(in));
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory result = XMLInputFactory.newInstance();
+
+        result.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        result.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        result.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+        return result;
+    }
+
+    private synchronized NodeFactory load(XMLStreamReader reader) throws XMLStreamException {
+        this.reader = reader;
+
+        packages = new NameTable<PackageNode>();
+        classes = new NameTable<ClassNode>();
+        features = new NameTable<FeatureNode>();
+
+        try {
+            int nodeType = 0;
+            boolean nodeConfirmed = false;
+            Node currentNode = null;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String element = reader.getLocalName();
+                    if ("name".equals(element)) {
+                        readText();
+                        currentNode = resolveNamedNode(nodeType, nodeConfirmed);
+                    } else if ("outbound".equals(element)) {
+                        int dependencyType = getDependencyType();
+                        boolean dependencyConfirmed = isConfirmed();
+                        readText();
+                        Node other = resolve(dependencyType, dependencyConfirmed);
+                        currentNode.addDependency(other);
+                        fireDependency(currentNode, other);
+                    } else if ("inbound".equals(element)) {
+                        int dependencyType = getDependencyType();
+                        boolean dependencyConfirmed = isConfirmed();
+                        readText();
+                        Node other = resolve(dependencyType, dependencyConfirmed);
+                        other.addDependency(currentNode);
+                        fireDependency(other, currentNode);
+                    } else if ("feature".equals(element)) {
+                        nodeType = FEATURE;
+                        nodeConfirmed = isConfirmed();
+                    } else if ("class".equals(element)) {
+                        nodeType = CLASS;
+                        nodeConfirmed = isConfirmed();
+                    } else if ("package".equals(element)) {
+                        nodeType = PACKAGE;
+                        nodeConfirmed = isConfirmed();
+                    } else if ("dependencies".equals(element)) {
+                        fireBeginSession();
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String element = reader.getLocalName();
+                    if ("class".equals(element)) {
+                        currentClass = null;
+                    } else if ("package".equals(element)) {
+                        currentPackage = null;
+                    } else if ("dependencies".equals(element)) {
+                        fireEndSession();
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+
+            this.reader = null;
+            packages = null;
+            classes = null;
+            features = null;
+            currentPackage = null;
+            currentClass = null;
+        }
+
+        return getFactory();
+    }
+
+    /**
+     *  Reads the text of the current element into {@link #text} and leaves
+     *  the parser on the end of the element.
+     */
+    private void readText() throws XMLStreamException {
+        textLength = 0;
+
+        int event = reader.next();
+        while (event != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE) {
+                int length = reader.getTextLength();
+                if (text.length < textLength + length) {
+                    char[] newText = new char[Math.max(2 * text.length, textLength + length)];
+                    System.arraycopy(text, 0, newText, 0, textLength);
+                    text = newText;
+                }
+                System.arraycopy(reader.getTextCharacters(), reader.getTextStart(), text, textLength, length);
+                textLength += length;
+            }
+            event = reader.next();
+        }
+    }
+
+    /**
+     *  The node that a <code>&lt;name&gt;</code> element names, which
+     *  becomes the context for the classes and features nested in it.
+     */
+    private Node resolveNamedNode(int nodeType, boolean confirmed) {
+        Node result = null;
+
+        switch (nodeType) {
+            case PACKAGE:
+                currentPackage = resolvePackage(confirmed);
+                result = currentPackage;
+                break;
+            case CLASS:
+                currentClass = resolveClass(confirmed, currentPackage);
+                fireBeginClass(currentClass.getName());
+                result = currentClass;
+                break;
+            case FEATURE:
+                result = resolveFeature(confirmed, currentClass);
+                break;
+        }
+
+        return result;
+    }
+
+    private Node resolve(int nodeType, boolean confirmed) {
+        Node result = null;
+
+        switch (nodeType) {
+            case PACKAGE:
+                result = resolvePackage(confirmed);
+                break;
+            case CLASS:
+                result = resolveClass(confirmed, null);
+                break;
+            case FEATURE:
+                result = resolveFeature(confirmed, null);
+                break;
+        }
+
+        return result;
+    }
+
+    private PackageNode resolvePackage(boolean confirmed) {
+        int hash = hash(text, textLength);
+        PackageNode result = packages.get(text, textLength, hash);
+
+        if (result == null) {
+            result = getFactory().createPackage(new String(text, 0, textLength), confirmed);
+            packages.put(result, hash);
+        } else if (confirmed && !result.isConfirmed()) {
+            getFactory().createPackage(result.getName(), confirmed);
+        }
+
+        return result;
+    }
+
+    /**
+     *  @param parent the package that the document nests the class in, if
+     *                any.
+     */
+    private ClassNode resolveClass(boolean confirmed, PackageNode parent) {
+        int hash = hash(text, textLength);
+        ClassNode result = classes.get(text, textLength, hash);
+
+        if (result == null) {
+            String name = new String(text, 0, textLength);
+            if (parent != null && isNameInParent(name, parent, name.lastIndexOf('.'))) {
+                result = getFactory().createClass(parent, name, confirmed);
+            } else {
+                result = getFactory().createClass(name, confirmed);
+            }
+            classes.put(result, hash);
+        } else if (confirmed && !result.isConfirmed()) {
+            getFactory().createClass(result.getName(), confirmed);
+        }
+
+        return result;
+    }
+
+    /**
+     *  @param parent the class that the document nests the feature in, if
+     *                any.
+     */
+    private FeatureNode resolveFeature(boolean confirmed, ClassNode parent) {
+        int hash = hash(text, textLength);
+        FeatureNode result = features.get(text, textLength, hash);
+
+        if (result == null) {
+            String name = new String(text, 0, textLength);
+            if (parent != null && isNameInParent(name, parent, FeatureNameHelper.getSeparatorIndex(name))) {
+                result = getFactory().createFeature(parent, name, confirmed);
+            } else {
+                result = getFactory().createFeature(name, confirmed);
+            }
+            features.put(result, hash);
+        } else if (confirmed && !result.isConfirmed()) {
+            getFactory().createFeature(result.getName(), confirmed);
+        }
+
+        return result;
+    }
+
+    /**
+     *  Checks that the name really belongs in the node the document nests it
+     *  in, given where the name separates the parent's part from its own.
+     */
+    private static boolean isNameInParent(String name, Node parent, int separator) {
+        String parentName = parent.getName();
+        return separator == parentName.length() ? name.startsWith(parentName) : (separator == -1 && parentName.length() == 0);
+    }
+
+    private int getDependencyType() {
+        int result = 0;
+
+        String type = reader.getAttributeValue(null, "type");
+        if ("feature".equals(type)) {
+            result = FEATURE;
+        } else if ("class".equals(type)) {
+            result = CLASS;
+        } else if ("package".equals(type)) {
+            result = PACKAGE;
+        }
+
+        return result;
+    }
+
+    private boolean isConfirmed() {
+        String confirmed = reader.getAttributeValue(null, "confirmed");
+        return confirmed == null || "yes".equalsIgnoreCase(confirmed);
+    }
+
+    /**
+     *  Same as <code>String.hashCode()</code>, so that a name and the
+     *  characters it came from hash the same.
+     */
+    private static int hash(char[] chars, int length) {
+        int result = 0;
+
+        for (int i=0; i<length; i++) {
+            result = 31 * result + chars[i];
+        }
+
+        return result;
+    }
+
+    public void addDependencyListener(DependencyListener listener) {
+        dependencyListeners.add(listener);
+    }
+
+    public void removeDependencyListener(DependencyListener listener) {
+        dependencyListeners.remove(listener);
+    }
+
+    protected void fireBeginSession() {
+        DependencyEvent event = new DependencyEvent(this);
+
+        for (DependencyListener listener : dependencyListeners) {
+            listener.beginSession(event);
+        }
+    }
+
+    protected void fireBeginClass(String classname) {
+        DependencyEvent event = new DependencyEvent(this, classname);
+
+        for (DependencyListener listener : dependencyListeners) {
+            listener.beginClass(event);
+        }
+    }
+
+    /**
+     *  Does not create an event unless someone is listening, since there is
+     *  one for every dependency in the document.
+     */
+    protected void fireDependency(Node dependent, Node dependable) {
+        if (!dependencyListeners.isEmpty()) {
+            DependencyEvent event = new DependencyEvent(this, dependent, dependable);
+
+            for (DependencyListener listener : dependencyListeners) {
+                listener.dependency(event);
+            }
+        }
+    }
+
+    protected void fireEndSession() {
+        DependencyEvent event = new DependencyEvent(this);
+
+        for (DependencyListener listener : dependencyListeners) {
+            listener.endSession(event);
+        }
+    }
+
+    /**
+     *  Open addressing over the nodes' names, looked up by the characters of
+     *  a name without making a <code>String</code> of them.
+     */
+    private static class NameTable<N extends Node> {
+        private Node[] nodes = new Node[1024];
+        private int[] hashes = new int[1024];
+        private int size;
+
+        public N get(char[] chars, int length, int hash) {
+            N result = null;
+
+            int mask = nodes.length - 1;
+            int i = spread(hash) & mask;
+            while (result == null && nodes[i] != null) {
+                if (hashes[i] == hash && matches(nodes[i].getName(), chars, length)) {
+                    // put() only takes nodes of type N
+                    @SuppressWarnings("unchecked")
+                    N node = (N) nodes[i];
+                    result = node;
+                }
+                i = (i + 1) & mask;
+            }
+
+            return result;
+        }
+
+        public void put(N node, int hash) {
+            if (2 * (size + 1) > nodes.length) {
+                grow();
+            }
+
+            insert(node, hash);
+            size++;
+        }
+
+        private void insert(Node node, int hash) {
+            int mask = nodes.length - 1;
+            int i = spread(hash) & mask;
+            while (nodes[i] != null) {
+                i = (i + 1) & mask;
+            }
+            nodes[i] = node;
+            hashes[i] = hash;
+        }
+
+        private void grow() {
+            Node[] oldNodes = nodes;
+            int[] oldHashes = hashes;
+
+            nodes = new Node[2 * oldNodes.length];
+            hashes = new int[2 * oldHashes.length];
+            for (int i=0; i<oldNodes.length; i++) {
+                if (oldNodes[i] != null) {
+                    insert(oldNodes[i], oldHashes[i]);
+                }
+            }
+        }
+
+        /**
+         *  Names that differ only at the end have hashes that differ only in
+         *  their low bits, so mix in the high bits before masking.
+         */
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+        private static boolean matches(String name, char[] chars, int length) {
+            boolean result = name.length() == length;
+
+            for (int i=0; result && i<length; i++) {
+                result = name.charAt(i) == chars[i];
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+/**
+ *  <p>A set of nodes that can all reach one another, as found by
+ *  {@link ComponentDetector}.  Its dependencies are the edges of the
+ *  condensed graph, which has no cycles.</p>
+ */
+public class StronglyConnectedComponent {
+    private int id;
+    private List<Node> nodes;
+    private List<StronglyConnectedComponent> dependencies = new ArrayList<StronglyConnectedComponent>();
+
+    public StronglyConnectedComponent(int id, List<Node> nodes) {
+        this.id = id;
+        this.nodes = nodes;
+    }
+
+    /**
+     *  Position of this component in a topological order of the condensed
+     *  graph: components only depend on components with a higher id.
+     */
+    public int getId() {
+        return id;
+    }
+
+    public List<Node> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    public int getSize() {
+        return nodes.size();
+    }
+
+    /**
+     *  A component with more than one node holds at least one cycle.
+     */
+    public boolean isCyclic() {
+        return getSize() > 1;
+    }
+
+    public List<StronglyConnectedComponent> getDependencies() {
+        return Collections.unmodifiableList(dependencies);
+    }
+
+    void addDependency(StronglyConnectedComponent component) {
+        dependencies.add(component);
+    }
+
+    public String toString() {
+        return "#" + getId() + " " + getNodes();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+/**
+ *  <p>Tarjan's algorithm over a graph of dense integer vertices, with an
+ *  explicit stack so that long paths do not overflow the call stack.  It
+ *  runs in time linear in the number of vertices and edges.</p>
+ *
+ *  <p>Components are numbered in the order Tarjan's algorithm completes
+ *  them, which is a reverse topological order of the condensed graph: no
+ *  component has an edge to a component with a higher number.</p>
+ */
+class StronglyConnectedComponentFinder {
+    private int[] components;
+    private int componentCount;
+
+    public StronglyConnectedComponentFinder(int[][] successors) {
+        int vertexCount = successors.length;
+
+        components = new int[vertexCount];
+        Arrays.fill(components, -1);
+
+        int[] index = new int[vertexCount];
+        Arrays.fill(index, -1);
+        int[] lowLink = new int[vertexCount];
+        int[] edgePositions = new int[vertexCount];
+
+        int[] componentStack = new int[vertexCount];
+        int componentStackSize = 0;
+        boolean[] onComponentStack = new boolean[vertexCount];
+
+        int[] callStack = new int[vertexCount];
+        int callStackSize = 0;
+
+        int nextIndex = 0;
+
+        for (int root = 0; root < vertexCount; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+
+            index[root] = lowLink[root] = nextIndex++;
+            componentStack[componentStackSize++] = root;
+            onComponentStack[root] = true;
+            callStack[callStackSize++] = root;
+
+            while (callStackSize > 0) {
+                int vertex = callStack[callStackSize - 1];
+
+                if (edgePositions[vertex] < successors[vertex].length) {
+                    int successor = successors[vertex][edgePositions[vertex]++];
+
+                    if (index[successor] == -1) {
+                        index[successor] = lowLink[successor] = nextIndex++;
+                        componentStack[componentStackSize++] = successor;
+                        onComponentStack[successor] = true;
+                        callStack[callStackSize++] = successor;
+                    } else if (onComponentStack[successor]) {
+                        lowLink[vertex] = Math.min(lowLink[vertex], index[successor]);
+                    }
+                } else {
+                    callStackSize--;
+
+                    if (lowLink[vertex] == index[vertex]) {
+                        int member;
+                        do {
+                            member = componentStack[--componentStackSize];
+                            onComponentStack[member] = false;
+                            components[member] = componentCount;
+                        } while (member != vertex);
+                        componentCount++;
+                    }
+
+                    if (callStackSize > 0) {
+                        int caller = callStack[callStackSize - 1];
+                        lowLink[caller] = Math.min(lowLink[caller], lowLink[vertex]);
+                    }
+                }
+            }
+        }
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     *  Component number of each vertex.
+     */
+    public int[] getComponents() {
+        return components;
+    }
+
+    /**
+     *  Vertices of each component, in increasing order.
+     */
+    public int[][] getMembers() {
+        int[] sizes = new int[componentCount];
+        for (int component : components) {
+            sizes[component]++;
+        }
+
+        int[][] result = new int[componentCount][];
+        for (int i = 0; i < componentCount; i++) {
+            result[i] = new int[sizes[i]];
+            sizes[i] = 0;
+        }
+
+        for (int vertex = 0; vertex < components.length; vertex++) {
+            int component = components[vertex];
+            result[component][sizes[component]++] = vertex;
+        }
+
+        return result;
+    }
+}
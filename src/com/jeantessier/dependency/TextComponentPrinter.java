@@ -0,0 +1,84 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+public class TextComponentPrinter implements ComponentPrinter {
+    protected PrintWriter out;
+
+    private String indentText = "    ";
+
+    public TextComponentPrinter(PrintWriter out) {
+        this.out = out;
+    }
+
+    public void setIndentText(String indentText) {
+        this.indentText = indentText;
+    }
+
+    public void visitComponents(Collection<StronglyConnectedComponent> components) {
+        for (StronglyConnectedComponent component : components) {
+            visitComponent(component);
+        }
+    }
+
+    public void visitComponent(StronglyConnectedComponent component) {
+        printComponent(component);
+
+        for (Node node : component.getNodes()) {
+            out.print(indentText);
+            printNode(node);
+        }
+
+        for (StronglyConnectedComponent dependency : component.getDependencies()) {
+            out.print(indentText);
+            printDependency(dependency);
+        }
+    }
+
+    protected void printComponent(StronglyConnectedComponent component) {
+        out.print("#");
+        out.println(component.getId());
+    }
+
+    protected void printNode(Node node) {
+        out.println(node);
+    }
+
+    protected void printDependency(StronglyConnectedComponent dependency) {
+        out.print("--> #");
+        out.println(dependency.getId());
+    }
+}
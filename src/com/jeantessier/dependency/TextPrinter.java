@@ -35,10 +35,13 @@ package com.jeantessier.dependency;
 import java.io.*;
 import java.util.*;
 
-import org.apache.log4j.*;
 import org.apache.oro.text.perl.*;
 
+import com.jeantessier.log.*;
+
 public class TextPrinter extends Printer {
+    private static final Trace trace = Trace.getTrace(TextPrinter.class);
+
     private static final Perl5Util perl = new Perl5Util();
 
     protected static Perl5Util perl() {
@@ -65,7 +68,9 @@ public class TextPrinter extends Printer {
     }
     
     protected void preprocessPackageNode(PackageNode node) {
-        Logger.getLogger(getClass()).debug("Printing package \"" + node + "\" and its " + node.getInboundDependencies().size() + " inbounds and " + node.getOutboundDependencies().size() + " outbounds");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Printing package \"" + node + "\" and its " + node.getInboundDependencies().size() + " inbounds and " + node.getOutboundDependencies().size() + " outbounds");
+        }
         
         super.preprocessPackageNode(node);
 
@@ -75,7 +80,9 @@ public class TextPrinter extends Printer {
     }
 
     protected void preprocessAfterDependenciesPackageNode(PackageNode node) {
-        Logger.getLogger(getClass()).debug("Package \"" + node + "\" with " + node.getInboundDependencies().size() + " inbounds and " + node.getOutboundDependencies().size() + " outbounds had " + dependencies.size() + " dependencies.");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Package \"" + node + "\" with " + node.getInboundDependencies().size() + " inbounds and " + node.getOutboundDependencies().size() + " outbounds had " + dependencies.size() + " dependencies.");
+        }
         
         if (shouldShowPackageNode(node) || !dependencies.isEmpty()) {
             lowerIndent();
@@ -94,7 +101,9 @@ public class TextPrinter extends Printer {
 
     public void visitInboundPackageNode(PackageNode node) {
         if (isShowInbounds()) {
-            Logger.getLogger(getClass()).debug("Printing \"" + getCurrentNode() + "\" <-- \"" + node + "\"");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Printing \"" + getCurrentNode() + "\" <-- \"" + node + "\"");
+            }
         
             Integer i = dependencies.get(node);
             if (i != null) {
@@ -103,13 +112,17 @@ public class TextPrinter extends Printer {
                 dependencies.put(node, -1);
             }
         } else {
-            Logger.getLogger(getClass()).debug("Ignoring \"" + getCurrentNode() + "\" <-- \"" + node + "\"");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Ignoring \"" + getCurrentNode() + "\" <-- \"" + node + "\"");
+            }
         }
     }
 
     public void visitOutboundPackageNode(PackageNode node) {
         if (isShowOutbounds()) {
-            Logger.getLogger(getClass()).debug("Printing \"" + getCurrentNode() + "\" --> \"" + node + "\"");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Printing \"" + getCurrentNode() + "\" --> \"" + node + "\"");
+            }
         
             Integer i = dependencies.get(node);
             if (i != null) {
@@ -118,12 +131,16 @@ public class TextPrinter extends Printer {
                 dependencies.put(node, 1);
             }
         } else {
-            Logger.getLogger(getClass()).debug("Ignoring \"" + getCurrentNode() + "\" --> \"" + node + "\"");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Ignoring \"" + getCurrentNode() + "\" --> \"" + node + "\"");
+            }
         }
     }
 
     protected void preprocessClassNode(ClassNode node) {
-        Logger.getLogger(getClass()).debug("Printing class \"" + node + "\" and its " + node.getInboundDependencies().size() + " inbounds and " + node.getOutboundDependencies().size() + " outbounds");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Printing class \"" + node + "\" and its " + node.getInboundDependencies().size() + " inbounds and " + node.getOutboundDependencies().size() + " outbounds");
+        }
         
         super.preprocessClassNode(node);
 
@@ -133,7 +150,9 @@ public class TextPrinter extends Printer {
     }
 
     protected void preprocessAfterDependenciesClassNode(ClassNode node) {
-        Logger.getLogger(getClass()).debug("Class \"" + node + "\" with " + node.getInboundDependencies().size() + " inbounds and " + node.getOutboundDependencies().size() + " outbounds had " + dependencies.size() + " dependencies.");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Class \"" + node + "\" with " + node.getInboundDependencies().size() + " inbounds and " + node.getOutboundDependencies().size() + " outbounds had " + dependencies.size() + " dependencies.");
+        }
         
         if (shouldShowClassNode(node) || !dependencies.isEmpty()) {
             lowerIndent();
@@ -152,7 +171,9 @@ public class TextPrinter extends Printer {
     
     public void visitInboundClassNode(ClassNode node) {
         if (isShowInbounds()) {
-            Logger.getLogger(getClass()).debug("Printing \"" + getCurrentNode() + "\" <-- \"" + node + "\"");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Printing \"" + getCurrentNode() + "\" <-- \"" + node + "\"");
+            }
         
             Integer i = dependencies.get(node);
             if (i != null) {
@@ -161,13 +182,17 @@ public class TextPrinter extends Printer {
                 dependencies.put(node, -1);
             }
         } else {
-            Logger.getLogger(getClass()).debug("Ignoring \"" + getCurrentNode() + "\" <-- \"" + node + "\"");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Ignoring \"" + getCurrentNode() + "\" <-- \"" + node + "\"");
+            }
         }
     }
 
     public void visitOutboundClassNode(ClassNode node) {
         if (isShowOutbounds()) {
-            Logger.getLogger(getClass()).debug("Printing \"" + getCurrentNode() + "\" --> \"" + node + "\"");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Printing \"" + getCurrentNode() + "\" --> \"" + node + "\"");
+            }
         
             Integer i = dependencies.get(node);
             if (i != null) {
@@ -176,12 +201,16 @@ public class TextPrinter extends Printer {
                 dependencies.put(node, 1);
             }
         } else {
-            Logger.getLogger(getClass()).debug("Ignoring \"" + getCurrentNode() + "\" --> \"" + node + "\"");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Ignoring \"" + getCurrentNode() + "\" --> \"" + node + "\"");
+            }
         }
     }
 
     protected void preprocessFeatureNode(FeatureNode node) {
-        Logger.getLogger(getClass()).debug("Printing feature \"" + node + "\" and its " + node.getInboundDependencies().size() + " inbounds and " + node.getOutboundDependencies().size() + " outbounds");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Printing feature \"" + node + "\" and its " + node.getInboundDependencies().size() + " inbounds and " + node.getOutboundDependencies().size() + " outbounds");
+        }
         
         super.preprocessFeatureNode(node);
 
@@ -191,7 +220,9 @@ public class TextPrinter extends Printer {
     }
 
     protected void postprocessFeatureNode(FeatureNode node) {
-        Logger.getLogger(getClass()).debug("Feature \"" + node + "\" with " + node.getInboundDependencies().size() + " inbounds and " + node.getOutboundDependencies().size() + " outbounds had " + dependencies.size() + " dependencies.");
+        if (trace().isDebugEnabled()) {
+            trace().debug("Feature \"" + node + "\" with " + node.getInboundDependencies().size() + " inbounds and " + node.getOutboundDependencies().size() + " outbounds had " + dependencies.size() + " dependencies.");
+        }
         
         if (shouldShowFeatureNode(node) || !dependencies.isEmpty()) {
             lowerIndent();
@@ -214,7 +245,9 @@ public class TextPrinter extends Printer {
 
     public void visitInboundFeatureNode(FeatureNode node) {
         if (isShowInbounds()) {
-            Logger.getLogger(getClass()).debug("Printing \"" + getCurrentNode() + "\" <-- \"" + node + "\"");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Printing \"" + getCurrentNode() + "\" <-- \"" + node + "\"");
+            }
         
             Integer i = dependencies.get(node);
             if (i != null) {
@@ -223,13 +256,17 @@ public class TextPrinter extends Printer {
                 dependencies.put(node, -1);
             }
         } else {
-            Logger.getLogger(getClass()).debug("Ignoring \"" + getCurrentNode() + "\" <-- \"" + node + "\"");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Ignoring \"" + getCurrentNode() + "\" <-- \"" + node + "\"");
+            }
         }
     }
 
     public void visitOutboundFeatureNode(FeatureNode node) {
         if (isShowOutbounds()) {
-            Logger.getLogger(getClass()).debug("Printing \"" + getCurrentNode() + "\" --> \"" + node + "\"");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Printing \"" + getCurrentNode() + "\" --> \"" + node + "\"");
+            }
         
             Integer i = dependencies.get(node);
             if (i != null) {
@@ -238,7 +275,9 @@ public class TextPrinter extends Printer {
                 dependencies.put(node, 1);
             }
         } else {
-            Logger.getLogger(getClass()).debug("Ignoring \"" + getCurrentNode() + "\" --> \"" + node + "\"");
+            if (trace().isDebugEnabled()) {
+                trace().debug("Ignoring \"" + getCurrentNode() + "\" --> \"" + node + "\"");
+            }
         }
     }
 
@@ -263,4 +302,8 @@ public class TextPrinter extends Printer {
             }
         }
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
@@ -47,6 +47,8 @@ public class TransitiveClosure {
     
     private long maximumInboundDepth = DO_NOT_FOLLOW;
     private long maximumOutboundDepth = UNBOUNDED_DEPTH;
+    private int threads = TransitiveClosureEngine.DEFAULT_THREADS;
+    private ReachabilityIndex index;
 
     private SelectionCriteria startCriteria;
     private SelectionCriteria stopCriteria;
@@ -70,6 +72,34 @@ public class TransitiveClosure {
         this.maximumOutboundDepth = maximumOutboundDepth;
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     *  Number of threads that follow dependencies from each layer of the
+     *  closure.  See {@link TransitiveClosureEngine#setThreads(int)}.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be at least 1, was " + threads);
+        }
+
+        this.threads = threads;
+    }
+
+    public ReachabilityIndex getReachabilityIndex() {
+        return index;
+    }
+
+    /**
+     *  Follows dependencies on this index instead of on the nodes.  The
+     *  index must be on the graph that this closure traverses.
+     */
+    public void setReachabilityIndex(ReachabilityIndex index) {
+        this.index = index;
+    }
+
     public void traverseNodes(Collection<? extends Node> nodes) {
         if (maximumInboundDepth != DO_NOT_FOLLOW) {
             compute(nodes, maximumInboundDepth, new ClosureInboundSelector());
@@ -81,7 +111,8 @@ public class TransitiveClosure {
     }
 
     private void compute(Collection<? extends Node> nodes, long depth, ClosureLayerSelector layerSelector) {
-        TransitiveClosureEngine engine = new TransitiveClosureEngine(factory, nodes, startCriteria, stopCriteria, layerSelector);
+        TransitiveClosureEngine engine = new TransitiveClosureEngine(factory, nodes, startCriteria, stopCriteria, layerSelector, index);
+        engine.setThreads(threads);
 
         if (depth == UNBOUNDED_DEPTH) {
             engine.computeAllLayers();
@@ -33,21 +33,52 @@
 package com.jeantessier.dependency;
 
 import java.util.*;
+import java.util.concurrent.*;
 
+/**
+ *  <p>Computes a transitive closure one layer at a time, copying the nodes it
+ *  reaches into a separate factory.</p>
+ *
+ *  <p>With the standard inbound or outbound selectors, the engine follows
+ *  dependencies over dense node ids with bit sets for the coverage and the
+ *  frontier.  It only copies nodes when asked for a layer or for the
+ *  factory, or once it has computed all the layers it was asked for.  Other
+ *  selectors visit each layer and copy nodes as they go.</p>
+ *
+ *  <p>With more than one thread, the standard selectors follow the
+ *  dependencies of wide layers in parallel, one layer at a time.  The layers
+ *  are the same as with a single thread.</p>
+ *
+ *  <p>Given a {@link ReachabilityIndex} on the graph, the standard selectors
+ *  follow dependencies on the index instead, on the calling thread.</p>
+ */
 public class TransitiveClosureEngine {
+    public static final int DEFAULT_THREADS = 1;
+
+    private static final long WORKER_KEEP_ALIVE_SECONDS = 1;
+
     private NodeFactory factory;
     private ClosureLayerSelector layerSelector;
     private ClosureStopSelector stopSelector;
     
     private Collection<Node> coverage = new HashSet<Node>();
     private LinkedList<Collection<? extends Node>> selections = new LinkedList<Collection<? extends Node>>();
-    private LinkedList<Collection<? extends Node>> layers = new LinkedList<Collection<? extends Node>>();
+    private List<Collection<? extends Node>> layers = new ArrayList<Collection<? extends Node>>();
+
+    private ClosureFrontier frontier;
+
+    private int threads = DEFAULT_THREADS;
+    private ExecutorService executor;
     
     public TransitiveClosureEngine(Collection<? extends Node> packages, SelectionCriteria startCriteria, SelectionCriteria stopCriteria, ClosureLayerSelector layerSelector) {
         this(new NodeFactory(), packages, startCriteria, stopCriteria, layerSelector);
     }
     
     public TransitiveClosureEngine(NodeFactory factory, Collection<? extends Node> packages, SelectionCriteria startCriteria, SelectionCriteria stopCriteria, ClosureLayerSelector layerSelector) {
+        this(factory, packages, startCriteria, stopCriteria, layerSelector, null);
+    }
+
+    public TransitiveClosureEngine(NodeFactory factory, Collection<? extends Node> packages, SelectionCriteria startCriteria, SelectionCriteria stopCriteria, ClosureLayerSelector layerSelector, ReachabilityIndex index) {
         this.factory = factory;
         
         this.layerSelector = layerSelector;
@@ -55,26 +86,83 @@ public class TransitiveClosureEngine {
         this.layerSelector.setCoverage(coverage);
 
         this.stopSelector = new ClosureStopSelector(stopCriteria);
+
+        if (layerSelector.isFollowingInbound() != layerSelector.isFollowingOutbound()) {
+            frontier = new ClosureFrontier(layerSelector.isFollowingInbound(), index != null ? index.getGraph() : null);
+        }
         
         init(packages, startCriteria);
     }
 
     private void init(Collection<? extends Node> packages, SelectionCriteria startCriteria) {
-        ClosureStartSelector startSelector = new ClosureStartSelector(factory, startCriteria);
-        startSelector.traverseNodes(packages);
-        stopSelector.traverseNodes(startSelector.getCopiedNodes());
-        gatherResults(startSelector);
+        if (frontier != null) {
+            stopSelector.traverseNodes(frontier.addStartingNodes(packages, startCriteria));
+            layers.add(null);
+        } else {
+            ClosureStartSelector startSelector = new ClosureStartSelector(factory, startCriteria);
+            startSelector.traverseNodes(packages);
+            stopSelector.traverseNodes(startSelector.getCopiedNodes());
+            gatherResults(startSelector);
+        }
     }
 
     public NodeFactory getFactory() {
+        copyAllLayers();
         return factory;
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     *  Sets how many threads follow dependencies from each layer.  A value
+     *  of <code>1</code> does it all on the calling thread.  Selectors other
+     *  than the standard inbound and outbound ones always use the calling
+     *  thread.
+     *
+     *  @throws IllegalArgumentException if <code>threads</code> is less than 1.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be at least 1, was " + threads);
+        }
+
+        shutdownExecutor();
+
+        this.threads = threads;
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null && threads > 1) {
+            // Idle workers die off so a forgotten engine does not keep the JVM alive.
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, WORKER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+
+        return executor;
+    }
+
+    private void shutdownExecutor() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
     public int getNbLayers() {
         return layers.size();
     }
     
     public Collection getLayer(int i) {
+        copyLayer(i);
+
+        // Copies only get their dependencies to the next layer from it.
+        if (i + 1 < getNbLayers()) {
+            copyLayer(i + 1);
+        }
+
         return layers.get(i);
     }
 
@@ -82,22 +170,36 @@ public class TransitiveClosureEngine {
         while (!stopSelector.isDone()) {
             computeNextLayer();
         }
+
+        shutdownExecutor();
+        copyAllLayers();
     }
 
     public void computeLayers(long nbLayers) {
         for (long i=0; !stopSelector.isDone() && i<nbLayers; i++) {
             computeNextLayer();
         }
+
+        shutdownExecutor();
+        copyAllLayers();
     }
 
     public void computeNextLayer() {
         if (!stopSelector.isDone()) {
-            layerSelector.reset();
-            layerSelector.traverseNodes(selections.getLast());
+            if (frontier != null) {
+                Collection<Node> nodes = frontier.computeNextLayer(getExecutor(), threads);
+                stopSelector.traverseNodes(nodes);
+                if (!nodes.isEmpty()) {
+                    layers.add(null);
+                }
+            } else {
+                layerSelector.reset();
+                layerSelector.traverseNodes(selections.getLast());
 
-            stopSelector.traverseNodes(layerSelector.getCopiedNodes());
-            if (!layerSelector.getCopiedNodes().isEmpty()) {
-                gatherResults(layerSelector);
+                stopSelector.traverseNodes(layerSelector.getCopiedNodes());
+                if (!layerSelector.getCopiedNodes().isEmpty()) {
+                    gatherResults(layerSelector);
+                }
             }
         }
     }
@@ -107,4 +209,16 @@ public class TransitiveClosureEngine {
         selections.add(selector.getSelectedNodes());
         layers.add(selector.getCopiedNodes());
     }
+
+    private void copyLayer(int i) {
+        if (frontier != null && layers.get(i) == null) {
+            layers.set(i, frontier.copyLayer(i, factory));
+        }
+    }
+
+    private void copyAllLayers() {
+        for (int i = 0; i < getNbLayers(); i++) {
+            copyLayer(i);
+        }
+    }
 }
@@ -34,7 +34,7 @@ package com.jeantessier.dependency;
 
 import java.util.*;
 
-import org.apache.log4j.*;
+import com.jeantessier.log.*;
 
 /**
  *  This is a basic implementation of Visitor.
@@ -43,6 +43,8 @@ import org.apache.log4j.*;
  *  @author Jean Tessier
  */
 public abstract class VisitorBase implements Visitor {
+    private static final Trace trace = Trace.getTrace(VisitorBase.class);
+
     private TraversalStrategy strategy;
 
     private LinkedList<Node> currentNodes = new LinkedList<Node>();
@@ -60,8 +62,8 @@ public abstract class VisitorBase implements Visitor {
     }
 
     public void traverseNodes(Collection<? extends Node> nodes) {
-        if (Logger.getLogger(getClass()).isDebugEnabled()) {
-            Logger.getLogger(getClass()).debug("nodes = " + nodes);
+        if (trace().isDebugEnabled()) {
+            trace().debug("nodes = " + nodes);
         }
 
         for (Node node : getStrategy().order(nodes)) {
@@ -88,16 +90,16 @@ public abstract class VisitorBase implements Visitor {
             result = currentNodes.getLast();
         }
 
-        if (Logger.getLogger(getClass()).isDebugEnabled()) {
-            Logger.getLogger(getClass()).debug(currentNodes + ": " + result);
+        if (trace().isDebugEnabled()) {
+            trace().debug(currentNodes + ": " + result);
         }
 
         return result;
     }
 
     protected void pushNode(Node currentNode) {
-        if (Logger.getLogger(getClass()).isDebugEnabled()) {
-            Logger.getLogger(getClass()).debug(currentNodes + " + " + currentNode);
+        if (trace().isDebugEnabled()) {
+            trace().debug(currentNodes + " + " + currentNode);
         }
 
         currentNodes.addLast(currentNode);
@@ -106,8 +108,8 @@ public abstract class VisitorBase implements Visitor {
     protected Node popNode() {
         Node result = currentNodes.removeLast();
 
-        if (Logger.getLogger(getClass()).isDebugEnabled()) {
-            Logger.getLogger(getClass()).debug(currentNodes + " -> " + result);
+        if (trace().isDebugEnabled()) {
+            trace().debug(currentNodes + " -> " + result);
         }
 
         return result;
@@ -286,4 +288,8 @@ public abstract class VisitorBase implements Visitor {
     public void visitOutboundFeatureNode(FeatureNode node) {
         // Do nothing
     }
+
+    private Trace trace() {
+        return trace.forClass(getClass());
+    }
 }
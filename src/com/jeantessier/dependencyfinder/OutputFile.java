@@ -0,0 +1,73 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependencyfinder;
+
+import java.io.*;
+import java.util.zip.*;
+
+/**
+ *  <p>Opens output files for the tools.  Output is buffered, and if the
+ *  name of the file ends with {@link #GZIP_EXTENSION}, it is compressed
+ *  with gzip as it is written.  Dependency graphs in XML shrink to a few
+ *  percent of their size this way.</p>
+ *
+ *  <p>It favors speed over size when compressing, so that compressing
+ *  the output does not take longer than generating it.</p>
+ */
+public class OutputFile {
+    public static final String GZIP_EXTENSION = ".gz";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public static boolean isCompressed(File file) {
+        return file.getName().endsWith(GZIP_EXTENSION);
+    }
+
+    public static OutputStream openStream(File file) throws IOException {
+        OutputStream result = new FileOutputStream(file);
+
+        if (isCompressed(file)) {
+            result = new GZIPOutputStream(result, BUFFER_SIZE) {
+                {
+                    def.setLevel(Deflater.BEST_SPEED);
+                }
+            };
+        }
+
+        return new BufferedOutputStream(result, BUFFER_SIZE);
+    }
+
+    public static PrintWriter openWriter(File file) throws IOException {
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(openStream(file)), BUFFER_SIZE));
+    }
+}
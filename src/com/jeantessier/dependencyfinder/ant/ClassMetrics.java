@@ -39,6 +39,7 @@ import org.apache.tools.ant.*;
 import org.apache.tools.ant.types.*;
 
 import com.jeantessier.classreader.*;
+import com.jeantessier.dependencyfinder.*;
 import com.jeantessier.text.*;
 
 public class ClassMetrics extends Task {
@@ -108,7 +109,7 @@ public class ClassMetrics extends Task {
         log("Saving class metrics to " + getDestfile().getAbsolutePath());
         
         try {
-            PrintWriter out = new PrintWriter(new FileWriter(getDestfile()));
+            PrintWriter out = OutputFile.openWriter(getDestfile());
 
             out.println(metrics.getClasses().size() + " class(es)");
             if (getList()) {
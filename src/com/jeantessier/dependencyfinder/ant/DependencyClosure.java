@@ -41,6 +41,7 @@ import org.apache.tools.ant.*;
 import org.xml.sax.*;
 
 import com.jeantessier.dependency.*;
+import com.jeantessier.dependencyfinder.*;
 
 public class DependencyClosure extends GraphTask {
     private String  startIncludes        = "//";
@@ -63,6 +64,8 @@ public class DependencyClosure extends GraphTask {
     private String  maximumInboundDepth  = "";
     private String  maximumOutboundDepth = "";
     private boolean xml                  = false;
+    private boolean binary               = false;
+    private boolean mapped               = false;
     private String  encoding             = XMLPrinter.DEFAULT_ENCODING;
     private String  dtdPrefix            = XMLPrinter.DEFAULT_DTD_PREFIX;
     private String  indentText;
@@ -219,6 +222,22 @@ public class DependencyClosure extends GraphTask {
         this.xml = xml;
     }
 
+    public boolean getBinary() {
+        return binary;
+    }
+
+    public void setBinary(boolean binary) {
+        this.binary = binary;
+    }
+
+    public boolean getMapped() {
+        return mapped;
+    }
+
+    public void setMapped(boolean mapped) {
+        this.mapped = mapped;
+    }
+
     public String getEncoding() {
         return encoding;
     }
@@ -243,6 +262,18 @@ public class DependencyClosure extends GraphTask {
         this.indentText = indentText;
     }
     
+    protected void validateParameters() throws BuildException {
+        super.validateParameters();
+
+        if ((getXml() && getBinary()) || (getXml() && getMapped()) || (getBinary() && getMapped())) {
+            throw new BuildException("Cannot have more than one of xml, binary, and mapped output!");
+        }
+
+        if (getMapped() && OutputFile.isCompressed(getDestfile())) {
+            throw new BuildException("Mapped graphs cannot be compressed, destfile cannot end in " + OutputFile.GZIP_EXTENSION + " with mapped output!");
+        }
+    }
+
     public void execute() throws BuildException {
         // first off, make sure that we've got what we need
         validateParameters();
@@ -250,17 +281,7 @@ public class DependencyClosure extends GraphTask {
         VerboseListener verboseListener = new VerboseListener(this);
 
         try {
-            NodeFactory factory = new NodeFactory();
-
-            for (String filename : getSrc().list()) {
-                log("Reading graph from " + filename);
-
-                if (filename.endsWith(".xml")) {
-                    NodeLoader loader = new NodeLoader(factory, getValidate());
-                    loader.addDependencyListener(verboseListener);
-                    loader.load(filename);
-                }
-            }
+            NodeFactory factory = loadGraph(verboseListener);
 
             TransitiveClosure selector = new TransitiveClosure(getStartCriteria(), getStopCriteria());
 
@@ -280,26 +301,43 @@ public class DependencyClosure extends GraphTask {
                 selector.setMaximumOutboundDepth(TransitiveClosure.UNBOUNDED_DEPTH);
             }
                 
+            selector.setThreads(Integer.parseInt(getThreads()));
             selector.traverseNodes(factory.getPackages().values());
         
             log("Saving dependency graph to " + getDestfile().getAbsolutePath());
         
-            PrintWriter out = new PrintWriter(new FileWriter(getDestfile()));
-
-            Printer printer;
-            if (getXml()) {
-                printer = new XMLPrinter(out, getEncoding(), getDtdprefix());
+            if (getBinary()) {
+                OutputStream out = OutputFile.openStream(getDestfile());
+                try {
+                    new GraphSnapshotWriter(out).write(selector.getFactory());
+                } finally {
+                    out.close();
+                }
+            } else if (getMapped()) {
+                OutputStream out = OutputFile.openStream(getDestfile());
+                try {
+                    new MappedGraphWriter(out).write(selector.getFactory());
+                } finally {
+                    out.close();
+                }
             } else {
-                printer = new TextPrinter(out);
-            }
-                
-            if (getIndenttext() != null) {
-                printer.setIndentText(getIndenttext());
+                PrintWriter out = OutputFile.openWriter(getDestfile());
+
+                Printer printer;
+                if (getXml()) {
+                    printer = new XMLPrinter(out, getEncoding(), getDtdprefix());
+                } else {
+                    printer = new TextPrinter(out);
+                }
+
+                if (getIndenttext() != null) {
+                    printer.setIndentText(getIndenttext());
+                }
+
+                printer.traverseNodes(selector.getFactory().getPackages().values());
+
+                out.close();
             }
-                
-            printer.traverseNodes(selector.getFactory().getPackages().values());
-                
-            out.close();
         } catch (SAXException ex) {
             throw new BuildException(ex);
         } catch (ParserConfigurationException ex) {
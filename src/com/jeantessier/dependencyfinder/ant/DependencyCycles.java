@@ -43,6 +43,7 @@ import org.apache.log4j.*;
 import org.xml.sax.*;
 
 import com.jeantessier.dependency.*;
+import com.jeantessier.dependencyfinder.*;
 
 public class DependencyCycles extends GraphTask {
     private String startIncludes = "//";
@@ -58,6 +59,7 @@ public class DependencyCycles extends GraphTask {
     private Path startExcludesList;
 
     private String  maximumCycleLenth  = "";
+    private String  components;
 
     private boolean xml = false;
     private String encoding = XMLPrinter.DEFAULT_ENCODING;
@@ -160,6 +162,14 @@ public class DependencyCycles extends GraphTask {
         this.maximumCycleLenth = maximumCycleLenth;
     }
 
+    public String getComponents() {
+        return components;
+    }
+
+    public void setComponents(String components) {
+        this.components = components;
+    }
+
     public boolean getXml() {
         return xml;
     }
@@ -198,6 +208,10 @@ public class DependencyCycles extends GraphTask {
         if (hasStartRegularExpressionSwitches() && hasStartListSwitches()) {
             throw new BuildException("Cannot have start attributes for regular expressions and lists at the same time!");
         }
+
+        if (getComponents() != null && !getComponents().equals("package") && !getComponents().equals("class") && !getComponents().equals("feature")) {
+            throw new BuildException("components must be package, class, or feature");
+        }
     }
 
     public void execute() throws BuildException {
@@ -207,51 +221,78 @@ public class DependencyCycles extends GraphTask {
         VerboseListener verboseListener = new VerboseListener(this);
 
         try {
-            NodeFactory factory = new NodeFactory();
-
-            for (String filename : getSrc().list()) {
-                log("Reading graph from " + filename);
+            NodeFactory factory = loadGraph(verboseListener);
 
-                if (filename.endsWith(".xml")) {
-                    NodeLoader loader = new NodeLoader(factory, getValidate());
-                    loader.addDependencyListener(verboseListener);
-                    loader.load(filename);
-                }
+            if (getComponents() != null) {
+                saveComponents(factory);
+            } else {
+                saveCycles(factory);
             }
+        } catch (SAXException ex) {
+            throw new BuildException(ex);
+        } catch (ParserConfigurationException ex) {
+            throw new BuildException(ex);
+        } catch (IOException ex) {
+            throw new BuildException(ex);
+        }
+    }
 
-            CycleDetector detector = new CycleDetector(getStartCriteria());
+    private void saveCycles(NodeFactory factory) throws IOException {
+        CycleEngine detector = new CycleEngine(getStartCriteria());
 
-            if (getMaximumcyclelength() != null) {
-                detector.setMaximumCycleLength(Integer.parseInt(getMaximumcyclelength()));
-            }
+        if (getMaximumcyclelength() != null) {
+            detector.setMaximumCycleLength(Integer.parseInt(getMaximumcyclelength()));
+        }
 
-            detector.traverseNodes(factory.getPackages().values());
+        detector.traverseNodes(factory.getPackages().values());
 
-            log("Saving dependency cycles to " + getDestfile().getAbsolutePath());
+        log("Saving dependency cycles to " + getDestfile().getAbsolutePath());
 
-            PrintWriter out = new PrintWriter(new FileWriter(getDestfile()));
+        PrintWriter out = OutputFile.openWriter(getDestfile());
 
-            CyclePrinter printer;
-            if (getXml()) {
-                printer = new XMLCyclePrinter(out, getEncoding(), getDtdprefix());
-            } else {
-                printer = new TextCyclePrinter(out);
-            }
+        CyclePrinter printer;
+        if (getXml()) {
+            printer = new XMLCyclePrinter(out, getEncoding(), getDtdprefix());
+        } else {
+            printer = new TextCyclePrinter(out);
+        }
 
-            if (getIndenttext() != null) {
-                printer.setIndentText(getIndenttext());
-            }
+        if (getIndenttext() != null) {
+            printer.setIndentText(getIndenttext());
+        }
 
-            printer.visitCycles(detector.getCycles());
+        printer.visitCycles(detector.getCycles());
 
-            out.close();
-        } catch (SAXException ex) {
-            throw new BuildException(ex);
-        } catch (ParserConfigurationException ex) {
-            throw new BuildException(ex);
-        } catch (IOException ex) {
-            throw new BuildException(ex);
+        out.close();
+    }
+
+    private void saveComponents(NodeFactory factory) throws IOException {
+        RegularExpressionSelectionCriteria levelCriteria = new RegularExpressionSelectionCriteria("//");
+        levelCriteria.setMatchingPackages(getComponents().equals("package"));
+        levelCriteria.setMatchingClasses(getComponents().equals("class"));
+        levelCriteria.setMatchingFeatures(getComponents().equals("feature"));
+
+        ComponentDetector detector = new ComponentDetector(new AndCompositeSelectionCriteria(Arrays.asList(getStartCriteria(), levelCriteria)));
+        detector.traverseNodes(factory.getPackages().values());
+
+        log("Saving strongly connected components to " + getDestfile().getAbsolutePath());
+
+        PrintWriter out = OutputFile.openWriter(getDestfile());
+
+        ComponentPrinter printer;
+        if (getXml()) {
+            printer = new XMLComponentPrinter(out, getEncoding(), getDtdprefix());
+        } else {
+            printer = new TextComponentPrinter(out);
+        }
+
+        if (getIndenttext() != null) {
+            printer.setIndentText(getIndenttext());
         }
+
+        printer.visitComponents(detector.getComponents());
+
+        out.close();
     }
 
     protected SelectionCriteria getStartCriteria() throws BuildException {
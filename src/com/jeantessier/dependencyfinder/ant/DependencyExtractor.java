@@ -41,6 +41,7 @@ import org.apache.log4j.*;
 
 import com.jeantessier.classreader.*;
 import com.jeantessier.dependency.*;
+import com.jeantessier.dependencyfinder.*;
 
 public class DependencyExtractor extends Task {
     private String filterIncludes = "//";
@@ -59,12 +60,15 @@ public class DependencyExtractor extends Task {
     private Path filterExcludesList;
 
     private boolean xml        = false;
+    private boolean binary     = false;
+    private boolean mapped     = false;
     private boolean minimize   = false;
     private boolean maximize   = false;
     private String  encoding   = com.jeantessier.dependency.XMLPrinter.DEFAULT_ENCODING;
     private String  dtdPrefix  = com.jeantessier.dependency.XMLPrinter.DEFAULT_DTD_PREFIX;
     private String  indentText;
     private File    destfile;
+    private File    cache;
     private Path    path;
 
     public String getFilterincludes() {
@@ -187,6 +191,22 @@ public class DependencyExtractor extends Task {
         this.xml = xml;
     }
 
+    public boolean getBinary() {
+        return binary;
+    }
+
+    public void setBinary(boolean binary) {
+        this.binary = binary;
+    }
+
+    public boolean getMapped() {
+        return mapped;
+    }
+
+    public void setMapped(boolean mapped) {
+        this.mapped = mapped;
+    }
+
     public boolean getMinimize() {
         return minimize;
     }
@@ -235,6 +255,14 @@ public class DependencyExtractor extends Task {
         this.destfile = destfile;
     }
     
+    public File getCache() {
+        return cache;
+    }
+
+    public void setCache(File cache) {
+        this.cache = cache;
+    }
+
     public Path createPath() {
         if (path == null) {
             path = new Path(getProject());
@@ -262,45 +290,86 @@ public class DependencyExtractor extends Task {
             throw new BuildException("Cannot have filter attributes for regular expressions and lists at the same time!");
         }
 
+        if ((getXml() && getBinary()) || (getXml() && getMapped()) || (getBinary() && getMapped())) {
+            throw new BuildException("Cannot have more than one of xml, binary, and mapped output!");
+        }
+
+        if (getMapped() && OutputFile.isCompressed(getDestfile())) {
+            throw new BuildException("Mapped graphs cannot be compressed, destfile cannot end in " + OutputFile.GZIP_EXTENSION + " with mapped output!");
+        }
+
         log("Reading classes from path " + getPath());
 
         VerboseListener verboseListener = new VerboseListener(this);
 
         NodeFactory factory = new NodeFactory();
-        CodeDependencyCollector collector = new CodeDependencyCollector(factory, getFilterCriteria());
-        
-        ClassfileLoader loader = new TransientClassfileLoader();
-        loader.addLoadListener(new LoadListenerVisitorAdapter(collector));
+
+        TransientClassfileLoader loader = new TransientClassfileLoader(ParsingProfile.DEPENDENCY_SCAN);
         loader.addLoadListener(verboseListener);
-        loader.load(Arrays.asList(getPath().list()));
+
+        if (getCache() != null) {
+            DependencyExtractionCache extractionCache = new DependencyExtractionCache(factory, getFilterCriteria());
+
+            try {
+                log("Reading cache from " + getCache().getAbsolutePath());
+                extractionCache.load(getCache());
+
+                loader.setExtractionCache(extractionCache);
+                loader.load(Arrays.asList(getPath().list()));
+
+                log("Saving cache to " + getCache().getAbsolutePath() + " (" + extractionCache.getReplayCount() + " classes from cache, " + extractionCache.getRecordCount() + " parsed)");
+                extractionCache.save(getCache());
+            } catch (IOException ex) {
+                throw new BuildException(ex);
+            }
+        } else {
+            loader.addLoadListener(new LoadListenerVisitorAdapter(new CodeDependencyCollector(factory, getFilterCriteria())));
+            loader.load(Arrays.asList(getPath().list()));
+        }
 
         if (getMinimize()) {
-            LinkMinimizer minimizer = new LinkMinimizer();
+            BulkLinkMinimizer minimizer = new BulkLinkMinimizer();
             minimizer.traverseNodes(factory.getPackages().values());
         } else if (getMaximize()) {
-            LinkMaximizer maximizer = new LinkMaximizer();
+            BulkLinkMaximizer maximizer = new BulkLinkMaximizer();
             maximizer.traverseNodes(factory.getPackages().values());
         }
 
         log("Saving dependency graph to " + getDestfile().getAbsolutePath());
         
         try {
-            PrintWriter out = new PrintWriter(new FileWriter(getDestfile()));
-
-            com.jeantessier.dependency.Printer printer;
-            if (getXml()) {
-                printer = new com.jeantessier.dependency.XMLPrinter(out, getEncoding(), getDtdprefix());
+            if (getBinary()) {
+                OutputStream out = OutputFile.openStream(getDestfile());
+                try {
+                    new GraphSnapshotWriter(out).write(factory);
+                } finally {
+                    out.close();
+                }
+            } else if (getMapped()) {
+                OutputStream out = OutputFile.openStream(getDestfile());
+                try {
+                    new MappedGraphWriter(out).write(factory);
+                } finally {
+                    out.close();
+                }
             } else {
-                printer = new com.jeantessier.dependency.TextPrinter(out);
-            }
-                
-            if (getIndenttext() != null) {
-                printer.setIndentText(getIndenttext());
+                PrintWriter out = OutputFile.openWriter(getDestfile());
+
+                com.jeantessier.dependency.Printer printer;
+                if (getXml()) {
+                    printer = new com.jeantessier.dependency.XMLPrinter(out, getEncoding(), getDtdprefix());
+                } else {
+                    printer = new com.jeantessier.dependency.TextPrinter(out);
+                }
+
+                if (getIndenttext() != null) {
+                    printer.setIndentText(getIndenttext());
+                }
+
+                printer.traverseNodes(factory.getPackages().values());
+
+                out.close();
             }
-                
-            printer.traverseNodes(factory.getPackages().values());
-                
-            out.close();
         } catch (IOException ex) {
             throw new BuildException(ex);
         }
@@ -41,6 +41,7 @@ import org.apache.tools.ant.*;
 import org.xml.sax.*;
 
 import com.jeantessier.dependency.*;
+import com.jeantessier.dependencyfinder.*;
 
 public class DependencyMetrics extends GraphTask {
     private String  scopeIncludes = "//";
@@ -401,21 +402,11 @@ public class DependencyMetrics extends GraphTask {
         VerboseListener verboseListener = new VerboseListener(this);
 
         try {
-            NodeFactory factory = new NodeFactory();
-
-            for (String filename : getSrc().list()) {
-                log("Reading graph from " + filename);
-
-                if (filename.endsWith(".xml")) {
-                    NodeLoader loader = new NodeLoader(factory, getValidate());
-                    loader.addDependencyListener(verboseListener);
-                    loader.load(filename);
-                }
-            }
+            NodeFactory factory = loadGraph(verboseListener);
 
             log("Saving metrics report to " + getDestfile().getAbsolutePath());
 
-            PrintWriter out = new PrintWriter(new FileWriter(getDestfile()));
+            PrintWriter out = OutputFile.openWriter(getDestfile());
 
             MetricsReport reporter = new MetricsReport(out);
 
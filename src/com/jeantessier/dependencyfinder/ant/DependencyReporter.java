@@ -44,6 +44,7 @@ import org.apache.tools.ant.types.*;
 import org.xml.sax.*;
 
 import com.jeantessier.dependency.*;
+import com.jeantessier.dependencyfinder.*;
 
 public class DependencyReporter extends GraphTask {
     private String scopeIncludes = "//";
@@ -82,6 +83,8 @@ public class DependencyReporter extends GraphTask {
     private boolean maximize = false;
     private boolean copyOnly = false;
     private boolean xml = false;
+    private boolean binary = false;
+    private boolean mapped = false;
     private String encoding = XMLPrinter.DEFAULT_ENCODING;
     private String dtdPrefix = XMLPrinter.DEFAULT_DTD_PREFIX;
     private String indentText;
@@ -402,6 +405,22 @@ public class DependencyReporter extends GraphTask {
         this.xml = xml;
     }
 
+    public boolean getBinary() {
+        return binary;
+    }
+
+    public void setBinary(boolean binary) {
+        this.binary = binary;
+    }
+
+    public boolean getMapped() {
+        return mapped;
+    }
+
+    public void setMapped(boolean mapped) {
+        this.mapped = mapped;
+    }
+
     public String getEncoding() {
         return encoding;
     }
@@ -436,6 +455,14 @@ public class DependencyReporter extends GraphTask {
         if (hasFilterRegularExpressionSwitches() && hasFilterListSwitches()) {
             throw new BuildException("Cannot have filter attributes for regular expressions and lists at the same time!");
         }
+
+        if ((getXml() && getBinary()) || (getXml() && getMapped()) || (getBinary() && getMapped())) {
+            throw new BuildException("Cannot have more than one of xml, binary, and mapped output!");
+        }
+
+        if (getMapped() && OutputFile.isCompressed(getDestfile())) {
+            throw new BuildException("Mapped graphs cannot be compressed, destfile cannot end in " + OutputFile.GZIP_EXTENSION + " with mapped output!");
+        }
     }
 
     public void execute() throws BuildException {
@@ -452,52 +479,70 @@ public class DependencyReporter extends GraphTask {
                 copier = new GraphSummarizer(getScopeCriteria(), getFilterCriteria());
             }
 
-            for (String filename : getSrc().list()) {
-                log("Reading graph from " + filename);
+            if (Integer.parseInt(getThreads()) > 1) {
+                List<NodeFactory> factories = loadGraphs(verboseListener);
+                for (NodeFactory factory : factories) {
+                    linkGraph(factory.getPackages().values());
+                }
 
-                Collection<PackageNode> packages = Collections.emptyList();
+                copier.traverseNodes(GraphMerger.mergeIntoLargest(factories).getPackages().values());
+            } else {
+                for (String filename : getSrc().list()) {
+                    log("Reading graph from " + filename);
 
-                if (filename.endsWith(".xml")) {
-                    NodeLoader loader = new NodeLoader(getValidate());
-                    loader.addDependencyListener(verboseListener);
-                    packages = loader.load(filename).getPackages().values();
-                }
+                    Collection<PackageNode> packages = Collections.emptyList();
 
-                if (getMaximize()) {
-                    log("Maximizing ...");
-                    new LinkMaximizer().traverseNodes(packages);
-                } else if (getMinimize()) {
-                    log("Minimizing ...");
-                    new LinkMinimizer().traverseNodes(packages);
-                }
+                    if (NodeLoader.isGraphFile(filename)) {
+                        NodeLoader loader = new NodeLoader(getValidate());
+                        loader.addDependencyListener(verboseListener);
+                        packages = loader.load(filename).getPackages().values();
+                    }
 
-                copier.traverseNodes(packages);
+                    linkGraph(packages);
+                    copier.traverseNodes(packages);
+                }
             }
 
             log("Saving dependency graph to " + getDestfile().getAbsolutePath());
 
-            PrintWriter out = new PrintWriter(new FileWriter(getDestfile()));
-
-            Printer printer;
-            if (getXml()) {
-                printer = new XMLPrinter(out, getEncoding(), getDtdprefix());
+            if (getBinary()) {
+                OutputStream out = OutputFile.openStream(getDestfile());
+                try {
+                    new GraphSnapshotWriter(out).write(copier.getScopeFactory());
+                } finally {
+                    out.close();
+                }
+            } else if (getMapped()) {
+                OutputStream out = OutputFile.openStream(getDestfile());
+                try {
+                    new MappedGraphWriter(out).write(copier.getScopeFactory());
+                } finally {
+                    out.close();
+                }
             } else {
-                printer = new TextPrinter(out);
-            }
+                PrintWriter out = OutputFile.openWriter(getDestfile());
 
-            if (getIndenttext() != null) {
-                printer.setIndentText(getIndenttext());
-            }
+                Printer printer;
+                if (getXml()) {
+                    printer = new XMLPrinter(out, getEncoding(), getDtdprefix());
+                } else {
+                    printer = new TextPrinter(out);
+                }
 
-            if (getShowinbounds() || getShowoutbounds() || getShowemptynodes()) {
-                printer.setShowInbounds(getShowinbounds());
-                printer.setShowOutbounds(getShowoutbounds());
-                printer.setShowEmptyNodes(getShowemptynodes());
-            }
+                if (getIndenttext() != null) {
+                    printer.setIndentText(getIndenttext());
+                }
+
+                if (getShowinbounds() || getShowoutbounds() || getShowemptynodes()) {
+                    printer.setShowInbounds(getShowinbounds());
+                    printer.setShowOutbounds(getShowoutbounds());
+                    printer.setShowEmptyNodes(getShowemptynodes());
+                }
 
-            printer.traverseNodes(copier.getScopeFactory().getPackages().values());
+                printer.traverseNodes(copier.getScopeFactory().getPackages().values());
 
-            out.close();
+                out.close();
+            }
         } catch (SAXException ex) {
             throw new BuildException(ex);
         } catch (ParserConfigurationException ex) {
@@ -507,6 +552,16 @@ public class DependencyReporter extends GraphTask {
         }
     }
 
+    private void linkGraph(Collection<PackageNode> packages) {
+        if (getMaximize()) {
+            log("Maximizing ...");
+            new BulkLinkMaximizer().traverseNodes(packages);
+        } else if (getMinimize()) {
+            log("Minimizing ...");
+            new BulkLinkMinimizer().traverseNodes(packages);
+        }
+    }
+
     protected SelectionCriteria getScopeCriteria() throws BuildException {
         SelectionCriteria result = new ComprehensiveSelectionCriteria();
 
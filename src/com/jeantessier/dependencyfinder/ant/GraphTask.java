@@ -33,14 +33,21 @@
 package com.jeantessier.dependencyfinder.ant;
 
 import java.io.*;
+import java.util.*;
+
+import javax.xml.parsers.*;
 
 import org.apache.tools.ant.*;
 import org.apache.tools.ant.types.*;
+import org.xml.sax.*;
+
+import com.jeantessier.dependency.*;
 
 public abstract class GraphTask extends Task {
     private boolean validate = false;
     private Path    src;
     private File    destfile;
+    private String  threads  = String.valueOf(ParallelGraphLoader.DEFAULT_THREADS);
 
     public boolean getValidate() {
         return validate;
@@ -82,6 +89,14 @@ public abstract class GraphTask extends Task {
         this.destfile = destfile;
     }
 
+    public String getThreads() {
+        return threads;
+    }
+
+    public void setThreads(String threads) {
+        this.threads = threads;
+    }
+
     protected void validateParameters() throws BuildException {
         if (getSrcfile() == null) {
             throw new BuildException("src or srcfile must be set!");
@@ -94,5 +109,55 @@ public abstract class GraphTask extends Task {
         if (getDestfile() == null) {
             throw new BuildException("destfile must be set!");
         }
+
+        try {
+            if (Integer.parseInt(getThreads()) < 1) {
+                throw new BuildException("threads must be at least 1");
+            }
+        } catch (NumberFormatException ex) {
+            throw new BuildException("threads must be a number");
+        }
+    }
+
+    protected NodeFactory loadGraph(DependencyListener listener) throws IOException, SAXException, ParserConfigurationException {
+        NodeFactory result;
+
+        if (Integer.parseInt(getThreads()) > 1) {
+            result = GraphMerger.mergeIntoLargest(loadGraphs(listener));
+        } else {
+            result = new NodeFactory();
+            for (String filename : getSrc().list()) {
+                log("Reading graph from " + filename);
+
+                if (NodeLoader.isGraphFile(filename)) {
+                    NodeLoader loader = new NodeLoader(result, getValidate());
+                    loader.addDependencyListener(listener);
+                    loader.load(filename);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     *  Loads each graph file into its own factory, on as many threads as
+     *  the <code>threads</code> attribute allows.
+     */
+    protected List<NodeFactory> loadGraphs(DependencyListener listener) throws IOException, SAXException, ParserConfigurationException {
+        List<String> filenames = new ArrayList<String>();
+        for (String filename : getSrc().list()) {
+            if (NodeLoader.isGraphFile(filename)) {
+                filenames.add(filename);
+            }
+        }
+
+        log("Reading " + filenames.size() + " graphs on " + getThreads() + " threads");
+
+        ParallelGraphLoader loader = new ParallelGraphLoader(getValidate());
+        loader.setThreads(Integer.parseInt(getThreads()));
+        loader.addDependencyListener(listener);
+
+        return loader.load(filenames);
     }
 }
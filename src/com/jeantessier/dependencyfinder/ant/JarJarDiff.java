@@ -37,6 +37,7 @@ import java.lang.reflect.*;
 import java.util.*;
 
 import com.jeantessier.classreader.*;
+import com.jeantessier.dependencyfinder.*;
 import com.jeantessier.diff.*;
 import org.apache.tools.ant.*;
 import org.apache.tools.ant.types.*;
@@ -227,8 +228,8 @@ public class JarJarDiff extends Task {
 
             differences.accept(report);
 
-            PrintWriter out = new PrintWriter(new FileWriter(getDestfile()));
-            out.print(report.render());
+            PrintWriter out = OutputFile.openWriter(getDestfile());
+            report.render(out);
             out.close();
         } catch (IOException ex) {
             throw new BuildException(ex);
@@ -36,6 +36,7 @@ import java.io.*;
 import java.util.*;
 
 import com.jeantessier.classreader.*;
+import com.jeantessier.dependencyfinder.*;
 import org.apache.tools.ant.*;
 import org.apache.tools.ant.types.*;
 
@@ -77,7 +78,7 @@ public class ListDeprecatedElements extends Task {
         log("Saving elements to " + getDestfile().getAbsolutePath());
         
         try {
-            PrintWriter out = new PrintWriter(new FileWriter(getDestfile()));
+            PrintWriter out = OutputFile.openWriter(getDestfile());
 
             log("Reading classes from path " + getPath());
 
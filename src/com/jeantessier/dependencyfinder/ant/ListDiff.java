@@ -37,6 +37,7 @@ import java.util.*;
 
 import org.apache.tools.ant.*;
 
+import com.jeantessier.dependencyfinder.*;
 import com.jeantessier.diff.*;
 
 public class ListDiff extends Task {
@@ -216,8 +217,8 @@ public class ListDiff extends Task {
 
             log("Saving difference report to " + getDestfile().getAbsolutePath());
 
-            PrintWriter out = new PrintWriter(new FileWriter(getDestfile()));
-            out.print(printer);
+            PrintWriter out = OutputFile.openWriter(getDestfile());
+            printer.print(out);
             out.close();
         } catch (IOException ex) {
             throw new BuildException(ex);
@@ -41,6 +41,7 @@ import com.jeantessier.classreader.NonPrivateFieldSymbolGathererStrategy;
 import com.jeantessier.classreader.SymbolGatherer;
 import com.jeantessier.classreader.SymbolGathererStrategy;
 import com.jeantessier.classreader.TransientClassfileLoader;
+import com.jeantessier.dependencyfinder.OutputFile;
 import com.jeantessier.text.RegularExpressionParser;
 import org.apache.log4j.Logger;
 import org.apache.tools.ant.BuildException;
@@ -50,7 +51,6 @@ import org.apache.tools.ant.types.Path;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Arrays;
@@ -209,7 +209,7 @@ public class ListSymbols extends Task {
         log("Saving symbols to " + getDestfile().getAbsolutePath());
 
         try {
-            PrintWriter out = new PrintWriter(new FileWriter(getDestfile()));
+            PrintWriter out = OutputFile.openWriter(getDestfile());
             for (String symbol : gatherer.getCollection()) {
                 out.println(symbol);
             }
@@ -77,7 +77,7 @@ public class ClassClassDiff extends DiffCommand {
         report.setNewVersion(newLabel);
 
         differences.accept(report);
-        getOut().print(report.render());
+        report.render(getOut());
     }
 
     public static void main(String[] args) throws Exception {
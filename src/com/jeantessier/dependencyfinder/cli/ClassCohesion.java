@@ -75,8 +75,15 @@ public class ClassCohesion extends DependencyGraphCommand {
         return exceptions;
     }
 
+    protected void showSpecificUsage(PrintStream out) {
+        super.showSpecificUsage(out);
+        out.println("The same -threads also sets how many threads compute the components of classes.");
+        out.println();
+    }
+
     public void doProcessing() throws Exception {
         LCOM4Gatherer gatherer = new LCOM4Gatherer();
+        gatherer.setThreads(getThreads());
 
         Logger.getLogger(OOMetrics.class).debug("Reading classes and computing metrics as we go ...");
         getVerboseListener().print("Reading classes and computing metrics as we go ...");
@@ -50,7 +50,7 @@ public class ClassFinder extends DirectoryExplorerCommand {
     public void doProcessing() throws Exception {
         ClassMatcher matcher = new ClassMatcher(getCommandLine().getMultipleSwitch("includes"), getCommandLine().getMultipleSwitch("excludes"));
 
-        ClassfileLoader loader = new TransientClassfileLoader();
+        ClassfileLoader loader = new TransientClassfileLoader(getThreads());
         loader.addLoadListener(matcher);
         loader.addLoadListener(getVerboseListener());
         loader.load(getCommandLine().getParameters());
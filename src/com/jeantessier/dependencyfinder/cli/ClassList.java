@@ -39,7 +39,7 @@ import com.jeantessier.classreader.*;
 public class ClassList extends DirectoryExplorerCommand {
     public void doProcessing() throws Exception {
         for (String filename : getCommandLine().getParameters()) {
-            ClassfileLoader loader = new AggregatingClassfileLoader();
+            ClassfileLoader loader = new AggregatingClassfileLoader(getThreads());
             loader.addLoadListener(getVerboseListener());
             loader.load(Collections.singleton(filename));
 
@@ -44,13 +44,17 @@ import com.jeantessier.dependency.ComprehensiveSelectionCriteria;
 import com.jeantessier.dependency.NullSelectionCriteria;
 import com.jeantessier.dependency.RegularExpressionSelectionCriteria;
 import com.jeantessier.dependency.SelectionCriteria;
+import com.jeantessier.dependencyfinder.OutputFile;
 import com.jeantessier.dependencyfinder.Version;
 import org.apache.log4j.Logger;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.PrintWriter;
@@ -69,6 +73,7 @@ public abstract class Command {
     private Date startTime;
     private VerboseListener verboseListener;
     private PrintWriter out;
+    private OutputStream outputStream;
 
     public String getName() {
         return getClass().getSimpleName();
@@ -230,7 +235,7 @@ public abstract class Command {
 
     private void startOutput() throws IOException {
         if (getCommandLine().isPresent("out")) {
-            out = new PrintWriter(new FileWriter(getCommandLine().getSingleSwitch("out")));
+            out = OutputFile.openWriter(new File(getCommandLine().getSingleSwitch("out")));
         } else {
             out = new PrintWriter(new OutputStreamWriter(System.out));
         }
@@ -240,6 +245,10 @@ public abstract class Command {
         if (out != null) {
             out.close();
         }
+
+        if (outputStream != null) {
+            outputStream.close();
+        }
     }
 
     protected void echo() {
@@ -478,4 +487,26 @@ public abstract class Command {
     protected void setOut(PrintWriter out) {
         this.out = out;
     }
+
+    /**
+     *  For binary output.  Like {@link #getOut()}, it writes to the file
+     *  named by <code>-out</code> or to standard output.  A command uses
+     *  one or the other, not both.  Either one compresses a file whose name
+     *  ends in <code>.gz</code>.
+     */
+    protected boolean isOutputCompressed() {
+        return getCommandLine().isPresent("out") && OutputFile.isCompressed(new File(getCommandLine().getSingleSwitch("out")));
+    }
+
+    protected OutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            if (getCommandLine().isPresent("out")) {
+                outputStream = OutputFile.openStream(new File(getCommandLine().getSingleSwitch("out")));
+            } else {
+                outputStream = new BufferedOutputStream(System.out);
+            }
+        }
+
+        return outputStream;
+    }
 }
@@ -32,9 +32,13 @@
 
 package com.jeantessier.dependencyfinder.cli;
 
+import java.io.*;
+import java.util.*;
+
 import com.jeantessier.dependency.Printer;
 import com.jeantessier.dependency.TextPrinter;
 import com.jeantessier.dependency.*;
+import com.jeantessier.commandline.*;
 
 public class DependencyClosure extends DependencyGraphCommand {
     protected void populateCommandLineSwitches() {
@@ -48,6 +52,31 @@ public class DependencyClosure extends DependencyGraphCommand {
         getCommandLine().addOptionalValueSwitch("maximum-outbound-depth");
 
         getCommandLine().addToggleSwitch("xml");
+        getCommandLine().addToggleSwitch("binary");
+        getCommandLine().addToggleSwitch("mapped");
+    }
+
+    protected Collection<CommandLineException> parseCommandLine(String[] args) {
+        Collection<CommandLineException> exceptions = super.parseCommandLine(args);
+
+        boolean xml = getCommandLine().getToggleSwitch("xml");
+        boolean binary = getCommandLine().getToggleSwitch("binary");
+        boolean mapped = getCommandLine().getToggleSwitch("mapped");
+        if ((xml && binary) || (xml && mapped) || (binary && mapped)) {
+            exceptions.add(new CommandLineException("Only one of -xml, -binary, or -mapped is allowed"));
+        }
+
+        if (mapped && isOutputCompressed()) {
+            exceptions.add(new CommandLineException("Mapped graphs cannot be compressed, -out cannot end in .gz with -mapped"));
+        }
+
+        return exceptions;
+    }
+
+    protected void showSpecificUsage(PrintStream out) {
+        super.showSpecificUsage(out);
+        out.println("The same -threads also sets how many threads follow each layer of the closure.");
+        out.println();
     }
 
     protected void doProcessing() throws Exception {
@@ -69,22 +98,31 @@ public class DependencyClosure extends DependencyGraphCommand {
             selector.setMaximumOutboundDepth(TransitiveClosure.UNBOUNDED_DEPTH);
         }
 
+        selector.setThreads(getThreads());
         selector.traverseNodes(loadGraph().getPackages().values());
 
-        getVerboseListener().print("Printing the graph ...");
-
-        Printer printer;
-        if (getCommandLine().isPresent("xml")) {
-            printer = new XMLPrinter(getOut(), getCommandLine().getSingleSwitch("encoding"), getCommandLine().getSingleSwitch("dtd-prefix"));
+        if (getCommandLine().getToggleSwitch("binary")) {
+            getVerboseListener().print("Writing the graph snapshot ...");
+            new GraphSnapshotWriter(getOutputStream()).write(selector.getFactory());
+        } else if (getCommandLine().getToggleSwitch("mapped")) {
+            getVerboseListener().print("Writing the mapped graph ...");
+            new MappedGraphWriter(getOutputStream()).write(selector.getFactory());
         } else {
-            printer = new TextPrinter(getOut());
-        }
+            getVerboseListener().print("Printing the graph ...");
 
-        if (getCommandLine().isPresent("indent-text")) {
-            printer.setIndentText(getCommandLine().getSingleSwitch("indent-text"));
-        }
+            Printer printer;
+            if (getCommandLine().isPresent("xml")) {
+                printer = new XMLPrinter(getOut(), getCommandLine().getSingleSwitch("encoding"), getCommandLine().getSingleSwitch("dtd-prefix"));
+            } else {
+                printer = new TextPrinter(getOut());
+            }
+
+            if (getCommandLine().isPresent("indent-text")) {
+                printer.setIndentText(getCommandLine().getSingleSwitch("indent-text"));
+            }
 
-        printer.traverseNodes(selector.getFactory().getPackages().values());
+            printer.traverseNodes(selector.getFactory().getPackages().values());
+        }
     }
 
     public static void main(String[] args) throws Exception {
@@ -45,6 +45,7 @@ public class DependencyCycles extends DependencyGraphCommand {
         populateCommandLineSwitchesForStartCondition();
 
         getCommandLine().addSingleValueSwitch("maximum-cycle-length");
+        getCommandLine().addSingleValueSwitch("components");
 
         getCommandLine().addToggleSwitch("xml");
     }
@@ -54,11 +55,26 @@ public class DependencyCycles extends DependencyGraphCommand {
 
         exceptions.addAll(validateCommandLineForScoping());
 
+        if (getCommandLine().isPresent("components")) {
+            String level = getCommandLine().getSingleSwitch("components");
+            if (!level.equals("package") && !level.equals("class") && !level.equals("feature")) {
+                exceptions.add(new CommandLineException("Invalid level for -components: " + level + ", expected package, class, or feature"));
+            }
+        }
+
         return exceptions;
     }
 
     protected void doProcessing() throws Exception {
-        CycleDetector detector = new CycleDetector(getStartCriteria());
+        if (getCommandLine().isPresent("components")) {
+            printComponents();
+        } else {
+            printCycles();
+        }
+    }
+
+    private void printCycles() throws Exception {
+        CycleEngine detector = new CycleEngine(getStartCriteria());
 
         if (getCommandLine().isPresent("maximum-cycle-length")) {
             detector.setMaximumCycleLength(Integer.parseInt(getCommandLine().getSingleSwitch("maximum-cycle-length")));
@@ -82,6 +98,33 @@ public class DependencyCycles extends DependencyGraphCommand {
         printer.visitCycles(detector.getCycles());
     }
 
+    private void printComponents() throws Exception {
+        String level = getCommandLine().getSingleSwitch("components");
+
+        RegularExpressionSelectionCriteria levelCriteria = new RegularExpressionSelectionCriteria("//");
+        levelCriteria.setMatchingPackages(level.equals("package"));
+        levelCriteria.setMatchingClasses(level.equals("class"));
+        levelCriteria.setMatchingFeatures(level.equals("feature"));
+
+        ComponentDetector detector = new ComponentDetector(new AndCompositeSelectionCriteria(Arrays.asList(getStartCriteria(), levelCriteria)));
+        detector.traverseNodes(loadGraph().getPackages().values());
+
+        getVerboseListener().print("Printing the components ...");
+
+        ComponentPrinter printer;
+        if (getCommandLine().isPresent("xml")) {
+            printer = new XMLComponentPrinter(getOut(), getCommandLine().getSingleSwitch("encoding"), getCommandLine().getSingleSwitch("dtd-prefix"));
+        } else {
+            printer = new TextComponentPrinter(getOut());
+        }
+
+        if (getCommandLine().isPresent("indent-text")) {
+            printer.setIndentText(getCommandLine().getSingleSwitch("indent-text"));
+        }
+
+        printer.visitComponents(detector.getComponents());
+    }
+
     public static void main(String[] args) throws Exception {
         new DependencyCycles().run(args);
     }
@@ -32,6 +32,7 @@
 
 package com.jeantessier.dependencyfinder.cli;
 
+import java.io.*;
 import java.util.*;
 
 import com.jeantessier.classreader.*;
@@ -48,6 +49,10 @@ public class DependencyExtractor extends DirectoryExplorerCommand {
         getCommandLine().addToggleSwitch("minimize");
 
         getCommandLine().addToggleSwitch("xml");
+        getCommandLine().addToggleSwitch("binary");
+        getCommandLine().addToggleSwitch("mapped");
+
+        getCommandLine().addSingleValueSwitch("cache");
     }
 
     protected Collection<CommandLineException> parseCommandLine(String[] args) {
@@ -59,6 +64,17 @@ public class DependencyExtractor extends DirectoryExplorerCommand {
             exceptions.add(new CommandLineException("Only one of -maximize or -minimize is allowed"));
         }
 
+        boolean xml = getCommandLine().getToggleSwitch("xml");
+        boolean binary = getCommandLine().getToggleSwitch("binary");
+        boolean mapped = getCommandLine().getToggleSwitch("mapped");
+        if ((xml && binary) || (xml && mapped) || (binary && mapped)) {
+            exceptions.add(new CommandLineException("Only one of -xml, -binary, or -mapped is allowed"));
+        }
+
+        if (mapped && isOutputCompressed()) {
+            exceptions.add(new CommandLineException("Mapped graphs cannot be compressed, -out cannot end in .gz with -mapped"));
+        }
+
         return exceptions;
     }
 
@@ -66,35 +82,57 @@ public class DependencyExtractor extends DirectoryExplorerCommand {
         SelectionCriteria filterCriteria = getFilterCriteria();
 
         NodeFactory factory = new NodeFactory();
-        CodeDependencyCollector collector = new CodeDependencyCollector(factory, filterCriteria);
 
-        ClassfileLoader loader = new TransientClassfileLoader();
-        loader.addLoadListener(new LoadListenerVisitorAdapter(collector));
+        TransientClassfileLoader loader = new TransientClassfileLoader(ParsingProfile.DEPENDENCY_SCAN, getThreads());
         loader.addLoadListener(getVerboseListener());
-        loader.load(getCommandLine().getParameters());
+
+        if (getCommandLine().isPresent("cache")) {
+            File cacheFile = new File(getCommandLine().getSingleSwitch("cache"));
+            DependencyExtractionCache cache = new DependencyExtractionCache(factory, filterCriteria);
+
+            getVerboseListener().print("Reading cache from " + cacheFile + " ...");
+            cache.load(cacheFile);
+
+            loader.setExtractionCache(cache);
+            loader.load(getCommandLine().getParameters());
+
+            getVerboseListener().print("Saving cache to " + cacheFile + " (" + cache.getReplayCount() + " classes from cache, " + cache.getRecordCount() + " parsed) ...");
+            cache.save(cacheFile);
+        } else {
+            loader.addLoadListener(new LoadListenerVisitorAdapter(new CodeDependencyCollector(factory, filterCriteria)));
+            loader.load(getCommandLine().getParameters());
+        }
 
         if (getCommandLine().getToggleSwitch("minimize")) {
-            LinkMinimizer minimizer = new LinkMinimizer();
+            BulkLinkMinimizer minimizer = new BulkLinkMinimizer();
             minimizer.traverseNodes(factory.getPackages().values());
         } else if (getCommandLine().getToggleSwitch("maximize")) {
-            LinkMaximizer maximizer = new LinkMaximizer();
+            BulkLinkMaximizer maximizer = new BulkLinkMaximizer();
             maximizer.traverseNodes(factory.getPackages().values());
         }
 
-        getVerboseListener().print("Printing the graph ...");
-
-        com.jeantessier.dependency.Printer printer;
-        if (getCommandLine().getToggleSwitch("xml")) {
-            printer = new com.jeantessier.dependency.XMLPrinter(getOut(), getCommandLine().getSingleSwitch("encoding"), getCommandLine().getSingleSwitch("dtd-prefix"));
+        if (getCommandLine().getToggleSwitch("binary")) {
+            getVerboseListener().print("Writing the graph snapshot ...");
+            new GraphSnapshotWriter(getOutputStream()).write(factory);
+        } else if (getCommandLine().getToggleSwitch("mapped")) {
+            getVerboseListener().print("Writing the mapped graph ...");
+            new MappedGraphWriter(getOutputStream()).write(factory);
         } else {
-            printer = new com.jeantessier.dependency.TextPrinter(getOut());
-        }
+            getVerboseListener().print("Printing the graph ...");
 
-        if (getCommandLine().isPresent("indent-text")) {
-            printer.setIndentText(getCommandLine().getSingleSwitch("indent-text"));
-        }
+            com.jeantessier.dependency.Printer printer;
+            if (getCommandLine().getToggleSwitch("xml")) {
+                printer = new com.jeantessier.dependency.XMLPrinter(getOut(), getCommandLine().getSingleSwitch("encoding"), getCommandLine().getSingleSwitch("dtd-prefix"));
+            } else {
+                printer = new com.jeantessier.dependency.TextPrinter(getOut());
+            }
 
-        printer.traverseNodes(factory.getPackages().values());
+            if (getCommandLine().isPresent("indent-text")) {
+                printer.setIndentText(getCommandLine().getSingleSwitch("indent-text"));
+            }
+
+            printer.traverseNodes(factory.getPackages().values());
+        }
     }
 
     public static void main(String[] args) throws Exception {
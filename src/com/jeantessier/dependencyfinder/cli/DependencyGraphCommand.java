@@ -33,10 +33,12 @@
 package com.jeantessier.dependencyfinder.cli;
 
 import java.io.*;
+import java.util.*;
 import javax.xml.parsers.*;
 
 import org.xml.sax.*;
 
+import com.jeantessier.commandline.*;
 import com.jeantessier.dependency.*;
 
 /**
@@ -47,20 +49,49 @@ public abstract class DependencyGraphCommand extends Command {
         super.populateCommandLineSwitches();
 
         getCommandLine().addToggleSwitch("validate");
+        getCommandLine().addSingleValueSwitch("threads", String.valueOf(ParallelGraphLoader.DEFAULT_THREADS));
+    }
+
+    protected Collection<CommandLineException> parseCommandLine(String[] args) {
+        Collection<CommandLineException> exceptions = super.parseCommandLine(args);
+
+        try {
+            if (getThreads() < 1) {
+                exceptions.add(new CommandLineException("-threads must be at least 1"));
+            }
+        } catch (NumberFormatException ex) {
+            exceptions.add(new CommandLineException("-threads must be a number"));
+        }
+
+        return exceptions;
     }
 
     protected void showSpecificUsage(PrintStream out) {
         out.println();
         out.println("Default is text output to the console.");
         out.println();
+        out.println("Use -threads to read several graph files at once.");
+        out.println();
+    }
+
+    /**
+     *  Used to read the graph files.  Commands that also split their own
+     *  work over threads use the same value, and say so in their usage.
+     */
+    protected int getThreads() {
+        return Integer.parseInt(getCommandLine().getSingleSwitch("threads"));
     }
 
     protected NodeFactory loadGraph() throws IOException, SAXException, ParserConfigurationException {
-        NodeFactory result = new NodeFactory();
+        NodeFactory result;
 
         if (getCommandLine().getParameters().isEmpty()) {
+            result = new NodeFactory();
             loadGraphFromSystemIn(result);
+        } else if (getThreads() > 1) {
+            result = GraphMerger.mergeIntoLargest(loadGraphsFromFiles());
         } else {
+            result = new NodeFactory();
             loadGraphFromFiles(result);
         }
 
@@ -79,7 +110,7 @@ public abstract class DependencyGraphCommand extends Command {
 
     private void loadGraphFromFiles(NodeFactory factory) throws IOException, SAXException, ParserConfigurationException {
         for (String filename : getCommandLine().getParameters()) {
-            if (filename.endsWith(".xml")) {
+            if (NodeLoader.isGraphFile(filename)) {
                 loadGraphFromFile(factory, filename);
             } else {
                 getVerboseListener().print("Skipping \"" + filename + "\".");
@@ -87,13 +118,55 @@ public abstract class DependencyGraphCommand extends Command {
         }
     }
 
+    /**
+     *  Loads each graph file into its own factory, on as many threads as
+     *  <code>-threads</code> allows.
+     */
+    protected List<NodeFactory> loadGraphsFromFiles() throws IOException, SAXException, ParserConfigurationException {
+        List<String> filenames = new ArrayList<String>();
+        long bytes = 0;
+        for (String filename : getCommandLine().getParameters()) {
+            if (NodeLoader.isGraphFile(filename)) {
+                filenames.add(filename);
+                bytes += new File(filename).length();
+            } else {
+                getVerboseListener().print("Skipping \"" + filename + "\".");
+            }
+        }
+
+        getVerboseListener().print("Reading " + filenames.size() + " files on " + getThreads() + " threads");
+
+        ParallelGraphLoader loader = new ParallelGraphLoader(getCommandLine().getToggleSwitch("validate"));
+        loader.setThreads(getThreads());
+        loader.addDependencyListener(getVerboseListener());
+
+        long start = System.currentTimeMillis();
+        List<NodeFactory> result = loader.load(filenames);
+        long stop = System.currentTimeMillis();
+
+        getVerboseListener().print("Read " + filenames.size() + " files " + formatThroughput(bytes, stop - start) + ".");
+
+        return result;
+    }
+
     private void loadGraphFromFile(NodeFactory factory, String filename) throws IOException, SAXException, ParserConfigurationException {
         getVerboseListener().print("Reading " + filename);
 
         NodeLoader loader = new NodeLoader(factory, getCommandLine().getToggleSwitch("validate"));
         loader.addDependencyListener(getVerboseListener());
+
+        long start = System.currentTimeMillis();
         loader.load(filename);
+        long stop = System.currentTimeMillis();
+
+        getVerboseListener().print("Read \"" + filename + "\" " + formatThroughput(new File(filename).length(), stop - start) + ".");
+    }
 
-        getVerboseListener().print("Read \"" + filename + "\".");
+    /**
+     *  @return something like <code>(21.5 MB in 0.18 s, 119.4 MB/s)</code>.
+     */
+    private static String formatThroughput(long bytes, long millis) {
+        double megabytes = bytes / (1024.0 * 1024.0);
+        return String.format("(%.1f MB in %.2f s, %.1f MB/s)", megabytes, millis / 1000.0, megabytes * 1000 / Math.max(millis, 1));
     }
 }
@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependencyfinder.cli;
+
+import java.util.*;
+
+import com.jeantessier.dependency.*;
+import com.jeantessier.commandline.*;
+
+public class DependencyPaths extends DependencyGraphCommand {
+    protected void populateCommandLineSwitches() {
+        super.populateCommandLineSwitches();
+
+        populateCommandLineSwitchesForStartCondition();
+        populateCommandLineSwitchesForStopCondition();
+
+        getCommandLine().addSingleValueSwitch("indent-text");
+        getCommandLine().addSingleValueSwitch("maximum-number-of-paths", String.valueOf(PathFinder.DEFAULT_MAXIMUM_NUMBER_OF_PATHS));
+        getCommandLine().addSingleValueSwitch("maximum-path-length");
+    }
+
+    protected Collection<CommandLineException> parseCommandLine(String[] args) {
+        Collection<CommandLineException> exceptions = super.parseCommandLine(args);
+
+        try {
+            if (Integer.parseInt(getCommandLine().getSingleSwitch("maximum-number-of-paths")) < 1) {
+                exceptions.add(new CommandLineException("-maximum-number-of-paths must be at least 1"));
+            }
+        } catch (NumberFormatException ex) {
+            exceptions.add(new CommandLineException("-maximum-number-of-paths must be a number"));
+        }
+
+        if (getCommandLine().isPresent("maximum-path-length")) {
+            try {
+                if (Integer.parseInt(getCommandLine().getSingleSwitch("maximum-path-length")) < 1) {
+                    exceptions.add(new CommandLineException("-maximum-path-length must be at least 1"));
+                }
+            } catch (NumberFormatException ex) {
+                exceptions.add(new CommandLineException("-maximum-path-length must be a number"));
+            }
+        }
+
+        return exceptions;
+    }
+
+    protected void doProcessing() throws Exception {
+        PathFinder finder = new PathFinder(getStartCriteria(), getStopCriteria());
+
+        finder.setMaximumNumberOfPaths(Integer.parseInt(getCommandLine().getSingleSwitch("maximum-number-of-paths")));
+        if (getCommandLine().isPresent("maximum-path-length")) {
+            finder.setMaximumPathLength(Integer.parseInt(getCommandLine().getSingleSwitch("maximum-path-length")));
+        }
+
+        finder.traverseNodes(loadGraph().getPackages().values());
+
+        getVerboseListener().print("Printing the paths ...");
+
+        TextPathPrinter printer = new TextPathPrinter(getOut());
+
+        if (getCommandLine().isPresent("indent-text")) {
+            printer.setIndentText(getCommandLine().getSingleSwitch("indent-text"));
+        }
+
+        printer.visitPaths(finder.getPaths());
+    }
+
+    public static void main(String[] args) throws Exception {
+        new DependencyPaths().run(args);
+    }
+}
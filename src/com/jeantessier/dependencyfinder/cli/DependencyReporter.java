@@ -65,6 +65,8 @@ public class DependencyReporter extends DependencyGraphCommand {
         getCommandLine().addToggleSwitch("show-empty-nodes");
 
         getCommandLine().addToggleSwitch("xml");
+        getCommandLine().addToggleSwitch("binary");
+        getCommandLine().addToggleSwitch("mapped");
         getCommandLine().addToggleSwitch("minimize");
         getCommandLine().addToggleSwitch("maximize");
         getCommandLine().addToggleSwitch("copy-only");
@@ -80,6 +82,17 @@ public class DependencyReporter extends DependencyGraphCommand {
             exceptions.add(new CommandLineException("Only one of -maximize or -minimize is allowed"));
         }
 
+        boolean xml = getCommandLine().getToggleSwitch("xml");
+        boolean binary = getCommandLine().getToggleSwitch("binary");
+        boolean mapped = getCommandLine().getToggleSwitch("mapped");
+        if ((xml && binary) || (xml && mapped) || (binary && mapped)) {
+            exceptions.add(new CommandLineException("Only one of -xml, -binary, or -mapped is allowed"));
+        }
+
+        if (mapped && isOutputCompressed()) {
+            exceptions.add(new CommandLineException("Mapped graphs cannot be compressed, -out cannot end in .gz with -mapped"));
+        }
+
         return exceptions;
     }
 
@@ -95,26 +108,34 @@ public class DependencyReporter extends DependencyGraphCommand {
         }
         copyGraph(copier);
 
-        getVerboseListener().print("Printing the graph ...");
-
-        Printer printer;
-        if (getCommandLine().isPresent("xml")) {
-            printer = new XMLPrinter(getOut(), getCommandLine().getSingleSwitch("encoding"), getCommandLine().getSingleSwitch("dtd-prefix"));
+        if (getCommandLine().getToggleSwitch("binary")) {
+            getVerboseListener().print("Writing the graph snapshot ...");
+            new GraphSnapshotWriter(getOutputStream()).write(copier.getScopeFactory());
+        } else if (getCommandLine().getToggleSwitch("mapped")) {
+            getVerboseListener().print("Writing the mapped graph ...");
+            new MappedGraphWriter(getOutputStream()).write(copier.getScopeFactory());
         } else {
-            printer = new TextPrinter(getOut());
-        }
+            getVerboseListener().print("Printing the graph ...");
 
-        if (getCommandLine().isPresent("indent-text")) {
-            printer.setIndentText(getCommandLine().getSingleSwitch("indent-text"));
-        }
+            Printer printer;
+            if (getCommandLine().isPresent("xml")) {
+                printer = new XMLPrinter(getOut(), getCommandLine().getSingleSwitch("encoding"), getCommandLine().getSingleSwitch("dtd-prefix"));
+            } else {
+                printer = new TextPrinter(getOut());
+            }
 
-        if (getCommandLine().isPresent("show-inbounds") || getCommandLine().isPresent("show-outbounds") || getCommandLine().isPresent("show-empty-nodes")) {
-            printer.setShowInbounds(getCommandLine().isPresent("show-inbounds"));
-            printer.setShowOutbounds(getCommandLine().isPresent("show-outbounds"));
-            printer.setShowEmptyNodes(getCommandLine().isPresent("show-empty-nodes"));
-        }
+            if (getCommandLine().isPresent("indent-text")) {
+                printer.setIndentText(getCommandLine().getSingleSwitch("indent-text"));
+            }
+
+            if (getCommandLine().isPresent("show-inbounds") || getCommandLine().isPresent("show-outbounds") || getCommandLine().isPresent("show-empty-nodes")) {
+                printer.setShowInbounds(getCommandLine().isPresent("show-inbounds"));
+                printer.setShowOutbounds(getCommandLine().isPresent("show-outbounds"));
+                printer.setShowEmptyNodes(getCommandLine().isPresent("show-empty-nodes"));
+            }
 
-        printer.traverseNodes(copier.getScopeFactory().getPackages().values());
+            printer.traverseNodes(copier.getScopeFactory().getPackages().values());
+        }
     }
 
     private void copyGraph(Visitor copier) throws IOException, SAXException, ParserConfigurationException {
@@ -130,24 +151,47 @@ public class DependencyReporter extends DependencyGraphCommand {
     }
 
     private void copyGraphFromFiles(Visitor copier) throws IOException, SAXException, ParserConfigurationException {
-        for (String filename : getCommandLine().getParameters()) {
-            if (filename.endsWith(".xml")) {
-                copyGraph(copier, loadGraphFromFile(filename));
-            } else {
-                getVerboseListener().print("Skipping \"" + filename + "\".");
+        if (getThreads() > 1) {
+            copyMergedGraphFromFiles(copier);
+        } else {
+            for (String filename : getCommandLine().getParameters()) {
+                if (NodeLoader.isGraphFile(filename)) {
+                    copyGraph(copier, loadGraphFromFile(filename));
+                } else {
+                    getVerboseListener().print("Skipping \"" + filename + "\".");
+                }
             }
+        }
+    }
 
+    /**
+     *  Merges the graphs before copying them, so the copier goes through
+     *  their union only once.  A node is then confirmed if any of the
+     *  graphs confirms it, as if they had all come from one file.
+     */
+    private void copyMergedGraphFromFiles(Visitor copier) throws IOException, SAXException, ParserConfigurationException {
+        List<NodeFactory> factories = loadGraphsFromFiles();
+        for (NodeFactory factory : factories) {
+            linkGraph(factory.getPackages().values());
         }
+
+        NodeFactory merged = GraphMerger.mergeIntoLargest(factories);
+        getVerboseListener().print("Merged the graphs.");
+
+        copier.traverseNodes(merged.getPackages().values());
     }
 
     private void copyGraph(Visitor copier, Collection<PackageNode> packages) {
+        linkGraph(packages);
+        copier.traverseNodes(packages);
+    }
+
+    private void linkGraph(Collection<PackageNode> packages) {
         if (getCommandLine().getToggleSwitch("maximize")) {
-            new LinkMaximizer().traverseNodes(packages);
+            new BulkLinkMaximizer().traverseNodes(packages);
         } else if (getCommandLine().getToggleSwitch("minimize")) {
-            new LinkMinimizer().traverseNodes(packages);
+            new BulkLinkMinimizer().traverseNodes(packages);
         }
-
-        copier.traverseNodes(packages);
     }
 
     private Collection<PackageNode> loadGraphFromSystemIn() throws IOException, SAXException, ParserConfigurationException {
@@ -33,13 +33,35 @@
 package com.jeantessier.dependencyfinder.cli;
 
 import java.io.*;
+import java.util.*;
 
+import com.jeantessier.classreader.*;
 import com.jeantessier.commandline.*;
 
 /**
  * TODO: javadocs
  */
 public abstract class DirectoryExplorerCommand extends Command {
+    protected void populateCommandLineSwitches() {
+        super.populateCommandLineSwitches();
+
+        getCommandLine().addSingleValueSwitch("threads", String.valueOf(ClassfileLoaderEventSource.DEFAULT_THREADS));
+    }
+
+    protected Collection<CommandLineException> parseCommandLine(String[] args) {
+        Collection<CommandLineException> exceptions = super.parseCommandLine(args);
+
+        try {
+            if (getThreads() < 1) {
+                exceptions.add(new CommandLineException("-threads must be at least 1"));
+            }
+        } catch (NumberFormatException ex) {
+            exceptions.add(new CommandLineException("-threads must be a number"));
+        }
+
+        return exceptions;
+    }
+
     protected void showSpecificUsage(PrintStream out) {
         out.println();
         out.println("If no files are specified, it processes the current directory.");
@@ -49,6 +71,8 @@ public abstract class DirectoryExplorerCommand extends Command {
         out.println();
         out.println("Defaults is text output to the console.");
         out.println();
+        out.println("Use -threads to parse .class files on more than one thread.");
+        out.println();
     }
 
     protected boolean validateCommandLine(String[] args, PrintStream out) {
@@ -64,4 +88,8 @@ public abstract class DirectoryExplorerCommand extends Command {
 
         return result;
     }
+
+    protected int getThreads() {
+        return Integer.parseInt(getCommandLine().getSingleSwitch("threads"));
+    }
 }
@@ -76,7 +76,7 @@ public class JarJarDiff extends DiffCommand {
         }
 
         differences.accept(report);
-        getOut().print(report.render());
+        report.render(getOut());
     }
 
     public static void main(String[] args) throws Exception {
@@ -38,7 +38,7 @@ public class ListDeprecatedElements extends DirectoryExplorerCommand {
     protected void doProcessing() throws Exception {
         DeprecationPrinter printer = new DeprecationPrinter(getOut());
 
-        ClassfileLoader loader = new TransientClassfileLoader();
+        ClassfileLoader loader = new TransientClassfileLoader(getThreads());
         loader.addLoadListener(new LoadListenerVisitorAdapter(printer));
         loader.addLoadListener(getVerboseListener());
         loader.load(getCommandLine().getParameters());
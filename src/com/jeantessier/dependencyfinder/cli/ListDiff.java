@@ -113,7 +113,7 @@ public class ListDiff extends Command {
         }
 
         getVerboseListener().print("Printing results ...");
-        getOut().print(printer);
+        printer.print(getOut());
     }
 
     public static void main(String[] args) throws Exception {
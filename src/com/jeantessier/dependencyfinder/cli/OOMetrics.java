@@ -125,7 +125,7 @@ public class OOMetrics extends DirectoryExplorerCommand {
         if (getCommandLine().isPresent("enable-cross-class-measurements")) {
             Logger.getLogger(OOMetrics.class).debug("Reading in all classes ...");
             getVerboseListener().print("Reading in all classes ...");
-            ClassfileLoader loader = new AggregatingClassfileLoader();
+            ClassfileLoader loader = new AggregatingClassfileLoader(getThreads());
             loader.addLoadListener(getVerboseListener());
             loader.load(getCommandLine().getParameters());
 
@@ -133,7 +133,7 @@ public class OOMetrics extends DirectoryExplorerCommand {
             getVerboseListener().print("Computing metrics ...");
             gatherer.visitClassfiles(loader.getAllClassfiles());
         } else {
-            ClassfileLoader loader = new TransientClassfileLoader();
+            ClassfileLoader loader = new TransientClassfileLoader(getThreads());
             loader.addLoadListener(getVerboseListener());
             loader.addLoadListener(new LoadListenerVisitorAdapter(gatherer));
 
@@ -125,7 +125,7 @@ public class VerboseListener extends VerboseListenerBase implements DependencyLi
         // Do nothing
     }
 
-    public void beginClass(DependencyEvent event) {
+    public synchronized void beginClass(DependencyEvent event) {
         getWriter().print("Getting dependencies from ");
         getWriter().print(event.getClassName());
         getWriter().print(" ...");
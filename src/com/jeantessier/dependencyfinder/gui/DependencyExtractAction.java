@@ -83,7 +83,7 @@ public class DependencyExtractAction extends AbstractAction implements Runnable
 
         model.getMonitor().setClosedSession(false);
 
-        ClassfileLoader loader = new TransientClassfileLoader(model.getClassfileLoaderDispatcher());
+        ClassfileLoader loader = new TransientClassfileLoader(model.getClassfileLoaderDispatcher(), ParsingProfile.DEPENDENCY_SCAN);
         loader.addLoadListener(new VerboseListener(model.getStatusLine(), model.getProgressBar()));
         loader.addLoadListener(model.getMonitor());
         loader.load(model.getInputFiles());
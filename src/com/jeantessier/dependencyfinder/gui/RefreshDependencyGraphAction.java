@@ -69,7 +69,7 @@ public class RefreshDependencyGraphAction extends AbstractAction implements Runn
 
         model.getMonitor().setClosedSession(true);
 
-        ClassfileLoader loader = new TransientClassfileLoader(model.getClassfileLoaderDispatcher());
+        ClassfileLoader loader = new TransientClassfileLoader(model.getClassfileLoaderDispatcher(), ParsingProfile.DEPENDENCY_SCAN);
         loader.addLoadListener(new VerboseListener(model.getStatusLine(), model.getProgressBar()));
         loader.addLoadListener(model.getMonitor());
         loader.load(model.getInputFiles());
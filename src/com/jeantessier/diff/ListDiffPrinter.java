@@ -32,6 +32,7 @@
 
 package com.jeantessier.diff;
 
+import java.io.*;
 import java.util.*;
 
 import org.apache.oro.text.perl.*;
@@ -194,6 +195,21 @@ public class ListDiffPrinter {
     }
 
     public String toString() {
+        appendList();
+        return buffer.toString();
+    }
+
+    /**
+     *  Writes the list to <code>out</code> as it goes, instead of building
+     *  all of it in memory first.
+     */
+    public void print(PrintWriter out) {
+        buffer.setOut(out);
+        appendList();
+        buffer.flush();
+    }
+
+    private void appendList() {
         indent().append("<list-diff>").eol();
         raiseIndent();
         
@@ -215,8 +231,6 @@ public class ListDiffPrinter {
         
         lowerIndent();
         indent().append("</list-diff>").eol();
-        
-        return buffer.toString();
     }
 
     private void printLines(Collection<String> lines) {
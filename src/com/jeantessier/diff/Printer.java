@@ -32,6 +32,8 @@
 
 package com.jeantessier.diff;
 
+import java.io.*;
+
 import com.jeantessier.text.*;
 
 public abstract class Printer extends VisitorBase {
@@ -107,6 +109,17 @@ public abstract class Printer extends VisitorBase {
         return this;
     }
 
+    /**
+     *  @see PrinterBuffer#setOut(PrintWriter)
+     */
+    protected void setOut(PrintWriter out) {
+        buffer.setOut(out);
+    }
+
+    protected void flush() {
+        buffer.flush();
+    }
+
     protected void raiseIndent() {
         buffer.raiseIndent();
     }
@@ -32,6 +32,7 @@
 
 package com.jeantessier.diff;
 
+import java.io.*;
 import java.util.*;
 
 import com.jeantessier.classreader.*;
@@ -165,6 +166,21 @@ public class Report extends Printer {
     }
 
     public String render() {
+        appendReport();
+        return super.toString();
+    }
+
+    /**
+     *  Writes the report to <code>out</code> as it goes, instead of
+     *  building all of it in memory first.
+     */
+    public void render(PrintWriter out) {
+        setOut(out);
+        appendReport();
+        flush();
+    }
+
+    private void appendReport() {
         indent().append("<differences>").eol();
         raiseIndent();
 
@@ -318,8 +334,6 @@ public class Report extends Printer {
 
         lowerIndent();
         indent().append("</differences>").eol();
-
-        return super.toString();
     }
 
     private String breakdownDeclaration(Classfile element) {
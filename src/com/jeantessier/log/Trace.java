@@ -0,0 +1,159 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.log;
+
+import java.util.concurrent.*;
+
+import org.apache.log4j.*;
+
+/**
+ *  Thin wrapper around a log4j {@link Logger} for hot code paths.
+ *
+ *  <p>Classes keep one in a static field instead of calling
+ *  <code>Logger.getLogger()</code>, which goes through a synchronized
+ *  lookup, on every message.  Messages that take work to build belong in a
+ *  guard:</p>
+ *
+ *  <pre>
+ *  if (trace.isDebugEnabled()) {
+ *      trace.debug("Entry " + i + " has tag " + tag);
+ *  }
+ *  </pre>
+ *
+ *  <p>Each trace reads its levels from log4j once and keeps them, so the
+ *  guard is a single field read.  Call {@link #refresh()} after changing
+ *  the log4j configuration at runtime.</p>
+ *
+ *  <p>Classes that log under the name of their runtime class, so that
+ *  subclasses get their own log4j category, go through
+ *  {@link #forClass(Class)} with <code>getClass()</code>.</p>
+ */
+public final class Trace {
+    private static final ConcurrentMap<Class<?>, Trace> traces = new ConcurrentHashMap<Class<?>, Trace>();
+
+    private final Class<?> clazz;
+    private final Logger logger;
+
+    private volatile boolean debugEnabled;
+    private volatile boolean infoEnabled;
+
+    private Trace(Class<?> clazz) {
+        this.clazz = clazz;
+        this.logger = Logger.getLogger(clazz);
+
+        readLevels();
+    }
+
+    public static Trace getTrace(Class<?> clazz) {
+        Trace result = traces.get(clazz);
+
+        if (result == null) {
+            Trace candidate = new Trace(clazz);
+            result = traces.putIfAbsent(clazz, candidate);
+            if (result == null) {
+                result = candidate;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     *  Reads the levels of every trace from log4j again.
+     */
+    public static void refresh() {
+        for (Trace trace : traces.values()) {
+            trace.readLevels();
+        }
+    }
+
+    private void readLevels() {
+        debugEnabled = logger.isDebugEnabled();
+        infoEnabled = logger.isInfoEnabled();
+    }
+
+    /**
+     *  Returns this trace when <code>clazz</code> is the class it logs for
+     *  and only looks up another one for subclasses.
+     */
+    public Trace forClass(Class<?> clazz) {
+        Trace result = this;
+
+        if (clazz != this.clazz) {
+            result = getTrace(clazz);
+        }
+
+        return result;
+    }
+
+    public Logger getLogger() {
+        return logger;
+    }
+
+    public boolean isDebugEnabled() {
+        return debugEnabled;
+    }
+
+    public boolean isInfoEnabled() {
+        return infoEnabled;
+    }
+
+    public void debug(Object message) {
+        if (debugEnabled) {
+            logger.debug(message);
+        }
+    }
+
+    public void info(Object message) {
+        if (infoEnabled) {
+            logger.info(message);
+        }
+    }
+
+    public void warn(Object message) {
+        logger.warn(message);
+    }
+
+    public void warn(Object message, Throwable throwable) {
+        logger.warn(message, throwable);
+    }
+
+    public void error(Object message) {
+        logger.error(message);
+    }
+
+    public void error(Object message, Throwable throwable) {
+        logger.error(message, throwable);
+    }
+}
@@ -36,11 +36,10 @@ import java.lang.reflect.*;
 import java.util.*;
 
 import org.apache.log4j.*;
-import org.apache.oro.text.perl.*;
 
-public class MetricsFactory {
-    private static final Perl5Util perl = new Perl5Util();
+import com.jeantessier.classreader.*;
 
+public class MetricsFactory {
     private String               projectName;
     private MetricsConfiguration configuration;
 
@@ -248,18 +247,9 @@ public class MetricsFactory {
     }
 
     private Metrics buildMethodMetrics(String name) {
-        String className = "";
-        String featureName = "";
-        if (perl.match("/^(.*)\\.([^\\.]*)\\(.*\\)$/", name)) {
-            className = perl.group(1);
-            featureName = perl.group(2);
-        } else if (perl.match("/^(.*)\\.(static) {}$/", name)) {
-            className = perl.group(1);
-            featureName = perl.group(2);
-        } else if (perl.match("/^(.*)\\.([\\^.]*)$/", name)) {
-            className = perl.group(1);
-            featureName = perl.group(2);
-        }
+        String className = FeatureNameHelper.getClassName(name);
+        String featureName = FeatureNameHelper.getMemberName(name);
+
         Metrics classMetrics = createClassMetrics(className);
         Metrics result       = new Metrics(classMetrics, name);
         classMetrics.addSubMetrics(result);
@@ -32,14 +32,24 @@
 
 package com.jeantessier.text;
 
+import java.io.*;
+
+/**
+ *  <p>Accumulates text for printers.  By default, it keeps all of it until
+ *  someone calls {@link #toString()}.  Once it has a {@link PrintWriter}
+ *  to write to, it passes the text along in chunks instead, so that large
+ *  documents do not have to fit in memory.</p>
+ */
 public class PrinterBuffer {
     public static final String DEFAULT_INDENT_TEXT = "    ";
 
     private final static String EOL = System.getProperty("line.separator", "\n");
+    private final static int FLUSH_THRESHOLD = 8 * 1024;
 
     private StringBuffer buffer = new StringBuffer();
     private String indentText = DEFAULT_INDENT_TEXT;
     private int indentLevel = 0;
+    private PrintWriter out;
 
     public String getIndentText() {
         return indentText;
@@ -51,52 +61,52 @@ public class PrinterBuffer {
 
     public PrinterBuffer append(boolean b) {
         buffer.append(b);
-        return this;
+        return spill();
     }
 
     public PrinterBuffer append(char c) {
         buffer.append(c);
-        return this;
+        return spill();
     }
 
     public PrinterBuffer append(char[] str, int offset, int len) {
         buffer.append(str, offset, len);
-        return this;
+        return spill();
     }
 
     public PrinterBuffer append(char[] s) {
         buffer.append(s);
-        return this;
+        return spill();
     }
 
     public PrinterBuffer append(double d) {
         buffer.append(d);
-        return this;
+        return spill();
     }
 
     public PrinterBuffer append(float f) {
         buffer.append(f);
-        return this;
+        return spill();
     }
 
     public PrinterBuffer append(int i) {
         buffer.append(i);
-        return this;
+        return spill();
     }
 
     public PrinterBuffer append(long l) {
         buffer.append(l);
-        return this;
+        return spill();
     }
 
     public PrinterBuffer append(Object obj) {
         buffer.append(obj);
-        return this;
+        return spill();
     }
 
     public PrinterBuffer append(String s) {
         buffer.append(s);
-        return this;
+        return spill();
     }
 
     public PrinterBuffer indent() {
@@ -104,11 +114,42 @@ public class PrinterBuffer {
             buffer.append(getIndentText());
         }
 
-        return this;
+        return spill();
     }
 
     public PrinterBuffer eol() {
         buffer.append(EOL);
+        return spill();
+    }
+
+    /**
+     *  From then on, it writes its text to <code>out</code> in chunks,
+     *  starting with what it already holds.  Call {@link #flush()} at the
+     *  end to write the last chunk.
+     */
+    public void setOut(PrintWriter out) {
+        this.out = out;
+        spill();
+    }
+
+    /**
+     *  Writes any text it still holds to its {@link PrintWriter}, if it has
+     *  one.
+     */
+    public void flush() {
+        if (out != null) {
+            out.write(buffer.toString());
+            buffer.setLength(0);
+            out.flush();
+        }
+    }
+
+    private PrinterBuffer spill() {
+        if (out != null && buffer.length() >= FLUSH_THRESHOLD) {
+            out.write(buffer.toString());
+            buffer.setLength(0);
+        }
+
         return this;
     }
 
@@ -120,6 +161,9 @@ public class PrinterBuffer {
         indentLevel--;
     }
 
+    /**
+     *  @return the length of the text that it still holds.
+     */
     public int length() {
         return buffer.length();
     }
@@ -44,6 +44,8 @@ import static org.junit.runners.Suite.SuiteClasses;
         TestClassNameHelper.class,
         TestDescriptorHelper.class,
         TestSignatureHelper.class,
+        TestFeatureNameHelper.class,
+        TestByteBufferDataInput.class,
         TestVisitorBase.class,
         TestDeprecationDetector.class,
         TestCodeFinder.class,
@@ -52,6 +54,7 @@ import static org.junit.runners.Suite.SuiteClasses;
         TestDirectoryExplorer.class,
         TestAggregatingClassfileLoader.class,
         TestTransientClassfileLoader.class,
+        TestTransientClassfileLoaderWithThreads.class,
         TestDirectoryClassfileLoader.class,
         TestClassfile.class,
         TestPermissiveDispatcher.class,
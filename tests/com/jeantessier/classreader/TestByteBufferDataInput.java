@@ -0,0 +1,120 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.nio.*;
+
+import junit.framework.*;
+
+public class TestByteBufferDataInput extends TestCase {
+    private byte[] bytes;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeByte(-2);
+        data.writeShort(-3);
+        data.writeChar('\u00E9');
+        data.writeInt(0xCAFEBABE);
+        data.writeLong(Long.MIN_VALUE + 7);
+        data.writeFloat(1.5f);
+        data.writeDouble(-2.25);
+        data.writeUTF("java/lang/Object\u0000\u20AC");
+        data.writeBoolean(true);
+        data.close();
+
+        bytes = out.toByteArray();
+    }
+
+    public void testSameAsDataInputStream() throws IOException {
+        DataInput expected = new DataInputStream(new ByteArrayInputStream(bytes));
+        DataInput actual = new ByteBufferDataInput(ByteBuffer.wrap(bytes));
+
+        assertEquals(expected.readUnsignedByte(), actual.readUnsignedByte());
+        assertEquals(expected.readShort(), actual.readShort());
+        assertEquals(expected.readChar(), actual.readChar());
+        assertEquals(expected.readInt(), actual.readInt());
+        assertEquals(expected.readLong(), actual.readLong());
+        assertEquals(expected.readFloat(), actual.readFloat());
+        assertEquals(expected.readDouble(), actual.readDouble());
+        assertEquals(expected.readUTF(), actual.readUTF());
+        assertEquals(expected.readBoolean(), actual.readBoolean());
+    }
+
+    public void testReadPastEnd() throws IOException {
+        DataInput actual = new ByteBufferDataInput(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+
+        assertEquals(0x0102, actual.readUnsignedShort());
+        try {
+            actual.readUnsignedShort();
+            fail("Read past the end of the buffer");
+        } catch (EOFException ex) {
+            // Expected
+        }
+    }
+
+    public void testReadFullyAndSkip() throws IOException {
+        DataInput actual = new ByteBufferDataInput(ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5}));
+
+        assertEquals(2, actual.skipBytes(2));
+
+        byte[] b = new byte[2];
+        actual.readFully(b);
+        assertEquals(3, b[0]);
+        assertEquals(4, b[1]);
+
+        assertEquals(1, actual.skipBytes(10));
+    }
+
+    public void testStartsAtBufferPosition() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.position(1);
+
+        assertEquals(-3, new ByteBufferDataInput(buffer).readShort());
+    }
+
+    public void testReadLine() throws IOException {
+        byte[] lines = "first\nsecond\r\nthird\rlast\u00E9".getBytes("ISO-8859-1");
+        DataInput expected = new DataInputStream(new ByteArrayInputStream(lines));
+        DataInput actual = new ByteBufferDataInput(ByteBuffer.wrap(lines));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("line " + i, expected.readLine(), actual.readLine());
+        }
+        assertNull("after last line", actual.readLine());
+    }
+}
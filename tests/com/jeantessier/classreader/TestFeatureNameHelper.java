@@ -0,0 +1,102 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader;
+
+import java.util.*;
+
+import junit.framework.*;
+
+import org.apache.oro.text.perl.*;
+
+public class TestFeatureNameHelper extends TestCase {
+    public void testGetClassNameOfMethod() {
+        assertEquals("a.A", FeatureNameHelper.getClassName("a.A.m()"));
+        assertEquals("a.A", FeatureNameHelper.getClassName("a.A.m(int)"));
+        assertEquals("a.A", FeatureNameHelper.getClassName("a.A.m(java.lang.String, java.lang.Object[])"));
+        assertEquals("a.A", FeatureNameHelper.getClassName("a.A.A(a.A)"));
+    }
+
+    public void testGetClassNameOfField() {
+        assertEquals("a.A", FeatureNameHelper.getClassName("a.A.f"));
+        assertEquals("A", FeatureNameHelper.getClassName("A.f"));
+    }
+
+    public void testGetClassNameOfStaticInitializer() {
+        assertEquals("a.A", FeatureNameHelper.getClassName("a.A.static {}"));
+    }
+
+    public void testGetClassNameOfUnqualifiedName() {
+        assertEquals("", FeatureNameHelper.getClassName("f"));
+        assertEquals("", FeatureNameHelper.getClassName("m()"));
+        assertEquals("", FeatureNameHelper.getClassName(""));
+    }
+
+    public void testGetMemberName() {
+        assertEquals("m", FeatureNameHelper.getMemberName("a.A.m(java.lang.String)"));
+        assertEquals("f", FeatureNameHelper.getMemberName("a.A.f"));
+        assertEquals("static", FeatureNameHelper.getMemberName("a.A.static {}"));
+        assertEquals("", FeatureNameHelper.getMemberName("f"));
+    }
+
+    public void testSameAsRegularExpressions() {
+        Perl5Util perl = new Perl5Util();
+        Random random = new Random(0);
+        char[] alphabet = {'a', 'b', '.', '.', '(', ')', ' '};
+
+        for (int i = 0; i < 10000; i++) {
+            StringBuffer buffer = new StringBuffer();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                buffer.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String name = buffer.toString();
+
+            String expectedClassName = "";
+            String expectedMemberName = "";
+            if (perl.match("/^(.*)\\.([^\\.]*)\\(.*\\)$/", name)) {
+                expectedClassName = perl.group(1);
+                expectedMemberName = perl.group(2);
+            } else if (perl.match("/^(.*)\\.(static) {}$/", name)) {
+                expectedClassName = perl.group(1);
+                expectedMemberName = perl.group(2);
+            } else if (perl.match("/^(.*)\\.([^\\.]*)$/", name)) {
+                expectedClassName = perl.group(1);
+                expectedMemberName = perl.group(2);
+            }
+
+            assertEquals("class name of \"" + name + "\"", expectedClassName, FeatureNameHelper.getClassName(name));
+            assertEquals("member name of \"" + name + "\"", expectedMemberName, FeatureNameHelper.getMemberName(name));
+        }
+    }
+}
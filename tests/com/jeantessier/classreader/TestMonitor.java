@@ -297,6 +297,28 @@ public class TestMonitor extends TestCase {
         assertAdditionsAndRemovals(1, 1);
     }
 
+    public void testRemovalWithAdditionalRemoveVisitor() {
+        MockRemoveVisitor additionalRemoveVisitor = new MockRemoveVisitor();
+        monitor.addRemoveVisitor(additionalRemoveVisitor);
+
+        monitor.beginSession(new LoadEvent(this, null, null, null));
+        monitor.beginGroup(new LoadEvent(this, null, null, null));
+        monitor.beginFile(new LoadEvent(this, null, TEST_FILENAME, null));
+        monitor.beginClassfile(new LoadEvent(this, null, TEST_FILENAME, null));
+        monitor.endClassfile(new LoadEvent(this, null, TEST_FILENAME, testClassfile));
+        monitor.endFile(new LoadEvent(this, null, TEST_FILENAME, null));
+        monitor.endGroup(new LoadEvent(this, null, null, null));
+        monitor.endSession(new LoadEvent(this, null, null, null));
+
+        monitor.beginSession(new LoadEvent(this, null, null, null));
+        monitor.beginGroup(new LoadEvent(this, null, null, null));
+        monitor.endGroup(new LoadEvent(this, null, null, null));
+        monitor.endSession(new LoadEvent(this, null, null, null));
+
+        assertAdditionsAndRemovals(1, 1);
+        assertEquals("additional removed", removeVisitor.getVisitedClasses(), additionalRemoveVisitor.getVisitedClasses());
+    }
+
     public void testSkip() {
         monitor.beginSession(new LoadEvent(this, null, null, null));
         monitor.beginGroup(new LoadEvent(this, null, null, null));
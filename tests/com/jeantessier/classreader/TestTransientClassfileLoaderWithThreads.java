@@ -0,0 +1,133 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.classreader;
+
+import java.io.*;
+import java.util.*;
+
+public class TestTransientClassfileLoaderWithThreads extends TestClassfileLoaderBase {
+    public static final String TEST_FILENAME = "classes" + File.separator + "test.class";
+    public static final String TEST_DIRNAME  = "classes" + File.separator + "testpackage";
+    public static final String TEST_ZIPNAME  = TEST_DIR + File.separator + "onelevel.zip";
+
+    private TransientClassfileLoader loader;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        loader = new TransientClassfileLoader(4);
+        loader.addLoadListener(this);
+    }
+
+    /**
+     *  With unordered delivery, this is called from the worker threads.
+     */
+    public synchronized void endClassfile(LoadEvent event) {
+        super.endClassfile(event);
+    }
+
+    public void testSetThreadsTooLow() {
+        try {
+            loader.setThreads(0);
+            fail("Accepted zero threads");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    public void testLoadClassFile() {
+        loader.load(Collections.singleton(TEST_FILENAME));
+
+        assertEquals("Begin Session",   1, getBeginSessionEvents().size());
+        assertEquals("Begin Group",     1, getBeginGroupEvents().size());
+        assertEquals("Begin File",      1, getBeginFileEvents().size());
+        assertEquals("Begin Classfile", 1, getBeginClassfileEvents().size());
+        assertEquals("End Classfile",   1, getEndClassfileEvents().size());
+        assertEquals("End File",        1, getEndFileEvents().size());
+        assertEquals("End Group",       1, getEndGroupEvents().size());
+        assertEquals("End Session",     1, getEndSessionEvents().size());
+
+        assertEquals(TEST_FILENAME, getEndClassfileEvents().getLast().getGroupName());
+        assertNotNull("Classfile", getEndClassfileEvents().getLast().getClassfile());
+    }
+
+    public void testLoadZipFileInOrder() {
+        loader.load(Collections.singleton(TEST_ZIPNAME));
+
+        assertEquals("Begin Group",      1, getBeginGroupEvents().size());
+        assertEquals("Begin File",      31, getBeginFileEvents().size());
+        assertEquals("Begin Classfile", 14, getBeginClassfileEvents().size());
+        assertEquals("End Classfile",   14, getEndClassfileEvents().size());
+        assertEquals("End File",        31, getEndFileEvents().size());
+        assertEquals("End Group",        1, getEndGroupEvents().size());
+
+        Iterator<LoadEvent> i = getBeginClassfileEvents().iterator();
+        for (LoadEvent endClassfileEvent : getEndClassfileEvents()) {
+            assertEquals("Filename", i.next().getFilename(), endClassfileEvent.getFilename());
+            assertNotNull("Classfile", endClassfileEvent.getClassfile());
+        }
+    }
+
+    public void testLoadDirectorySameAsSingleThread() {
+        loader.load(Collections.singleton(TEST_DIRNAME));
+
+        List<String> parallelClassNames = new ArrayList<String>();
+        for (LoadEvent event : getEndClassfileEvents()) {
+            parallelClassNames.add(event.getClassfile().getClassName());
+        }
+
+        getEndClassfileEvents().clear();
+
+        ClassfileLoader singleThreadedLoader = new TransientClassfileLoader();
+        singleThreadedLoader.addLoadListener(this);
+        singleThreadedLoader.load(Collections.singleton(TEST_DIRNAME));
+
+        List<String> singleThreadedClassNames = new ArrayList<String>();
+        for (LoadEvent event : getEndClassfileEvents()) {
+            singleThreadedClassNames.add(event.getClassfile().getClassName());
+        }
+
+        assertEquals("Class names", singleThreadedClassNames, parallelClassNames);
+    }
+
+    public void testLoadZipFileOutOfOrder() {
+        loader.setOrderedDelivery(false);
+
+        loader.load(Collections.singleton(TEST_ZIPNAME));
+
+        assertEquals("Begin Classfile", 14, getBeginClassfileEvents().size());
+        assertEquals("End Classfile",   14, getEndClassfileEvents().size());
+        assertEquals("End Group",        1, getEndGroupEvents().size());
+        assertEquals("End Session",      1, getEndSessionEvents().size());
+    }
+}
@@ -88,6 +88,10 @@ import static org.junit.runners.Suite.SuiteClasses;
         TestCustom_attribute.class,
         TestAttributeFactory.class,
         TestClass_info.class,
-        TestClassfile.class
+        TestClassfile.class,
+        TestLazyConstantPool.class,
+        TestConstantPoolEntryInput.class,
+        TestDependencyScanProfile.class,
+        TestCodeIterator.class
 })
 public class TestAll {}
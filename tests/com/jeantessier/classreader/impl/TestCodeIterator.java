@@ -0,0 +1,98 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader.impl;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+
+import com.jeantessier.classreader.AggregatingClassfileLoader;
+import com.jeantessier.classreader.Instruction;
+
+public class TestCodeIterator extends TestCase {
+    public static final String TEST_FILENAME = "classes" + File.separator + "test.class";
+
+    private Classfile classfile;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        DataInputStream in = new DataInputStream(new FileInputStream(TEST_FILENAME));
+        try {
+            classfile = new Classfile(new AggregatingClassfileLoader(), in);
+        } finally {
+            in.close();
+        }
+    }
+
+    public void testCursorReusesInstruction() {
+        Code_attribute code = getCode("main(java.lang.String[])");
+
+        Iterator<Instruction> i = code.instructionCursor();
+        Instruction first = i.next();
+        while (i.hasNext()) {
+            assertSame(first, i.next());
+        }
+    }
+
+    public void testCursorMatchesIterator() {
+        for (Method_info method : classfile.getAllMethods()) {
+            Code_attribute code = (Code_attribute) method.getCode();
+            if (code != null) {
+                Iterator<Instruction> expected = code.iterator();
+                Iterator<Instruction> actual = code.instructionCursor();
+
+                while (expected.hasNext()) {
+                    assertTrue(method + " has more instructions", actual.hasNext());
+
+                    Instruction expectedInstruction = expected.next();
+                    Instruction actualInstruction = actual.next();
+
+                    assertEquals(method + " start", expectedInstruction.getStart(), actualInstruction.getStart());
+                    assertEquals(method + " opcode", expectedInstruction.getOpcode(), actualInstruction.getOpcode());
+                    assertEquals(method + " length", expectedInstruction.getLength(), actualInstruction.getLength());
+                    assertEquals(method + " index", expectedInstruction.getIndex(), actualInstruction.getIndex());
+                    assertEquals(method + " instruction", expectedInstruction, actualInstruction);
+                }
+
+                assertFalse(method + " has extra instructions", actual.hasNext());
+            }
+        }
+    }
+
+    private Code_attribute getCode(String signature) {
+        return (Code_attribute) classfile.getMethod(signature).getCode();
+    }
+}
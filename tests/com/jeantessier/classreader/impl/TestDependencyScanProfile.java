@@ -0,0 +1,119 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader.impl;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+
+import com.jeantessier.classreader.ClassfileLoader;
+import com.jeantessier.classreader.AggregatingClassfileLoader;
+import com.jeantessier.classreader.ParsingProfile;
+import com.jeantessier.dependency.*;
+
+public class TestDependencyScanProfile extends TestCase {
+    public static final String TEST_FILENAME = "classes" + File.separator + "test.class";
+
+    private ClassfileLoader loader;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        loader = new AggregatingClassfileLoader();
+    }
+
+    public void testSkipsDebugAttributes() throws Exception {
+        Classfile full = load(ParsingProfile.FULL);
+        Classfile scan = load(ParsingProfile.DEPENDENCY_SCAN);
+
+        Code_attribute fullCode = getCode(full.getMethod("main(java.lang.String[])"));
+        Code_attribute scanCode = getCode(scan.getMethod("main(java.lang.String[])"));
+
+        assertFalse("full code attributes", fullCode.getAttributes().isEmpty());
+        assertTrue("scan code attributes " + scanCode.getAttributes(), scanCode.getAttributes().isEmpty());
+        for (Object attribute : scan.getAttributes()) {
+            assertFalse("source file", attribute instanceof SourceFile_attribute);
+        }
+    }
+
+    public void testKeepsBytecode() throws Exception {
+        Classfile full = load(ParsingProfile.FULL);
+        Classfile scan = load(ParsingProfile.DEPENDENCY_SCAN);
+
+        Code_attribute fullCode = getCode(full.getMethod("main(java.lang.String[])"));
+        Code_attribute scanCode = getCode(scan.getMethod("main(java.lang.String[])"));
+
+        assertTrue("bytecode", Arrays.equals(fullCode.getCode(), scanCode.getCode()));
+        assertEquals("exception handlers", fullCode.getExceptionHandlers().size(), scanCode.getExceptionHandlers().size());
+    }
+
+    public void testSameDependencies() throws Exception {
+        NodeFactory fullFactory = new NodeFactory();
+        load(ParsingProfile.FULL).accept(new CodeDependencyCollector(fullFactory));
+
+        NodeFactory scanFactory = new NodeFactory();
+        load(ParsingProfile.DEPENDENCY_SCAN).accept(new CodeDependencyCollector(scanFactory));
+
+        assertEquals("packages", fullFactory.getPackages().keySet(), scanFactory.getPackages().keySet());
+        assertEquals("classes", fullFactory.getClasses().keySet(), scanFactory.getClasses().keySet());
+        assertEquals("features", fullFactory.getFeatures().keySet(), scanFactory.getFeatures().keySet());
+        for (FeatureNode node : fullFactory.getFeatures().values()) {
+            assertEquals(node.getName() + " outbound", getNames(node.getOutboundDependencies()), getNames(scanFactory.getFeatures().get(node.getName()).getOutboundDependencies()));
+        }
+    }
+
+    private Collection<String> getNames(Collection<Node> nodes) {
+        Collection<String> result = new TreeSet<String>();
+
+        for (Node node : nodes) {
+            result.add(node.getName());
+        }
+
+        return result;
+    }
+
+    private Code_attribute getCode(com.jeantessier.classreader.Method_info method) {
+        return (Code_attribute) method.getCode();
+    }
+
+    private Classfile load(ParsingProfile profile) throws IOException {
+        DataInputStream in = new DataInputStream(new FileInputStream(TEST_FILENAME));
+        try {
+            return new DefaultClassfileFactory(profile).create(loader, in);
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.classreader.impl;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+
+import com.jeantessier.classreader.*;
+
+public class TestLazyConstantPool extends TestCase {
+    public static final String TEST_FILENAME = "classes" + File.separator + "test.class";
+    public static final String TEST_GENERIC_FILENAME = "classes" + File.separator + "testgenericclass.class";
+
+    private ClassfileLoader loader;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        loader = new AggregatingClassfileLoader();
+    }
+
+    public void testSameEntriesAsEagerPool() throws Exception {
+        assertSameEntries(TEST_FILENAME);
+        assertSameEntries(TEST_GENERIC_FILENAME);
+    }
+
+    public void testSameClassfile() throws Exception {
+        Classfile eager = load(TEST_FILENAME, false);
+        Classfile lazy = load(TEST_FILENAME, true);
+
+        assertEquals("class name", eager.getClassName(), lazy.getClassName());
+        assertEquals("superclass name", eager.getSuperclassName(), lazy.getSuperclassName());
+        assertEquals("methods", eager.getAllMethods().size(), lazy.getAllMethods().size());
+        assertEquals("toString()", eager.toString(), lazy.toString());
+    }
+
+    public void testEntriesAreDecodedOnlyOnce() throws Exception {
+        ConstantPool constantPool = (ConstantPool) load(TEST_FILENAME, true).getConstantPool();
+
+        for (int i = 1; i < constantPool.size(); i++) {
+            assertSame("entry " + i, constantPool.get(i), constantPool.get(i));
+        }
+    }
+
+    public void testIterationDecodesAllEntries() throws Exception {
+        ConstantPool eager = (ConstantPool) load(TEST_FILENAME, false).getConstantPool();
+        ConstantPool lazy = (ConstantPool) load(TEST_FILENAME, true).getConstantPool();
+
+        com.jeantessier.classreader.ConstantPoolEntry first = lazy.get(1);
+
+        Iterator<com.jeantessier.classreader.ConstantPoolEntry> expected = eager.iterator();
+        Iterator<com.jeantessier.classreader.ConstantPoolEntry> actual = lazy.iterator();
+        while (expected.hasNext()) {
+            assertTrue("missing entries", actual.hasNext());
+            assertEquals(String.valueOf(expected.next()), String.valueOf(actual.next()));
+        }
+        assertFalse("extra entries", actual.hasNext());
+
+        assertSame("decoded before iteration", first, lazy.get(1));
+    }
+
+    public void testChangingLazyPool() throws Exception {
+        ConstantPool lazy = (ConstantPool) load(TEST_FILENAME, true).getConstantPool();
+        int size = lazy.size();
+
+        lazy.add(null);
+
+        assertEquals("size", size + 1, lazy.size());
+        assertNotNull("entry 1", lazy.get(1));
+    }
+
+    private void assertSameEntries(String filename) throws IOException {
+        ConstantPool eager = (ConstantPool) load(filename, false).getConstantPool();
+        ConstantPool lazy = (ConstantPool) load(filename, true).getConstantPool();
+
+        assertEquals("size", eager.size(), lazy.size());
+        for (int i = 0; i < eager.size(); i++) {
+            Object expected = eager.get(i);
+            Object actual = lazy.get(i);
+
+            if (expected == null) {
+                assertNull("entry " + i, actual);
+            } else {
+                assertEquals("entry " + i + " class", expected.getClass(), actual.getClass());
+                assertEquals("entry " + i, expected.toString(), actual.toString());
+            }
+        }
+    }
+
+    private Classfile load(String filename, boolean lazyConstantPool) throws IOException {
+        DataInputStream in = new DataInputStream(new FileInputStream(filename));
+        try {
+            return new Classfile(loader, in, new AttributeFactory(), lazyConstantPool);
+        } finally {
+            in.close();
+        }
+    }
+}
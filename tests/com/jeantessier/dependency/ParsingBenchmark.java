@@ -0,0 +1,109 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+import com.jeantessier.classreader.*;
+
+/**
+ *  <p>Times how fast <code>.class</code> files go through
+ *  {@link CodeDependencyCollector}.  Not a unit test: run it by hand with
+ *  the JARs or directories to parse, after a few warm-up passes.</p>
+ *
+ *  <pre>
+ *  java com.jeantessier.dependency.ParsingBenchmark [-passes n] lib/guava.jar
+ *  </pre>
+ *
+ *  <p>Uses whatever <code>log4j.properties</code> is on the classpath.
+ *  The default one leaves the root logger at <code>ERROR</code>, which
+ *  measures parsing with logging disabled.</p>
+ */
+public class ParsingBenchmark {
+    private static final int DEFAULT_PASSES = 10;
+    private static final int WARM_UP_PASSES = 3;
+
+    public static void main(String[] args) throws Exception {
+        int passes = DEFAULT_PASSES;
+        List<String> filenames = new ArrayList<String>();
+
+        for (int i = 0; i < args.length; i++) {
+            if ("-passes".equals(args[i]) && i + 1 < args.length) {
+                passes = Integer.parseInt(args[++i]);
+            } else {
+                filenames.add(args[i]);
+            }
+        }
+
+        if (filenames.isEmpty()) {
+            System.err.println("USAGE: ParsingBenchmark [-passes n] filename ...");
+            System.exit(1);
+        }
+
+        long size = 0;
+        for (String filename : filenames) {
+            size += new File(filename).length();
+        }
+
+        for (int i = 0; i < WARM_UP_PASSES; i++) {
+            parse(filenames);
+        }
+
+        int classfiles = 0;
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < passes; i++) {
+            classfiles = parse(filenames);
+        }
+        long duration = Math.max(1, System.currentTimeMillis() - start);
+
+        System.out.println(classfiles + " classes, " + size + " bytes of input");
+        System.out.println((duration / passes) + " ms per pass");
+        System.out.println((classfiles * passes * 1000L / duration) + " classes/s");
+        System.out.println(String.format("%.1f MB/s", size * passes / 1024.0 / 1024.0 * 1000.0 / duration));
+    }
+
+    private static int parse(Collection<String> filenames) {
+        final int[] count = new int[1];
+
+        ClassfileLoader loader = new TransientClassfileLoader();
+        loader.addLoadListener(new LoadListenerVisitorAdapter(new CodeDependencyCollector(new NodeFactory())));
+        loader.addLoadListener(new LoadAdapter() {
+            public void endClassfile(LoadEvent event) {
+                count[0]++;
+            }
+        });
+        loader.load(filenames);
+
+        return count[0];
+    }
+}
@@ -39,8 +39,10 @@ import static org.junit.runners.Suite.*;
 @RunWith(Suite.class)
 @SuiteClasses({
         TestNodeFactory.class,
+        TestConcurrentNodeFactory.class,
         TestDeletingVisitor.class,
         TestNode.class,
+        TestNodeSet.class,
         TestPackageNode.class,
         TestClassNode.class,
         TestFeatureNode.class,
@@ -56,6 +58,8 @@ import static org.junit.runners.Suite.*;
         TestSelectiveVisitor.class,
         TestLinkMinimizer.class,
         TestLinkMinimizerSystematic.class,
+        TestBulkLinkMaximizer.class,
+        TestBulkLinkMinimizer.class,
         TestLinkMaximizer.class,
         TestLinkMaximizerSystematic.class,
         TestFeatureResolver.class,
@@ -66,10 +70,16 @@ import static org.junit.runners.Suite.*;
         TestNodeNamePrinter.class,
         TestNodeHandler.class,
         TestNodeLoader.class,
+        TestStreamingNodeLoader.class,
+        TestGraphSnapshotReader.class,
+        TestMappedGraph.class,
+        TestParallelGraphLoader.class,
+        TestGraphMerger.class,
         TestCodeDependencyCollector.class,
         TestCodeDependencyCollectorWithFiltering.class,
         TestCodeDependencyCollectorUsingMocks.class,
         TestDependencyExtractor.class,
+        TestDependencyExtractionCache.class,
         TestGraphCopier.class,
         TestGraphCopierWithFiltering.class,
         TestGraphCopierWithConfirmed.class,
@@ -80,9 +90,16 @@ import static org.junit.runners.Suite.*;
         TestCycle.class,
         TestCycleComparator.class,
         TestCycleDetector.class,
+        TestCycleEngine.class,
         TestTextCyclePrinter.class,
         TestHTMLCyclePrinter.class,
         TestXMLCyclePrinter.class,
+        TestComponentDetector.class,
+        TestTextComponentPrinter.class,
+        TestXMLComponentPrinter.class,
+        TestPathFinder.class,
+        TestTextPathPrinter.class,
+        TestReachabilityIndex.class,
         TestTransitiveClosure.class,
         TestTransitiveClosureWithTestClass.class,
         TestTransitiveClosureSlice.class,
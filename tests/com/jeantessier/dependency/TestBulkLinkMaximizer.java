@@ -0,0 +1,128 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestBulkLinkMaximizer extends TestCase {
+    public void testFeatureToFeature() {
+        NodeFactory factory = new NodeFactory();
+        Node a_A_a = factory.createFeature("a.A.a()");
+        Node b_B_b = factory.createFeature("b.B.b()");
+        a_A_a.addDependency(b_B_b);
+
+        new BulkLinkMaximizer().traverseNodes(factory.getPackages().values());
+
+        assertEquals("a", names("b", "b.B", "b.B.b()"), names(factory.createPackage("a").getOutboundDependencies()));
+        assertEquals("a.A", names("b", "b.B", "b.B.b()"), names(factory.createClass("a.A").getOutboundDependencies()));
+        assertEquals("a.A.a()", names("b", "b.B", "b.B.b()"), names(a_A_a.getOutboundDependencies()));
+        assertEquals("b.B.b()", names("a", "a.A", "a.A.a()"), names(b_B_b.getInboundDependencies()));
+    }
+
+    public void testWithinSamePackage() {
+        NodeFactory factory = new NodeFactory();
+        Node a_A_a = factory.createFeature("a.A.a()");
+        Node a_B_b = factory.createFeature("a.B.b()");
+        a_A_a.addDependency(a_B_b);
+
+        new BulkLinkMaximizer().traverseNodes(factory.getPackages().values());
+
+        assertEquals("a", names(), names(factory.createPackage("a").getOutboundDependencies()));
+        assertEquals("a.A", names("a.B", "a.B.b()"), names(factory.createClass("a.A").getOutboundDependencies()));
+        assertEquals("a.A.a()", names("a.B", "a.B.b()"), names(a_A_a.getOutboundDependencies()));
+    }
+
+    public void testSameAsLinkMaximizer() {
+        for (int seed = 0; seed < 10; seed++) {
+            NodeFactory expected = createRandomGraph(seed);
+            new LinkMaximizer().traverseNodes(expected.getPackages().values());
+
+            NodeFactory actual = createRandomGraph(seed);
+            new BulkLinkMaximizer().traverseNodes(actual.getPackages().values());
+
+            assertSameGraph("seed " + seed, expected, actual);
+        }
+    }
+
+    static NodeFactory createRandomGraph(int seed) {
+        Random random = new Random(seed);
+        NodeFactory factory = new NodeFactory();
+
+        List<Node> nodes = new ArrayList<Node>();
+        for (int i = 0; i < 40; i++) {
+            nodes.add(factory.createFeature("p" + random.nextInt(4) + ".C" + random.nextInt(6) + ".f" + random.nextInt(5)));
+        }
+        nodes.addAll(factory.getClasses().values());
+        nodes.addAll(factory.getPackages().values());
+
+        for (int i = 0; i < 80; i++) {
+            nodes.get(random.nextInt(nodes.size())).addDependency(nodes.get(random.nextInt(nodes.size())));
+        }
+
+        return factory;
+    }
+
+    static void assertSameGraph(String message, NodeFactory expected, NodeFactory actual) {
+        Map<String, Node> expectedNodes = getNodes(expected);
+        Map<String, Node> actualNodes = getNodes(actual);
+
+        assertEquals(message + " nodes", expectedNodes.keySet(), actualNodes.keySet());
+        for (Map.Entry<String, Node> entry : expectedNodes.entrySet()) {
+            Node actualNode = actualNodes.get(entry.getKey());
+            assertEquals(message + " " + entry.getKey() + " outbound", names(entry.getValue().getOutboundDependencies()), names(actualNode.getOutboundDependencies()));
+            assertEquals(message + " " + entry.getKey() + " inbound", names(entry.getValue().getInboundDependencies()), names(actualNode.getInboundDependencies()));
+        }
+    }
+
+    private static Map<String, Node> getNodes(NodeFactory factory) {
+        Map<String, Node> result = new TreeMap<String, Node>();
+        result.putAll(factory.getPackages());
+        result.putAll(factory.getClasses());
+        result.putAll(factory.getFeatures());
+        return result;
+    }
+
+    static Set<String> names(String ... names) {
+        return new TreeSet<String>(Arrays.asList(names));
+    }
+
+    static Set<String> names(Collection<? extends Node> nodes) {
+        Set<String> result = new TreeSet<String>();
+        for (Node node : nodes) {
+            result.add(node.getName());
+        }
+        return result;
+    }
+}
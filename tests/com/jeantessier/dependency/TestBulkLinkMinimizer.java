@@ -0,0 +1,93 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import junit.framework.*;
+
+public class TestBulkLinkMinimizer extends TestCase {
+    public void testMaximizedFeatureToFeature() {
+        NodeFactory factory = new NodeFactory();
+        Node a_A_a = factory.createFeature("a.A.a()");
+        Node b_B_b = factory.createFeature("b.B.b()");
+        a_A_a.addDependency(b_B_b);
+        new LinkMaximizer().traverseNodes(factory.getPackages().values());
+
+        new BulkLinkMinimizer().traverseNodes(factory.getPackages().values());
+
+        assertEquals("a", TestBulkLinkMaximizer.names(), TestBulkLinkMaximizer.names(factory.createPackage("a").getOutboundDependencies()));
+        assertEquals("a.A", TestBulkLinkMaximizer.names(), TestBulkLinkMaximizer.names(factory.createClass("a.A").getOutboundDependencies()));
+        assertEquals("a.A.a()", TestBulkLinkMaximizer.names("b.B.b()"), TestBulkLinkMaximizer.names(a_A_a.getOutboundDependencies()));
+        assertEquals("b.B.b()", TestBulkLinkMaximizer.names("a.A.a()"), TestBulkLinkMaximizer.names(b_B_b.getInboundDependencies()));
+    }
+
+    public void testKeepsDependencyWithoutFinerOne() {
+        NodeFactory factory = new NodeFactory();
+        Node a_A = factory.createClass("a.A");
+        Node b_B = factory.createClass("b.B");
+        a_A.addDependency(b_B);
+        factory.createFeature("a.A.a()").addDependency(factory.createFeature("b.C.c()"));
+        factory.createPackage("a").addDependency(factory.createPackage("c"));
+
+        new BulkLinkMinimizer().traverseNodes(factory.getPackages().values());
+
+        assertEquals("a", TestBulkLinkMaximizer.names("c"), TestBulkLinkMaximizer.names(factory.createPackage("a").getOutboundDependencies()));
+        assertEquals("a.A", TestBulkLinkMaximizer.names("b.B"), TestBulkLinkMaximizer.names(a_A.getOutboundDependencies()));
+        assertEquals("a.A.a()", TestBulkLinkMaximizer.names("b.C.c()"), TestBulkLinkMaximizer.names(factory.createFeature("a.A.a()").getOutboundDependencies()));
+    }
+
+    public void testSameAsLinkMinimizer() {
+        for (int seed = 0; seed < 10; seed++) {
+            NodeFactory expected = TestBulkLinkMaximizer.createRandomGraph(seed);
+            new LinkMinimizer().traverseNodes(expected.getPackages().values());
+
+            NodeFactory actual = TestBulkLinkMaximizer.createRandomGraph(seed);
+            new BulkLinkMinimizer().traverseNodes(actual.getPackages().values());
+
+            TestBulkLinkMaximizer.assertSameGraph("seed " + seed, expected, actual);
+        }
+    }
+
+    public void testSameAsLinkMinimizerOnMaximizedGraph() {
+        for (int seed = 0; seed < 10; seed++) {
+            NodeFactory expected = TestBulkLinkMaximizer.createRandomGraph(seed);
+            new LinkMaximizer().traverseNodes(expected.getPackages().values());
+            new LinkMinimizer().traverseNodes(expected.getPackages().values());
+
+            NodeFactory actual = TestBulkLinkMaximizer.createRandomGraph(seed);
+            new BulkLinkMaximizer().traverseNodes(actual.getPackages().values());
+            new BulkLinkMinimizer().traverseNodes(actual.getPackages().values());
+
+            TestBulkLinkMaximizer.assertSameGraph("seed " + seed, expected, actual);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestComponentDetector extends TestCase {
+    private NodeFactory factory;
+
+    private Node a_package;
+    private Node a_A_class;
+    private Node a_A_a_feature;
+
+    private Node b_package;
+    private Node b_B_class;
+    private Node b_B_b_feature;
+
+    private Node c_package;
+
+    private ComponentDetector detector;
+
+    protected void setUp() throws Exception {
+        factory = new NodeFactory();
+
+        a_package = factory.createPackage("a");
+        a_A_class = factory.createClass("a.A");
+        a_A_a_feature = factory.createFeature("a.A.a");
+
+        b_package = factory.createPackage("b");
+        b_B_class = factory.createClass("b.B");
+        b_B_b_feature = factory.createFeature("b.B.b");
+
+        c_package = factory.createPackage("c");
+
+        detector = new ComponentDetector(createLevelCriteria(true, false, false));
+    }
+
+    public void testNoDependencies() {
+        detector.traverseNodes(factory.getPackages().values());
+
+        assertEquals("components", "[#0 [a], #1 [b], #2 [c]]", detector.getComponents().toString());
+        for (StronglyConnectedComponent component : detector.getComponents()) {
+            assertFalse(component + " is cyclic", component.isCyclic());
+            assertEquals(component + " dependencies", 0, component.getDependencies().size());
+        }
+    }
+
+    public void testAllLevels() {
+        detector = new ComponentDetector();
+        detector.traverseNodes(factory.getPackages().values());
+
+        assertEquals("Nb components", 7, detector.getComponents().size());
+    }
+
+    public void testOneLength2PackageCycle() {
+        a_package.addDependency(b_package);
+        b_package.addDependency(a_package);
+        detector.traverseNodes(factory.getPackages().values());
+
+        assertEquals("components", "[#0 [a, b], #1 [c]]", detector.getComponents().toString());
+        assertTrue("cyclic", detector.getComponents().get(0).isCyclic());
+        assertEquals("size", 2, detector.getComponents().get(0).getSize());
+    }
+
+    public void testTopologicalOrder() {
+        c_package.addDependency(b_package);
+        b_package.addDependency(a_package);
+        detector.traverseNodes(factory.getPackages().values());
+
+        List<StronglyConnectedComponent> components = detector.getComponents();
+        assertEquals("components", "[#0 [c], #1 [b], #2 [a]]", components.toString());
+        assertEquals("#0 dependencies", Collections.singletonList(components.get(1)), components.get(0).getDependencies());
+        assertEquals("#1 dependencies", Collections.singletonList(components.get(2)), components.get(1).getDependencies());
+        assertEquals("#2 dependencies", 0, components.get(2).getDependencies().size());
+    }
+
+    public void testRollUpToPackages() {
+        a_A_a_feature.addDependency(b_B_b_feature);
+        b_B_class.addDependency(a_package);
+        detector.traverseNodes(factory.getPackages().values());
+
+        assertEquals("components", "[#0 [a, b], #1 [c]]", detector.getComponents().toString());
+    }
+
+    public void testRollUpToClasses() {
+        a_A_a_feature.addDependency(b_B_b_feature);
+        b_B_b_feature.addDependency(a_package);
+
+        detector = new ComponentDetector(createLevelCriteria(false, true, false));
+        detector.traverseNodes(factory.getPackages().values());
+
+        assertEquals("components", "[#0 [a.A], #1 [b.B]]", detector.getComponents().toString());
+    }
+
+    public void testFeatureCycle() {
+        a_A_a_feature.addDependency(b_B_b_feature);
+        b_B_b_feature.addDependency(a_A_a_feature);
+
+        detector = new ComponentDetector(createLevelCriteria(false, false, true));
+        detector.traverseNodes(factory.getPackages().values());
+
+        assertEquals("components", "[#0 [a.A.a, b.B.b]]", detector.getComponents().toString());
+    }
+
+    public void testCondensedDependenciesAreUnique() {
+        a_package.addDependency(c_package);
+        a_A_a_feature.addDependency(c_package);
+        b_B_class.addDependency(c_package);
+        a_package.addDependency(b_package);
+        b_package.addDependency(a_package);
+        detector.traverseNodes(factory.getPackages().values());
+
+        List<StronglyConnectedComponent> components = detector.getComponents();
+        assertEquals("components", "[#0 [a, b], #1 [c]]", components.toString());
+        assertEquals("#0 dependencies", Collections.singletonList(components.get(1)), components.get(0).getDependencies());
+    }
+
+    public void testExcludedNodesBreakCycles() {
+        a_package.addDependency(b_package);
+        b_package.addDependency(c_package);
+        c_package.addDependency(a_package);
+
+        RegularExpressionSelectionCriteria criteria = createLevelCriteria(true, false, false);
+        criteria.setGlobalExcludes("/^b/");
+        detector = new ComponentDetector(criteria);
+        detector.traverseNodes(factory.getPackages().values());
+
+        assertEquals("components", "[#0 [c], #1 [a]]", detector.getComponents().toString());
+    }
+
+    public void testSameAsMutualReachabilityOnRandomGraphs() {
+        Random random = new Random(0);
+        int nbGraphsWithCycles = 0;
+
+        for (int i = 0; i < 100; i++) {
+            factory = new NodeFactory();
+            List<Node> nodes = new ArrayList<Node>();
+            for (int p = 0; p < 4; p++) {
+                nodes.add(factory.createPackage("p" + p));
+                for (int c = 0; c < 3; c++) {
+                    nodes.add(factory.createClass("p" + p + ".C" + c));
+                    for (int f = 0; f < 2; f++) {
+                        nodes.add(factory.createFeature("p" + p + ".C" + c + ".f" + f));
+                    }
+                }
+            }
+
+            int nbDependencies = random.nextInt(30);
+            for (int j = 0; j < nbDependencies; j++) {
+                nodes.get(random.nextInt(nodes.size())).addDependency(nodes.get(random.nextInt(nodes.size())));
+            }
+
+            boolean packages = random.nextBoolean();
+            boolean classes = random.nextBoolean();
+            boolean features = random.nextBoolean();
+
+            detector = new ComponentDetector(createLevelCriteria(packages, classes, features));
+            detector.traverseNodes(factory.getPackages().values());
+
+            List<Node> vertices = new ArrayList<Node>();
+            for (Node node : nodes) {
+                if ((packages && node instanceof PackageNode) || (classes && node instanceof ClassNode) || (features && node instanceof FeatureNode)) {
+                    vertices.add(node);
+                }
+            }
+            boolean[][] reachable = computeReachability(nodes, vertices);
+
+            Map<Node, StronglyConnectedComponent> components = new HashMap<Node, StronglyConnectedComponent>();
+            for (StronglyConnectedComponent component : detector.getComponents()) {
+                for (Node node : component.getNodes()) {
+                    assertNull("graph " + i + ": " + node + " in two components", components.put(node, component));
+                }
+                for (StronglyConnectedComponent dependency : component.getDependencies()) {
+                    assertTrue("graph " + i + ": " + component + " depends on " + dependency, dependency.getId() > component.getId());
+                }
+                if (component.isCyclic()) {
+                    nbGraphsWithCycles++;
+                }
+            }
+            assertEquals("graph " + i + " nodes", vertices.size(), components.size());
+
+            for (int x = 0; x < vertices.size(); x++) {
+                for (int y = 0; y < vertices.size(); y++) {
+                    boolean together = components.get(vertices.get(x)) == components.get(vertices.get(y));
+                    assertEquals("graph " + i + ": " + vertices.get(x) + " and " + vertices.get(y), x == y || (reachable[x][y] && reachable[y][x]), together);
+                }
+            }
+        }
+
+        assertTrue("Too few graphs with cycles: " + nbGraphsWithCycles, nbGraphsWithCycles > 20);
+    }
+
+    private boolean[][] computeReachability(List<Node> nodes, List<Node> vertices) {
+        int size = vertices.size();
+        boolean[][] result = new boolean[size][size];
+
+        for (Node node : nodes) {
+            int source = vertices.indexOf(rollUp(node, vertices));
+            if (source != -1) {
+                for (Node dependency : node.getOutboundDependencies()) {
+                    int destination = vertices.indexOf(rollUp(dependency, vertices));
+                    if (destination != -1) {
+                        result[source][destination] = true;
+                    }
+                }
+            }
+        }
+
+        for (int k = 0; k < size; k++) {
+            for (int x = 0; x < size; x++) {
+                for (int y = 0; y < size; y++) {
+                    result[x][y] |= result[x][k] && result[k][y];
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private Node rollUp(Node node, List<Node> vertices) {
+        Node result = node;
+
+        if (!vertices.contains(result) && result instanceof FeatureNode) {
+            result = ((FeatureNode) result).getClassNode();
+        }
+
+        if (!vertices.contains(result) && result instanceof ClassNode) {
+            result = ((ClassNode) result).getPackageNode();
+        }
+
+        return result;
+    }
+
+    private RegularExpressionSelectionCriteria createLevelCriteria(boolean packages, boolean classes, boolean features) {
+        RegularExpressionSelectionCriteria result = new RegularExpressionSelectionCriteria("//");
+
+        result.setMatchingPackages(packages);
+        result.setMatchingClasses(classes);
+        result.setMatchingFeatures(features);
+
+        return result;
+    }
+}
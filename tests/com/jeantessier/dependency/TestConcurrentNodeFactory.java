@@ -0,0 +1,118 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestConcurrentNodeFactory extends TestCase {
+    private static final int NB_THREADS = 8;
+    static final int NB_FEATURES = 500;
+
+    private NodeFactory factory;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        factory = new ConcurrentNodeFactory();
+    }
+
+    public void testCreateFeature() {
+        FeatureNode node = factory.createFeature("a.A.a(int)");
+
+        assertEquals("name", "a.A.a(int)", node.getName());
+        assertEquals("class name", "a.A", node.getClassNode().getName());
+        assertEquals("package name", "a", node.getClassNode().getPackageNode().getName());
+        assertTrue("class missing feature", node.getClassNode().getFeatures().contains(node));
+        assertTrue("package missing class", node.getClassNode().getPackageNode().getClasses().contains(node.getClassNode()));
+    }
+
+    public void testLookupFeature() {
+        Node node1 = factory.createFeature("a.A.a");
+        Node node2 = factory.createFeature("a.A.a");
+
+        assertSame("factory returned different object for same key", node1, node2);
+    }
+
+    public void testConfirmFeature() {
+        factory.createFeature("a.A.a");
+        FeatureNode node = factory.createFeature("a.A.a", true);
+
+        assertTrue("feature not confirmed", node.isConfirmed());
+        assertTrue("class not confirmed", node.getClassNode().isConfirmed());
+        assertTrue("package not confirmed", node.getClassNode().getPackageNode().isConfirmed());
+    }
+
+    public void testCreateFromManyThreads() throws InterruptedException {
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i=0; i<NB_THREADS; i++) {
+            threads.add(new Thread(new FeatureCreator(factory)));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals("packages", 11, factory.getPackages().size());
+        assertEquals("features", NB_FEATURES, factory.getFeatures().size());
+
+        int nbFeatures = 0;
+        for (ClassNode classNode : factory.getClasses().values()) {
+            nbFeatures += classNode.getFeatures().size();
+        }
+        assertEquals("features in classes", NB_FEATURES, nbFeatures);
+
+        FeatureNode target = factory.getFeatures().get("target.Target.target");
+        assertEquals("inbounds", NB_FEATURES - 1, target.getInboundDependencies().size());
+    }
+}
+
+class FeatureCreator implements Runnable {
+    private NodeFactory factory;
+
+    public FeatureCreator(NodeFactory factory) {
+        this.factory = factory;
+    }
+
+    public void run() {
+        for (int i=1; i<TestConcurrentNodeFactory.NB_FEATURES; i++) {
+            FeatureNode feature = factory.createFeature("p" + (i % 10) + ".C" + (i % 50) + ".f" + i + "()", true);
+            feature.addDependency(factory.createFeature("target.Target.target"));
+        }
+    }
+}
@@ -201,4 +201,25 @@ public class TestCycleDetector extends TestCase {
         assertEquals("a.A.a", a_A_a_feature, i.next());
         assertEquals("b.B.b", b_B_b_feature, i.next());
     }
+
+    public void testLongCycleDoesNotOverflowTheStack() {
+        int length = 100000;
+
+        Node previous = factory.createFeature("a.A.a");
+        for (int i=1; i<length; i++) {
+            Node next = factory.createFeature("b.B.b" + i);
+            previous.addDependency(next);
+            previous = next;
+        }
+        previous.addDependency(a_A_a_feature);
+
+        RegularExpressionSelectionCriteria criteria = new RegularExpressionSelectionCriteria("/^a.A.a$/");
+        criteria.setMatchingPackages(false);
+        criteria.setMatchingClasses(false);
+        detector = new CycleDetector(criteria);
+        detector.traverseNodes(factory.getPackages().values());
+
+        assertEquals("Nb cycles", 1, detector.getCycles().size());
+        assertEquals("cycle length", length, detector.getCycles().iterator().next().getLength());
+    }
 }
@@ -0,0 +1,273 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestCycleEngine extends TestCase {
+    private NodeFactory factory;
+
+    private Node a_package;
+    private Node a_A_a_feature;
+
+    private Node b_package;
+    private Node b_B_b_feature;
+
+    private Node c_package;
+    private Node d_package;
+    private Node e_package;
+
+    private CycleEngine detector;
+
+    protected void setUp() throws Exception {
+        factory = new NodeFactory();
+
+        a_package = factory.createPackage("a");
+        a_A_a_feature = factory.createFeature("a.A.a");
+
+        b_package = factory.createPackage("b");
+        b_B_b_feature = factory.createFeature("b.B.b");
+
+        c_package = factory.createPackage("c");
+        d_package = factory.createPackage("d");
+        e_package = factory.createPackage("e");
+
+        detector = new CycleEngine();
+    }
+
+    public void testNoDependencies() {
+        detector.traverseNodes(factory.getPackages().values());
+        assertEquals("Nb cycles", 0, detector.getCycles().size());
+    }
+
+    public void testNoCycles() {
+        a_package.addDependency(b_package);
+        detector.traverseNodes(factory.getPackages().values());
+        assertEquals("Nb cycles", 0, detector.getCycles().size());
+    }
+
+    public void testOneLength2PackageCycle() {
+        a_package.addDependency(b_package);
+        b_package.addDependency(a_package);
+        detector.traverseNodes(factory.getPackages().values());
+        assertEquals("Nb cycles", 1, detector.getCycles().size());
+
+        Iterator cycles = detector.getCycles().iterator();
+
+        Cycle cycle = (Cycle) cycles.next();
+        assertEquals("cycle length", 2, cycle.getLength());
+        Iterator i = cycle.getPath().iterator();
+        assertEquals("a", a_package, i.next());
+        assertEquals("b", b_package, i.next());
+    }
+
+    public void testOneLength3PackageCycle() {
+        a_package.addDependency(b_package);
+        b_package.addDependency(c_package);
+        c_package.addDependency(a_package);
+        detector.traverseNodes(factory.getPackages().values());
+        assertEquals("Nb cycles", 1, detector.getCycles().size());
+
+        Iterator cycles = detector.getCycles().iterator();
+
+        Cycle cycle = (Cycle) cycles.next();
+        assertEquals("cycle length", 3, cycle.getLength());
+        Iterator i = cycle.getPath().iterator();
+        assertEquals("a", a_package, i.next());
+        assertEquals("b", b_package, i.next());
+        assertEquals("c", c_package, i.next());
+    }
+
+    public void testTwoLength3PackageCycles() {
+        a_package.addDependency(b_package);
+        b_package.addDependency(c_package);
+        c_package.addDependency(a_package);
+        c_package.addDependency(d_package);
+        d_package.addDependency(e_package);
+        e_package.addDependency(c_package);
+        detector.traverseNodes(factory.getPackages().values());
+        assertEquals("Nb cycles", 2, detector.getCycles().size());
+
+        Iterator cycles = detector.getCycles().iterator();
+
+        Cycle cycle;
+        Iterator i;
+
+        cycle = (Cycle) cycles.next();
+        assertEquals("cycle length", 3, cycle.getLength());
+        i = cycle.getPath().iterator();
+        assertEquals("a", a_package, i.next());
+        assertEquals("b", b_package, i.next());
+        assertEquals("c", c_package, i.next());
+
+        cycle = (Cycle) cycles.next();
+        assertEquals("cycle length", 3, cycle.getLength());
+        i = cycle.getPath().iterator();
+        assertEquals("c", c_package, i.next());
+        assertEquals("d", d_package, i.next());
+        assertEquals("e", e_package, i.next());
+    }
+
+    public void testOneLength2AndOneLength3PackageCycles() {
+        a_package.addDependency(b_package);
+        b_package.addDependency(a_package);
+        c_package.addDependency(d_package);
+        d_package.addDependency(e_package);
+        e_package.addDependency(c_package);
+        detector.traverseNodes(factory.getPackages().values());
+        assertEquals("Nb cycles", 2, detector.getCycles().size());
+
+        Iterator cycles = detector.getCycles().iterator();
+
+        Cycle cycle;
+        Iterator i;
+
+        cycle = (Cycle) cycles.next();
+        assertEquals("cycle length", 2, cycle.getLength());
+        i = cycle.getPath().iterator();
+        assertEquals("a", a_package, i.next());
+        assertEquals("b", b_package, i.next());
+
+        cycle = (Cycle) cycles.next();
+        assertEquals("cycle length", 3, cycle.getLength());
+        i = cycle.getPath().iterator();
+        assertEquals("c", c_package, i.next());
+        assertEquals("d", d_package, i.next());
+        assertEquals("e", e_package, i.next());
+    }
+
+    public void testMaximumLength() {
+        a_package.addDependency(b_package);
+        b_package.addDependency(a_package);
+        c_package.addDependency(d_package);
+        d_package.addDependency(e_package);
+        e_package.addDependency(c_package);
+        detector.setMaximumCycleLength(2);
+        detector.traverseNodes(factory.getPackages().values());
+        assertEquals("Nb cycles", 1, detector.getCycles().size());
+
+        Iterator cycles = detector.getCycles().iterator();
+
+        Cycle cycle = (Cycle) cycles.next();
+        assertEquals("cycle length", 2, cycle.getLength());
+        Iterator i = cycle.getPath().iterator();
+        assertEquals("a", a_package, i.next());
+        assertEquals("b", b_package, i.next());
+    }
+
+    public void testOneLength2FeatureCycle() {
+        a_A_a_feature.addDependency(b_B_b_feature);
+        b_B_b_feature.addDependency(a_A_a_feature);
+        detector.traverseNodes(factory.getPackages().values());
+        assertEquals("Nb cycles", 1, detector.getCycles().size());
+
+        Iterator cycles = detector.getCycles().iterator();
+
+        Cycle cycle = (Cycle) cycles.next();
+        assertEquals("cycle length", 2, cycle.getLength());
+        Iterator i = cycle.getPath().iterator();
+        assertEquals("a.A.a", a_A_a_feature, i.next());
+        assertEquals("b.B.b", b_B_b_feature, i.next());
+    }
+
+    public void testCycleThroughClassesOfPackage() {
+        a_package.addDependency(b_package);
+        b_B_b_feature.addDependency(a_package);
+        detector.traverseNodes(factory.getPackages().values());
+
+        assertEquals(toString(findCyclesTheOldWay(new ComprehensiveSelectionCriteria(), Integer.MAX_VALUE)), toString(detector.getCycles()));
+        assertEquals("Nb cycles", 1, detector.getCycles().size());
+    }
+
+    public void testSameAsCycleDetectorOnRandomGraphs() {
+        Random random = new Random(0);
+        int nbGraphsWithCycles = 0;
+
+        for (int i = 0; i < 200; i++) {
+            factory = new NodeFactory();
+            List<Node> nodes = new ArrayList<Node>();
+            for (int p = 0; p < 3; p++) {
+                nodes.add(factory.createPackage("p" + p));
+                for (int c = 0; c < 2; c++) {
+                    nodes.add(factory.createClass("p" + p + ".C" + c));
+                    for (int f = 0; f < 2; f++) {
+                        nodes.add(factory.createFeature("p" + p + ".C" + c + ".f" + f));
+                    }
+                }
+            }
+
+            int nbDependencies = random.nextInt(20);
+            for (int j = 0; j < nbDependencies; j++) {
+                nodes.get(random.nextInt(nodes.size())).addDependency(nodes.get(random.nextInt(nodes.size())));
+            }
+
+            RegularExpressionSelectionCriteria criteria = new RegularExpressionSelectionCriteria("//");
+            criteria.setMatchingPackages(random.nextBoolean());
+            criteria.setMatchingClasses(random.nextBoolean());
+            criteria.setMatchingFeatures(random.nextBoolean());
+            if (random.nextBoolean()) {
+                criteria.setGlobalExcludes("/p1/");
+            }
+
+            int maximumCycleLength = random.nextBoolean() ? Integer.MAX_VALUE : 1 + random.nextInt(5);
+
+            detector = new CycleEngine(criteria);
+            detector.setMaximumCycleLength(maximumCycleLength);
+            detector.traverseNodes(factory.getPackages().values());
+
+            assertEquals("graph " + i, toString(findCyclesTheOldWay(criteria, maximumCycleLength)), toString(detector.getCycles()));
+            if (!detector.getCycles().isEmpty()) {
+                nbGraphsWithCycles++;
+            }
+        }
+
+        assertTrue("Too few graphs with cycles: " + nbGraphsWithCycles, nbGraphsWithCycles > 20);
+    }
+
+    private Collection<Cycle> findCyclesTheOldWay(SelectionCriteria criteria, int maximumCycleLength) {
+        CycleDetector oldDetector = new CycleDetector(criteria);
+        oldDetector.setMaximumCycleLength(maximumCycleLength);
+        oldDetector.traverseNodes(factory.getPackages().values());
+        return oldDetector.getCycles();
+    }
+
+    private static List<String> toString(Collection<Cycle> cycles) {
+        List<String> result = new ArrayList<String>();
+        for (Cycle cycle : cycles) {
+            result.add(cycle.toString());
+        }
+        return result;
+    }
+}
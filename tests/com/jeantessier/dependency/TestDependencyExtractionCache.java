@@ -0,0 +1,190 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+
+import com.jeantessier.classreader.*;
+
+public class TestDependencyExtractionCache extends TestCase {
+    public static final String TEST_DIRNAME = "classes";
+
+    private File cacheFile;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        cacheFile = File.createTempFile("TestDependencyExtractionCache", ".bin");
+        cacheFile.delete();
+    }
+
+    protected void tearDown() throws Exception {
+        cacheFile.delete();
+
+        super.tearDown();
+    }
+
+    public void testRecordSameAsCollector() throws IOException {
+        NodeFactory expected = collect(new ComprehensiveSelectionCriteria());
+
+        NodeFactory actual = new NodeFactory();
+        DependencyExtractionCache cache = extract(actual, new ComprehensiveSelectionCriteria());
+
+        assertTrue("nothing recorded", cache.getRecordCount() > 0);
+        assertEquals("replay count", 0, cache.getReplayCount());
+        assertEquals(describe(expected), describe(actual));
+    }
+
+    public void testReplaySameAsCollector() throws IOException {
+        extract(new NodeFactory(), new ComprehensiveSelectionCriteria());
+
+        NodeFactory expected = collect(new ComprehensiveSelectionCriteria());
+
+        NodeFactory actual = new NodeFactory();
+        DependencyExtractionCache cache = extract(actual, new ComprehensiveSelectionCriteria());
+
+        assertEquals("record count", 0, cache.getRecordCount());
+        assertTrue("nothing replayed", cache.getReplayCount() > 0);
+        assertEquals(describe(expected), describe(actual));
+    }
+
+    public void testReplayWithDifferentFilter() throws IOException {
+        extract(new NodeFactory(), new ComprehensiveSelectionCriteria());
+
+        RegularExpressionSelectionCriteria filterCriteria = new RegularExpressionSelectionCriteria("//");
+        filterCriteria.setGlobalExcludes("/java.lang/");
+
+        NodeFactory expected = collect(filterCriteria);
+
+        NodeFactory actual = new NodeFactory();
+        DependencyExtractionCache cache = extract(actual, filterCriteria);
+
+        assertEquals("record count", 0, cache.getRecordCount());
+        assertEquals(describe(expected), describe(actual));
+    }
+
+    public void testChangedClassfileIsParsedAgain() throws IOException {
+        DependencyExtractionCache cache = new DependencyExtractionCache(new NodeFactory());
+        cache.record("test.class", 1, loadTestClass());
+
+        assertFalse("replayed different content", cache.replay("test.class", 2));
+        assertFalse("replayed different file", cache.replay("other.class", 1));
+    }
+
+    public void testOnlyUsedEntriesAreSaved() throws IOException {
+        DependencyExtractionCache cache = new DependencyExtractionCache(new NodeFactory());
+        cache.record("test.class", 1, loadTestClass());
+        cache.save(cacheFile);
+
+        cache = new DependencyExtractionCache(new NodeFactory());
+        cache.load(cacheFile);
+        cache.save(cacheFile);
+
+        cache = new DependencyExtractionCache(new NodeFactory());
+        cache.load(cacheFile);
+        assertFalse("unused entry was kept", cache.replay("test.class", 1));
+    }
+
+    public void testIgnoresForeignFile() throws IOException {
+        FileOutputStream out = new FileOutputStream(cacheFile);
+        out.write("not a cache".getBytes());
+        out.close();
+
+        NodeFactory factory = new NodeFactory();
+        DependencyExtractionCache cache = new DependencyExtractionCache(factory);
+        cache.load(cacheFile);
+
+        assertFalse("replayed from foreign file", cache.replay("test.class", 1));
+        assertTrue("factory was modified", factory.getPackages().isEmpty());
+    }
+
+    private Classfile loadTestClass() {
+        ClassfileLoader loader = new AggregatingClassfileLoader();
+        loader.load(Collections.singleton(TEST_DIRNAME + File.separator + "test.class"));
+        return loader.getClassfile("test");
+    }
+
+    private NodeFactory collect(SelectionCriteria filterCriteria) {
+        NodeFactory result = new NodeFactory();
+
+        ClassfileLoader loader = new TransientClassfileLoader();
+        loader.addLoadListener(new LoadListenerVisitorAdapter(new CodeDependencyCollector(result, filterCriteria)));
+        loader.load(Collections.singleton(TEST_DIRNAME));
+
+        return result;
+    }
+
+    private DependencyExtractionCache extract(NodeFactory factory, SelectionCriteria filterCriteria) throws IOException {
+        DependencyExtractionCache result = new DependencyExtractionCache(factory, filterCriteria);
+        result.load(cacheFile);
+
+        TransientClassfileLoader loader = new TransientClassfileLoader();
+        loader.setExtractionCache(result);
+        loader.load(Collections.singleton(TEST_DIRNAME));
+
+        result.save(cacheFile);
+
+        return result;
+    }
+
+    private static List<String> describe(NodeFactory factory) {
+        List<String> result = new ArrayList<String>();
+
+        describe(result, factory.getPackages().values());
+        describe(result, factory.getClasses().values());
+        describe(result, factory.getFeatures().values());
+
+        for (ClassNode node : factory.getClasses().values()) {
+            for (ClassNode parent : node.getParents()) {
+                result.add(node.getName() + " extends " + parent.getName());
+            }
+        }
+
+        Collections.sort(result);
+
+        return result;
+    }
+
+    private static void describe(List<String> result, Collection<? extends Node> nodes) {
+        for (Node node : nodes) {
+            result.add(node.getName() + (node.isConfirmed() ? " (confirmed)" : ""));
+            for (Node other : node.getOutboundDependencies()) {
+                result.add(node.getName() + " --> " + other.getName());
+            }
+        }
+    }
+}
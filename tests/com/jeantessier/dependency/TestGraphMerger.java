@@ -0,0 +1,192 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestGraphMerger extends TestCase {
+    public void testMergeIntoEmptyFactory() {
+        NodeFactory source = new NodeFactory();
+        Node a_A_a = source.createFeature("a.A.a()", true);
+        Node b_B = source.createClass("b.B");
+        a_A_a.addDependency(b_B);
+        b_B.addDependency(source.createPackage("c"));
+
+        GraphMerger merger = new GraphMerger();
+        merger.merge(source);
+
+        assertEquals("graph", print(source), print(merger.getFactory()));
+        assertNotSame("a.A.a()", a_A_a, merger.getFactory().getFeatures().get("a.A.a()"));
+        assertTrue("inbound", merger.getFactory().getPackages().get("c").getInboundDependencies().contains(merger.getFactory().getClasses().get("b.B")));
+    }
+
+    public void testMergeUnionsNodesAndDependencies() {
+        NodeFactory first = new NodeFactory();
+        first.createFeature("a.A.a()").addDependency(first.createFeature("b.B.b()"));
+
+        NodeFactory second = new NodeFactory();
+        second.createFeature("a.A.a()").addDependency(second.createFeature("c.C.c()"));
+        second.createClass("b.B").addDependency(second.createClass("c.C"));
+
+        GraphMerger merger = new GraphMerger();
+        merger.merge(Arrays.asList(first, second));
+
+        NodeFactory result = merger.getFactory();
+        assertEquals("a.A.a() outbounds", 2, result.getFeatures().get("a.A.a()").getOutboundDependencies().size());
+        assertTrue("b.B --> c.C", result.getClasses().get("b.B").getOutboundDependencies().contains(result.getClasses().get("c.C")));
+        assertEquals("features", 3, result.getFeatures().size());
+    }
+
+    public void testConfirmedInEitherGraph() {
+        NodeFactory first = new NodeFactory();
+        first.createFeature("a.A.a()", true);
+        first.createClass("b.B");
+
+        NodeFactory second = new NodeFactory();
+        second.createFeature("a.A.a()");
+        second.createClass("b.B", true);
+
+        GraphMerger merger = new GraphMerger();
+        merger.merge(first);
+        merger.merge(second);
+
+        assertTrue("a.A.a()", merger.getFactory().getFeatures().get("a.A.a()").isConfirmed());
+        assertTrue("a.A", merger.getFactory().getClasses().get("a.A").isConfirmed());
+        assertTrue("b.B", merger.getFactory().getClasses().get("b.B").isConfirmed());
+        assertTrue("b", merger.getFactory().getPackages().get("b").isConfirmed());
+    }
+
+    public void testDependencyOnNodeFromOtherFactory() {
+        NodeFactory source = new NodeFactory();
+        source.createClass("a.A").addDependency(new NodeFactory().createFeature("b.B.b()"));
+
+        GraphMerger merger = new GraphMerger();
+        merger.merge(source);
+
+        FeatureNode b_B_b = merger.getFactory().getFeatures().get("b.B.b()");
+        assertNotNull("b.B.b()", b_B_b);
+        assertTrue("a.A --> b.B.b()", merger.getFactory().getClasses().get("a.A").getOutboundDependencies().contains(b_B_b));
+    }
+
+    public void testSameAsLoadingIntoOneFactory() {
+        for (int seed = 0; seed < 10; seed++) {
+            NodeFactory first = TestBulkLinkMaximizer.createRandomGraph(seed);
+            NodeFactory second = TestBulkLinkMaximizer.createRandomGraph(seed + 100);
+
+            NodeFactory expected = new NodeFactory();
+            copyInto(expected, first);
+            copyInto(expected, second);
+
+            GraphMerger merger = new GraphMerger();
+            merger.merge(first);
+            merger.merge(second);
+
+            assertEquals("seed " + seed, print(expected), print(merger.getFactory()));
+        }
+    }
+
+    public void testMergeIntoLargest() {
+        NodeFactory small = new NodeFactory();
+        small.createFeature("a.A.a()", true).addDependency(small.createFeature("b.B.b()"));
+
+        NodeFactory large = new NodeFactory();
+        large.createFeature("b.B.b()").addDependency(large.createFeature("c.C.c()"));
+        large.createFeature("c.C.c()", true).addDependency(large.createFeature("d.D.d()"));
+
+        NodeFactory result = GraphMerger.mergeIntoLargest(Arrays.asList(small, large));
+
+        assertSame("result", large, result);
+        assertTrue("a.A.a() --> b.B.b()", result.getFeatures().get("a.A.a()").getOutboundDependencies().contains(result.getFeatures().get("b.B.b()")));
+        assertTrue("a.A.a() is confirmed", result.getFeatures().get("a.A.a()").isConfirmed());
+        assertEquals("features", 4, result.getFeatures().size());
+    }
+
+    public void testMergeIntoLargestWithoutGraphs() {
+        assertTrue("packages", GraphMerger.mergeIntoLargest(Collections.<NodeFactory>emptyList()).getPackages().isEmpty());
+    }
+
+    /**
+     *  Goes through names only, the way loading a second file into the same
+     *  factory would.
+     */
+    private static void copyInto(NodeFactory target, NodeFactory source) {
+        for (Node node : source.getFeatures().values()) {
+            target.createFeature(node.getName(), node.isConfirmed());
+        }
+        for (Node node : source.getClasses().values()) {
+            target.createClass(node.getName(), node.isConfirmed());
+        }
+        for (Node node : source.getPackages().values()) {
+            target.createPackage(node.getName(), node.isConfirmed());
+        }
+
+        for (Node node : source.getPackages().values()) {
+            for (Node dependency : node.getOutboundDependencies()) {
+                target.getPackages().get(node.getName()).addDependency(lookup(target, dependency));
+            }
+        }
+        for (Node node : source.getClasses().values()) {
+            for (Node dependency : node.getOutboundDependencies()) {
+                target.getClasses().get(node.getName()).addDependency(lookup(target, dependency));
+            }
+        }
+        for (Node node : source.getFeatures().values()) {
+            for (Node dependency : node.getOutboundDependencies()) {
+                target.getFeatures().get(node.getName()).addDependency(lookup(target, dependency));
+            }
+        }
+    }
+
+    private static Node lookup(NodeFactory factory, Node node) {
+        Node result;
+
+        if (node instanceof FeatureNode) {
+            result = factory.getFeatures().get(node.getName());
+        } else if (node instanceof ClassNode) {
+            result = factory.getClasses().get(node.getName());
+        } else {
+            result = factory.getPackages().get(node.getName());
+        }
+
+        return result;
+    }
+
+    private static String print(NodeFactory factory) {
+        StringWriter out = new StringWriter();
+        new XMLPrinter(new PrintWriter(out)).traverseNodes(factory.getPackages().values());
+        return out.toString();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestGraphSnapshotReader extends TestCase {
+    public void testRoundTrip() throws IOException {
+        NodeFactory factory = new NodeFactory();
+        Node a_A_a = factory.createFeature("a.A.a()", true);
+        Node b_B = factory.createClass("b.B");
+        Node c = factory.createPackage("c", true);
+        a_A_a.addDependency(b_B);
+        a_A_a.addDependency(factory.createFeature("b.B.b"));
+        b_B.addDependency(c);
+        c.addDependency(factory.createPackage("a"));
+
+        NodeFactory result = roundTrip(factory);
+
+        assertEquals("graph", print(factory), print(result));
+        assertTrue("a.A.a() is confirmed", result.getFeatures().get("a.A.a()").isConfirmed());
+        assertFalse("b.B is confirmed", result.getClasses().get("b.B").isConfirmed());
+        assertTrue("c is confirmed", result.getPackages().get("c").isConfirmed());
+        assertTrue("inbound", result.getPackages().get("c").getInboundDependencies().contains(result.getClasses().get("b.B")));
+    }
+
+    public void testRandomGraphs() throws IOException {
+        for (int seed = 0; seed < 10; seed++) {
+            Random random = new Random(seed);
+            NodeFactory factory = TestBulkLinkMaximizer.createRandomGraph(seed);
+            for (FeatureNode feature : factory.getFeatures().values()) {
+                if (random.nextBoolean()) {
+                    factory.createFeature(feature.getName(), true);
+                }
+            }
+
+            assertEquals("seed " + seed, print(factory), print(roundTrip(factory)));
+        }
+    }
+
+    public void testEmptyGraph() throws IOException {
+        assertTrue("packages", roundTrip(new NodeFactory()).getPackages().isEmpty());
+    }
+
+    public void testFiresEvents() throws IOException {
+        NodeFactory factory = new NodeFactory();
+        factory.createFeature("a.A.a()").addDependency(factory.createFeature("b.B.b()"));
+
+        final List<String> events = new ArrayList<String>();
+        GraphSnapshotReader reader = new GraphSnapshotReader();
+        reader.addDependencyListener(new DependencyListener() {
+            public void beginSession(DependencyEvent event) {
+                events.add("beginSession");
+            }
+
+            public void beginClass(DependencyEvent event) {
+                events.add("beginClass " + event.getClassName());
+            }
+
+            public void dependency(DependencyEvent event) {
+                events.add(event.getDependent() + " --> " + event.getDependable());
+            }
+
+            public void endClass(DependencyEvent event) {
+                events.add("endClass " + event.getClassName());
+            }
+
+            public void endSession(DependencyEvent event) {
+                events.add("endSession");
+            }
+        });
+        reader.read(new ByteArrayInputStream(write(factory)));
+
+        assertEquals(Arrays.asList("beginSession", "beginClass a.A", "beginClass b.B", "a.A.a() --> b.B.b()", "endSession"), events);
+    }
+
+    public void testIsSnapshotDoesNotConsumeInput() throws IOException {
+        InputStream in = new BufferedInputStream(new ByteArrayInputStream(write(new NodeFactory())));
+
+        assertTrue("snapshot", GraphSnapshotReader.isSnapshot(in));
+        assertTrue("read after check", new GraphSnapshotReader().read(in).getPackages().isEmpty());
+    }
+
+    public void testIsSnapshotRejectsXML() throws IOException {
+        assertFalse("XML", GraphSnapshotReader.isSnapshot(new BufferedInputStream(new ByteArrayInputStream("<?xml version=\"1.0\"?>".getBytes()))));
+        assertFalse("short", GraphSnapshotReader.isSnapshot(new BufferedInputStream(new ByteArrayInputStream(new byte[] {0x44}))));
+    }
+
+    public void testRejectsForeignInput() {
+        try {
+            new GraphSnapshotReader().read(new ByteArrayInputStream("<?xml version=\"1.0\"?>".getBytes()));
+            fail("Read XML as a snapshot");
+        } catch (IOException ex) {
+            // Expected
+        }
+    }
+
+    private static NodeFactory roundTrip(NodeFactory factory) throws IOException {
+        return new GraphSnapshotReader().read(new ByteArrayInputStream(write(factory)));
+    }
+
+    private static byte[] write(NodeFactory factory) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new GraphSnapshotWriter(out).write(factory);
+        return out.toByteArray();
+    }
+
+    private static String print(NodeFactory factory) {
+        StringWriter out = new StringWriter();
+        new XMLPrinter(new PrintWriter(out)).traverseNodes(factory.getPackages().values());
+        return out.toString();
+    }
+}
@@ -34,9 +34,14 @@ package com.jeantessier.dependency;
 
 import junit.framework.TestCase;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 
 public class TestLCOM4Gatherer extends TestCase {
     private NodeFactory factory;
@@ -254,6 +259,55 @@ public class TestLCOM4Gatherer extends TestCase {
         assertAtLeastOneComponentEquals(components, featureNode2);
     }
 
+    public void testIsConstructor() {
+        assertTrue("constructor", LCOM4Gatherer.isConstructor("a.A.A()"));
+        assertTrue("constructor with parameters", LCOM4Gatherer.isConstructor("a.A.A(int, java.lang.String)"));
+        assertFalse("method", LCOM4Gatherer.isConstructor("a.A.a()"));
+        assertFalse("field", LCOM4Gatherer.isConstructor("a.A.A"));
+        assertFalse("inner class constructor", LCOM4Gatherer.isConstructor("a.A$B.A$B()"));
+    }
+
+    public void testThreadsMustBePositive() {
+        try {
+            sut.setThreads(0);
+            fail("Accepted 0 threads");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    public void testSameResultsOnSeveralThreads() {
+        Random random = new Random(0);
+        List<FeatureNode> features = new ArrayList<FeatureNode>();
+        for (int i = 0; i < 2000; i++) {
+            features.add(factory.createFeature("p" + random.nextInt(10) + ".C" + random.nextInt(50) + ".f" + random.nextInt(10) + "()", true));
+        }
+        for (int i = 0; i < 3000; i++) {
+            features.get(random.nextInt(features.size())).addDependency(features.get(random.nextInt(features.size())));
+        }
+
+        sut.traverseNodes(factory.getPackages().values());
+
+        LCOM4Gatherer parallel = new LCOM4Gatherer();
+        parallel.setThreads(4);
+        parallel.traverseNodes(factory.getPackages().values());
+
+        assertEquals("classes", sut.getResults().keySet(), parallel.getResults().keySet());
+        for (Map.Entry<ClassNode, Collection<Collection<FeatureNode>>> entry : sut.getResults().entrySet()) {
+            assertEquals(entry.getKey().getName(), toSets(entry.getValue()), toSets(parallel.getResults().get(entry.getKey())));
+        }
+    }
+
+    private Set<Set<FeatureNode>> toSets(Collection<Collection<FeatureNode>> components) {
+        Set<Set<FeatureNode>> result = new HashSet<Set<FeatureNode>>();
+
+        for (Collection<FeatureNode> component : components) {
+            result.add(new HashSet<FeatureNode>(component));
+        }
+
+        return result;
+    }
+
     private void assertAtLeastOneComponentEquals(Collection<Collection<FeatureNode>> components, FeatureNode ... expectedNodes) {
         boolean found = false;
 
@@ -0,0 +1,184 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.nio.*;
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestMappedGraph extends TestCase {
+    private NodeFactory original;
+    private NodeFactory factory;
+
+    protected void setUp() throws Exception {
+        original = new NodeFactory();
+        Node a_A_a = original.createFeature("a.A.a()", true);
+        Node b_B = original.createClass("b.B");
+        Node c = original.createPackage("c", true);
+        a_A_a.addDependency(b_B);
+        a_A_a.addDependency(original.createFeature("b.B.b"));
+        b_B.addDependency(c);
+        c.addDependency(original.createPackage("a"));
+        original.createClass("c.C", true);
+
+        factory = map(original).getFactory();
+    }
+
+    public void testSameGraph() {
+        assertEquals("graph", print(original), print(factory));
+    }
+
+    public void testRandomGraphs() throws IOException {
+        for (int seed = 0; seed < 10; seed++) {
+            NodeFactory factory = TestBulkLinkMaximizer.createRandomGraph(seed);
+            assertEquals("seed " + seed, print(factory), print(map(factory).getFactory()));
+        }
+    }
+
+    public void testCounts() {
+        assertEquals("packages", 3, factory.getPackages().size());
+        assertEquals("classes", 3, factory.getClasses().size());
+        assertEquals("features", 2, factory.getFeatures().size());
+    }
+
+    public void testLookUpByName() {
+        ClassNode b_B = factory.getClasses().get("b.B");
+
+        assertEquals("name", "b.B", b_B.getName());
+        assertFalse("confirmed", b_B.isConfirmed());
+        assertEquals("package", factory.getPackages().get("b"), b_B.getPackageNode());
+        assertEquals("features", Arrays.asList(factory.getFeatures().get("b.B.b")), new ArrayList<FeatureNode>(b_B.getFeatures()));
+        assertEquals("inbound", Arrays.asList(factory.getFeatures().get("a.A.a()")), new ArrayList<Node>(b_B.getInboundDependencies()));
+        assertEquals("outbound", Arrays.asList(factory.getPackages().get("c")), new ArrayList<Node>(b_B.getOutboundDependencies()));
+        assertTrue("confirmed feature", factory.getFeatures().get("a.A.a()").isConfirmed());
+    }
+
+    public void testLookUpMissingName() {
+        assertNull("missing class", factory.getClasses().get("b.C"));
+        assertNull("package as class", factory.getClasses().get("c"));
+        assertFalse("missing feature", factory.getFeatures().containsKey("a.A.b()"));
+        assertTrue("feature", factory.getFeatures().containsKey("a.A.a()"));
+    }
+
+    public void testCreateExistingNode() {
+        assertEquals("package", "c", factory.createPackage("c", true).getName());
+    }
+
+    public void testIsReadOnly() {
+        try {
+            factory.createClass("d.D");
+            fail("Created a node in a mapped graph");
+        } catch (UnsupportedOperationException ex) {
+            // Expected
+        }
+
+        try {
+            factory.createClass("b.B", true);
+            fail("Confirmed a node in a mapped graph");
+        } catch (UnsupportedOperationException ex) {
+            // Expected
+        }
+
+        try {
+            factory.getClasses().get("b.B").addDependency(factory.getPackages().get("a"));
+            fail("Added a dependency in a mapped graph");
+        } catch (UnsupportedOperationException ex) {
+            // Expected
+        }
+    }
+
+    public void testTransitiveClosure() {
+        TransitiveClosure closure = new TransitiveClosure(new RegularExpressionSelectionCriteria("/^a.A.a/"), new NullSelectionCriteria());
+        closure.setMaximumInboundDepth(TransitiveClosure.DO_NOT_FOLLOW);
+        closure.setMaximumOutboundDepth(TransitiveClosure.UNBOUNDED_DEPTH);
+        closure.traverseNodes(factory.getPackages().values());
+
+        assertTrue("a.A.a()", closure.getFactory().getFeatures().containsKey("a.A.a()"));
+        assertTrue("b.B.b", closure.getFactory().getFeatures().containsKey("b.B.b"));
+        assertTrue("c", closure.getFactory().getPackages().containsKey("c"));
+        assertTrue("a", closure.getFactory().getPackages().containsKey("a"));
+    }
+
+    public void testOpenFile() throws IOException {
+        File file = File.createTempFile("TestMappedGraph", MappedGraphWriter.FILE_EXTENSION);
+        try {
+            OutputStream out = new FileOutputStream(file);
+            try {
+                new MappedGraphWriter(out).write(original);
+            } finally {
+                out.close();
+            }
+
+            assertTrue("mapped graph", MappedGraph.isMappedGraph(file.getPath()));
+            assertEquals("graph", print(original), print(MappedGraph.open(file.getPath()).getFactory()));
+        } finally {
+            file.delete();
+        }
+    }
+
+    public void testRejectsForeignInput() {
+        try {
+            new MappedGraph(ByteBuffer.wrap("<?xml version=\"1.0\"?>".getBytes()));
+            fail("Mapped XML");
+        } catch (IOException ex) {
+            // Expected
+        }
+    }
+
+    public void testRejectsTruncatedInput() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new MappedGraphWriter(out).write(original);
+        byte[] bytes = out.toByteArray();
+
+        try {
+            new MappedGraph(ByteBuffer.wrap(bytes, 0, bytes.length - 1).slice());
+            fail("Mapped truncated graph");
+        } catch (IOException ex) {
+            // Expected
+        }
+    }
+
+    private static MappedGraph map(NodeFactory factory) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new MappedGraphWriter(out).write(factory);
+        return new MappedGraph(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    private static String print(NodeFactory factory) {
+        StringWriter out = new StringWriter();
+        new XMLPrinter(new PrintWriter(out)).traverseNodes(factory.getPackages().values());
+        return out.toString();
+    }
+}
@@ -69,6 +69,27 @@ public class TestNodeFactory extends TestCase {
         assertEquals("outbounds", 0, node.getOutboundDependencies().size());
     }
 
+    public void testCreateClassInKnownPackage() {
+        PackageNode packageNode = factory.createPackage("a");
+        ClassNode node = factory.createClass(packageNode, "a.A", true);
+
+        assertSame("package", packageNode, node.getPackageNode());
+        assertTrue("package is confirmed", packageNode.isConfirmed());
+        assertSame("lookup", node, factory.createClass("a.A"));
+        assertTrue("package classes", packageNode.getClasses().contains(node));
+    }
+
+    public void testCreateFeatureInKnownClass() {
+        ClassNode classNode = factory.createClass("a.A");
+        FeatureNode node = factory.createFeature(classNode, "a.A.a", true);
+
+        assertSame("class", classNode, node.getClassNode());
+        assertTrue("class is confirmed", classNode.isConfirmed());
+        assertTrue("package is confirmed", classNode.getPackageNode().isConfirmed());
+        assertSame("lookup", node, factory.createFeature("a.A.a"));
+        assertTrue("class features", classNode.getFeatures().contains(node));
+    }
+
     public void testCreateClassInDefaultPackage() {
         ClassNode node = factory.createClass("A");
 
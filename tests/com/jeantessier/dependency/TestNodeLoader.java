@@ -33,6 +33,7 @@
 package com.jeantessier.dependency;
 
 import java.io.*;
+import java.util.zip.*;
 
 import javax.xml.parsers.*;
 
@@ -103,4 +104,68 @@ public class TestNodeLoader extends TestCase {
         assertNotNull("missing feature", factory.getFeatures().get(OTHER_FEATURE_NAME));
         assertFalse("feature is confirmed", factory.getFeatures().get(OTHER_FEATURE_NAME).isConfirmed());
     }
+
+    public void testReadSnapshot() throws IOException, ParserConfigurationException, SAXException {
+        NodeFactory original = new NodeFactory();
+        original.createFeature(MY_FEATURE_NAME, true).addDependency(original.createFeature(OTHER_FEATURE_NAME));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new GraphSnapshotWriter(out).write(original);
+
+        NodeLoader loader = new NodeLoader();
+        NodeFactory factory = loader.load(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals("nb features", 2, factory.getFeatures().size());
+        assertTrue("feature is confirmed", factory.getFeatures().get(MY_FEATURE_NAME).isConfirmed());
+        assertFalse("feature is inferred", factory.getFeatures().get(OTHER_FEATURE_NAME).isConfirmed());
+        assertTrue("dependency", factory.getFeatures().get(MY_FEATURE_NAME).getOutboundDependencies().contains(factory.getFeatures().get(OTHER_FEATURE_NAME)));
+    }
+
+    public void testReadCompressedDocument() throws IOException, ParserConfigurationException, SAXException {
+        NodeFactory original = new NodeFactory();
+        original.createFeature(MY_FEATURE_NAME, true).addDependency(original.createFeature(OTHER_FEATURE_NAME));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(new GZIPOutputStream(out)));
+        new XMLPrinter(writer).traverseNodes(original.getPackages().values());
+        writer.close();
+
+        NodeLoader loader = new NodeLoader();
+        NodeFactory factory = loader.load(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals("nb features", 2, factory.getFeatures().size());
+        assertTrue("feature is confirmed", factory.getFeatures().get(MY_FEATURE_NAME).isConfirmed());
+        assertTrue("dependency", factory.getFeatures().get(MY_FEATURE_NAME).getOutboundDependencies().contains(factory.getFeatures().get(OTHER_FEATURE_NAME)));
+    }
+
+    public void testReadCompressedSnapshotFile() throws IOException, ParserConfigurationException, SAXException {
+        NodeFactory original = new NodeFactory();
+        original.createFeature(MY_FEATURE_NAME, true).addDependency(original.createFeature(OTHER_FEATURE_NAME));
+
+        File file = File.createTempFile("TestNodeLoader", GraphSnapshotWriter.FILE_EXTENSION + ".gz");
+        try {
+            OutputStream out = new GZIPOutputStream(new FileOutputStream(file));
+            try {
+                new GraphSnapshotWriter(out).write(original);
+            } finally {
+                out.close();
+            }
+
+            NodeFactory factory = new NodeLoader().load(file.getPath());
+
+            assertEquals("nb features", 2, factory.getFeatures().size());
+            assertTrue("dependency", factory.getFeatures().get(MY_FEATURE_NAME).getOutboundDependencies().contains(factory.getFeatures().get(OTHER_FEATURE_NAME)));
+        } finally {
+            file.delete();
+        }
+    }
+
+    public void testIsGraphFile() {
+        assertTrue("XML", NodeLoader.isGraphFile("df.xml"));
+        assertTrue("snapshot", NodeLoader.isGraphFile("df" + GraphSnapshotWriter.FILE_EXTENSION));
+        assertTrue("compressed XML", NodeLoader.isGraphFile("df.xml.gz"));
+        assertTrue("compressed snapshot", NodeLoader.isGraphFile("df" + GraphSnapshotWriter.FILE_EXTENSION + ".gz"));
+        assertFalse("other", NodeLoader.isGraphFile("df.txt"));
+        assertFalse("compressed other", NodeLoader.isGraphFile("df.txt.gz"));
+    }
 }
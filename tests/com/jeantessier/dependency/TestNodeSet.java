@@ -0,0 +1,191 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestNodeSet extends TestCase {
+    private NodeFactory factory;
+    private NodeSet<Node> set;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        factory = new NodeFactory();
+        set = new NodeSet<Node>();
+    }
+
+    public void testEmpty() {
+        assertTrue("empty", set.isEmpty());
+        assertFalse("contains", set.contains(factory.createPackage("a")));
+        assertFalse("iterator", set.iterator().hasNext());
+    }
+
+    public void testAddOnce() {
+        Node a = factory.createPackage("a");
+
+        assertTrue("first add", set.add(a));
+        assertFalse("second add", set.add(a));
+        assertEquals("size", 1, set.size());
+        assertTrue("contains", set.contains(a));
+    }
+
+    public void testDistinguishesNodeTypes() {
+        set.add(factory.createPackage("a"));
+
+        assertFalse("class with same name", set.contains(factory.createClass("a")));
+    }
+
+    public void testGrowPastSmallSet() {
+        Collection<Node> expected = new HashSet<Node>();
+        for (int i=0; i<NodeSet.SMALL_SET_CAPACITY * 10; i++) {
+            Node node = factory.createFeature("a.A.f" + i);
+            expected.add(node);
+            set.add(node);
+        }
+
+        assertEquals("size", expected.size(), set.size());
+        assertEquals("content", expected, new HashSet<Node>(set));
+    }
+
+    public void testRemoveFromSmallSet() {
+        Node a = factory.createPackage("a");
+        Node b = factory.createPackage("b");
+        set.add(a);
+        set.add(b);
+
+        assertTrue("remove", set.remove(a));
+        assertFalse("remove again", set.remove(a));
+        assertEquals("size", 1, set.size());
+        assertTrue("contains", set.contains(b));
+    }
+
+    public void testRandomOperationsMatchHashSet() {
+        Random random = new Random(42);
+        List<Node> nodes = new ArrayList<Node>();
+        for (int i=0; i<200; i++) {
+            nodes.add(factory.createClass("p.C" + i));
+        }
+
+        Collection<Node> expected = new HashSet<Node>();
+        for (int i=0; i<10000; i++) {
+            Node node = nodes.get(random.nextInt(nodes.size()));
+            if (random.nextInt(3) == 0) {
+                assertEquals("remove " + node, expected.remove(node), set.remove(node));
+            } else {
+                assertEquals("add " + node, expected.add(node), set.add(node));
+            }
+            assertEquals("size", expected.size(), set.size());
+        }
+
+        for (Node node : nodes) {
+            assertEquals("contains " + node, expected.contains(node), set.contains(node));
+        }
+        assertEquals("content", expected, new HashSet<Node>(set));
+    }
+
+    public void testIteratorIsFailFast() {
+        set.add(factory.createPackage("a"));
+        set.add(factory.createPackage("b"));
+
+        Iterator<Node> i = set.iterator();
+        i.next();
+        set.add(factory.createPackage("c"));
+
+        try {
+            i.next();
+            fail("Iterator did not notice the modification");
+        } catch (ConcurrentModificationException ex) {
+            // Expected
+        }
+    }
+
+    public void testSortedNodes() {
+        Node c = factory.createPackage("c");
+        Node a = factory.createPackage("a");
+        Node b = factory.createPackage("b");
+        set.add(c);
+        set.add(a);
+        set.add(b);
+
+        assertEquals("sorted", Arrays.asList(a, b, c), set.getSortedNodes());
+    }
+
+    public void testSortedNodesAreCachedUntilModified() {
+        Node a = factory.createPackage("a");
+        Node b = factory.createPackage("b");
+        set.add(b);
+        set.add(a);
+
+        List<Node> sorted = set.getSortedNodes();
+        assertSame("cached", sorted, set.getSortedNodes());
+
+        set.remove(b);
+        assertEquals("snapshot", Arrays.asList(a, b), sorted);
+        assertEquals("after remove", Arrays.asList(a), set.getSortedNodes());
+
+        Node c = factory.createPackage("c");
+        set.add(c);
+        assertEquals("after add", Arrays.asList(a, c), set.getSortedNodes());
+    }
+
+    public void testSortedTraversalStrategyUsesCachedSortedNodes() {
+        Node a = factory.createClass("a.A");
+        a.addDependency(factory.createClass("b.C"));
+        a.addDependency(factory.createClass("b.B"));
+
+        TraversalStrategy strategy = new SortedTraversalStrategy(new ComprehensiveTraversalStrategy());
+        Collection<Node> ordered = strategy.order(a.getOutboundDependencies());
+
+        assertEquals("order", Arrays.asList(factory.createClass("b.B"), factory.createClass("b.C")), new ArrayList<Node>(ordered));
+        assertSame("cached", ordered, strategy.order(a.getOutboundDependencies()));
+    }
+
+    public void testReadOnlyView() {
+        Node a = factory.createPackage("a");
+        set.add(a);
+        Collection<Node> view = set.getReadOnlyView();
+
+        try {
+            view.remove(a);
+            fail("Removed through read-only view");
+        } catch (UnsupportedOperationException ex) {
+            // Expected
+        }
+
+        set.add(factory.createPackage("b"));
+        assertEquals("size", 2, view.size());
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+import org.xml.sax.*;
+
+public class TestParallelGraphLoader extends TestCase {
+    private List<File> files = new ArrayList<File>();
+
+    protected void tearDown() throws Exception {
+        for (File file : files) {
+            file.delete();
+        }
+
+        super.tearDown();
+    }
+
+    public void testLoadsFilesInOrder() throws Exception {
+        List<NodeFactory> graphs = new ArrayList<NodeFactory>();
+        List<String> filenames = new ArrayList<String>();
+        for (int seed = 0; seed < 6; seed++) {
+            NodeFactory graph = TestBulkLinkMaximizer.createRandomGraph(seed);
+            graphs.add(graph);
+            filenames.add(seed % 2 == 0 ? writeXML(graph) : writeSnapshot(graph));
+        }
+
+        ParallelGraphLoader loader = new ParallelGraphLoader();
+        loader.setThreads(3);
+        List<NodeFactory> result = loader.load(filenames);
+
+        assertEquals("number of graphs", graphs.size(), result.size());
+        for (int i = 0; i < graphs.size(); i++) {
+            assertEquals("graph " + i, print(graphs.get(i)), print(result.get(i)));
+        }
+    }
+
+    public void testEachFileInItsOwnFactory() throws Exception {
+        NodeFactory graph = new NodeFactory();
+        graph.createFeature("a.A.a()", true).addDependency(graph.createFeature("b.B.b()"));
+        String filename = writeXML(graph);
+
+        ParallelGraphLoader loader = new ParallelGraphLoader();
+        loader.setThreads(2);
+        List<NodeFactory> result = loader.load(Arrays.asList(filename, filename));
+
+        assertNotSame("factories", result.get(0), result.get(1));
+        assertEquals("graph", print(result.get(0)), print(result.get(1)));
+    }
+
+    public void testNoFiles() throws Exception {
+        ParallelGraphLoader loader = new ParallelGraphLoader();
+        loader.setThreads(4);
+
+        assertTrue("graphs", loader.load(Collections.<String>emptyList()).isEmpty());
+    }
+
+    public void testMissingFile() throws Exception {
+        ParallelGraphLoader loader = new ParallelGraphLoader();
+        loader.setThreads(2);
+
+        try {
+            loader.load(Arrays.asList(writeXML(new NodeFactory()), "no such file.xml"));
+            fail("Loaded a missing file");
+        } catch (FileNotFoundException ex) {
+            // Expected
+        }
+    }
+
+    public void testMalformedFile() throws Exception {
+        File file = File.createTempFile("TestParallelGraphLoader", ".xml");
+        files.add(file);
+        Writer out = new FileWriter(file);
+        try {
+            out.write("<dependencies><package>");
+        } finally {
+            out.close();
+        }
+
+        ParallelGraphLoader loader = new ParallelGraphLoader();
+        loader.setThreads(2);
+
+        try {
+            loader.load(Arrays.asList(file.getPath()));
+            fail("Loaded a malformed file");
+        } catch (SAXException ex) {
+            // Expected
+        }
+    }
+
+    public void testInvalidThreads() {
+        try {
+            new ParallelGraphLoader().setThreads(0);
+            fail("Accepted 0 threads");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    public void testFiresEvents() throws Exception {
+        NodeFactory graph = new NodeFactory();
+        graph.createFeature("a.A.a()").addDependency(graph.createFeature("b.B.b()"));
+        String filename = writeSnapshot(graph);
+
+        final List<String> classes = Collections.synchronizedList(new ArrayList<String>());
+        ParallelGraphLoader loader = new ParallelGraphLoader();
+        loader.setThreads(2);
+        loader.addDependencyListener(new DependencyListener() {
+            public void beginSession(DependencyEvent event) {
+                // Do nothing
+            }
+
+            public void beginClass(DependencyEvent event) {
+                classes.add(event.getClassName());
+            }
+
+            public void dependency(DependencyEvent event) {
+                // Do nothing
+            }
+
+            public void endClass(DependencyEvent event) {
+                // Do nothing
+            }
+
+            public void endSession(DependencyEvent event) {
+                // Do nothing
+            }
+        });
+        loader.load(Arrays.asList(filename, filename));
+
+        Collections.sort(classes);
+        assertEquals(Arrays.asList("a.A", "a.A", "b.B", "b.B"), classes);
+    }
+
+    private String writeXML(NodeFactory graph) throws IOException {
+        File file = File.createTempFile("TestParallelGraphLoader", ".xml");
+        files.add(file);
+
+        PrintWriter out = new PrintWriter(new FileWriter(file));
+        try {
+            new XMLPrinter(out).traverseNodes(graph.getPackages().values());
+        } finally {
+            out.close();
+        }
+
+        return file.getPath();
+    }
+
+    private String writeSnapshot(NodeFactory graph) throws IOException {
+        File file = File.createTempFile("TestParallelGraphLoader", GraphSnapshotWriter.FILE_EXTENSION);
+        files.add(file);
+
+        OutputStream out = new FileOutputStream(file);
+        try {
+            new GraphSnapshotWriter(out).write(graph);
+        } finally {
+            out.close();
+        }
+
+        return file.getPath();
+    }
+
+    private static String print(NodeFactory factory) {
+        StringWriter out = new StringWriter();
+        new XMLPrinter(new PrintWriter(out)).traverseNodes(factory.getPackages().values());
+        return out.toString();
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestPathFinder extends TestCase {
+    private NodeFactory factory;
+
+    private Node a;
+    private Node b;
+    private Node c;
+    private Node d;
+    private Node e;
+
+    protected void setUp() throws Exception {
+        factory = new NodeFactory();
+
+        a = factory.createPackage("a");
+        b = factory.createPackage("b");
+        c = factory.createPackage("c");
+        d = factory.createPackage("d");
+        e = factory.createPackage("e");
+    }
+
+    public void testNoPath() {
+        a.addDependency(b);
+        c.addDependency(d);
+
+        List<List<Node>> paths = findPaths("/^a$/", "/^d$/", 3);
+        assertEquals("Nb paths", 0, paths.size());
+    }
+
+    public void testNoStopNodes() {
+        a.addDependency(b);
+
+        List<List<Node>> paths = findPaths("/^a$/", "/^z$/", 3);
+        assertEquals("Nb paths", 0, paths.size());
+    }
+
+    public void testDirectDependency() {
+        a.addDependency(b);
+
+        List<List<Node>> paths = findPaths("/^a$/", "/^b$/", 3);
+        assertEquals("Nb paths", 1, paths.size());
+        assertEquals("path", Arrays.asList(a, b), paths.get(0));
+    }
+
+    public void testFollowsDirectionOfDependencies() {
+        b.addDependency(a);
+
+        List<List<Node>> paths = findPaths("/^a$/", "/^b$/", 3);
+        assertEquals("Nb paths", 0, paths.size());
+    }
+
+    public void testShortestPathFirst() {
+        a.addDependency(b);
+        b.addDependency(c);
+        c.addDependency(e);
+        a.addDependency(d);
+        d.addDependency(e);
+
+        List<List<Node>> paths = findPaths("/^a$/", "/^e$/", 1);
+        assertEquals("Nb paths", 1, paths.size());
+        assertEquals("path", Arrays.asList(a, d, e), paths.get(0));
+    }
+
+    public void testSeveralPathsByLengthThenByName() {
+        a.addDependency(b);
+        b.addDependency(c);
+        c.addDependency(e);
+        a.addDependency(d);
+        d.addDependency(e);
+        a.addDependency(c);
+
+        List<List<Node>> paths = findPaths("/^a$/", "/^e$/", 5);
+        assertEquals("Nb paths", 3, paths.size());
+        assertEquals("path 0", Arrays.asList(a, c, e), paths.get(0));
+        assertEquals("path 1", Arrays.asList(a, d, e), paths.get(1));
+        assertEquals("path 2", Arrays.asList(a, b, c, e), paths.get(2));
+    }
+
+    public void testStopsAtFirstStopNode() {
+        a.addDependency(b);
+        b.addDependency(c);
+
+        List<List<Node>> paths = findPaths("/^a$/", "/^[bc]$/", 5);
+        assertEquals("Nb paths", 1, paths.size());
+        assertEquals("path", Arrays.asList(a, b), paths.get(0));
+    }
+
+    public void testStartNodeThatIsAlsoAStopNode() {
+        a.addDependency(b);
+        b.addDependency(c);
+
+        List<List<Node>> paths = findPaths("/^a$/", "/^[ac]$/", 5);
+        assertEquals("Nb paths", 1, paths.size());
+        assertEquals("path", Arrays.asList(a, b, c), paths.get(0));
+    }
+
+    public void testPathsAreSimple() {
+        a.addDependency(b);
+        b.addDependency(a);
+        b.addDependency(c);
+
+        List<List<Node>> paths = findPaths("/^[ab]$/", "/^c$/", 5);
+        assertEquals("Nb paths", 2, paths.size());
+        assertEquals("path 0", Arrays.asList(b, c), paths.get(0));
+        assertEquals("path 1", Arrays.asList(a, b, c), paths.get(1));
+    }
+
+    public void testMaximumPathLength() {
+        a.addDependency(b);
+        b.addDependency(c);
+        c.addDependency(d);
+        a.addDependency(e);
+        e.addDependency(d);
+
+        PathFinder finder = new PathFinder(new RegularExpressionSelectionCriteria("/^a$/"), new RegularExpressionSelectionCriteria("/^d$/"));
+        finder.setMaximumNumberOfPaths(5);
+        finder.setMaximumPathLength(2);
+        finder.traverseNodes(factory.getPackages().values());
+
+        assertEquals("Nb paths", 1, finder.getPaths().size());
+        assertEquals("path", Arrays.asList(a, e, d), finder.getPaths().get(0));
+
+        finder = new PathFinder(new RegularExpressionSelectionCriteria("/^a$/"), new RegularExpressionSelectionCriteria("/^d$/"));
+        finder.setMaximumNumberOfPaths(5);
+        finder.setMaximumPathLength(1);
+        finder.traverseNodes(factory.getPackages().values());
+
+        assertEquals("Nb paths", 0, finder.getPaths().size());
+    }
+
+    public void testStartsFromClassesAndFeatures() {
+        Node a_A_a = factory.createFeature("a.A.a");
+        Node b_B = factory.createClass("b.B");
+        a_A_a.addDependency(b_B);
+
+        List<List<Node>> paths = findPaths("/^a.A.a$/", "/^b.B$/", 3);
+        assertEquals("Nb paths", 1, paths.size());
+        assertEquals("path", Arrays.asList(a_A_a, b_B), paths.get(0));
+    }
+
+    public void testSameAsExhaustiveSearch() {
+        Random random = new Random(42);
+
+        for (int graph = 0; graph < 20; graph++) {
+            factory = new NodeFactory();
+
+            List<Node> nodes = new ArrayList<Node>();
+            for (int i = 0; i < 15; i++) {
+                nodes.add(factory.createPackage("p" + (i < 10 ? "0" : "") + i));
+            }
+
+            for (int i = 0; i < 35; i++) {
+                nodes.get(random.nextInt(nodes.size())).addDependency(nodes.get(random.nextInt(nodes.size())));
+            }
+
+            List<Node> startNodes = nodes.subList(0, 3);
+            Set<Node> stopNodes = new HashSet<Node>(nodes.subList(10, 13));
+
+            List<List<Node>> expectedPaths = new ArrayList<List<Node>>();
+            for (Node startNode : startNodes) {
+                collectPaths(new LinkedList<Node>(Collections.singletonList(startNode)), stopNodes, 6, expectedPaths);
+            }
+            Collections.sort(expectedPaths, new Comparator<List<Node>>() {
+                public int compare(List<Node> path1, List<Node> path2) {
+                    int result = path1.size() - path2.size();
+                    for (int i = 0; result == 0 && i < path1.size(); i++) {
+                        result = path1.get(i).compareTo(path2.get(i));
+                    }
+                    return result;
+                }
+            });
+
+            PathFinder finder = new PathFinder(new RegularExpressionSelectionCriteria("/^p0[0-2]$/"), new RegularExpressionSelectionCriteria("/^p1[0-2]$/"));
+            finder.setMaximumNumberOfPaths(8);
+            finder.setMaximumPathLength(6);
+            finder.traverseNodes(factory.getPackages().values());
+
+            assertEquals("graph " + graph, expectedPaths.subList(0, Math.min(8, expectedPaths.size())), finder.getPaths());
+        }
+    }
+
+    private void collectPaths(LinkedList<Node> path, Set<Node> stopNodes, int maximumLength, List<List<Node>> paths) {
+        Node last = path.getLast();
+        if (path.size() > 1 && stopNodes.contains(last)) {
+            paths.add(new ArrayList<Node>(path));
+        } else if (path.size() <= maximumLength) {
+            for (Node dependency : last.getOutboundDependencies()) {
+                if (!path.contains(dependency)) {
+                    path.addLast(dependency);
+                    collectPaths(path, stopNodes, maximumLength, paths);
+                    path.removeLast();
+                }
+            }
+        }
+    }
+
+    private List<List<Node>> findPaths(String startIncludes, String stopIncludes, int maximumNumberOfPaths) {
+        PathFinder finder = new PathFinder(new RegularExpressionSelectionCriteria(startIncludes), new RegularExpressionSelectionCriteria(stopIncludes));
+        finder.setMaximumNumberOfPaths(maximumNumberOfPaths);
+        finder.traverseNodes(factory.getPackages().values());
+        return finder.getPaths();
+    }
+}
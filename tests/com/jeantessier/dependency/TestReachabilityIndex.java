@@ -0,0 +1,217 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+import junit.framework.*;
+
+public class TestReachabilityIndex extends TestCase {
+    private NodeFactory factory;
+
+    private Node a_A_a;
+    private Node b_B_b;
+    private Node c_C_c;
+    private Node d_D_d;
+
+    private ReachabilityIndex index;
+
+    protected void setUp() throws Exception {
+        factory = new NodeFactory();
+
+        a_A_a = factory.createFeature("a.A.a");
+        b_B_b = factory.createFeature("b.B.b");
+        c_C_c = factory.createFeature("c.C.c");
+        d_D_d = factory.createFeature("d.D.d");
+
+        index = new ReachabilityIndex(factory);
+    }
+
+    public void testNodeReachesItself() {
+        assertTrue("a.A.a -> a.A.a", index.isReachable(a_A_a, a_A_a));
+        assertEquals("a.A.a", Collections.singletonList(a_A_a), index.getReachableNodes(a_A_a));
+    }
+
+    public void testDirectDependency() {
+        a_A_a.addDependency(b_B_b);
+
+        assertTrue("a.A.a -> b.B.b", index.isReachable(a_A_a, b_B_b));
+        assertFalse("b.B.b -> a.A.a", index.isReachable(b_B_b, a_A_a));
+        assertFalse("a.A.a -> c.C.c", index.isReachable(a_A_a, c_C_c));
+    }
+
+    public void testTransitiveDependency() {
+        a_A_a.addDependency(b_B_b);
+        b_B_b.addDependency(c_C_c);
+
+        assertTrue("a.A.a -> c.C.c", index.isReachable(a_A_a, c_C_c));
+        assertEquals("a.A.a", new HashSet<Node>(Arrays.asList(a_A_a, b_B_b, c_C_c)), new HashSet<Node>(index.getReachableNodes(a_A_a)));
+        assertTrue("a.A.a -> c.C.c once known", index.isReachable(a_A_a, c_C_c));
+        assertFalse("a.A.a -> d.D.d once known", index.isReachable(a_A_a, d_D_d));
+    }
+
+    public void testCycle() {
+        a_A_a.addDependency(b_B_b);
+        b_B_b.addDependency(c_C_c);
+        c_C_c.addDependency(a_A_a);
+
+        assertTrue("c.C.c -> b.B.b", index.isReachable(c_C_c, b_B_b));
+        assertEquals("b.B.b", new HashSet<Node>(Arrays.asList(a_A_a, b_B_b, c_C_c)), new HashSet<Node>(index.getReachableNodes(b_B_b)));
+    }
+
+    public void testNodeNotInGraph() {
+        Node other = new NodeFactory().createFeature("e.E.e");
+
+        assertFalse("e.E.e -> a.A.a", index.isReachable(other, a_A_a));
+        assertFalse("a.A.a -> e.E.e", index.isReachable(a_A_a, other));
+        assertEquals("e.E.e", 0, index.getReachableNodes(other).size());
+    }
+
+    public void testInvalidateClassWithNewDependency() {
+        a_A_a.addDependency(b_B_b);
+        assertFalse("a.A.a -> c.C.c before", index.getReachableNodes(a_A_a).contains(c_C_c));
+
+        b_B_b.addDependency(c_C_c);
+        index.invalidateClass("b.B");
+
+        assertTrue("a.A.a -> c.C.c after", index.getReachableNodes(a_A_a).contains(c_C_c));
+        assertTrue("a.A.a -> c.C.c after", index.isReachable(a_A_a, c_C_c));
+    }
+
+    public void testRemoveClass() {
+        a_A_a.addDependency(b_B_b);
+        b_B_b.addDependency(c_C_c);
+        assertTrue("a.A.a -> c.C.c before", index.getReachableNodes(a_A_a).contains(c_C_c));
+
+        new DeletingVisitor(factory).removeClass("b.B");
+        index.removeClass("b.B");
+
+        assertFalse("a.A.a -> c.C.c after", index.getReachableNodes(a_A_a).contains(c_C_c));
+        assertFalse("a.A.a -> c.C.c after", index.isReachable(a_A_a, c_C_c));
+    }
+
+    public void testInvalidateClassInNewPackage() {
+        assertEquals("a.A.a before", 1, index.getReachableNodes(a_A_a).size());
+
+        Node e_E_e = factory.createFeature("e.E.e");
+        a_A_a.addDependency(e_E_e);
+        index.invalidateClass("a.A");
+
+        assertTrue("a.A.a -> e.E.e after", index.isReachable(a_A_a, e_E_e));
+        assertTrue("a.A.a -> e.E.e after", index.getReachableNodes(a_A_a).contains(e_E_e));
+    }
+
+    public void testKeepsSetsThatDoNotGoThroughChangedClass() {
+        a_A_a.addDependency(b_B_b);
+        c_C_c.addDependency(d_D_d);
+        assertEquals("a.A.a before", 2, index.getReachableNodes(a_A_a).size());
+        assertEquals("c.C.c before", 2, index.getReachableNodes(c_C_c).size());
+
+        // Changes that the index is not told about stay invisible.
+        b_B_b.addDependency(c_C_c);
+        d_D_d.addDependency(a_A_a);
+        index.invalidateClass("d.D");
+
+        assertEquals("a.A.a after", 2, index.getReachableNodes(a_A_a).size());
+        assertEquals("c.C.c after", 4, index.getReachableNodes(c_C_c).size());
+
+        index.invalidate();
+
+        assertEquals("a.A.a after invalidate()", 4, index.getReachableNodes(a_A_a).size());
+    }
+
+    public void testSameAsBreadthFirstSearch() {
+        Random random = new Random(3);
+
+        List<Node> nodes = new ArrayList<Node>();
+        for (int i = 0; i < 60; i++) {
+            nodes.add(factory.createFeature("p" + (i % 5) + ".C" + (i % 15) + ".f" + i));
+        }
+        nodes.addAll(factory.getClasses().values());
+        nodes.addAll(factory.getPackages().values());
+
+        for (int i = 0; i < 120; i++) {
+            nodes.get(random.nextInt(nodes.size())).addDependency(nodes.get(random.nextInt(nodes.size())));
+        }
+
+        for (Node from : nodes) {
+            Set<Node> expected = new HashSet<Node>();
+            LinkedList<Node> queue = new LinkedList<Node>();
+            expected.add(from);
+            queue.add(from);
+            while (!queue.isEmpty()) {
+                for (Node dependency : queue.removeFirst().getOutboundDependencies()) {
+                    if (expected.add(dependency)) {
+                        queue.add(dependency);
+                    }
+                }
+            }
+
+            for (Node to : nodes) {
+                assertEquals(from + " -> " + to, expected.contains(to), index.isReachable(from, to));
+            }
+
+            assertEquals(from.toString(), expected, new HashSet<Node>(index.getReachableNodes(from)));
+        }
+    }
+
+    public void testTransitiveClosureOnIndex() {
+        Random random = new Random(7);
+
+        List<Node> nodes = new ArrayList<Node>();
+        for (int i = 0; i < 200; i++) {
+            nodes.add(factory.createFeature("p" + (i % 7) + ".C" + (i % 30) + ".f" + i));
+        }
+
+        for (int i = 0; i < 400; i++) {
+            nodes.get(random.nextInt(nodes.size())).addDependency(nodes.get(random.nextInt(nodes.size())));
+        }
+
+        assertEquals("outbound", printClosure(0, TransitiveClosure.UNBOUNDED_DEPTH, null), printClosure(0, TransitiveClosure.UNBOUNDED_DEPTH, index));
+        assertEquals("inbound", printClosure(TransitiveClosure.UNBOUNDED_DEPTH, 0, null), printClosure(TransitiveClosure.UNBOUNDED_DEPTH, 0, index));
+        assertEquals("bounded", printClosure(2, 3, null), printClosure(2, 3, index));
+    }
+
+    private String printClosure(long maximumInboundDepth, long maximumOutboundDepth, ReachabilityIndex index) {
+        TransitiveClosure closure = new TransitiveClosure(new RegularExpressionSelectionCriteria("/^p3.C3/"), new RegularExpressionSelectionCriteria());
+        closure.setMaximumInboundDepth(maximumInboundDepth);
+        closure.setMaximumOutboundDepth(maximumOutboundDepth);
+        closure.setReachabilityIndex(index);
+        closure.traverseNodes(factory.getPackages().values());
+
+        StringWriter out = new StringWriter();
+        new TextPrinter(new PrintWriter(out)).traverseNodes(closure.getFactory().getPackages().values());
+        return out.toString();
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+import javax.xml.stream.*;
+
+import junit.framework.*;
+
+public class TestStreamingNodeLoader extends TestCase {
+    public void testReadsWhatXMLPrinterWrites() throws XMLStreamException {
+        for (int seed = 0; seed < 10; seed++) {
+            Random random = new Random(seed);
+            NodeFactory factory = TestBulkLinkMaximizer.createRandomGraph(seed);
+            for (FeatureNode feature : factory.getFeatures().values()) {
+                if (random.nextBoolean()) {
+                    factory.createFeature(feature.getName(), true);
+                }
+            }
+
+            String xml = print(factory);
+            assertEquals("seed " + seed, xml, print(new StreamingNodeLoader().load(new StringReader(xml))));
+        }
+    }
+
+    public void testConfirmsNodeSeenBefore() throws XMLStreamException {
+        StringBuffer xml = new StringBuffer();
+        xml.append("<dependencies>\n");
+        xml.append("    <package confirmed=\"yes\">\n");
+        xml.append("        <name>a</name>\n");
+        xml.append("        <class confirmed=\"yes\">\n");
+        xml.append("            <name>a.A</name>\n");
+        xml.append("            <outbound type=\"class\" confirmed=\"no\">b.B</outbound>\n");
+        xml.append("        </class>\n");
+        xml.append("    </package>\n");
+        xml.append("    <package confirmed=\"yes\">\n");
+        xml.append("        <name>b</name>\n");
+        xml.append("        <class confirmed=\"yes\">\n");
+        xml.append("            <name>b.B</name>\n");
+        xml.append("            <inbound type=\"class\" confirmed=\"yes\">a.A</inbound>\n");
+        xml.append("        </class>\n");
+        xml.append("    </package>\n");
+        xml.append("</dependencies>\n");
+
+        NodeFactory factory = new StreamingNodeLoader().load(new StringReader(xml.toString()));
+
+        assertTrue("b.B is confirmed", factory.getClasses().get("b.B").isConfirmed());
+        assertTrue("b is confirmed", factory.getPackages().get("b").isConfirmed());
+        assertEquals("outbound", 1, factory.getClasses().get("a.A").getOutboundDependencies().size());
+    }
+
+    public void testNodeOutsideItsParent() throws XMLStreamException {
+        StringBuffer xml = new StringBuffer();
+        xml.append("<dependencies>\n");
+        xml.append("    <package>\n");
+        xml.append("        <name>a</name>\n");
+        xml.append("        <class>\n");
+        xml.append("            <name>a.A</name>\n");
+        xml.append("            <feature>\n");
+        xml.append("                <name>a.A.m(java.lang.String)</name>\n");
+        xml.append("            </feature>\n");
+        xml.append("            <feature>\n");
+        xml.append("                <name>a.B.f</name>\n");
+        xml.append("            </feature>\n");
+        xml.append("        </class>\n");
+        xml.append("        <class>\n");
+        xml.append("            <name>b.C</name>\n");
+        xml.append("        </class>\n");
+        xml.append("    </package>\n");
+        xml.append("</dependencies>\n");
+
+        NodeFactory factory = new StreamingNodeLoader().load(new StringReader(xml.toString()));
+
+        assertEquals("a.A.m(java.lang.String)", "a.A", factory.getFeatures().get("a.A.m(java.lang.String)").getClassNode().getName());
+        assertEquals("a.B.f", "a.B", factory.getFeatures().get("a.B.f").getClassNode().getName());
+        assertEquals("b.C", "b", factory.getClasses().get("b.C").getPackageNode().getName());
+        assertEquals("a.A features", 1, factory.getClasses().get("a.A").getFeatures().size());
+    }
+
+    public void testDefaultPackage() throws XMLStreamException {
+        StringBuffer xml = new StringBuffer();
+        xml.append("<dependencies>\n");
+        xml.append("    <package confirmed=\"no\">\n");
+        xml.append("        <name></name>\n");
+        xml.append("        <class confirmed=\"no\">\n");
+        xml.append("            <name>B[]</name>\n");
+        xml.append("            <feature confirmed=\"no\">\n");
+        xml.append("                <name>B[].clone()</name>\n");
+        xml.append("            </feature>\n");
+        xml.append("        </class>\n");
+        xml.append("    </package>\n");
+        xml.append("</dependencies>\n");
+
+        NodeFactory factory = new StreamingNodeLoader().load(new StringReader(xml.toString()));
+
+        assertEquals("B[]", "", factory.getClasses().get("B[]").getPackageNode().getName());
+        assertEquals("B[].clone()", "B[]", factory.getFeatures().get("B[].clone()").getClassNode().getName());
+        assertFalse("B[] is confirmed", factory.getClasses().get("B[]").isConfirmed());
+    }
+
+    public void testFiresEvents() throws XMLStreamException {
+        NodeFactory original = new NodeFactory();
+        original.createFeature("a.A.a()").addDependency(original.createFeature("b.B.b()"));
+
+        final List<String> events = new ArrayList<String>();
+        StreamingNodeLoader loader = new StreamingNodeLoader();
+        loader.addDependencyListener(new DependencyListener() {
+            public void beginSession(DependencyEvent event) {
+                events.add("beginSession");
+            }
+
+            public void beginClass(DependencyEvent event) {
+                events.add("beginClass " + event.getClassName());
+            }
+
+            public void dependency(DependencyEvent event) {
+                events.add(event.getDependent() + " --> " + event.getDependable());
+            }
+
+            public void endClass(DependencyEvent event) {
+                events.add("endClass " + event.getClassName());
+            }
+
+            public void endSession(DependencyEvent event) {
+                events.add("endSession");
+            }
+        });
+        loader.load(new StringReader(print(original)));
+
+        assertEquals(Arrays.asList("beginSession", "beginClass a.A", "a.A.a() --> b.B.b()", "beginClass b.B", "a.A.a() --> b.B.b()", "endSession"), events);
+    }
+
+    public void testMalformedDocument() {
+        try {
+            new StreamingNodeLoader().load(new StringReader("<dependencies><package>"));
+            fail("Loaded a malformed document");
+        } catch (XMLStreamException ex) {
+            // Expected
+        }
+    }
+
+    private static String print(NodeFactory factory) {
+        StringWriter out = new StringWriter();
+        new XMLPrinter(new PrintWriter(out)).traverseNodes(factory.getPackages().values());
+        return out.toString();
+    }
+}
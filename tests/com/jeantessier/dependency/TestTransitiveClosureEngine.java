@@ -606,4 +606,118 @@ public class TestTransitiveClosureEngine extends TestCase {
         assertEquals("class c.C in scope",     c_C,   engine.getFactory().getClasses().get("c.C"));
         assertEquals("feature c.C.c in scope", c_C_c, engine.getFactory().getFeatures().get("c.C.c"));
     }
+
+    public void testLayersAreCopiedOnlyWhenRequested() {
+        startCriteria.setGlobalIncludes("/a.A.a/");
+
+        NodeFactory closureFactory = new NodeFactory();
+        TransitiveClosureEngine engine = new TransitiveClosureEngine(closureFactory, factory.getPackages().values(), startCriteria, stopCriteria, new ClosureOutboundSelector());
+        engine.computeNextLayer();
+        engine.computeNextLayer();
+
+        assertEquals("Nb layers", 3, engine.getNbLayers());
+        assertEquals("features before getLayer()", 0, closureFactory.getFeatures().size());
+
+        Node copy = (Node) engine.getLayer(2).iterator().next();
+        assertEquals("c.C.c in layer 2", c_C_c, copy);
+        assertSame("c.C.c in factory", closureFactory.getFeatures().get("c.C.c"), copy);
+        assertEquals("Nb inbounds to c.C.c", 1, copy.getInboundDependencies().size());
+        assertEquals("features after getLayer(2)", 2, closureFactory.getFeatures().size());
+
+        engine.getFactory();
+        assertEquals("features after getFactory()", 3, closureFactory.getFeatures().size());
+    }
+
+    public void testComputeAllLayersCopiesAllLayers() {
+        startCriteria.setGlobalIncludes("/a.A.a/");
+
+        NodeFactory closureFactory = new NodeFactory();
+        TransitiveClosureEngine engine = new TransitiveClosureEngine(closureFactory, factory.getPackages().values(), startCriteria, stopCriteria, new ClosureOutboundSelector());
+        engine.computeAllLayers();
+
+        assertEquals("features", 3, closureFactory.getFeatures().size());
+        assertEquals("Nb outbounds from a.A.a", 1, closureFactory.getFeatures().get("a.A.a").getOutboundDependencies().size());
+        assertEquals("Nb outbounds from b.B.b", 1, closureFactory.getFeatures().get("b.B.b").getOutboundDependencies().size());
+    }
+
+    public void testSelectorThatOnlyVisits() {
+        startCriteria.setGlobalIncludes("/c.C.c/");
+
+        ClosureLayerSelector layerSelector = new ClosureInboundSelector() {
+            public boolean isFollowingInbound() {
+                return false;
+            }
+        };
+
+        NodeFactory closureFactory = new NodeFactory();
+        TransitiveClosureEngine engine = new TransitiveClosureEngine(closureFactory, factory.getPackages().values(), startCriteria, stopCriteria, layerSelector);
+        engine.computeNextLayer();
+
+        assertEquals("Nb layers", 2, engine.getNbLayers());
+        assertEquals("features without getLayer()", 2, closureFactory.getFeatures().size());
+        assertEquals("Nb inbounds to c.C.c", 1, closureFactory.getFeatures().get("c.C.c").getInboundDependencies().size());
+    }
+
+    public void testSubclassOverridesAreVisited() {
+        startCriteria.setGlobalIncludes("/c.C.c/");
+
+        final List<Node> visited = new ArrayList<Node>();
+        ClosureLayerSelector layerSelector = new ClosureInboundSelector() {
+            public void visitInboundFeatureNode(FeatureNode node) {
+                visited.add(node);
+                super.visitInboundFeatureNode(node);
+            }
+        };
+
+        assertFalse("subclass is following inbound", layerSelector.isFollowingInbound());
+        assertTrue("ClosureInboundSelector is following inbound", new ClosureInboundSelector().isFollowingInbound());
+        assertTrue("ClosureOutboundSelector is following outbound", new ClosureOutboundSelector().isFollowingOutbound());
+
+        NodeFactory closureFactory = new NodeFactory();
+        TransitiveClosureEngine engine = new TransitiveClosureEngine(closureFactory, factory.getPackages().values(), startCriteria, stopCriteria, layerSelector);
+        engine.computeNextLayer();
+
+        assertEquals("Nb layers", 2, engine.getNbLayers());
+        assertEquals("visited", 1, visited.size());
+    }
+
+    public void testParallelLayersAreTheSame() {
+        NodeFactory wideFactory = new NodeFactory();
+        Random random = new Random(0);
+
+        List<Node> nodes = new ArrayList<Node>();
+        for (int i = 0; i < 2000; i++) {
+            nodes.add(wideFactory.createFeature("p" + (i % 10) + ".C" + (i % 100) + ".f" + i));
+        }
+        for (int i = 0; i < 8000; i++) {
+            nodes.get(random.nextInt(nodes.size())).addDependency(nodes.get(random.nextInt(nodes.size())));
+        }
+        for (int i = 1; i < 1000; i++) {
+            nodes.get(0).addDependency(nodes.get(i));
+        }
+
+        startCriteria.setGlobalIncludes("/^p0.C0.f0$/");
+
+        List<String> expected = computeLayers(wideFactory, 1);
+        assertTrue("Nb layers", expected.size() > 2);
+        assertEquals("layers with 4 threads", expected, computeLayers(wideFactory, 4));
+    }
+
+    private List<String> computeLayers(NodeFactory factory, int threads) {
+        NodeFactory closureFactory = new NodeFactory();
+        TransitiveClosureEngine engine = new TransitiveClosureEngine(closureFactory, factory.getPackages().values(), startCriteria, stopCriteria, new ClosureOutboundSelector());
+        engine.setThreads(threads);
+        engine.computeAllLayers();
+
+        List<String> result = new ArrayList<String>();
+        for (int i = 0; i < engine.getNbLayers(); i++) {
+            StringBuffer layer = new StringBuffer();
+            for (Object node : engine.getLayer(i)) {
+                layer.append(node).append(" --> ").append(new TreeSet<Node>(((Node) node).getOutboundDependencies())).append("\n");
+            }
+            result.add(layer.toString());
+        }
+
+        return result;
+    }
 }
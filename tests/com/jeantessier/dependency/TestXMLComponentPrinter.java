@@ -0,0 +1,113 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.jeantessier.dependency;
+
+import java.io.*;
+import java.util.*;
+
+import javax.xml.parsers.*;
+
+import junit.framework.*;
+import org.xml.sax.*;
+
+public class TestXMLComponentPrinter extends TestCase implements ErrorHandler {
+    private static final String SPECIFIC_DTD_PREFIX = "./etc";
+
+    private XMLReader    reader;
+    private NodeFactory  factory;
+    private StringWriter out;
+
+    protected void setUp() throws Exception {
+	boolean validate = Boolean.getBoolean("DEPENDENCYFINDER_TESTS_VALIDATE");
+
+        reader = SAXParserFactory.newInstance().newSAXParser().getXMLReader();
+        reader.setFeature("http://xml.org/sax/features/validation", validate);
+        reader.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", validate);
+        reader.setErrorHandler(this);
+
+        factory = new NodeFactory();
+        out     = new StringWriter();
+
+        Node a_package = factory.createPackage("a");
+        Node b_package = factory.createPackage("b");
+        Node c_class = factory.createClass("c.C");
+
+        a_package.addDependency(b_package);
+        b_package.addDependency(a_package);
+        b_package.addDependency(c_class);
+    }
+
+    public void testVisitComponents() throws Exception {
+        ComponentDetector detector = new ComponentDetector();
+        detector.traverseNodes(factory.getPackages().values());
+
+        XMLComponentPrinter printer = new XMLComponentPrinter(new PrintWriter(out), XMLPrinter.DEFAULT_ENCODING, SPECIFIC_DTD_PREFIX);
+        printer.visitComponents(detector.getComponents());
+        int            lineNumber = 0;
+        BufferedReader in         = new BufferedReader(new StringReader(out.toString()));
+
+        assertEquals("line " + ++lineNumber, "<?xml version=\"1.0\" encoding=\"utf-8\" ?>", in.readLine());
+        assertEquals("line " + ++lineNumber, "", in.readLine());
+        assertEquals("line " + ++lineNumber, "<!DOCTYPE components SYSTEM \"./etc/components.dtd\">", in.readLine());
+        assertEquals("line " + ++lineNumber, "", in.readLine());
+        assertEquals("line " + ++lineNumber, "<components>", in.readLine());
+        assertEquals("line " + ++lineNumber, "    <component id=\"0\" size=\"2\">", in.readLine());
+        assertEquals("line " + ++lineNumber, "        <node type=\"package\">a</node>", in.readLine());
+        assertEquals("line " + ++lineNumber, "        <node type=\"package\">b</node>", in.readLine());
+        assertEquals("line " + ++lineNumber, "        <dependency>2</dependency>", in.readLine());
+        assertEquals("line " + ++lineNumber, "    </component>", in.readLine());
+        assertEquals("line " + ++lineNumber, "    <component id=\"1\" size=\"1\">", in.readLine());
+        assertEquals("line " + ++lineNumber, "        <node type=\"package\">c</node>", in.readLine());
+        assertEquals("line " + ++lineNumber, "    </component>", in.readLine());
+        assertEquals("line " + ++lineNumber, "    <component id=\"2\" size=\"1\">", in.readLine());
+        assertEquals("line " + ++lineNumber, "        <node type=\"class\">c.C</node>", in.readLine());
+        assertEquals("line " + ++lineNumber, "    </component>", in.readLine());
+        assertEquals("line " + ++lineNumber, "</components>", in.readLine());
+
+        assertEquals("End of file", null, in.readLine());
+
+        reader.parse(new InputSource(new StringReader(out.toString())));
+    }
+
+    public void error(SAXParseException ex) {
+        // Ignore
+    }
+
+    public void fatalError(SAXParseException ex) {
+        // Ignore
+    }
+
+    public void warning(SAXParseException ex) {
+        // Ignore
+    }
+}
@@ -33,6 +33,7 @@
 package com.jeantessier.dependencyfinder.cli;
 
 import java.io.*;
+import java.util.zip.*;
 
 import junit.framework.*;
 
@@ -91,4 +92,40 @@ public class TestCommand extends TestCase {
         sut.run(args);
         assertTrue("Output file " + outFile + " does not exist after test", outFile.exists());
     }
+
+    public void testCompressedOut() throws Exception {
+        File compressedFile = new File(outFile.getPath() + ".gz");
+        args[1] = compressedFile.getAbsolutePath();
+
+        Command sut = new Command() {
+            protected void doProcessing() throws Exception {
+                getOut().print("compressed");
+            }
+
+            protected void showSpecificUsage(PrintStream out) {
+                // Do Nothing
+            }
+        };
+
+        try {
+            sut.run(args);
+
+            BufferedReader in = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(compressedFile))));
+            try {
+                assertEquals("content", "compressed", in.readLine());
+            } finally {
+                in.close();
+            }
+        } finally {
+            compressedFile.delete();
+        }
+    }
+
+    public void testMappedOutputCannotBeCompressed() throws Exception {
+        PrintStream err = new PrintStream(new ByteArrayOutputStream());
+
+        assertTrue("uncompressed", new DependencyExtractor().validateCommandLine(new String[] {"-mapped", "-out", outFile.getAbsolutePath()}, err));
+        assertFalse("compressed", new DependencyExtractor().validateCommandLine(new String[] {"-mapped", "-out", outFile.getAbsolutePath() + ".gz"}, err));
+        assertTrue("compressed XML", new DependencyExtractor().validateCommandLine(new String[] {"-xml", "-out", outFile.getAbsolutePath() + ".gz"}, err));
+    }
 }
@@ -89,6 +89,22 @@ public class TestListDiffPrinter extends TestCase implements ErrorHandler {
         }
     }
 
+    public void testPrintMatchesToString() {
+        ListDiffPrinter expected = new ListDiffPrinter(true);
+        ListDiffPrinter printer = new ListDiffPrinter(true);
+        for (int i=0; i<1000; i++) {
+            expected.remove("a.A" + i + " [C]");
+            printer.remove("a.A" + i + " [C]");
+            expected.add("b.B" + i + ".b() [F]");
+            printer.add("b.B" + i + ".b() [F]");
+        }
+
+        StringWriter out = new StringWriter();
+        printer.print(new PrintWriter(out));
+
+        assertEquals("document", expected.toString(), out.toString());
+    }
+
     public void testDefaultEncoding() {
         ListDiffPrinter printer = new ListDiffPrinter();
 
@@ -169,6 +169,32 @@ public class TestReport extends TestCase implements ErrorHandler {
         assertEquals("*/modified-classes/class", 3, ((NodeList) xPath.evaluate("*/modified-classes/class", doc, XPathConstants.NODESET)).getLength());
     }
 
+    public void testRenderToWriter() throws Exception {
+        PackageMapper oldPackages = new PackageMapper();
+        ClassfileLoader oldJar = new AggregatingClassfileLoader();
+        oldJar.addLoadListener(oldPackages);
+        oldJar.load(Collections.singleton(OLD_CLASSPATH));
+
+        PackageMapper newPackages = new PackageMapper();
+        ClassfileLoader newJar = new AggregatingClassfileLoader();
+        newJar.addLoadListener(newPackages);
+        newJar.load(Collections.singleton(NEW_CLASSPATH));
+
+        DifferencesFactory factory = new DifferencesFactory();
+        ProjectDifferences projectDifferences = (ProjectDifferences) factory.createProjectDifferences("test", "old", oldPackages, "new", newPackages);
+
+        Report expected = new Report(Report.DEFAULT_ENCODING, SPECIFIC_DTD_PREFIX);
+        projectDifferences.accept(expected);
+
+        Report report = new Report(Report.DEFAULT_ENCODING, SPECIFIC_DTD_PREFIX);
+        projectDifferences.accept(report);
+
+        StringWriter out = new StringWriter();
+        report.render(new PrintWriter(out));
+
+        assertEquals("document", expected.render(), out.toString());
+    }
+
     public void testIncompatibleContent() throws Exception {
         PackageMapper oldPackages = new PackageMapper();
         ClassfileLoader oldJar = new AggregatingClassfileLoader();
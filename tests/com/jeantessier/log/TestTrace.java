@@ -0,0 +1,83 @@
+/*
+ *  Copyright (c) 2001-2009, Jean Tessier
+ *  All rights reserved.
+ *  
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions
+ *  are met:
+ *  
+ *      * Redistributions of source code must retain the above copyright
+ *        notice, this list of conditions and the following disclaimer.
+ *  
+ *      * Redistributions in binary form must reproduce the above copyright
+ *        notice, this list of conditions and the following disclaimer in the
+ *        documentation and/or other materials provided with the distribution.
+ *  
+ *      * Neither the name of Jean Tessier nor the names of his contributors
+ *        may be used to endorse or promote products derived from this software
+ *        without specific prior written permission.
+ *  
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ *  "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ *  LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ *  A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+ *  CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ *  EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ *  PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ *  PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *  LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *  NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ *  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.jeantessier.log;
+
+import junit.framework.*;
+
+import org.apache.log4j.*;
+
+public class TestTrace extends TestCase {
+    private Logger logger;
+    private Level oldLevel;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        logger = Logger.getLogger(TestTrace.class);
+        oldLevel = logger.getLevel();
+    }
+
+    protected void tearDown() throws Exception {
+        logger.setLevel(oldLevel);
+        Trace.refresh();
+
+        super.tearDown();
+    }
+
+    public void testSameTraceForSameClass() {
+        assertSame(Trace.getTrace(TestTrace.class), Trace.getTrace(TestTrace.class));
+    }
+
+    public void testForClass() {
+        Trace trace = Trace.getTrace(TestTrace.class);
+
+        assertSame("same class", trace, trace.forClass(TestTrace.class));
+        assertSame("subclass", Trace.getTrace(String.class), trace.forClass(String.class));
+        assertEquals("subclass category", String.class.getName(), trace.forClass(String.class).getLogger().getName());
+    }
+
+    public void testLevelsAreKeptUntilRefresh() {
+        logger.setLevel(Level.ERROR);
+        Trace.refresh();
+
+        Trace trace = Trace.getTrace(TestTrace.class);
+        assertFalse("debug before", trace.isDebugEnabled());
+        assertFalse("info before", trace.isInfoEnabled());
+
+        logger.setLevel(Level.DEBUG);
+        assertFalse("debug before refresh", trace.isDebugEnabled());
+
+        Trace.refresh();
+        assertTrue("debug after refresh", trace.isDebugEnabled());
+        assertTrue("info after refresh", trace.isInfoEnabled());
+    }
+}
@@ -32,6 +32,8 @@
 
 package com.jeantessier.text;
 
+import java.io.*;
+
 import junit.framework.*;
 
 public class TestPrinterBuffer extends TestCase {
@@ -71,4 +73,29 @@ public class TestPrinterBuffer extends TestCase {
         buffer.indent();
         assertEquals("Indent text", expectedText + expectedText, buffer.toString());
     }
+
+    public void testSetOutWritesInChunks() {
+        StringWriter out = new StringWriter();
+        buffer.append("header").eol();
+        buffer.setOut(new PrintWriter(out));
+        assertEquals("before the first chunk", "", out.toString());
+
+        StringBuffer expected = new StringBuffer("header").append(System.getProperty("line.separator", "\n"));
+        for (int i=0; i<10000; i++) {
+            buffer.append(i);
+            expected.append(i);
+        }
+        assertTrue("nothing written", out.toString().length() > 0);
+        assertTrue("too much held back: " + buffer.length(), buffer.length() < 16 * 1024);
+
+        buffer.flush();
+        assertEquals("text", expected.toString(), out.toString());
+        assertEquals("held back", 0, buffer.length());
+    }
+
+    public void testFlushWithoutOut() {
+        buffer.append("text");
+        buffer.flush();
+        assertEquals("text", "text", buffer.toString());
+    }
 }
@@ -166,6 +166,7 @@
 
 <th><fieldset class="navigation"><a href="advancedquery.jsp">Dependency graph</a></fieldset></th>
 <th><fieldset class="currentnavigation">Transitive closure</fieldset></th>
+<th><fieldset class="navigation"><a href="paths.jsp">Dependency paths</a></fieldset></th>
 <th><fieldset class="navigation"><a href="advancedcycles.jsp">Dependency cycles</a></fieldset></th>
 <th><fieldset class="navigation"><a href="advancedmetrics.jsp">Dependency metrics</a></fieldset></th>
 
@@ -411,6 +412,7 @@ follow
                 closure.setMaximumOutboundDepth(TransitiveClosure.UNBOUNDED_DEPTH);
             }
 
+            closure.setReachabilityIndex((ReachabilityIndex) application.getAttribute("reachability"));
             closure.traverseNodes(((NodeFactory) application.getAttribute("factory")).getPackages().values());
 
             RegularExpressionSelectionCriteria scopeCriteria  = new RegularExpressionSelectionCriteria();
@@ -126,6 +126,7 @@
 
 <th><fieldset class="navigation"><a href="advancedquery.jsp">Dependency graph</a></fieldset></th>
 <th><fieldset class="navigation"><a href="advancedclosure.jsp">Transitive closure</a></fieldset></th>
+<th><fieldset class="navigation"><a href="paths.jsp">Dependency paths</a></fieldset></th>
 <th><fieldset class="currentnavigation">Dependency cycles</fieldset></th>
 <th><fieldset class="navigation"><a href="advancedmetrics.jsp">Dependency metrics</a></fieldset></th>
 
@@ -261,7 +262,7 @@
             scopeCriteria.setClassExcludes(classScopeExcludes);
             scopeCriteria.setFeatureExcludes(featureScopeExcludes);
 
-            CycleDetector detector = new CycleDetector(scopeCriteria);
+            CycleEngine detector = new CycleEngine(scopeCriteria);
             try {
                 detector.setMaximumCycleLength(Integer.parseInt(maximumCycleLength));
             } catch (NumberFormatException ex) {
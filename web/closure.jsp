@@ -106,6 +106,7 @@
 
 <th><fieldset class="navigation"><a href="query.jsp">Dependency graph</a></fieldset></th>
 <th><fieldset class="currentnavigation">Transitive closure</fieldset></th>
+<th><fieldset class="navigation"><a href="paths.jsp">Dependency paths</a></fieldset></th>
 <th><fieldset class="navigation"><a href="cycles.jsp">Dependency cycles</a></fieldset></th>
 <th><fieldset class="navigation"><a href="metrics.jsp">Dependency metrics</a></fieldset></th>
 
@@ -265,6 +266,7 @@ follow
                 closure.setMaximumOutboundDepth(TransitiveClosure.UNBOUNDED_DEPTH);
             }
 
+            closure.setReachabilityIndex((ReachabilityIndex) application.getAttribute("reachability"));
             closure.traverseNodes(((NodeFactory) application.getAttribute("factory")).getPackages().values());
 
             RegularExpressionSelectionCriteria scopeCriteria  = new RegularExpressionSelectionCriteria();
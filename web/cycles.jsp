@@ -96,6 +96,7 @@
 
 <th><fieldset class="navigation"><a href="query.jsp">Dependency graph</a></fieldset></th>
 <th><fieldset class="navigation"><a href="closure.jsp">Transitive closure</a></fieldset></th>
+<th><fieldset class="navigation"><a href="paths.jsp">Dependency paths</a></fieldset></th>
 <th><fieldset class="currentnavigation">Dependency cycles</fieldset></th>
 <th><fieldset class="navigation"><a href="metrics.jsp">Dependency metrics</a></fieldset></th>
 
@@ -182,7 +183,7 @@
             scopeCriteria.setGlobalIncludes(scopeIncludes);
             scopeCriteria.setGlobalExcludes(scopeExcludes);
         
-            CycleDetector detector = new CycleDetector(scopeCriteria);
+            CycleEngine detector = new CycleEngine(scopeCriteria);
             try {
                 detector.setMaximumCycleLength(Integer.parseInt(maximumCycleLength));
             } catch (NumberFormatException ex) {
@@ -148,6 +148,7 @@
 
             <th><fieldset class="navigation"><a href="query.jsp">Dependency graph</a></fieldset></th>
             <th><fieldset class="navigation"><a href="closure.jsp">Transitive closure</a></fieldset></th>
+            <th><fieldset class="navigation"><a href="paths.jsp">Dependency paths</a></fieldset></th>
             <th><fieldset class="navigation"><a href="cycles.jsp">Dependency cycles</a></fieldset></th>
             <th><fieldset class="navigation"><a href="metrics.jsp">Dependency metrics</a></fieldset></th>
 
@@ -299,6 +300,7 @@
         }
 
         Monitor monitor = (Monitor) application.getAttribute("monitor");
+        ReachabilityIndex index = (ReachabilityIndex) application.getAttribute("reachability");
         if (monitor == null || request.getParameter("update") == null) {
             RegularExpressionSelectionCriteria filterCriteria = new RegularExpressionSelectionCriteria();
             filterCriteria.setGlobalIncludes(application.getInitParameter("filterIncludes"));
@@ -308,19 +310,23 @@
             DeletingVisitor deletingVisitor = new DeletingVisitor(factory);
 
             monitor = new Monitor(collector, deletingVisitor);
+
+            index = new ReachabilityIndex(factory);
+            monitor.addRemoveVisitor(index);
         }
 
-        ClassfileLoader loader = new TransientClassfileLoader(dispatcher);
+        ClassfileLoader loader = new TransientClassfileLoader(dispatcher, ParsingProfile.DEPENDENCY_SCAN);
         loader.addLoadListener(listener);
         loader.addLoadListener(monitor);
+        loader.addLoadListener(index);
         loader.load(sources);
 
         if ("maximize".equalsIgnoreCase(application.getInitParameter("mode"))) {
             out.println("Maximizing ...");
-            new LinkMaximizer().traverseNodes(factory.getPackages().values());
+            new BulkLinkMaximizer().traverseNodes(factory.getPackages().values());
         } else if ("minimize".equalsIgnoreCase(application.getInitParameter("mode"))) {
             out.println("Minimizing ...");
-            new LinkMinimizer().traverseNodes(factory.getPackages().values());
+            new BulkLinkMinimizer().traverseNodes(factory.getPackages().values());
         }
 
         Date   stop     = new Date();
@@ -328,9 +334,10 @@
 
         SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
 
-        application.setAttribute("dispatcher", dispatcher);
-        application.setAttribute("factory",    factory);
-        application.setAttribute("monitor",    monitor);
+        application.setAttribute("dispatcher",   dispatcher);
+        application.setAttribute("factory",      factory);
+        application.setAttribute("monitor",      monitor);
+        application.setAttribute("reachability", index);
 
         if (request.getParameter("update") == null) {
             application.setAttribute("extractStart",    formatter.format(start));
@@ -110,6 +110,7 @@
 
             <th><fieldset class="navigation"><a href="query.jsp">Dependency graph</a></fieldset></th>
             <th><fieldset class="navigation"><a href="closure.jsp">Transitive closure</a></fieldset></th>
+            <th><fieldset class="navigation"><a href="paths.jsp">Dependency paths</a></fieldset></th>
             <th><fieldset class="navigation"><a href="cycles.jsp">Dependency cycles</a></fieldset></th>
             <th><fieldset class="navigation"><a href="metrics.jsp">Dependency metrics</a></fieldset></th>
 
@@ -214,28 +215,49 @@
 
 <%
         Date start = new Date();
-        VerboseListener listener = new VerboseListener(out);
+        NodeFactory factory;
+        ReachabilityIndex reachability;
+
+        String mappedFilename = null;
+        if (files.size() == 1) {
+            String filename = files.iterator().next();
+            if (new File(filename).isFile() && MappedGraph.isMappedGraph(filename)) {
+                mappedFilename = filename;
+            }
+        }
 
-        NodeFactory factory = new NodeFactory();
-        NodeLoader loader = new NodeLoader(factory);
-        loader.addDependencyListener(listener);
+        if (mappedFilename != null) {
+            // Mapped graphs are read-only and prepared ahead of time.
+            // Indexing one would copy all of it into memory.
+            out.println("Mapping " + mappedFilename + " ...");
+            factory = MappedGraph.open(mappedFilename).getFactory();
+            reachability = null;
+        } else {
+            VerboseListener listener = new VerboseListener(out);
 
-        for (String filename : files) {
-            try {
-                loader.load(filename);
-            } catch (SAXException ex) {
-                out.println("<i class=\"error\">Could not load graph from file \"" + filename + "\": " + ex.getMessage() + "</i>");
-            } catch (FileNotFoundException ex) {
-                out.println("<i class=\"error\">Could not load graph from file \"" + filename + "\": " + ex.getMessage() + "</i>");
+            factory = new NodeFactory();
+            NodeLoader loader = new NodeLoader(factory);
+            loader.addDependencyListener(listener);
+
+            for (String filename : files) {
+                try {
+                    loader.load(filename);
+                } catch (SAXException ex) {
+                    out.println("<i class=\"error\">Could not load graph from file \"" + filename + "\": " + ex.getMessage() + "</i>");
+                } catch (FileNotFoundException ex) {
+                    out.println("<i class=\"error\">Could not load graph from file \"" + filename + "\": " + ex.getMessage() + "</i>");
+                }
+            }
+
+            if ("maximize".equalsIgnoreCase(application.getInitParameter("mode"))) {
+                out.println("Maximizing ...");
+                new BulkLinkMaximizer().traverseNodes(factory.getPackages().values());
+            } else if ("minimize".equalsIgnoreCase(application.getInitParameter("mode"))) {
+                out.println("Minimizing ...");
+                new BulkLinkMinimizer().traverseNodes(factory.getPackages().values());
             }
-        }
 
-        if ("maximize".equalsIgnoreCase(application.getInitParameter("mode"))) {
-            out.println("Maximizing ...");
-            new LinkMaximizer().traverseNodes(factory.getPackages().values());
-        } else if ("minimize".equalsIgnoreCase(application.getInitParameter("mode"))) {
-            out.println("Minimizing ...");
-            new LinkMinimizer().traverseNodes(factory.getPackages().values());
+            reachability = new ReachabilityIndex(factory);
         }
 
         Date   stop     = new Date();
@@ -244,6 +266,7 @@
         SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
 
         application.setAttribute("factory",      factory);
+        application.setAttribute("reachability", reachability);
         application.setAttribute("loadStart",    formatter.format(start));
         application.setAttribute("loadDuration", duration);
 
@@ -0,0 +1,248 @@
+<%@ page import="java.io.*, java.text.*, java.util.*, com.jeantessier.dependency.*" %>
+<%@ page errorPage="errorpage.jsp" %>
+
+<!--
+    Copyright (c) 2001-2007, Jean Tessier
+    All rights reserved.
+    
+    Redistribution and use in source and binary forms, with or without
+    modification, are permitted provided that the following conditions
+    are met:
+    
+        * Redistributions of source code must retain the above copyright
+          notice, this list of conditions and the following disclaimer.
+    
+        * Redistributions in binary form must reproduce the above copyright
+          notice, this list of conditions and the following disclaimer in the
+          documentation and/or other materials provided with the distribution.
+    
+        * Neither the name of Jean Tessier nor the names of his contributors
+          may be used to endorse or promote products derived from this software
+          without specific prior written permission.
+    
+    THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+    "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+    LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+    A PARTICULAR PURPOSE ARE DISCLAIMED.  IN NO EVENT SHALL THE REGENTS OR
+    CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+    EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+    PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+    PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+    LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+    NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+    SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+-->
+
+<jsp:useBean id="version" class="com.jeantessier.dependencyfinder.Version" scope="application"/>
+
+<html>
+
+<head>
+<link rel="stylesheet" type="text/css" href="style.css" />
+<link rel="shortcut icon" href="images/logoicon.gif" type="image/gif" />
+<title>Paths in <%= application.getInitParameter("name") %></title>
+</head>
+
+<!-- Reading the parameters and setting up the forms -->
+
+<%
+    String startIncludes = request.getParameter("start-includes");
+    if (startIncludes == null) {
+        startIncludes = "";
+    }
+
+    String startExcludes = request.getParameter("start-excludes");
+    if (startExcludes == null) {
+        startExcludes = "";
+    }
+
+    String stopIncludes = request.getParameter("stop-includes");
+    if (stopIncludes == null) {
+        stopIncludes = "";
+    }
+
+    String stopExcludes = request.getParameter("stop-excludes");
+    if (stopExcludes == null) {
+        stopExcludes = "";
+    }
+
+    String maximumNumberOfPaths = request.getParameter("maximum-number-of-paths");
+    if (maximumNumberOfPaths == null) {
+        maximumNumberOfPaths = String.valueOf(PathFinder.DEFAULT_MAXIMUM_NUMBER_OF_PATHS);
+    }
+
+    String maximumPathLength = request.getParameter("maximum-path-length");
+    if (maximumPathLength == null) {
+        maximumPathLength = "";
+    }
+%>
+
+<body>
+
+<form action="<%= request.getRequestURI() %>" method="get">
+
+<table border="0" cellpadding="5"><tr><td colspan="2">
+
+<div class="title">
+<span id="name"><%= application.getInitParameter("name") %></span>
+<% if (application.getAttribute("label") != null ) { %>
+<span id="label"><%= application.getAttribute("label") %></span>
+<% } %>
+</div>
+
+</td></tr><tr><td colspan="2" align="center">
+
+<table border="0" class="controls" width="100%"><tr>
+
+<th><fieldset class="navigation"><a href="query.jsp">Dependency graph</a></fieldset></th>
+<th><fieldset class="navigation"><a href="closure.jsp">Transitive closure</a></fieldset></th>
+<th><fieldset class="currentnavigation">Dependency paths</fieldset></th>
+<th><fieldset class="navigation"><a href="cycles.jsp">Dependency cycles</a></fieldset></th>
+<th><fieldset class="navigation"><a href="metrics.jsp">Dependency metrics</a></fieldset></th>
+
+</tr></table>
+
+</td></tr><tr><td colspan="2" align="center">
+
+<table border="0" class="controls">
+    <tr>
+        <td width="50%">
+
+<fieldset>
+    <legend>Start with programming elements</legend>
+    <table>
+        <tr>
+            <td>
+                including:
+            </td>
+            <td>
+                excluding:
+            </td>
+        </tr>
+        <tr>
+            <td>
+                <input type="text" name="start-includes" value="<%= startIncludes %>" title="Package, class, method, or field must match any these expressions. E.g., /^com.mycompany/, /\\.get\\w+\\(/">
+            </td>
+            <td>
+                <input type="text" name="start-excludes" value="<%= startExcludes %>" title="Package, class, method, or field must NOT match any of these expressions. E.g., /Test/">
+            </td>
+        </tr>
+    </table>
+</fieldset>
+
+        </td>
+        <td>
+
+<fieldset>
+    <legend>Stop with programming elements</legend>
+    <table>
+        <tr>
+            <td>
+                including:
+            </td>
+            <td>
+                excluding:
+            </td>
+        </tr>
+        <tr>
+            <td>
+                <input type="text" name="stop-includes" value="<%= stopIncludes %>" title="Package, class, method, or field at the other end of the dependency must match any these expressions. E.g., /^com.mycompany/, /\\.get\\w+\\(/">
+            </td>
+            <td>
+                <input type="text" name="stop-excludes" value="<%= stopExcludes %>" title="Package, class, method, or field at the other end of the dependency must NOT match any of these expressions. E.g., /Test/">
+            </td>
+        </tr>
+    </table>
+</fieldset>
+
+        </td>
+    </tr>
+    <tr>
+        <td colspan="2" align="center">
+
+<fieldset>
+<label title="How many paths to show, shortest first." for="maximumNumberOfPaths">show <input type="text" name="maximum-number-of-paths" value="<%= maximumNumberOfPaths %>" size="2" id="maximumNumberOfPaths"> paths</label>
+<label title="Maximum hops on a path.  Empty field means no limit." for="maximumPathLength">of at most <input type="text" name="maximum-path-length" value="<%= maximumPathLength %>" size="2" id="maximumPathLength"> <tt>--&gt;</tt></label>
+</fieldset>
+
+        </td>
+    </tr>
+</table>
+
+</td></tr><tr>
+
+<td align="left" colspan="2"><font size="-1">Use Perl regular expressions, <a target="_blank" href="<jsp:getProperty name="version" property="ImplementationURL"/>Manual.html#PerlRegularExpressions">see the manual</a>.</font></td>
+
+</tr><tr><td align="center" colspan="2">
+
+<input type="submit" name="submit" value="Run Query"/>
+
+</td></tr></table>
+
+</form>
+
+<hr size="3" />
+
+<%
+    if (request.getParameter("submit") != null) {
+        if (application.getAttribute("factory") != null) {
+%>
+
+<pre class="result">
+
+<%
+            Date start = new Date();
+
+            RegularExpressionSelectionCriteria startCriteria  = new RegularExpressionSelectionCriteria();
+            startCriteria.setGlobalIncludes(startIncludes);
+            startCriteria.setGlobalExcludes(startExcludes);
+        
+            RegularExpressionSelectionCriteria stopCriteria = new RegularExpressionSelectionCriteria();
+            stopCriteria.setGlobalIncludes(stopIncludes);
+            stopCriteria.setGlobalExcludes(stopExcludes);
+
+            PathFinder finder = new PathFinder(startCriteria, stopCriteria);
+
+            try {
+                finder.setMaximumNumberOfPaths(Integer.parseInt(maximumNumberOfPaths));
+            } catch (NumberFormatException ex) {
+                finder.setMaximumNumberOfPaths(PathFinder.DEFAULT_MAXIMUM_NUMBER_OF_PATHS);
+            }
+
+            try {
+                finder.setMaximumPathLength(Integer.parseInt(maximumPathLength));
+            } catch (NumberFormatException ex) {
+                finder.setMaximumPathLength(PathFinder.UNBOUNDED_PATH_LENGTH);
+            }
+
+            finder.traverseNodes(((NodeFactory) application.getAttribute("factory")).getPackages().values());
+
+            StringWriter buffer = new StringWriter();
+            new TextPathPrinter(new PrintWriter(buffer)).visitPaths(finder.getPaths());
+            out.print(buffer.toString().replaceAll("&", "&amp;").replaceAll("<", "&lt;").replaceAll(">", "&gt;"));
+
+            Date stop = new Date();
+%>
+
+</pre>
+
+<p><%= finder.getPaths().size() %> paths in <%= (stop.getTime() - start.getTime()) / (double) 1000 %> secs.</p>
+
+<%
+        } else {
+%>
+
+<h3>No dependency graph available</h3>
+
+<p>Please ask the webmaster to extract a dependency graph before you start placing queries.</p>
+
+<%
+        }
+    }
+%>
+
+<jsp:include page="footer.jsp"/>
+
+</body>
+
+</html>